@@ -1,10 +1,15 @@
 package jsoftfloat;
 
 import java.util.EnumSet;
+import java.util.SplittableRandom;
 
 public class Environment {
     public EnumSet<Flags> flags = EnumSet.noneOf(Flags.class);
     public RoundingMode mode;
+    // How many significand bits Float80 arithmetic rounds to
+    public PrecisionControl precision = PrecisionControl.bits64;
+    // Where stochastic rounding takes its random bits from, only created once it is needed
+    private SplittableRandom random;
 
     public Environment(RoundingMode mode) {
         this.mode = mode;
@@ -13,4 +18,51 @@ public class Environment {
     public Environment() {
         this(RoundingMode.even);
     }
+
+    /**
+     * Creates an environment whose stochastic rounding is reproducible from seed
+     */
+    public Environment(RoundingMode mode, long seed) {
+        this(mode);
+        random = new SplittableRandom(seed);
+    }
+
+    private Environment(RoundingMode mode, PrecisionControl precision, SplittableRandom random) {
+        this(mode);
+        this.precision = precision;
+        this.random = random;
+    }
+
+    /**
+     * Creates an environment for another thread with the same rounding mode and precision control, no flags and random
+     * bits which are independent of this one's.
+     * <p>
+     * Environments are not thread safe, so parallel work should split one off for each part. The results only depend
+     * on the seed and on how the work was split, not on which threads ran it.
+     */
+    public Environment split() {
+        return new Environment(mode, precision, generator().split());
+    }
+
+    /**
+     * Creates an environment which rounds in another mode, has its own flags and shares the random bits of this one
+     */
+    public Environment withMode(RoundingMode mode) {
+        return new Environment(mode, precision, generator());
+    }
+
+    /**
+     * @return 64 random bits for stochastic rounding
+     */
+    public long nextRandom() {
+        return generator().nextLong();
+    }
+
+    // Without a seed the sequence is still deterministic
+    private SplittableRandom generator() {
+        if (random == null) {
+            random = new SplittableRandom(0);
+        }
+        return random;
+    }
 }
@@ -0,0 +1,29 @@
+package jsoftfloat;
+
+/**
+ * The precision control of the x87 FPU, which rounds the results of extended precision arithmetic to fewer significand
+ * bits while keeping the extended exponent range
+ * <p>
+ * Only the Float80 arithmetic operations (add, subtraction, multiplication, division and square root) follow it, like
+ * the hardware. Other formats and conversions ignore it.
+ */
+public enum PrecisionControl {
+    /**
+     * Round to 24 bits, the precision of a Binary32
+     */
+    bits24(24),
+    /**
+     * Round to 53 bits, the precision of a Binary64
+     */
+    bits53(53),
+    /**
+     * Round to the full 64 bits of the extended format
+     */
+    bits64(64);
+
+    public final int bits;
+
+    PrecisionControl(int bits) {
+        this.bits = bits;
+    }
+}
@@ -23,5 +23,20 @@ public enum RoundingMode {
     /**
      * Round towards zero
      */
-    zero
+    zero,
+    /**
+     * Round to odd; an inexact result is whichever neighbour has an odd significand
+     * <p>
+     * This is not an IEEE 754 rounding direction, but it is what intermediate results need to be rounded with so that
+     * rounding them again to a format with at least two fewer bits gives the correctly rounded result.
+     */
+    odd,
+    /**
+     * Round stochastically; an inexact result is rounded away from zero with a probability of the discarded fraction
+     * of a unit in the last place, and towards zero otherwise
+     * <p>
+     * This is not an IEEE 754 rounding direction. The random bits come from the environment, see
+     * {@link Environment#split()}, and overflow always goes to infinity.
+     */
+    stochastic
 }
@@ -0,0 +1,143 @@
+package jsoftfloat.internal;
+
+import jsoftfloat.Environment;
+import jsoftfloat.RoundingMode;
+
+import java.math.BigInteger;
+
+/**
+ * Packs and unpacks the binary interchange formats of up to 64 bits (Section 3.4).
+ * <p>
+ * A format is given by its number of exponent bits and explicitly stored significand bits; values are the raw bits in
+ * the low (1 + expbits + sigbits) bits of a long. Types for a fixed format call the static methods with compile time
+ * constants so that everything derived from them folds away once the methods are inlined. An instance describes a
+ * format chosen at runtime and forwards to the same methods.
+ */
+public final class BinaryFormat {
+    public static final BinaryFormat BINARY16 = new BinaryFormat(5, 10),
+            BFLOAT16 = new BinaryFormat(8, 7),
+            BINARY32 = new BinaryFormat(8, 23),
+            BINARY64 = new BinaryFormat(11, 52);
+
+    public final int expbits, sigbits;
+
+    public BinaryFormat(int expbits, int sigbits) {
+        if (expbits < 2 || expbits > 30 || sigbits < 1 || 1 + expbits + sigbits > 64) {
+            throw new IllegalArgumentException("No binary format of up to 64 bits has " + expbits + " exponent and " + sigbits + " significand bits");
+        }
+        this.expbits = expbits;
+        this.sigbits = sigbits;
+    }
+
+    public long fromExactFloat(ExactFloat ef, Environment env) {
+        return fromExactFloat(ef, sigbits, expbits, env);
+    }
+
+    public ExactFloat toExactFloat(long bits) {
+        return toExactFloat(bits, sigbits, expbits);
+    }
+
+    public boolean isNaN(long bits) {
+        return isNaN(bits, sigbits, expbits);
+    }
+
+    public boolean isInfinite(long bits) {
+        return isInfinite(bits, sigbits, expbits);
+    }
+
+    public boolean isSignalling(long bits) {
+        return isSignalling(bits, sigbits, expbits);
+    }
+
+    public boolean isZero(long bits) {
+        return isZero(bits, sigbits, expbits);
+    }
+
+    public boolean isSubnormal(long bits) {
+        return isSubnormal(bits, sigbits, expbits);
+    }
+
+    public boolean isNormal(long bits) {
+        return isNormal(bits, sigbits, expbits);
+    }
+
+    /**
+     * Rounds an exact value to the format, signalling inexact, underflow and overflow as needed
+     *
+     * @return the raw bits of the result
+     */
+    public static long fromExactFloat(ExactFloat ef, int sigbits, int expbits, Environment env) {
+        if (ef.isZero()) {
+            return ef.sign ? 1L << (sigbits + expbits) : 0;
+        }
+        BigInteger significand = ef.significand;
+        int extra = Math.max(0, significand.bitLength() - 63);
+        if (extra > 0 && env.mode == RoundingMode.stochastic) {
+            return BinaryRounding.roundStochastic(ef.sign, significand, ef.exponent, false, sigbits, expbits, env);
+        }
+        // Only the top 63 bits can be kept, anything below them just makes the value inexact
+        boolean sticky = extra > 0 && significand.getLowestSetBit() < extra;
+        // Values this far out of range round the same with a clamped exponent, which keeps the arithmetic in int range
+        long exponent = Math.max(-(1 << 24), Math.min((long) ef.exponent + extra, 1 << 24));
+        return BinaryRounding.round(ef.sign, significand.shiftRight(extra).longValue(), (int) exponent, sticky, sigbits, expbits, env);
+    }
+
+    /**
+     * @param bits the raw bits of a finite, non-zero value
+     */
+    public static ExactFloat toExactFloat(long bits, int sigbits, int expbits) {
+        assert !isInfinite(bits, sigbits, expbits) : "Infinity is not exact";
+        assert !isNaN(bits, sigbits, expbits) : "NaNs are not exact";
+        assert !isZero(bits, sigbits, expbits) : "Zeros should be handled explicitly";
+
+        long signBit = 1L << (sigbits + expbits);
+        int biased = biasedExponent(bits, sigbits, expbits);
+        long significand = bits & ((1L << sigbits) - 1);
+        if (biased != 0) {
+            significand |= 1L << sigbits; // Add back the implied one
+        }
+        int bias = (1 << (expbits - 1)) - 1;
+        return new ExactFloat((bits & signBit) != 0, Math.max(biased, 1) - bias - sigbits, BigInteger.valueOf(significand));
+    }
+
+    /**
+     * Section 5.3.1 - the raw bits one step further from zero for positive values and one step closer for negative
+     * ones, or the same bits for NaNs and positive infinity
+     */
+    public static long nextUp(long bits, int sigbits, int expbits) {
+        long signBit = 1L << (sigbits + expbits), infinity = ((1L << expbits) - 1) << sigbits;
+        if (isNaN(bits, sigbits, expbits) || bits == infinity) return bits;
+        if (bits == signBit) return 1;
+        return (bits & signBit) == 0 ? bits + 1 : bits - 1;
+    }
+
+    public static boolean isNaN(long bits, int sigbits, int expbits) {
+        return biasedExponent(bits, sigbits, expbits) == (1 << expbits) - 1 && (bits & ((1L << sigbits) - 1)) != 0;
+    }
+
+    public static boolean isInfinite(long bits, int sigbits, int expbits) {
+        return biasedExponent(bits, sigbits, expbits) == (1 << expbits) - 1 && (bits & ((1L << sigbits) - 1)) == 0;
+    }
+
+    // Section 6.2.1
+    public static boolean isSignalling(long bits, int sigbits, int expbits) {
+        return isNaN(bits, sigbits, expbits) && (bits & (1L << (sigbits - 1))) == 0;
+    }
+
+    public static boolean isZero(long bits, int sigbits, int expbits) {
+        return (bits & ((1L << (sigbits + expbits)) - 1)) == 0;
+    }
+
+    public static boolean isSubnormal(long bits, int sigbits, int expbits) {
+        return biasedExponent(bits, sigbits, expbits) == 0 && !isZero(bits, sigbits, expbits);
+    }
+
+    public static boolean isNormal(long bits, int sigbits, int expbits) {
+        int biased = biasedExponent(bits, sigbits, expbits);
+        return biased != 0 && biased != (1 << expbits) - 1;
+    }
+
+    private static int biasedExponent(long bits, int sigbits, int expbits) {
+        return (int) (bits >>> sigbits) & ((1 << expbits) - 1);
+    }
+}
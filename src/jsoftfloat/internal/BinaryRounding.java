@@ -0,0 +1,264 @@
+package jsoftfloat.internal;
+
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+
+import java.math.BigInteger;
+
+/**
+ * Rounds a value held in a long into a binary interchange format without going through ExactFloat.
+ * <p>
+ * This is the same rounding that the fromExactFloat methods perform, but for values that fit in 64 bits plus a sticky
+ * bit. Operations which can compute their result into a long (conversions, parsing, etc) use this to avoid allocating
+ * BigIntegers. The format is given by its number of explicit significand bits and exponent bits, and the result is
+ * returned as raw bits in the low (1 + expbits + sigbits) bits of a long.
+ */
+public final class BinaryRounding {
+    private BinaryRounding() {
+    }
+
+    /**
+     * Rounds (-1)^sign * (significand + f) * 2^exponent, where 0 &lt; f &lt; 1 if sticky and f = 0 otherwise.
+     *
+     * @param sign        the sign of the value
+     * @param significand an unsigned significand, must be non-zero if sticky is set
+     * @param exponent    the exponent of the lowest bit of the significand
+     * @param sticky      whether there are non-zero bits below the significand
+     * @param sigbits     the number of explicitly stored significand bits of the format
+     * @param expbits     the number of exponent bits of the format
+     * @param env         the environment to round in and signal flags to
+     * @return the raw bits of the rounded result
+     */
+    public static long round(boolean sign, long significand, int exponent, boolean sticky, int sigbits, int expbits, Environment env) {
+        long signBit = sign ? 1L << (sigbits + expbits) : 0;
+        if (significand == 0) {
+            assert !sticky : "The significand needs to be non-zero if there are bits below it";
+            return signBit;
+        }
+        int bias = (1 << (expbits - 1)) - 1;
+        int top = exponent + 63 - Long.numberOfLeadingZeros(significand);
+        if (top > bias) {
+            return overflow(sign, sigbits, expbits, env);
+        }
+
+        // The exponent of the lowest bit which is kept
+        int lsb = Math.max(top, 1 - bias) - sigbits;
+        int shift = lsb - exponent;
+        long kept;
+        boolean half, rest;
+        if (shift <= 0) {
+            kept = significand << -shift;
+            half = false;
+            rest = sticky;
+        } else if (shift < 64) {
+            kept = significand >>> shift;
+            half = ((significand >>> (shift - 1)) & 1) != 0;
+            rest = sticky || (significand & ((1L << (shift - 1)) - 1)) != 0;
+        } else if (shift == 64) {
+            kept = 0;
+            half = significand < 0;
+            rest = sticky || (significand << 1) != 0;
+        } else {
+            kept = 0;
+            half = false;
+            rest = true;
+        }
+
+        if (half || rest) {
+            env.flags.add(Flags.inexact);
+            // Section 7.5
+            if (top < 1 - bias) {
+                env.flags.add(Flags.underflow);
+            }
+            boolean away = env.mode == RoundingMode.stochastic ? roundAwayStochastic(significand, shift, sticky, env)
+                    : roundAway(sign, (kept & 1) != 0, half, rest, env);
+            if (away) {
+                kept++;
+            }
+        }
+
+        // Adding kept carries the implicit bit (and any rounding overflow) into the exponent field
+        long bits = ((long) (lsb + sigbits + bias - 1) << sigbits) + kept;
+        if (bits >= ((1L << expbits) - 1) << sigbits) {
+            return overflow(sign, sigbits, expbits, env);
+        }
+        return signBit | bits;
+    }
+
+    /**
+     * Rounds an approximation (-1)^sign * hi:lo * 2^exponent of a value which is known not to be representable, if the
+     * approximation is close enough to decide the result.
+     * <p>
+     * This is the rounding test of Ziv's strategy: the real value is within error units of the last place of hi:lo, so
+     * if no rounding boundary (representable number or midpoint) lies within that distance every value in the interval
+     * rounds the same way in every rounding mode.
+     *
+     * @param sign     the sign of the value
+     * @param hi       the high word of the unsigned approximation, hi:lo must not be zero
+     * @param lo       the low word of the unsigned approximation
+     * @param exponent the exponent of the lowest bit of lo
+     * @param error    a bound on the error in units of the lowest bit of lo
+     * @return the raw bits of the rounded result or -1 if the approximation is not accurate enough
+     */
+    public static long roundApproximation(boolean sign, long hi, long lo, int exponent, long error, int sigbits, int expbits, Environment env) {
+        int lz = LongMath.numberOfLeadingZeros(hi, lo);
+        if (lz > 0) {
+            if (Long.numberOfLeadingZeros(error) <= lz + 1) {
+                return -1;
+            }
+            hi = LongMath.shiftLeftHi(hi, lo, lz);
+            lo = LongMath.shiftLeftLo(lo, lz);
+            error <<= lz;
+            exponent -= lz;
+        }
+        int bias = (1 << (expbits - 1)) - 1;
+        int top = exponent + 127;
+        int lsb = Math.max(top, 1 - bias) - sigbits;
+        // Rounding boundaries are multiples of 2^(discarded - 1) units
+        int discarded = lsb - exponent;
+        if (discarded <= 64) {
+            return -1;
+        }
+        long lowLo = lo - error;
+        long lowHi = hi - (Long.compareUnsigned(lo, error) < 0 ? 1 : 0);
+        long highLo = lo + error;
+        long highHi = hi + (Long.compareUnsigned(highLo, lo) < 0 ? 1 : 0);
+        if (highHi == 0 || lowHi == 0) {
+            return -1; // The interval wrapped around or reaches below 2^64 units
+        }
+        int shift = discarded - 1 - 64;
+        if (LongMath.shiftRightHi(lowHi, shift) != LongMath.shiftRightHi(highHi, shift)) {
+            return -1;
+        }
+        // Every bit below hi is below the boundaries, so it can be replaced by a sticky bit
+        return round(sign, hi, exponent + 64, true, sigbits, expbits, env);
+    }
+
+    /**
+     * Decides whether an inexact value should be rounded away from zero
+     *
+     * @param sign whether the value is negative
+     * @param odd  whether the truncated result is odd
+     * @param half whether the first discarded bit is set
+     * @param rest whether any of the other discarded bits are set
+     */
+    public static boolean roundAway(boolean sign, boolean odd, boolean half, boolean rest, Environment env) {
+        return roundAway(sign, odd, half, rest, env.mode);
+    }
+
+    /**
+     * Decides whether an inexact value should be rounded away from zero in the given rounding direction
+     */
+    public static boolean roundAway(boolean sign, boolean odd, boolean half, boolean rest, RoundingMode mode) {
+        switch (mode) {
+            case even:
+                return half && (rest || odd);
+            case away:
+                return half;
+            case max:
+                return !sign;
+            case min:
+                return sign;
+            case odd:
+                return !odd;
+            case stochastic:
+                throw new IllegalArgumentException("Stochastic rounding needs the whole discarded fraction");
+            case zero:
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Decides whether stochastic rounding rounds an inexact value away from zero, which happens with a probability of
+     * the discarded fraction (to 64 bits)
+     *
+     * @param fraction the discarded bits as an unsigned fraction of 2^64, i.e. the first discarded bit at the top
+     * @param sticky   whether there are non-zero bits below fraction
+     */
+    public static boolean roundAwayStochastic(long fraction, boolean sticky, Environment env) {
+        int compare = Long.compareUnsigned(env.nextRandom(), fraction);
+        return compare < 0 || (compare == 0 && sticky);
+    }
+
+    /**
+     * Decides whether stochastic rounding rounds away from zero when the lowest shift bits of significand and anything
+     * marked by sticky below them are discarded
+     */
+    public static boolean roundAwayStochastic(long significand, int shift, boolean sticky, Environment env) {
+        if (shift <= 0) {
+            return roundAwayStochastic(0, sticky, env);
+        } else if (shift <= 64) {
+            return roundAwayStochastic(significand << (64 - shift), sticky, env);
+        } else if (shift < 128) {
+            return roundAwayStochastic(significand >>> (shift - 64), sticky || (significand << (128 - shift)) != 0, env);
+        } else {
+            return roundAwayStochastic(0, sticky || significand != 0, env);
+        }
+    }
+
+    /**
+     * Decides whether stochastic rounding rounds away from zero when the lowest bits of a significand are cut off
+     *
+     * @param discarded the bits which are cut off
+     * @param bits      how many bits are cut off
+     * @param sticky    whether there are non-zero bits below discarded
+     */
+    public static boolean roundAwayStochastic(BigInteger discarded, int bits, boolean sticky, Environment env) {
+        if (bits <= 0) {
+            return roundAwayStochastic(0, sticky, env);
+        } else if (bits <= 64) {
+            return roundAwayStochastic(discarded.longValue() << (64 - bits), sticky, env);
+        }
+        sticky |= discarded.signum() != 0 && discarded.getLowestSetBit() < bits - 64;
+        return roundAwayStochastic(discarded.shiftRight(bits - 64).longValue(), sticky, env);
+    }
+
+    /**
+     * Rounds like {@link #round} in stochastic rounding mode, but for significands which are too wide for a long.
+     * <p>
+     * The 64 bits of round would only leave a few of the discarded bits to compare with the random bits, so this
+     * truncates with them and then decides whether to round away with all of the significand.
+     */
+    public static long roundStochastic(boolean sign, BigInteger significand, int exponent, boolean sticky, int sigbits, int expbits, Environment env) {
+        int extra = Math.max(0, significand.bitLength() - 63);
+        boolean below = sticky || (significand.signum() != 0 && significand.getLowestSetBit() < extra);
+        Environment truncated = env.withMode(RoundingMode.zero);
+        long bits = round(sign, significand.shiftRight(extra).longValue(), exponent + extra, below, sigbits, expbits, truncated);
+        if (truncated.flags.contains(Flags.overflow)) {
+            return overflow(sign, sigbits, expbits, env);
+        }
+        env.flags.addAll(truncated.flags);
+        if (!truncated.flags.contains(Flags.inexact)) {
+            return bits;
+        }
+
+        int bias = (1 << (expbits - 1)) - 1;
+        long signBit = 1L << (sigbits + expbits);
+        long infinity = ((1L << expbits) - 1) << sigbits;
+        int biased = (int) ((bits & ~signBit) >>> sigbits);
+        int discarded = Math.max(biased, 1) - bias - sigbits - exponent;
+        BigInteger fraction = discarded <= 0 ? BigInteger.ZERO : significand.subtract(significand.shiftRight(discarded).shiftLeft(discarded));
+        if (roundAwayStochastic(fraction, discarded, sticky, env)) {
+            bits++;
+            if ((bits & ~signBit) == infinity) {
+                return overflow(sign, sigbits, expbits, env);
+            }
+        }
+        return bits;
+    }
+
+    // Section 7.4
+    public static long overflow(boolean sign, int sigbits, int expbits, Environment env) {
+        env.flags.add(Flags.overflow);
+        env.flags.add(Flags.inexact);
+        long signBit = sign ? 1L << (sigbits + expbits) : 0;
+        long infinity = ((1L << expbits) - 1) << sigbits;
+        if (env.mode == RoundingMode.stochastic || roundAway(sign, true, true, true, env)) {
+            return signBit | infinity;
+        } else {
+            return signBit | (infinity - 1); // Largest finite number
+        }
+    }
+}
@@ -5,6 +5,7 @@ import jsoftfloat.Environment;
 import jsoftfloat.Flags;
 import jsoftfloat.RoundingMode;
 
+import java.math.BigDecimal;
 import java.math.BigInteger;
 
 /**
@@ -174,6 +175,349 @@ public class ExactFloat implements Comparable<ExactFloat> {
         }
     }
 
+    /**
+     * Computes e^this
+     * <p>
+     * Like squareRoot, this cannot be exact in general. The result has at least accuracy significant bits and is within
+     * two units of its last place of the real value. Exact cases (e^0) need to be handled by the caller.
+     *
+     * @param accuracy the number of bits to compute
+     * @return An exact float within two units in the last place of e^this
+     */
+    public ExactFloat exp(int accuracy) {
+        return expInternal(accuracy, false, false);
+    }
+
+    /**
+     * Computes 2^this; see exp for the accuracy
+     */
+    public ExactFloat exp2(int accuracy) {
+        return expInternal(accuracy, false, true);
+    }
+
+    /**
+     * Computes e^this - 1 keeping the relative accuracy for results near zero; see exp
+     */
+    public ExactFloat expm1(int accuracy) {
+        return expInternal(accuracy, true, false);
+    }
+
+    /**
+     * Computes the natural logarithm of this, which must be positive and not 1; see exp for the accuracy
+     */
+    public ExactFloat log(int accuracy) {
+        return logInternal(accuracy, 0);
+    }
+
+    public ExactFloat log2(int accuracy) {
+        return logInternal(accuracy, 2);
+    }
+
+    public ExactFloat log10(int accuracy) {
+        return logInternal(accuracy, 10);
+    }
+
+    /**
+     * Computes sin(this); see exp for the accuracy. Exact cases (sin(0)) need to be handled by the caller.
+     */
+    public ExactFloat sin(int accuracy) {
+        return trigInternal(accuracy, 0, false);
+    }
+
+    public ExactFloat cos(int accuracy) {
+        return trigInternal(accuracy, 1, false);
+    }
+
+    public ExactFloat tan(int accuracy) {
+        return trigInternal(accuracy, 2, false);
+    }
+
+    /**
+     * Computes sin(pi * this); see exp for the accuracy. Results of 0 and 1 are exact and need to be handled by the caller.
+     */
+    public ExactFloat sinPi(int accuracy) {
+        return trigInternal(accuracy, 0, true);
+    }
+
+    public ExactFloat cosPi(int accuracy) {
+        return trigInternal(accuracy, 1, true);
+    }
+
+    public ExactFloat atan(int accuracy) {
+        return atan2(this, new ExactFloat(BigInteger.ONE), accuracy);
+    }
+
+    /**
+     * Computes the angle of the point (x, y); see exp for the accuracy. y must not be zero.
+     */
+    public static ExactFloat atan2(ExactFloat y, ExactFloat x, int accuracy) {
+        assert !y.isZero() : "atan2(0, x) is exact";
+        boolean swap = y.abs().compareTo(x.abs()) > 0;
+        ExactFloat num = swap ? x : y, den = swap ? y : x;
+        // Without any of the corrections below the result is about num / den, which may be tiny
+        int extra = (swap || x.sign || num.isZero()) ? 0 : Math.max(0, den.msb() - num.msb() + 1);
+        int guard = bitLength(accuracy + extra + 200) + 4;
+        int bits = accuracy + 2 * guard + extra;
+        BigInteger q = BigInteger.ZERO;
+        if (!num.isZero()) {
+            int shift = bits + num.exponent - den.exponent;
+            BigInteger n = shift >= 0 ? num.significand.shiftLeft(shift) : num.significand;
+            BigInteger d = shift >= 0 ? den.significand : den.significand.shiftLeft(-shift);
+            q = n.divide(d);
+        }
+        BigInteger result = atanFixed(q, bits);
+        if (swap) {
+            result = piFixed(bits).shiftRight(1).subtract(result);
+        }
+        if (x.sign) {
+            result = piFixed(bits).subtract(result);
+        }
+        return new ExactFloat(y.sign, guard - bits, result.shiftRight(guard));
+    }
+
+    /**
+     * @return pi to within two units in the last place of at least accuracy bits
+     */
+    public static ExactFloat pi(int accuracy) {
+        int guard = bitLength(accuracy) + 4;
+        return fromFixed(piFixed(accuracy + guard), accuracy + guard, guard);
+    }
+
+    private ExactFloat expInternal(int accuracy, boolean minusOne, boolean base2) {
+        assert !isZero() : "e^0 is exact";
+        int msb = msb();
+        if (minusOne && msb < -1) {
+            // Sum the series directly to keep the relative accuracy of small results
+            int guard = bitLength(accuracy + Math.max(0, -msb) + 100) + 3;
+            int bits = accuracy + 2 * guard - msb;
+            BigInteger x = toFixed(bits), sum = BigInteger.ZERO, term = x;
+            for (int k = 2; term.signum() != 0; k++) {
+                sum = sum.add(term);
+                term = term.multiply(x).shiftRight(bits).divide(BigInteger.valueOf(k));
+            }
+            return fromFixed(sum, bits, guard);
+        }
+
+        // e^this = e^r * 2^n with |r| <= ln(2)/2 (plus a little)
+        BigInteger n;
+        if (base2) {
+            n = toFixed(1).add(BigInteger.ONE).shiftRight(1);
+        } else {
+            n = toFixed(64).multiply(INV_LN2_64).add(BigInteger.ONE.shiftLeft(127)).shiftRight(128);
+        }
+        int nbits = n.abs().bitLength();
+        assert nbits < 31 : "The result needs to be in the range of an int exponent";
+        int guard = bitLength(accuracy + nbits + 100) + 3;
+        int bits = accuracy + guard + 2;
+        BigInteger one = BigInteger.ONE.shiftLeft(bits);
+        BigInteger r;
+        if (base2) {
+            // The reduction is exact, only the conversion to base e is not
+            r = toFixed(bits).subtract(n.shiftLeft(bits)).multiply(ln2Fixed(bits)).shiftRight(bits);
+        } else {
+            r = toFixed(bits).subtract(ln2Fixed(bits + nbits).multiply(n).shiftRight(nbits));
+        }
+        BigInteger sum = one, term = r;
+        for (int k = 2; term.signum() != 0; k++) {
+            sum = sum.add(term);
+            term = term.multiply(r).shiftRight(bits).divide(BigInteger.valueOf(k));
+        }
+
+        int shift = n.intValue();
+        if (!minusOne) {
+            return fromFixed(sum, bits - shift, guard);
+        }
+        if (shift < 0) {
+            return fromFixed(sum.shiftRight(-shift).subtract(one), bits, guard);
+        }
+        // Once 1 is below the last place it only adds to the error
+        return fromFixed(shift < bits ? sum.subtract(BigInteger.ONE.shiftLeft(bits - shift)) : sum, bits - shift, guard);
+    }
+
+    private ExactFloat logInternal(int accuracy, int base) {
+        assert !sign && !isZero() : "Logarithms are only real for positive numbers";
+        // this = y * 2^k with sqrt(1/2) <= y < sqrt(2)
+        int k = msb();
+        ExactFloat y = new ExactFloat(false, exponent - k, significand);
+        if (y.multiply(y).compareTo(new ExactFloat(BigInteger.valueOf(2))) > 0) {
+            k++;
+            y = y.shiftRight(1);
+        }
+        // Results near zero need more bits to keep their relative accuracy
+        int extra = 0;
+        if (k == 0) {
+            ExactFloat d = y.add(new ExactFloat(true, 0, BigInteger.ONE));
+            assert !d.isZero() : "log(1) is exact";
+            extra = Math.max(0, -d.msb());
+        }
+        int kbits = bitLength(Math.abs(k));
+        int guard = bitLength(accuracy + extra + 200) + kbits + 4;
+        int bits = accuracy + guard + extra + 4;
+        BigInteger one = BigInteger.ONE.shiftLeft(bits);
+        // log(y) = 2 atanh((y - 1) / (y + 1))
+        BigInteger yf = y.toFixed(bits);
+        BigInteger s = yf.subtract(one).shiftLeft(bits).divide(yf.add(one));
+        BigInteger result = atanhFixed(s, bits).shiftLeft(1);
+        if (k != 0) {
+            result = result.add(ln2Fixed(bits + kbits).multiply(BigInteger.valueOf(k)).shiftRight(kbits));
+        }
+        if (base == 2) {
+            result = result.shiftLeft(bits).divide(ln2Fixed(bits));
+        } else if (base == 10) {
+            result = result.shiftLeft(bits).divide(ln10Fixed(bits));
+        }
+        return fromFixed(result, bits, guard);
+    }
+
+    private ExactFloat trigInternal(int accuracy, int kind, boolean piScaled) {
+        assert !isZero() : "Trigonometric functions of 0 are exact";
+        int msb = msb();
+        int guard = bitLength(accuracy + Math.abs(msb) + 200) + 4;
+        int lost = 0;
+        while (true) {
+            int bits = accuracy + 2 * guard + lost + Math.max(0, -msb);
+            // this = n pi/2 + r with |r| <= pi/4 (plus a little)
+            BigInteger n, r;
+            if (piScaled) {
+                n = toFixed(2).add(BigInteger.ONE).shiftRight(1);
+                BigInteger fraction = toFixed(bits + 1).subtract(n.shiftLeft(bits));
+                assert fraction.signum() != 0 || exponent + bits + 1 < 0 : "Multiples of 1/2 are exact";
+                r = fraction.multiply(piFixed(bits)).shiftRight(bits + 1);
+            } else {
+                int nbits = Math.max(0, msb + 1);
+                BigInteger halfPi = piFixed(bits + nbits).shiftRight(1);
+                BigInteger x = toFixed(bits + nbits);
+                n = x.shiftLeft(1).add(halfPi).divide(halfPi.shiftLeft(1));
+                if (x.signum() < 0 && n.multiply(halfPi).compareTo(x) > 0) {
+                    n = n.subtract(BigInteger.ONE); // divide rounds towards zero
+                }
+                r = x.subtract(n.multiply(halfPi)).shiftRight(nbits);
+            }
+            // Make sure r has enough significant bits
+            int deficit = accuracy + 2 * guard - r.abs().bitLength();
+            if (deficit > 0) {
+                lost += deficit;
+                continue;
+            }
+            int quadrant = n.intValue() & 3;
+            BigInteger one = BigInteger.ONE.shiftLeft(bits);
+            BigInteger sin = BigInteger.ZERO, cos = BigInteger.ZERO;
+            BigInteger r2 = r.multiply(r).shiftRight(bits), term = r;
+            for (int k = 2; term.signum() != 0; k += 2) {
+                sin = sin.add(term);
+                term = term.multiply(r2).shiftRight(bits).divide(BigInteger.valueOf(-(long) k * (k + 1)));
+            }
+            term = one;
+            for (int k = 1; term.signum() != 0; k += 2) {
+                cos = cos.add(term);
+                term = term.multiply(r2).shiftRight(bits).divide(BigInteger.valueOf(-(long) k * (k + 1)));
+            }
+            if (kind == 1) {
+                quadrant = (quadrant + 1) & 3; // cos(x) = sin(x + pi/2)
+            }
+            BigInteger result;
+            if (kind == 2) {
+                result = (quadrant & 1) == 0 ? sin.shiftLeft(bits).divide(cos) : cos.shiftLeft(bits).divide(sin).negate();
+            } else {
+                result = (quadrant & 1) == 0 ? sin : cos;
+                if (quadrant >= 2) result = result.negate();
+            }
+            return fromFixed(result, bits, guard);
+        }
+    }
+
+    // atan(q) * 2^bits for a fixed point 0 <= q <= 1
+    private static BigInteger atanFixed(BigInteger q, int bits) {
+        BigInteger one = BigInteger.ONE.shiftLeft(bits);
+        // Halve the angle with atan(q) = 2 atan(q / (1 + sqrt(1 + q^2))) until the series converges quickly
+        int halvings = 0;
+        while (q.compareTo(one.shiftRight(4)) > 0) {
+            BigInteger root = q.multiply(q).add(one.shiftLeft(bits)).sqrt();
+            q = q.shiftLeft(bits).divide(one.add(root));
+            halvings++;
+        }
+        // atan(q) = q - q^3/3 + q^5/5 - ...
+        BigInteger q2 = q.multiply(q).shiftRight(bits), sum = BigInteger.ZERO, power = q;
+        for (int i = 1; power.signum() != 0; i += 2) {
+            BigInteger term = power.divide(BigInteger.valueOf(i));
+            sum = (i & 2) == 0 ? sum.add(term) : sum.subtract(term);
+            power = power.multiply(q2).shiftRight(bits);
+        }
+        return sum.shiftLeft(halvings);
+    }
+
+    // pi * 2^bits to within a few units
+    private static BigInteger piFixed(int bits) {
+        // pi = 16 atan(1/5) - 4 atan(1/239)
+        int w = bits + bitLength(bits) + 6;
+        BigInteger pi = atanInverse(5, w).shiftLeft(4).subtract(atanInverse(239, w).shiftLeft(2));
+        return pi.shiftRight(w - bits);
+    }
+
+    // atan(1/k) * 2^bits
+    private static BigInteger atanInverse(int k, int bits) {
+        BigInteger k2 = BigInteger.valueOf((long) k * k), sum = BigInteger.ZERO;
+        BigInteger power = BigInteger.ONE.shiftLeft(bits).divide(BigInteger.valueOf(k));
+        for (int i = 1; power.signum() != 0; i += 2) {
+            BigInteger term = power.divide(BigInteger.valueOf(i));
+            sum = (i & 2) == 0 ? sum.add(term) : sum.subtract(term);
+            power = power.divide(k2);
+        }
+        return sum;
+    }
+
+    private static final BigInteger INV_LN2_64 = BigInteger.ONE.shiftLeft(128).divide(ln2Fixed(64));
+
+    // ln(2) * 2^bits to within two units
+    private static BigInteger ln2Fixed(int bits) {
+        // ln(2) = 2 atanh(1/3)
+        int w = bits + bitLength(bits) + 3;
+        BigInteger third = BigInteger.ONE.shiftLeft(w).divide(BigInteger.valueOf(3));
+        return atanhFixed(third, w).shiftLeft(1).shiftRight(w - bits);
+    }
+
+    // ln(10) * 2^bits to within two units
+    private static BigInteger ln10Fixed(int bits) {
+        // ln(10) = 3 ln(2) + 2 atanh(1/9)
+        int w = bits + bitLength(bits) + 3;
+        BigInteger ninth = BigInteger.ONE.shiftLeft(w).divide(BigInteger.valueOf(9));
+        BigInteger sum = atanhFixed(ninth, w).shiftLeft(1).add(ln2Fixed(w).multiply(BigInteger.valueOf(3)));
+        return sum.shiftRight(w - bits);
+    }
+
+    // atanh(s) * 2^bits for a fixed point s with |s| <= 1/3; each term adds at most two units of error
+    private static BigInteger atanhFixed(BigInteger s, int bits) {
+        BigInteger a = s.abs();
+        BigInteger a2 = a.multiply(a).shiftRight(bits);
+        BigInteger sum = BigInteger.ZERO, power = a;
+        for (int i = 1; power.signum() != 0; i += 2) {
+            sum = sum.add(power.divide(BigInteger.valueOf(i)));
+            power = power.multiply(a2).shiftRight(bits);
+        }
+        return s.signum() < 0 ? sum.negate() : sum;
+    }
+
+    // this * 2^bits rounded towards negative infinity
+    private BigInteger toFixed(int bits) {
+        BigInteger value = sign ? significand.negate() : significand;
+        int shift = exponent + bits;
+        return shift >= 0 ? value.shiftLeft(shift) : value.shiftRight(-shift);
+    }
+
+    // Drops guard bits from a fixed point number whose error is below 2^(guard - 1) units
+    private static ExactFloat fromFixed(BigInteger fixed, int bits, int guard) {
+        return new ExactFloat(fixed.signum() < 0, guard - bits, fixed.abs().shiftRight(guard));
+    }
+
+    // The exponent of the highest set bit
+    private int msb() {
+        return exponent + significand.bitLength() - 1;
+    }
+
+    private static int bitLength(int i) {
+        return 32 - Integer.numberOfLeadingZeros(i);
+    }
+
     public ExactFloat shiftRight(int i) {
         return new ExactFloat(sign, exponent - i, significand);
     }
@@ -199,6 +543,15 @@ public class ExactFloat implements Comparable<ExactFloat> {
             return zeroRounded;
         }
 
+        if (env.mode == RoundingMode.stochastic) {
+            return BinaryRounding.roundAwayStochastic(roundedBits, bitsToRound, false, env) ? oneRounded : zeroRounded;
+        }
+
+        if (env.mode == RoundingMode.odd) {
+            // The normalized significand only holds the parity of the integer if there is no exponent
+            return zeroRounded.exponent == 0 && zeroRounded.significand.testBit(0) ? zeroRounded : oneRounded;
+        }
+
         if (env.mode == RoundingMode.max || env.mode == RoundingMode.min) {
             if ((env.mode == RoundingMode.max) == f.sign) {
                 // if we are rounding towards zero (max & < 0 or min & > 0)
@@ -211,7 +564,9 @@ public class ExactFloat implements Comparable<ExactFloat> {
 
         if (roundedBits.equals(BigInteger.ONE.shiftLeft(bitsToRound - 1))) {
             // If there is a tie round according to the rounding mode
-            if (env.mode == RoundingMode.away || zeroRounded.significand.testBit(0)) {
+            // The normalized significand only holds the parity of the integer if there is no exponent
+            boolean odd = zeroRounded.exponent == 0 && zeroRounded.significand.testBit(0);
+            if (env.mode == RoundingMode.away || odd) {
                 return oneRounded;
             } else {
                 return zeroRounded;
@@ -242,6 +597,9 @@ public class ExactFloat implements Comparable<ExactFloat> {
             }
             return other.sign ? 1 : -1;
         }
+        if (other.isZero()) {
+            return sign ? -1 : 1;
+        }
         if (sign != other.sign) {
             return sign ? -1 : 1;
         }
@@ -258,6 +616,20 @@ public class ExactFloat implements Comparable<ExactFloat> {
         }
     }
 
+    /**
+     * @return the exact decimal value; every binary float has a finite decimal expansion
+     */
+    public BigDecimal toBigDecimal() {
+        BigDecimal out;
+        if (exponent >= 0) {
+            out = new BigDecimal(significand.shiftLeft(exponent));
+        } else {
+            // sig * 2^-n = sig * 5^n * 10^-n
+            out = new BigDecimal(significand.multiply(BigInteger.valueOf(5).pow(-exponent)), -exponent);
+        }
+        return sign ? out.negate() : out;
+    }
+
     public ExactFloat abs() {
         return new ExactFloat(false, exponent, significand);
     }
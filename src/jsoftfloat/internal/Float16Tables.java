@@ -0,0 +1,136 @@
+package jsoftfloat.internal;
+
+/**
+ * Lookup tables for the unary operations of binary16.
+ * <p>
+ * With only 2^16 values the unary operations can be precomputed. The tables are indexed by the magnitude, as the sign
+ * just carries through, and each lives in its own holder class so that it is only built the first time it is used.
+ * Together they take about 300KB.
+ */
+public final class Float16Tables {
+    private Float16Tables() {
+    }
+
+    // The bits of the class returned by classify
+    public static final int ZERO = 1, SUBNORMAL = 2, NORMAL = 4, INFINITE = 8, NAN = 16, SIGNALLING = 32;
+
+    /**
+     * @param bits the raw bits of a binary16
+     * @return a combination of ZERO, SUBNORMAL, NORMAL, INFINITE, NAN and SIGNALLING
+     */
+    public static int classify(int bits) {
+        // The exponent, the quiet bit and whether any other fraction bit is set decide the class
+        return Classes.TABLE[((bits >>> 8) & 0x7E) | (((bits & 0x1FF) + 0x1FF) >>> 9)];
+    }
+
+    /**
+     * @param bits the raw bits of a binary16
+     * @return the raw bits of the binary32 with the same value, NaNs are quieted and keep their payload
+     */
+    public static int toFloat32(int bits) {
+        return Widen.TABLE[bits & 0x7FFF] | (bits & 0x8000) << 16;
+    }
+
+    /**
+     * @param magnitude the raw bits of a positive, finite, non-zero binary16
+     * @return the raw bits of its square root as a binary32 rounded to odd, which rounds to binary16 in every rounding
+     * direction the same way the exact root does
+     */
+    public static int squareRoot(int magnitude) {
+        return Sqrt.TABLE[magnitude];
+    }
+
+    /**
+     * @param magnitude the raw bits of a positive binary16 below 1024
+     * @return the integer part of the value shifted left by two, plus 0 if the value is integral, 1 if the fraction is
+     * below a half, 2 if it is a half and 3 if it is above
+     */
+    public static int integral(int magnitude) {
+        return Integral.TABLE[magnitude];
+    }
+
+    /**
+     * @param i an integer from 0 to 1024
+     * @return the raw bits of the binary16 with that value
+     */
+    public static int fromInteger(int i) {
+        return Integral.INTEGERS[i];
+    }
+
+    private static final class Classes {
+        static final byte[] TABLE = new byte[128];
+
+        static {
+            for (int i = 0; i < TABLE.length; i++) {
+                int biased = i >>> 2;
+                boolean fraction = (i & 3) != 0, quiet = (i & 2) != 0;
+                int c;
+                if (biased == 0) {
+                    c = fraction ? SUBNORMAL : ZERO;
+                } else if (biased == 0x1F) {
+                    c = !fraction ? INFINITE : quiet ? NAN : NAN | SIGNALLING;
+                } else {
+                    c = NORMAL;
+                }
+                TABLE[i] = (byte) c;
+            }
+        }
+    }
+
+    private static final class Widen {
+        static final int[] TABLE = new int[0x8000];
+
+        static {
+            for (int m = 0; m < TABLE.length; m++) {
+                int biased = m >>> 10, fraction = m & 0x3FF;
+                if (biased == 0x1F) {
+                    // Section 6.2 - the payload moves to the top of the wider fraction
+                    TABLE[m] = 0x7F800000 | (fraction != 0 ? 0x00400000 : 0) | fraction << 13;
+                } else if (biased != 0) {
+                    TABLE[m] = (biased - 15 + 127) << 23 | fraction << 13;
+                } else {
+                    TABLE[m] = Float.floatToRawIntBits(fraction * 0x1p-24f); // Exact, subnormals are normal in binary32
+                }
+            }
+        }
+    }
+
+    private static final class Sqrt {
+        static final int[] TABLE = new int[0x7C00];
+
+        static {
+            for (int m = 1; m < TABLE.length; m++) {
+                double x = Float.intBitsToFloat(Widen.TABLE[m]);
+                // Rounding the double root again is still correctly rounded, as 53 >= 2 * 24 + 2
+                float root = (float) Math.sqrt(x);
+                double square = (double) root * root; // Exact
+                int bits = Float.floatToRawIntBits(root);
+                if (square > x) {
+                    bits--; // Truncate
+                }
+                if (square != x) {
+                    bits |= 1; // Round to odd
+                }
+                TABLE[m] = bits;
+            }
+        }
+    }
+
+    private static final class Integral {
+        static final char[] TABLE = new char[0x6400], INTEGERS = new char[1025];
+
+        static {
+            for (int i = 1; i < INTEGERS.length; i++) {
+                // Integers up to 1024 have no bits in the low 13 of the binary32 fraction
+                INTEGERS[i] = (char) ((Float.floatToRawIntBits(i) - ((127 - 15) << 23)) >>> 13);
+            }
+            for (int m = 0; m < TABLE.length; m++) {
+                float value = Float.intBitsToFloat(Widen.TABLE[m]);
+                int integer = (int) value;
+                float fraction = value - integer; // Exact
+                int code = fraction == 0 ? 0 : fraction < 0.5f ? 1 : fraction == 0.5f ? 2 : 3;
+                TABLE[m] = (char) (integer << 2 | code);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package jsoftfloat.internal;
+
+import java.util.Arrays;
+
+/**
+ * A pool of limb buffers for the scratch space of BigFloat operations
+ * <p>
+ * Buffers are handed out by take and come back with give, so a sequence of operations only allocates until the pool
+ * holds buffers of the sizes it needs. A pool is not thread safe, so the BigFloats which share one need to be used from
+ * a single thread.
+ */
+public final class LimbPool {
+    private long[][] free = new long[8][];
+    private int size;
+
+    /**
+     * @return a buffer of at least length limbs, of which the first length are zero
+     */
+    public long[] take(int length) {
+        // The most recently returned buffers are the most likely to fit again
+        for (int i = size - 1; i >= 0; i--) {
+            long[] buffer = free[i];
+            if (buffer.length >= length) {
+                free[i] = free[--size];
+                free[size] = null;
+                Arrays.fill(buffer, 0, length, 0);
+                return buffer;
+            }
+        }
+        return new long[Math.max(length, 4)];
+    }
+
+    /**
+     * Returns a buffer to the pool, which must not be used afterwards
+     */
+    public void give(long[] buffer) {
+        if (size == free.length) {
+            free = Arrays.copyOf(free, 2 * size);
+        }
+        free[size++] = buffer;
+    }
+}
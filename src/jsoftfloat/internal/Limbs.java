@@ -0,0 +1,302 @@
+package jsoftfloat.internal;
+
+import java.util.Arrays;
+
+/**
+ * Unsigned integers of any size stored as little endian arrays of 64 bit limbs, for BigFloat.
+ * <p>
+ * Lengths are passed explicitly so that numbers can live in buffers which are longer than they are, and nothing here
+ * allocates except through a LimbPool. Bit indices are longs, and bits outside of a number read as zero.
+ */
+public final class Limbs {
+    private Limbs() {
+    }
+
+    /**
+     * Adds src[0, len) to dst[offset, offset + len)
+     *
+     * @return the carry out of the top limb
+     */
+    public static long add(long[] dst, int offset, long[] src, int len) {
+        long carry = 0;
+        for (int i = 0; i < len; i++) {
+            long a = dst[offset + i], sum = a + src[i] + carry;
+            carry = Long.compareUnsigned(sum, a) < 0 || (carry != 0 && sum == a) ? 1 : 0;
+            dst[offset + i] = sum;
+        }
+        return carry;
+    }
+
+    /**
+     * Subtracts src[0, len) from dst[offset, offset + len)
+     *
+     * @return the borrow out of the top limb
+     */
+    public static long subtract(long[] dst, int offset, long[] src, int len) {
+        long borrow = 0;
+        for (int i = 0; i < len; i++) {
+            long a = dst[offset + i], difference = a - src[i] - borrow;
+            borrow = Long.compareUnsigned(a, difference) < 0 || (borrow != 0 && difference == a) ? 1 : 0;
+            dst[offset + i] = difference;
+        }
+        return borrow;
+    }
+
+    /**
+     * Replaces a[0, len) with its two's complement
+     */
+    public static void negate(long[] a, int len) {
+        long carry = 1;
+        for (int i = 0; i < len; i++) {
+            long inverted = ~a[i];
+            a[i] = inverted + carry;
+            carry = (carry != 0 && a[i] == 0) ? 1 : 0;
+        }
+    }
+
+    public static int compare(long[] a, long[] b, int len) {
+        for (int i = len - 1; i >= 0; i--) {
+            if (a[i] != b[i]) {
+                return Long.compareUnsigned(a[i], b[i]);
+            }
+        }
+        return 0;
+    }
+
+    public static boolean isZero(long[] a, int len) {
+        for (int i = 0; i < len; i++) {
+            if (a[i] != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the index of the highest set bit plus one, or zero if a is zero
+     */
+    public static long bitLength(long[] a, int len) {
+        for (int i = len - 1; i >= 0; i--) {
+            if (a[i] != 0) {
+                return 64L * i + 64 - Long.numberOfLeadingZeros(a[i]);
+            }
+        }
+        return 0;
+    }
+
+    public static boolean testBit(long[] a, int len, long bit) {
+        return bit >= 0 && bit < 64L * len && (a[(int) (bit >>> 6)] >>> bit & 1) != 0;
+    }
+
+    /**
+     * @return whether any bit below index bit is set
+     */
+    public static boolean anyBelow(long[] a, int len, long bit) {
+        if (bit <= 0) return false;
+        int limb = (int) Math.min(bit >>> 6, len);
+        for (int i = 0; i < limb; i++) {
+            if (a[i] != 0) return true;
+        }
+        return limb < len && (bit & 63) != 0 && a[limb] << (64 - (bit & 63)) != 0;
+    }
+
+    /**
+     * @return the bits from index from up to from + 63, where from may be negative
+     */
+    public static long bits(long[] a, int len, long from) {
+        long limb = Math.floorDiv(from, 64);
+        int offset = Math.floorMod(from, 64);
+        long low = limb >= 0 && limb < len ? a[(int) limb] : 0;
+        if (offset == 0) return low;
+        long high = limb + 1 >= 0 && limb + 1 < len ? a[(int) limb + 1] : 0;
+        return low >>> offset | high << (64 - offset);
+    }
+
+    /**
+     * Sets the bits of dst[0, dstLen) which are set in src[0, srcLen) * 2^shift, where shift may be negative. Bits which
+     * end up outside of dst are dropped.
+     */
+    public static void orShifted(long[] dst, int dstLen, long[] src, int srcLen, long shift) {
+        long limbShift = Math.floorDiv(shift, 64);
+        int offset = Math.floorMod(shift, 64);
+        for (int i = 0; i < srcLen; i++) {
+            long k = i + limbShift;
+            if (k >= 0 && k < dstLen) {
+                dst[(int) k] |= src[i] << offset;
+            }
+            if (offset != 0 && k + 1 >= 0 && k + 1 < dstLen) {
+                dst[(int) k + 1] |= src[i] >>> (64 - offset);
+            }
+        }
+    }
+
+    /**
+     * Clears the bits below index bit
+     */
+    public static void clearBelow(long[] a, int len, long bit) {
+        if (bit <= 0) return;
+        int limb = (int) Math.min(bit >>> 6, len);
+        Arrays.fill(a, 0, limb, 0);
+        if (limb < len && (bit & 63) != 0) {
+            a[limb] &= -1L << (bit & 63);
+        }
+    }
+
+    /**
+     * Sets dst[0, na + nb) to a[0, na] * b[0, nb), schoolbook style
+     */
+    public static void multiply(long[] a, int na, long[] b, int nb, long[] dst) {
+        Arrays.fill(dst, 0, na + nb, 0);
+        for (int i = 0; i < na; i++) {
+            long x = a[i], carry = 0;
+            if (x == 0) continue;
+            for (int j = 0; j < nb; j++) {
+                long lo = x * b[j], hi = LongMath.unsignedMultiplyHigh(x, b[j]);
+                lo += carry;
+                hi += Long.compareUnsigned(lo, carry) < 0 ? 1 : 0;
+                long d = dst[i + j];
+                lo += d;
+                hi += Long.compareUnsigned(lo, d) < 0 ? 1 : 0;
+                dst[i + j] = lo;
+                carry = hi;
+            }
+            dst[i + nb] = carry;
+        }
+    }
+
+    /**
+     * Divides u[0, uLen) by v[0, vLen) (Knuth's algorithm D), leaving the quotient in q[0, uLen - vLen) and the
+     * remainder in u[0, vLen).
+     *
+     * @param u the dividend, whose top limb must be zero
+     * @param v the divisor, whose top limb must have its top bit set
+     */
+    public static void divide(long[] u, int uLen, long[] v, int vLen, long[] q) {
+        assert u[uLen - 1] == 0 && v[vLen - 1] < 0 : "The dividend needs a zero top limb and the divisor to be normalized";
+        long v1 = v[vLen - 1], v2 = vLen > 1 ? v[vLen - 2] : 0;
+        long reciprocal = LongMath.reciprocal(v1);
+        for (int j = uLen - vLen - 1; j >= 0; j--) {
+            long uHi = u[j + vLen], uMid = u[j + vLen - 1], uLo = vLen > 1 ? u[j + vLen - 2] : 0;
+            // Estimate the digit from the top limbs, which is then at most one too large
+            long digit;
+            if (uHi == v1) {
+                digit = -1;
+            } else {
+                digit = LongMath.divide(uHi, uMid, v1, reciprocal);
+                long remainder = uMid - digit * v1;
+                while (Long.compareUnsigned(LongMath.unsignedMultiplyHigh(digit, v2), remainder) > 0
+                        || (LongMath.unsignedMultiplyHigh(digit, v2) == remainder && Long.compareUnsigned(digit * v2, uLo) > 0)) {
+                    digit--;
+                    remainder += v1;
+                    if (Long.compareUnsigned(remainder, v1) < 0) break; // At least 2^64, so the test passes
+                }
+            }
+            // u[j, j + vLen] -= digit * v
+            long carry = 0, borrow = 0;
+            for (int i = 0; i < vLen; i++) {
+                long lo = digit * v[i], hi = LongMath.unsignedMultiplyHigh(digit, v[i]);
+                lo += carry;
+                hi += Long.compareUnsigned(lo, carry) < 0 ? 1 : 0;
+                carry = hi;
+                long a = u[i + j], difference = a - lo - borrow;
+                borrow = Long.compareUnsigned(a, difference) < 0 || (borrow != 0 && difference == a) ? 1 : 0;
+                u[i + j] = difference;
+            }
+            u[j + vLen] -= carry + borrow;
+            // The remainder is below 2^(64 vLen) when the digit is right, so the top limb says whether it was too large
+            while (u[j + vLen] < 0) {
+                digit--;
+                u[j + vLen] += add(u, j, v, vLen);
+            }
+            q[j] = digit;
+        }
+    }
+
+    /**
+     * Divides a[0, len) in place by a single limb
+     *
+     * @return the remainder
+     */
+    public static long divide(long[] a, int len, long d) {
+        int shift = Long.numberOfLeadingZeros(d);
+        long normalized = d << shift, reciprocal = LongMath.reciprocal(normalized);
+        // Each step divides the next limb of a * 2^shift, and the remainder is always below the normalized divisor
+        long remainder = shift == 0 ? 0 : a[len - 1] >>> (64 - shift);
+        for (int i = len - 1; i >= 0; i--) {
+            long limb = a[i] << shift | (shift == 0 || i == 0 ? 0 : a[i - 1] >>> (64 - shift));
+            long digit = LongMath.divide(remainder, limb, normalized, reciprocal);
+            remainder = limb - digit * normalized;
+            a[i] = digit;
+        }
+        return remainder >>> shift;
+    }
+
+    /**
+     * Sets root[0, rLen) to floor(sqrt(n[0, nLen))) with Newton's iteration x = (x + n / x) / 2, which decreases to the
+     * root from any start above it
+     *
+     * @param rLen at least nLen / 2 + 4, which leaves room for the sums in the iteration
+     * @return whether n is not a perfect square
+     */
+    public static boolean squareRoot(long[] n, int nLen, long[] root, int rLen, LimbPool pool) {
+        int uLen = nLen + 2;
+        long[] x = root, y = pool.take(rLen), u = pool.take(uLen), v = pool.take(rLen), q = pool.take(uLen);
+
+        // Start just above the root of the top 63 bits, which is within 2^-31 of the root
+        long bits = bitLength(n, nLen);
+        long scale = Math.max(0, (bits - 62) / 2);
+        long top = bits(n, nLen, 2 * scale);
+        long r = (long) Math.sqrt((double) top);
+        while (Long.compareUnsigned(r * r, top) > 0) r--;
+        while (Long.compareUnsigned((r + 1) * (r + 1), top) <= 0) r++;
+        Arrays.fill(x, 0, rLen, 0);
+        x[0] = r + 1;
+        shiftLeft(x, rLen, scale);
+
+        boolean inexact;
+        while (true) {
+            // q = n / x, with x normalized for the division
+            int xLen = (int) ((bitLength(x, rLen) + 63) >>> 6);
+            long normalize = 64L * xLen - bitLength(x, rLen);
+            Arrays.fill(u, 0, uLen, 0);
+            Arrays.fill(v, 0, rLen, 0);
+            Arrays.fill(q, 0, uLen, 0);
+            orShifted(u, uLen, n, nLen, normalize);
+            orShifted(v, rLen, x, rLen, normalize);
+            divide(u, uLen, v, xLen, q);
+            boolean exact = isZero(u, xLen);
+
+            // y = (x + q) / 2, where q is close enough to x to fit
+            System.arraycopy(x, 0, y, 0, rLen);
+            add(y, 0, q, rLen);
+            for (int i = 0; i < rLen; i++) {
+                y[i] = y[i] >>> 1 | (i + 1 < rLen ? y[i + 1] << 63 : 0);
+            }
+            if (compare(y, x, rLen) >= 0) {
+                // x is the root, and it is exact if n / x was x with no remainder
+                inexact = !exact || compare(q, x, rLen) != 0;
+                break;
+            }
+            long[] t = x;
+            x = y;
+            y = t;
+        }
+        if (x != root) {
+            System.arraycopy(x, 0, root, 0, rLen);
+            y = x;
+        }
+        pool.give(q);
+        pool.give(v);
+        pool.give(u);
+        pool.give(y);
+        return inexact;
+    }
+
+    // Shifts a[0, len) left by 0 <= shift bits, which must fit
+    private static void shiftLeft(long[] a, int len, long shift) {
+        int limbShift = (int) (shift >>> 6), bitShift = (int) (shift & 63);
+        for (int i = len - 1; i >= 0; i--) {
+            long low = i - limbShift >= 0 ? a[i - limbShift] : 0;
+            long lower = i - limbShift - 1 >= 0 ? a[i - limbShift - 1] : 0;
+            a[i] = bitShift == 0 ? low : low << bitShift | lower >>> (64 - bitShift);
+        }
+    }
+}
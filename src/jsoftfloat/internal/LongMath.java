@@ -0,0 +1,158 @@
+package jsoftfloat.internal;
+
+/**
+ * Unsigned 64 and 128 bit arithmetic on longs for the fast paths of operations.
+ * <p>
+ * 128 bit numbers are passed as a pair of longs (hi, lo). Methods which produce a 128 bit result are split into one
+ * method per word so that nothing needs to be allocated.
+ */
+public final class LongMath {
+    private LongMath() {
+    }
+
+    /**
+     * @return the high 64 bits of the unsigned 128 bit product of x and y
+     */
+    public static long unsignedMultiplyHigh(long x, long y) {
+        long result = Math.multiplyHigh(x, y);
+        result += (y & (x >> 63));
+        result += (x & (y >> 63));
+        return result;
+    }
+
+    /**
+     * @return the high word of floor(a * b / 2^128) for unsigned a = aHi:aLo and b = bHi:bLo
+     */
+    public static long multiplyHighHi(long aHi, long aLo, long bHi, long bLo) {
+        long ll = unsignedMultiplyHigh(aLo, bLo);
+        long lhLo = aLo * bHi, hlLo = aHi * bLo;
+        long mid = ll + lhLo;
+        long carry = Long.compareUnsigned(mid, ll) < 0 ? 1 : 0;
+        long mid2 = mid + hlLo;
+        carry += Long.compareUnsigned(mid2, mid) < 0 ? 1 : 0;
+
+        long hhLo = aHi * bHi;
+        long lo = hhLo + unsignedMultiplyHigh(aLo, bHi);
+        long high = Long.compareUnsigned(lo, hhLo) < 0 ? 1 : 0;
+        long lo2 = lo + unsignedMultiplyHigh(aHi, bLo);
+        high += Long.compareUnsigned(lo2, lo) < 0 ? 1 : 0;
+        long lo3 = lo2 + carry;
+        high += Long.compareUnsigned(lo3, lo2) < 0 ? 1 : 0;
+        return unsignedMultiplyHigh(aHi, bHi) + high;
+    }
+
+    /**
+     * @return the low word of floor(a * b / 2^128) for unsigned a = aHi:aLo and b = bHi:bLo
+     */
+    public static long multiplyHighLo(long aHi, long aLo, long bHi, long bLo) {
+        long ll = unsignedMultiplyHigh(aLo, bLo);
+        long lhLo = aLo * bHi, hlLo = aHi * bLo;
+        long mid = ll + lhLo;
+        long carry = Long.compareUnsigned(mid, ll) < 0 ? 1 : 0;
+        long mid2 = mid + hlLo;
+        carry += Long.compareUnsigned(mid2, mid) < 0 ? 1 : 0;
+        return aHi * bHi + unsignedMultiplyHigh(aLo, bHi) + unsignedMultiplyHigh(aHi, bLo) + carry;
+    }
+
+    /**
+     * Computes the reciprocal used by {@link #divide} to divide by d without a division instruction.
+     *
+     * @param d a normalized divisor, i.e. its top bit is set
+     * @return floor((2^128 - 1) / d) - 2^64
+     */
+    public static long reciprocal(long d) {
+        assert d < 0 : "The divisor needs to be normalized";
+        // Schoolbook division of ~d:~0 by d in 32 bit digits (Hacker's Delight divlu)
+        long dHi = d >>> 32, dLo = d & 0xFFFFFFFFL;
+        long u1 = ~d;
+        long q1 = Long.divideUnsigned(u1, dHi), rhat = u1 - q1 * dHi;
+        while (q1 > 0xFFFFFFFFL || Long.compareUnsigned(q1 * dLo, (rhat << 32) | 0xFFFFFFFFL) > 0) {
+            q1--;
+            rhat += dHi;
+            if (rhat > 0xFFFFFFFFL) break;
+        }
+        long u21 = (u1 << 32) + 0xFFFFFFFFL - q1 * d;
+        long q0 = Long.divideUnsigned(u21, dHi);
+        rhat = u21 - q0 * dHi;
+        while (q0 > 0xFFFFFFFFL || Long.compareUnsigned(q0 * dLo, (rhat << 32) | 0xFFFFFFFFL) > 0) {
+            q0--;
+            rhat += dHi;
+            if (rhat > 0xFFFFFFFFL) break;
+        }
+        return (q1 << 32) + q0;
+    }
+
+    /**
+     * Divides the unsigned 128 bit number hi:lo by d (Möller and Granlund, "Improved division by invariant integers").
+     * The remainder is lo - quotient * d.
+     *
+     * @param d          a normalized divisor greater than hi
+     * @param reciprocal the reciprocal of d
+     * @return the quotient, which fits in 64 bits as hi &lt; d
+     */
+    public static long divide(long hi, long lo, long d, long reciprocal) {
+        long q0 = reciprocal * hi;
+        long q1 = unsignedMultiplyHigh(reciprocal, hi) + hi;
+        long sum = q0 + lo;
+        if (Long.compareUnsigned(sum, q0) < 0) q1++;
+        q1++;
+        long r = lo - q1 * d;
+        if (Long.compareUnsigned(r, sum) > 0) {
+            q1--;
+            r += d;
+        }
+        if (Long.compareUnsigned(r, d) >= 0) {
+            q1++;
+        }
+        return q1;
+    }
+
+    /**
+     * @return the number of leading zeros of the 128 bit number hi:lo
+     */
+    public static int numberOfLeadingZeros(long hi, long lo) {
+        return hi != 0 ? Long.numberOfLeadingZeros(hi) : 64 + Long.numberOfLeadingZeros(lo);
+    }
+
+    /**
+     * @return the high word of hi:lo shifted left by 0 &lt;= shift &lt; 128
+     */
+    public static long shiftLeftHi(long hi, long lo, int shift) {
+        if (shift == 0) return hi;
+        if (shift < 64) return (hi << shift) | (lo >>> (64 - shift));
+        return lo << (shift - 64);
+    }
+
+    /**
+     * @return the low word of hi:lo shifted left by 0 &lt;= shift &lt; 128
+     */
+    public static long shiftLeftLo(long lo, int shift) {
+        return shift < 64 ? lo << shift : 0;
+    }
+
+    /**
+     * @return the high word of hi:lo logically shifted right by shift &gt;= 0
+     */
+    public static long shiftRightHi(long hi, int shift) {
+        return shift < 64 ? hi >>> shift : 0;
+    }
+
+    /**
+     * @return the low word of hi:lo logically shifted right by shift &gt;= 0
+     */
+    public static long shiftRightLo(long hi, long lo, int shift) {
+        if (shift == 0) return lo;
+        if (shift < 64) return (lo >>> shift) | (hi << (64 - shift));
+        return shift < 128 ? hi >>> (shift - 64) : 0;
+    }
+
+    /**
+     * @return whether any of the lowest n &gt;= 0 bits of hi:lo are set
+     */
+    public static boolean anyBelow(long hi, long lo, int n) {
+        if (n == 0) return false;
+        if (n < 64) return (lo << (64 - n)) != 0;
+        if (n == 64) return lo != 0;
+        return lo != 0 || (n < 128 ? hi << (128 - n) : hi) != 0;
+    }
+}
@@ -0,0 +1,154 @@
+package jsoftfloat.internal;
+
+import java.math.BigInteger;
+
+/**
+ * A table of 126 bit approximations of powers of ten for converting between binary and decimal without BigIntegers.
+ * <p>
+ * For each k, 10^-k = β * 2^r where 2^125 ≤ β &lt; 2^126 and g = floor(β) + 1. g is split into its upper and lower 63
+ * bits so that products with a long can be computed with Math.multiplyHigh. This is the layout used by Raffaello
+ * Giulietti's Schubfach algorithm.
+ * <p>
+ * The table is computed once when the class is loaded, which is the only place BigInteger is used.
+ * <p>
+ * There are also exact powers of ten for scaling the integer coefficients of decimal formats: 10^0 to 10^19 as longs,
+ * with reciprocals for dividing by them, and 10^0 to 10^77 as four limbs.
+ */
+public final class PowersOfTen {
+    public static final int K_MIN = -400, K_MAX = 400;
+
+    private static final long[] g = new long[(K_MAX - K_MIN + 1) * 2];
+
+    static {
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int shift = 125 - flog2pow10(-k);
+            BigInteger beta;
+            if (k <= 0) {
+                BigInteger pow = BigInteger.TEN.pow(-k);
+                beta = shift >= 0 ? pow.shiftLeft(shift) : pow.shiftRight(-shift);
+            } else {
+                // 10^-k is not an integer, but shift is large enough to make the quotient 126 bits
+                beta = BigInteger.ONE.shiftLeft(shift).divide(BigInteger.TEN.pow(k));
+            }
+            BigInteger gk = beta.add(BigInteger.ONE);
+            assert gk.bitLength() == 126 : "g is not normalized";
+            g[2 * (k - K_MIN)] = gk.shiftRight(63).longValue();
+            g[2 * (k - K_MIN) + 1] = gk.longValue() & 0x7FFFFFFF_FFFFFFFFL;
+        }
+    }
+
+    private static final long[] pow10 = new long[20], reciprocals = new long[20];
+    private static final long[][] pow10Limbs = new long[78][];
+
+    static {
+        long[] power = {1, 0, 0, 0};
+        for (int n = 0; n < pow10Limbs.length; n++) {
+            pow10Limbs[n] = power.clone();
+            if (n < pow10.length) {
+                pow10[n] = power[0];
+                reciprocals[n] = LongMath.reciprocal(power[0] << Long.numberOfLeadingZeros(power[0]));
+            }
+            long carry = 0;
+            for (int i = 0; i < power.length; i++) {
+                long lo = power[i] * 10 + carry;
+                carry = LongMath.unsignedMultiplyHigh(power[i], 10) + (Long.compareUnsigned(lo, carry) < 0 ? 1 : 0);
+                power[i] = lo;
+            }
+        }
+    }
+
+    private PowersOfTen() {
+    }
+
+    /**
+     * @return 10^n for 0 &lt;= n &lt;= 19, 10^19 as an unsigned long
+     */
+    public static long pow10(int n) {
+        return pow10[n];
+    }
+
+    /**
+     * @return the reciprocal of 10^n shifted up to be normalized, see {@link LongMath#reciprocal}
+     */
+    public static long pow10Reciprocal(int n) {
+        return reciprocals[n];
+    }
+
+    /**
+     * @return 10^n for 0 &lt;= n &lt;= 77 as four limbs, which must not be modified
+     */
+    public static long[] pow10Limbs(int n) {
+        return pow10Limbs[n];
+    }
+
+    /**
+     * @return the number of decimal digits of an unsigned long, zero for zero
+     */
+    public static int digits(long x) {
+        int estimate = (64 - Long.numberOfLeadingZeros(x)) * 1233 >>> 12;
+        return estimate + (Long.compareUnsigned(x, pow10[estimate]) >= 0 ? 1 : 0);
+    }
+
+    /**
+     * @return the number of decimal digits of the unsigned 128 bit number hi:lo
+     */
+    public static int digits(long hi, long lo) {
+        if (hi == 0) return digits(lo);
+        int estimate = (128 - Long.numberOfLeadingZeros(hi)) * 1233 >>> 12;
+        long[] power = pow10Limbs[estimate];
+        int compare = power[1] != hi ? Long.compareUnsigned(hi, power[1]) : Long.compareUnsigned(lo, power[0]);
+        return estimate + (compare >= 0 ? 1 : 0);
+    }
+
+    /**
+     * @return the number of decimal digits of a[0, len), which has to be below 10^77
+     */
+    public static int digits(long[] a, int len) {
+        long bits = Limbs.bitLength(a, len);
+        if (bits <= 64) return digits(a[0]);
+        int estimate = (int) (bits * 1233 >>> 12);
+        long[] power = pow10Limbs[estimate];
+        for (int i = Math.max(len, power.length) - 1; i >= 0; i--) {
+            long x = i < len ? a[i] : 0, y = i < power.length ? power[i] : 0;
+            if (x != y) {
+                return estimate + (Long.compareUnsigned(x, y) > 0 ? 1 : 0);
+            }
+        }
+        return estimate + 1;
+    }
+
+    /**
+     * @return the upper 63 bits of g for 10^-k
+     */
+    public static long g1(int k) {
+        return g[2 * (k - K_MIN)];
+    }
+
+    /**
+     * @return the lower 63 bits of g for 10^-k
+     */
+    public static long g0(int k) {
+        return g[2 * (k - K_MIN) + 1];
+    }
+
+    /**
+     * @return floor(log10(2^e)) for |e| &lt;= 5456721
+     */
+    public static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    /**
+     * @return floor(log10(3/4 * 2^e)) for |e| &lt;= 5456721
+     */
+    public static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    /**
+     * @return floor(log2(10^e)) for |e| &lt;= 1838394
+     */
+    public static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+}
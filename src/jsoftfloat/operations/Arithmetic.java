@@ -3,8 +3,28 @@ package jsoftfloat.operations;
 import jsoftfloat.Environment;
 import jsoftfloat.Flags;
 import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryRounding;
 import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.internal.Float16Tables;
+import jsoftfloat.internal.LimbPool;
+import jsoftfloat.internal.Limbs;
+import jsoftfloat.internal.LongMath;
+import jsoftfloat.internal.PowersOfTen;
+import jsoftfloat.types.BFloat16;
+import jsoftfloat.types.Decimal128;
+import jsoftfloat.types.Decimal64;
+import jsoftfloat.types.DoubleDouble;
+import jsoftfloat.types.E4M3;
+import jsoftfloat.types.E5M2;
+import jsoftfloat.types.Float128;
+import jsoftfloat.types.Float16;
+import jsoftfloat.types.Float32;
+import jsoftfloat.types.Float64;
+import jsoftfloat.types.Float80;
 import jsoftfloat.types.Floating;
+import jsoftfloat.types.Interval;
+
+import java.math.BigInteger;
 
 /**
  * Groups any arithmetic operations such as addition, subtraction, etc
@@ -111,7 +131,7 @@ public class Arithmetic {
             return a;
         }
 
-        return a.fromExactFloat(a.toExactFloat().squareRoot(a.maxPrecision()), env);
+        return a.fromExactFloat(a.toExactFloat().squareRoot(precision(a, env)), env);
     }
 
     public static <T extends Floating<T>> T fusedMultiplyAdd(T a, T b, T c, Environment env) {
@@ -138,9 +158,23 @@ public class Arithmetic {
             return add(a.isSignMinus() == b.isSignMinus() ? a.Zero() : a.NegativeZero(), c, env);
         }
 
+        // Section 6.1
+        if (c.isInfinite()) {
+            return c;
+        }
+
         ExactFloat multiplication = a.toExactFloat().multiply(b.toExactFloat());
 
-        return a.fromExactFloat(multiplication.add(c.toExactFloat()), env);
+        if (c.isZero()) {
+            return a.fromExactFloat(multiplication, env);
+        }
+
+        ExactFloat out = multiplication.add(c.toExactFloat());
+        // Check to see if it was x*y - x*y
+        if (out.isZero()) {
+            return (env.mode == RoundingMode.min) ? a.NegativeZero() : a.Zero();
+        }
+        return a.fromExactFloat(out, env);
     }
 
     public static <T extends Floating<T>> T division(T a, T b, Environment env) {
@@ -174,6 +208,1910 @@ public class Arithmetic {
         assert a.isFinite() && b.isFinite() : "Both should definitely be finite by this point";
 
         // TODO: in tie cases round away from zero despite rounding mode unless actually precise
-        return a.fromExactFloat(a.toExactFloat().divide(b.toExactFloat(), a.maxPrecision()), env);
+        return a.fromExactFloat(a.toExactFloat().divide(b.toExactFloat(), precision(a, env)), env);
+    }
+
+    // Binary32 operations on finite, non-zero operands are computed with double arithmetic. Every binary32 value and
+    // every intermediate below is a normal double, so the rounding error of each double operation is itself exact, and
+    // that is enough to round the double result to odd. Rounding to odd with 53 bits and then to 24 bits in any mode
+    // is the same as rounding the exact result once. Special values go through the generic versions, and so does
+    // stochastic rounding, which needs more than the odd bit, unless the double result is exact.
+
+    public static Float32 add(Float32 a, Float32 b, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b) || env.mode == RoundingMode.stochastic) {
+            return genericAdd(a, b, env);
+        }
+        double x = Float.intBitsToFloat(a.bits), y = Float.intBitsToFloat(b.bits);
+        double sum = x + y;
+        if (sum == 0) {
+            // Only x + (-x) can cancel exactly
+            return (env.mode == RoundingMode.min) ? Float32.NegativeZero : Float32.Zero;
+        }
+        return narrowToOdd(sum, sumError(x, y, sum), env);
+    }
+
+    public static Float32 subtraction(Float32 a, Float32 b, Environment env) {
+        // Section 6.2
+        if (a.isNaN()) return a;
+        if (b.isNaN()) return b;
+
+        return add(a, b.negate(), env);
+    }
+
+    public static Float32 multiplication(Float32 a, Float32 b, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b)) {
+            return genericMultiplication(a, b, env);
+        }
+        // 24 by 24 bits is exact
+        double product = (double) Float.intBitsToFloat(a.bits) * Float.intBitsToFloat(b.bits);
+        return new Float32(Conversions.narrow(Double.doubleToRawLongBits(product), env));
+    }
+
+    public static Float32 division(Float32 a, Float32 b, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b) || env.mode == RoundingMode.stochastic) {
+            return genericDivision(a, b, env);
+        }
+        double x = Float.intBitsToFloat(a.bits), y = Float.intBitsToFloat(b.bits);
+        double quotient = x / y;
+        // The exact quotient is quotient + remainder / y
+        double remainder = Math.fma(-quotient, y, x);
+        return narrowToOdd(quotient, y > 0 ? remainder : -remainder, env);
+    }
+
+    public static Float32 squareRoot(Float32 a, Environment env) {
+        if (!isFiniteNonZero(a) || a.isSignMinus() || env.mode == RoundingMode.stochastic) {
+            return genericSquareRoot(a, env);
+        }
+        double x = Float.intBitsToFloat(a.bits);
+        double root = Math.sqrt(x);
+        return narrowToOdd(root, Math.fma(-root, root, x), env);
+    }
+
+    public static Float32 fusedMultiplyAdd(Float32 a, Float32 b, Float32 c, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b) || !isFiniteNonZero(c) || env.mode == RoundingMode.stochastic) {
+            return genericFusedMultiplyAdd(a, b, c, env);
+        }
+        double product = (double) Float.intBitsToFloat(a.bits) * Float.intBitsToFloat(b.bits);
+        double z = Float.intBitsToFloat(c.bits);
+        double sum = product + z;
+        if (sum == 0) {
+            // Check to see if it was x*y - x*y
+            return (env.mode == RoundingMode.min) ? Float32.NegativeZero : Float32.Zero;
+        }
+        return narrowToOdd(sum, sumError(product, z, sum), env);
+    }
+
+    // The exact value of x + y - sum, where sum is x + y rounded to nearest (Knuth's TwoSum)
+    static double sumError(double x, double y, double sum) {
+        double yPart = sum - x;
+        return (x - (sum - yPart)) + (y - yPart);
+    }
+
+    /**
+     * Rounds a double which is off from the exact result by something with the sign of error to odd, and then to binary32
+     */
+    private static Float32 narrowToOdd(double value, double error, Environment env) {
+        return new Float32(Conversions.narrow(toOdd(value, error), env));
+    }
+
+    // The raw bits of value rounded to odd, where error has the sign of the exact result minus value
+    static long toOdd(double value, double error) {
+        long bits = Double.doubleToRawLongBits(value);
+        if (error != 0 && (bits & 1) == 0) {
+            // Move one unit towards the exact result, which is between value and that neighbour
+            bits += (error > 0) == (value > 0) ? 1 : -1;
+        }
+        return bits;
+    }
+
+    // Binary16 operations widen their operands to binary32 with a table. Products are exact in binary32 and sums are
+    // exact in binary64, so those are rounded to binary16 just once. Quotients and fused multiply-adds are rounded to
+    // odd in binary64 like the binary32 ones, and square roots rounded to odd in binary32 are precomputed.
+
+    public static Float16 add(Float16 a, Float16 b, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b)) {
+            return genericAdd(a, b, env);
+        }
+        double sum = (double) value(a) + value(b);
+        if (sum == 0) {
+            // Only x + (-x) can cancel exactly
+            return (env.mode == RoundingMode.min) ? Float16.NegativeZero : Float16.Zero;
+        }
+        return fromFloat64(Double.doubleToRawLongBits(sum), env);
+    }
+
+    public static Float16 subtraction(Float16 a, Float16 b, Environment env) {
+        // Section 6.2
+        if (a.isNaN()) return a;
+        if (b.isNaN()) return b;
+
+        return add(a, b.negate(), env);
+    }
+
+    public static Float16 multiplication(Float16 a, Float16 b, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b)) {
+            return genericMultiplication(a, b, env);
+        }
+        // 11 by 11 bits is exact, and so is the exponent range
+        float product = value(a) * value(b);
+        return new Float16((int) Conversions.narrow(Float.floatToRawIntBits(product) & 0xFFFFFFFFL, 23, 8, 10, 5, env));
+    }
+
+    public static Float16 division(Float16 a, Float16 b, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b) || env.mode == RoundingMode.stochastic) {
+            return genericDivision(a, b, env);
+        }
+        double x = value(a), y = value(b);
+        double quotient = x / y;
+        // The exact quotient is quotient + remainder / y
+        double remainder = Math.fma(-quotient, y, x);
+        return fromFloat64(toOdd(quotient, y > 0 ? remainder : -remainder), env);
+    }
+
+    public static Float16 squareRoot(Float16 a, Environment env) {
+        if (!isFiniteNonZero(a) || a.isSignMinus() || env.mode == RoundingMode.stochastic) {
+            return genericSquareRoot(a, env);
+        }
+        return new Float16((int) Conversions.narrow(Float16Tables.squareRoot(a.bits), 23, 8, 10, 5, env));
+    }
+
+    public static Float16 fusedMultiplyAdd(Float16 a, Float16 b, Float16 c, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b) || !isFiniteNonZero(c) || env.mode == RoundingMode.stochastic) {
+            return genericFusedMultiplyAdd(a, b, c, env);
+        }
+        double product = (double) value(a) * value(b);
+        double z = value(c);
+        double sum = product + z;
+        if (sum == 0) {
+            // Check to see if it was x*y - x*y
+            return (env.mode == RoundingMode.min) ? Float16.NegativeZero : Float16.Zero;
+        }
+        return fromFloat64(toOdd(sum, sumError(product, z, sum)), env);
+    }
+
+    private static float value(Float16 f) {
+        return Float.intBitsToFloat(Float16Tables.toFloat32(f.bits));
+    }
+
+    private static Float16 fromFloat64(long bits, Environment env) {
+        return new Float16((int) Conversions.narrow(bits, 52, 11, 10, 5, env));
+    }
+
+    /**
+     * Accumulates the products of length BFloat16 values given as raw bits in a and b into acc. Each step is a fused
+     * multiply-add rounded to Float32.
+     * <p>
+     * Products of bfloat16 values are exact in binary64, so a step is a double addition rounded to odd and then to
+     * binary32 like the Float32 operations. Steps with special values and inexact steps under stochastic rounding go
+     * through the generic fusedMultiplyAdd.
+     */
+    public static Float32 dotProduct(short[] a, int aOffset, short[] b, int bOffset, int length, Float32 acc, Environment env) {
+        int bits = acc.bits;
+        for (int i = 0; i < length; i++) {
+            int x = a[aOffset + i] << 16, y = b[bOffset + i] << 16;
+            double product = (double) Float.intBitsToFloat(x) * Float.intBitsToFloat(y);
+            double z = Float.intBitsToFloat(bits);
+            double sum = product + z;
+            double error = sumError(product, z, sum);
+            if (Double.isNaN(sum) || Double.isInfinite(sum) || (error != 0 && env.mode == RoundingMode.stochastic)) {
+                bits = genericFusedMultiplyAdd(Conversions.convertToFloat32(new BFloat16(x >>> 16), env),
+                        Conversions.convertToFloat32(new BFloat16(y >>> 16), env), new Float32(bits), env).bits;
+            } else if (sum == 0) {
+                // Zeros of the same sign keep it, otherwise it is x*y - x*y or zeros of opposite signs
+                boolean same = product == 0 && z == 0 && (Double.doubleToRawLongBits(product) < 0) == (bits < 0);
+                bits = same ? bits : env.mode == RoundingMode.min ? 0x80000000 : 0;
+            } else {
+                bits = Conversions.narrow(toOdd(sum, error), env);
+            }
+        }
+        return new Float32(bits);
+    }
+
+    // Double-double operations are built from binary64 operations rounded to nearest, which is what double arithmetic
+    // and Math.fma compute. The error-free transformations TwoSum, Fast2Sum and TwoProd give the rounding errors
+    // exactly, and the algorithms are the ones of Joldes, Muller and Popescu ("Tight and rigorous error bounds for basic
+    // building blocks of double-word arithmetic"), with relative errors of at most 3, 4 and 15 times 2^-106 for sums,
+    // products and quotients. They ignore the rounding mode and signal no flags. Special values, zeros and results
+    // which overflow are computed by the Float64 operation on the leading parts instead, in the mode of env.
+
+    public static DoubleDouble add(DoubleDouble a, DoubleDouble b, Environment env) {
+        if (!a.isFinite() || !b.isFinite() || (a.isZero() && b.isZero())) {
+            return leading(add(a.high(), b.high(), env));
+        }
+        if (a.isZero()) return b;
+        if (b.isZero()) return a;
+        double xh = Double.longBitsToDouble(a.hi), xl = Double.longBitsToDouble(a.lo);
+        double yh = Double.longBitsToDouble(b.hi), yl = Double.longBitsToDouble(b.lo);
+        double s = xh + yh, t = sumError(xh, yh, s);
+        double u = xl + yl, v = sumError(xl, yl, u);
+        double c = t + u;
+        double vh = s + c, vl = c - (vh - s);
+        double w = vl + v;
+        double zh = vh + w, zl = w - (zh - vh);
+        if (!Double.isFinite(zh)) {
+            return leading(add(a.high(), b.high(), env));
+        }
+        return pair(zh, zl);
+    }
+
+    public static DoubleDouble subtraction(DoubleDouble a, DoubleDouble b, Environment env) {
+        // Section 6.2
+        if (a.isNaN()) return a;
+        if (b.isNaN()) return b;
+
+        return add(a, b.negate(), env);
+    }
+
+    public static DoubleDouble multiplication(DoubleDouble a, DoubleDouble b, Environment env) {
+        if (!a.isFinite() || !b.isFinite() || a.isZero() || b.isZero()) {
+            return leading(multiplication(a.high(), b.high(), env));
+        }
+        double xh = Double.longBitsToDouble(a.hi), xl = Double.longBitsToDouble(a.lo);
+        double yh = Double.longBitsToDouble(b.hi), yl = Double.longBitsToDouble(b.lo);
+        double ch = xh * yh, cl1 = Math.fma(xh, yh, -ch);
+        double cl2 = Math.fma(xl, yh, Math.fma(xh, yl, xl * yl));
+        double cl3 = cl1 + cl2;
+        double zh = ch + cl3, zl = cl3 - (zh - ch);
+        if (!Double.isFinite(zh)) {
+            return leading(multiplication(a.high(), b.high(), env));
+        }
+        return pair(zh, zl);
+    }
+
+    public static DoubleDouble division(DoubleDouble a, DoubleDouble b, Environment env) {
+        if (!a.isFinite() || !b.isFinite() || a.isZero() || b.isZero()) {
+            return leading(division(a.high(), b.high(), env));
+        }
+        double xh = Double.longBitsToDouble(a.hi), xl = Double.longBitsToDouble(a.lo);
+        double yh = Double.longBitsToDouble(b.hi), yl = Double.longBitsToDouble(b.lo);
+        double th = xh / yh;
+        // r = y * th, then the quotient is th + (x - r) / yh
+        double ch = yh * th, cl1 = Math.fma(yh, th, -ch);
+        double cl2 = yl * th;
+        double rh1 = ch + cl2, rl1 = cl2 - (rh1 - ch);
+        double tl = rl1 + cl1;
+        double rh = rh1 + tl, rl = tl - (rh - rh1);
+        double d = (xh - rh) + (xl - rl);
+        double q = d / yh;
+        double zh = th + q, zl = q - (zh - th);
+        if (!Double.isFinite(zh)) {
+            return leading(division(a.high(), b.high(), env));
+        }
+        return pair(zh, zl);
+    }
+
+    public static DoubleDouble squareRoot(DoubleDouble a, Environment env) {
+        if (!a.isFinite() || a.isZero() || a.isSignMinus()) {
+            return leading(squareRoot(a.high(), env));
+        }
+        // Operands close to underflowing are scaled up by an even power of two, which halves when scaling the root back
+        int scale = Double.longBitsToDouble(a.hi) < 0x1p-969 ? 600 : 0;
+        double xh = Math.scalb(Double.longBitsToDouble(a.hi), scale), xl = Math.scalb(Double.longBitsToDouble(a.lo), scale);
+        // One Newton step from the binary64 root, where q^2 is exact as a pair and xh - q^2 cancels exactly
+        double q = Math.sqrt(xh);
+        double p = q * q, pl = Math.fma(q, q, -p);
+        double c = (((xh - p) - pl) + xl) / (2 * q);
+        double zh = q + c, zl = c - (zh - q);
+        return pair(Math.scalb(zh, -scale / 2), Math.scalb(zl, -scale / 2));
+    }
+
+    /**
+     * Computes a * b + c. The product is rounded to a pair first, so this has the error of a multiplication and an
+     * addition.
+     */
+    public static DoubleDouble fusedMultiplyAdd(DoubleDouble a, DoubleDouble b, DoubleDouble c, Environment env) {
+        return add(multiplication(a, b, env), c, env);
+    }
+
+    /**
+     * Adds length binary64 values given as raw bits from a to acc (Ogita, Rump and Oishi's Sum2)
+     * <p>
+     * The sum is rounded to nearest at each step and the exact rounding errors are accumulated separately, which is as
+     * accurate as summing with twice the precision, and the loop has no branches. If the sum doesn't stay finite it is
+     * computed again with Float64 additions in the mode of env, which signal the flags.
+     */
+    public static DoubleDouble sum(long[] a, int offset, int length, DoubleDouble acc, Environment env) {
+        double s = Double.longBitsToDouble(acc.hi), c = Double.longBitsToDouble(acc.lo);
+        for (int i = 0; i < length; i++) {
+            double y = Double.longBitsToDouble(a[offset + i]);
+            double t = s + y;
+            c += sumError(s, y, t);
+            s = t;
+        }
+        if (!Double.isFinite(s) || !Double.isFinite(c)) {
+            Float64 total = acc.high();
+            for (int i = 0; i < length; i++) {
+                total = add(total, new Float64(a[offset + i]), env);
+            }
+            return leading(total);
+        }
+        return twoSum(s, c);
+    }
+
+    /**
+     * Accumulates the products of length binary64 values given as raw bits in a and b into acc (Ogita, Rump and
+     * Oishi's Dot2), which is like sum with the rounding errors of the products from TwoProd added in too
+     */
+    public static DoubleDouble dotProduct(long[] a, int aOffset, long[] b, int bOffset, int length, DoubleDouble acc, Environment env) {
+        double s = Double.longBitsToDouble(acc.hi), c = Double.longBitsToDouble(acc.lo);
+        for (int i = 0; i < length; i++) {
+            double x = Double.longBitsToDouble(a[aOffset + i]), y = Double.longBitsToDouble(b[bOffset + i]);
+            double p = x * y;
+            double t = s + p;
+            c += sumError(s, p, t) + Math.fma(x, y, -p);
+            s = t;
+        }
+        if (!Double.isFinite(s) || !Double.isFinite(c)) {
+            Float64 total = acc.high();
+            for (int i = 0; i < length; i++) {
+                total = add(total, multiplication(new Float64(a[aOffset + i]), new Float64(b[bOffset + i]), env), env);
+            }
+            return leading(total);
+        }
+        return twoSum(s, c);
+    }
+
+    private static DoubleDouble leading(Float64 f) {
+        return new DoubleDouble(f.bits, 0);
+    }
+
+    // The normalized pair for hi + lo with |lo| small enough that lo is the exact error of hi
+    private static DoubleDouble pair(double hi, double lo) {
+        return new DoubleDouble(Double.doubleToRawLongBits(hi), lo == 0 ? 0 : Double.doubleToRawLongBits(lo));
+    }
+
+    private static DoubleDouble twoSum(double x, double y) {
+        double sum = x + y;
+        return pair(sum, sumError(x, y, sum));
+    }
+
+    // Extended precision operations work on the 64 bit significands with longs and round with Float80.round to the
+    // precision control of the environment. Sums keep 64 guard bits, products and quotients are 128 bits wide and square
+    // roots get a second 64 bit digit like the binary128 ones, which leaves the whole discarded fraction for stochastic
+    // rounding too. Adding a zero still rounds the other operand to the precision control, like the x87 does.
+
+    public static Float80 add(Float80 a, Float80 b, Environment env) {
+        if (a.isNaN() || b.isNaN() || a.isInfinite() || b.isInfinite() || (a.isZero() && b.isZero())) {
+            return genericAdd(a, b, env);
+        }
+        int precision = env.precision.bits;
+        if (a.isZero() || b.isZero()) {
+            Float80 f = a.isZero() ? b : a;
+            return Float80.round(f.isSignMinus(), 0, f.significand, extendedExponent(f), false, precision, env);
+        }
+        int sa = Long.numberOfLeadingZeros(a.significand), sb = Long.numberOfLeadingZeros(b.significand);
+        long x = a.significand << sa, y = b.significand << sb;
+        int ex = extendedExponent(a) - sa, ey = extendedExponent(b) - sb;
+        boolean sign = a.isSignMinus();
+        // Make x the larger magnitude, both have their top bit set so they compare by exponent first
+        if (ex < ey || (ex == ey && Long.compareUnsigned(x, y) < 0)) {
+            long t = x;
+            x = y;
+            y = t;
+            int e = ex;
+            ex = ey;
+            ey = e;
+            sign = b.isSignMinus();
+        }
+        int gap = ex - ey;
+        boolean sticky = LongMath.anyBelow(y, 0, gap);
+        long hi = LongMath.shiftRightHi(y, gap), lo = LongMath.shiftRightLo(y, 0, gap);
+        int exponent = ex - 64;
+        if (a.isSignMinus() == b.isSignMinus()) {
+            long sum = x + hi;
+            if (Long.compareUnsigned(sum, x) < 0) {
+                // Carried out of the top, so move everything down a bit
+                sticky |= (lo & 1) != 0;
+                lo = lo >>> 1 | sum << 63;
+                hi = sum >>> 1 | 0x80000000_00000000L;
+                exponent++;
+            } else {
+                hi = sum;
+            }
+        } else {
+            hi = x - hi - (lo != 0 ? 1 : 0);
+            lo = -lo;
+            if (sticky) {
+                // x - (y + f) = (x - y - 1) + (1 - f), which is still above 2^126
+                hi -= lo == 0 ? 1 : 0;
+                lo--;
+            } else if (hi == 0 && lo == 0) {
+                // Only x + (-x) can cancel exactly
+                return (env.mode == RoundingMode.min) ? Float80.NegativeZero : Float80.Zero;
+            }
+        }
+        return Float80.round(sign, hi, lo, exponent, sticky, precision, env);
+    }
+
+    public static Float80 subtraction(Float80 a, Float80 b, Environment env) {
+        // Section 6.2
+        if (a.isNaN()) return a;
+        if (b.isNaN()) return b;
+
+        return add(a, b.negate(), env);
+    }
+
+    public static Float80 multiplication(Float80 a, Float80 b, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b)) {
+            return genericMultiplication(a, b, env);
+        }
+        long hi = LongMath.unsignedMultiplyHigh(a.significand, b.significand), lo = a.significand * b.significand;
+        return Float80.round(a.isSignMinus() != b.isSignMinus(), hi, lo, extendedExponent(a) + extendedExponent(b),
+                false, env.precision.bits, env);
+    }
+
+    public static Float80 division(Float80 a, Float80 b, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b)) {
+            return genericDivision(a, b, env);
+        }
+        int sa = Long.numberOfLeadingZeros(a.significand), sb = Long.numberOfLeadingZeros(b.significand);
+        long x = a.significand << sa, d = b.significand << sb;
+        int exponent = extendedExponent(a) - sa - (extendedExponent(b) - sb) - 128;
+        // x * 2^128 / d has 128 bits when x < d, otherwise halve x
+        long hi = x, lo = 0;
+        if (Long.compareUnsigned(x, d) >= 0) {
+            hi = x >>> 1;
+            lo = x << 63;
+            exponent++;
+        }
+        long reciprocal = LongMath.reciprocal(d);
+        long q1 = LongMath.divide(hi, lo, d, reciprocal);
+        long q0 = LongMath.divide(lo - q1 * d, 0, d, reciprocal);
+        return Float80.round(a.isSignMinus() != b.isSignMinus(), q1, q0, exponent, q0 * d != 0, env.precision.bits, env);
+    }
+
+    public static Float80 squareRoot(Float80 a, Environment env) {
+        if (!isFiniteNonZero(a) || a.isSignMinus()) {
+            return genericSquareRoot(a, env);
+        }
+        int sa = Long.numberOfLeadingZeros(a.significand);
+        long x = a.significand << sa;
+        int exponent = extendedExponent(a) - sa;
+        // n = x * 2^64 or x * 2^63, whichever leaves an even exponent, has a root of 64 bits
+        boolean odd = ((exponent - 64) & 1) != 0;
+        long nHi = odd ? x >>> 1 : x, nLo = odd ? x << 63 : 0;
+        exponent -= odd ? 63 : 64;
+
+        // A double gets the root s within a few thousand units, and the error of s^2 as a double then gets it within
+        // one, where the remainder n - s^2 is exact
+        double root = Math.min(Math.sqrt((nHi >>> 1) * 0x1p65), 0x1p64 - 2048);
+        long s = (long) (root - 0x1p63) + 0x80000000_00000000L;
+        long errorHi = nHi - LongMath.unsignedMultiplyHigh(s, s) - (Long.compareUnsigned(nLo, s * s) < 0 ? 1 : 0);
+        s += (long) Math.floor((errorHi * 0x1p64 + ((nLo - s * s) >>> 11) * 0x1p11) / ((s >>> 1) * 0x1p2));
+        long rLo = nLo - s * s;
+        long rHi = nHi - LongMath.unsignedMultiplyHigh(s, s) - (Long.compareUnsigned(nLo, s * s) < 0 ? 1 : 0);
+        while (rHi < 0) {
+            // (s - 1)^2 = s^2 - (2s - 1)
+            s--;
+            long twiceLo = s << 1 | 1;
+            rLo += twiceLo;
+            rHi += (s >>> 63) + (Long.compareUnsigned(rLo, twiceLo) < 0 ? 1 : 0);
+        }
+        while (rHi > (s >>> 63) || (rHi == (s >>> 63) && Long.compareUnsigned(rLo, s << 1) > 0)) {
+            long twiceLo = s << 1 | 1;
+            rHi -= (s >>> 63) + (Long.compareUnsigned(rLo, twiceLo) < 0 ? 1 : 0);
+            rLo -= twiceLo;
+            s++;
+        }
+
+        // The next 64 bits are (r * 2^64) / 2s = (r * 2^63) / s, which may be one too large (Zimmermann's Karatsuba
+        // square root). The remainder of the whole root is then u * 2^65 - q^2.
+        long uHi = rHi << 63 | rLo >>> 1, uLo = rLo << 63;
+        long q;
+        if (Long.compareUnsigned(uHi, s) >= 0) {
+            q = -1; // r = 2s, where the quotient 2^64 is always one too large
+        } else {
+            q = LongMath.divide(uHi, uLo, s, LongMath.reciprocal(s));
+            long u = uLo - q * s;
+            long squareHi = LongMath.unsignedMultiplyHigh(q, q);
+            if (u >= 0 && (Long.compareUnsigned(squareHi, u << 1) > 0 || (squareHi == u << 1 && q * q != 0))) {
+                q--;
+            }
+        }
+        // n is only a perfect square if the remainder is zero, and then so is the one of n * 2^128
+        return Float80.round(false, s, q, (exponent >> 1) - 64, (rHi | rLo) != 0, env.precision.bits, env);
+    }
+
+    // The exponent of the lowest bit of the significand, pseudo-denormals read like they had an exponent of one
+    private static int extendedExponent(Float80 f) {
+        return Math.max(f.exponent(), -16382) - 63;
+    }
+
+    // Binary128 operations work on the significands as pairs of longs and round with Float128.round. Sums keep 13
+    // guard bits and a sticky bit, products are built from 64 by 64 bit partial products, quotients are two 64 bit
+    // digits of schoolbook division and square roots are built from two 58 bit digits. They keep enough bits to round
+    // correctly in every deterministic mode, but not the whole discarded fraction that stochastic rounding needs, so
+    // that goes through the generic versions.
+
+    private static final long QUAD_FRACTION = 0x0000FFFF_FFFFFFFFL, QUAD_MAGNITUDE = 0x7FFFFFFF_FFFFFFFFL;
+
+    public static Float128 add(Float128 a, Float128 b, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b) || env.mode == RoundingMode.stochastic) {
+            return genericAdd(a, b, env);
+        }
+        // The magnitudes compare like unsigned integers, make a the larger one
+        long ma = a.hi & QUAD_MAGNITUDE, mb = b.hi & QUAD_MAGNITUDE;
+        if (ma < mb || (ma == mb && Long.compareUnsigned(a.lo, b.lo) < 0)) {
+            Float128 t = a;
+            a = b;
+            b = t;
+        }
+        int sa = quadShift(a), sb = quadShift(b);
+        long aHi = LongMath.shiftLeftHi(quadHi(a), a.lo, sa + 13), aLo = LongMath.shiftLeftLo(a.lo, sa + 13);
+        long bHi = LongMath.shiftLeftHi(quadHi(b), b.lo, sb + 13), bLo = LongMath.shiftLeftLo(b.lo, sb + 13);
+        int exponent = quadExponent(a) - sa - 13;
+        // Both significands have their top bit at 125, so the gap in exponents is how far b moves
+        int gap = exponent - (quadExponent(b) - sb - 13);
+        boolean sticky = LongMath.anyBelow(bHi, bLo, gap);
+        long lo = LongMath.shiftRightLo(bHi, bLo, gap), hi = LongMath.shiftRightHi(bHi, gap);
+        if (a.isSignMinus() == b.isSignMinus()) {
+            lo += aLo;
+            hi += aHi + (Long.compareUnsigned(lo, aLo) < 0 ? 1 : 0);
+        } else {
+            long difference = aLo - lo;
+            hi = aHi - hi - (Long.compareUnsigned(aLo, lo) < 0 ? 1 : 0);
+            lo = difference;
+            if (sticky) {
+                // a - (b + f) = (a - b - 1) + (1 - f), which is still above 2^124
+                hi -= lo == 0 ? 1 : 0;
+                lo--;
+            } else if (hi == 0 && lo == 0) {
+                // Only x + (-x) can cancel exactly
+                return (env.mode == RoundingMode.min) ? Float128.NegativeZero : Float128.Zero;
+            }
+        }
+        return Float128.round(a.isSignMinus(), hi, lo, exponent, sticky, env);
+    }
+
+    public static Float128 subtraction(Float128 a, Float128 b, Environment env) {
+        // Section 6.2
+        if (a.isNaN()) return a;
+        if (b.isNaN()) return b;
+
+        return add(a, b.negate(), env);
+    }
+
+    public static Float128 multiplication(Float128 a, Float128 b, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b) || env.mode == RoundingMode.stochastic) {
+            return genericMultiplication(a, b, env);
+        }
+        int sa = quadShift(a), sb = quadShift(b);
+        long aHi = LongMath.shiftLeftHi(quadHi(a), a.lo, sa), aLo = LongMath.shiftLeftLo(a.lo, sa);
+        long bHi = LongMath.shiftLeftHi(quadHi(b), b.lo, sb), bLo = LongMath.shiftLeftLo(b.lo, sb);
+
+        // The 226 bit product p3:p2:p1:p0, the high words only have 49 bits so aHi * bHi fits in two words
+        long p0 = aLo * bLo, ll = LongMath.unsignedMultiplyHigh(aLo, bLo);
+        long mid = ll + aLo * bHi;
+        long carry = Long.compareUnsigned(mid, ll) < 0 ? 1 : 0;
+        long p1 = mid + aHi * bLo;
+        carry += Long.compareUnsigned(p1, mid) < 0 ? 1 : 0;
+        long hh = aHi * bHi, p3 = LongMath.unsignedMultiplyHigh(aHi, bHi);
+        long high = hh + LongMath.unsignedMultiplyHigh(aLo, bHi);
+        p3 += Long.compareUnsigned(high, hh) < 0 ? 1 : 0;
+        long high2 = high + LongMath.unsignedMultiplyHigh(aHi, bLo);
+        p3 += Long.compareUnsigned(high2, high) < 0 ? 1 : 0;
+        long p2 = high2 + carry;
+        p3 += Long.compareUnsigned(p2, high2) < 0 ? 1 : 0;
+
+        // The top 127 or 128 bits and a sticky bit for the other 98
+        long hi = p3 << 30 | p2 >>> 34, lo = p2 << 30 | p1 >>> 34;
+        boolean sticky = (p1 << 30) != 0 || p0 != 0;
+        int exponent = quadExponent(a) - sa + quadExponent(b) - sb + 98;
+        return Float128.round(a.isSignMinus() != b.isSignMinus(), hi, lo, exponent, sticky, env);
+    }
+
+    public static Float128 division(Float128 a, Float128 b, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b) || env.mode == RoundingMode.stochastic) {
+            return genericDivision(a, b, env);
+        }
+        int sa = quadShift(a), sb = quadShift(b);
+        long aHi = LongMath.shiftLeftHi(quadHi(a), a.lo, sa), aLo = LongMath.shiftLeftLo(a.lo, sa);
+        long bHi = LongMath.shiftLeftHi(quadHi(b), b.lo, sb), bLo = LongMath.shiftLeftLo(b.lo, sb);
+
+        // floor(a * 2^131 / (b * 2^15)) has 116 or 117 bits, and the dividend's low two words are zero
+        long d1 = bHi << 15 | bLo >>> 49, d0 = bLo << 15, reciprocal = LongMath.reciprocal(d1);
+        long u2 = aHi << 3 | aLo >>> 61, u1 = aLo << 3;
+        long q1 = quotientDigit(u2, u1, d1, d0, reciprocal);
+        // The remainder is below d1:d0, so only its low two words need to be computed
+        long pLo = q1 * d0, pHi = q1 * d1 + LongMath.unsignedMultiplyHigh(q1, d0);
+        u2 = u1 - pHi - (pLo != 0 ? 1 : 0);
+        u1 = -pLo;
+        long q0 = quotientDigit(u2, u1, d1, d0, reciprocal);
+        pLo = q0 * d0;
+        pHi = q0 * d1 + LongMath.unsignedMultiplyHigh(q0, d0);
+        boolean sticky = u1 != pHi + (pLo != 0 ? 1 : 0) || pLo != 0;
+
+        int exponent = quadExponent(a) - sa - (quadExponent(b) - sb) - 116;
+        return Float128.round(a.isSignMinus() != b.isSignMinus(), q1, q0, exponent, sticky, env);
+    }
+
+    /**
+     * Divides u2:u1:0 by d1:d0 (Knuth's Algorithm D with 64 bit digits)
+     *
+     * @param d1         the high word of the divisor, with its top bit set
+     * @param reciprocal the reciprocal of d1
+     * @return the quotient, which is one digit as u2:u1 &lt; d1:d0
+     */
+    private static long quotientDigit(long u2, long u1, long d1, long d0, long reciprocal) {
+        long q, r;
+        boolean wide; // Whether r doesn't fit in a word, then q * d0 is certainly below r:0
+        if (u2 == d1) {
+            q = -1;
+            r = u1 + d1;
+            wide = Long.compareUnsigned(r, u1) < 0;
+        } else {
+            q = LongMath.divide(u2, u1, d1, reciprocal);
+            r = u1 - q * d1;
+            wide = false;
+        }
+        // q * d1 + r = u2:u1, so q is too large exactly when q * d0 > r:0. It is at most two too large.
+        while (!wide) {
+            long pHi = LongMath.unsignedMultiplyHigh(q, d0);
+            if (Long.compareUnsigned(pHi, r) < 0 || (pHi == r && q * d0 == 0)) {
+                break;
+            }
+            q--;
+            r += d1;
+            wide = Long.compareUnsigned(r, d1) < 0;
+        }
+        return q;
+    }
+
+    public static Float128 squareRoot(Float128 a, Environment env) {
+        if (!isFiniteNonZero(a) || a.isSignMinus() || env.mode == RoundingMode.stochastic) {
+            return genericSquareRoot(a, env);
+        }
+        int sa = quadShift(a);
+        long aHi = LongMath.shiftLeftHi(quadHi(a), a.lo, sa), aLo = LongMath.shiftLeftLo(a.lo, sa);
+        int exponent = quadExponent(a) - sa;
+        // The root of a * 2^shift with an even exponent has 116 bits. With the significand moved up to 115 or 116 bits
+        // as h, that is the root of h * 2^116, which is computed from the root of h like Zimmermann's Karatsuba square
+        // root with 58 bit digits.
+        int shift = 118 + ((exponent - 118) & 1);
+        long hHi = LongMath.shiftLeftHi(aHi, aLo, shift - 116), hLo = LongMath.shiftLeftLo(aLo, shift - 116);
+
+        // The 58 bit root s of h, which a double gets within a few dozen units of. The error of s^2 then fits in a
+        // double closely enough to get within one unit, where the remainder h - s^2 fits in a long.
+        long s = (long) Math.sqrt(hHi * 0x1p64 + (hLo >>> 11) * 0x1p11);
+        long errorHi = hHi - LongMath.unsignedMultiplyHigh(s, s) - (Long.compareUnsigned(hLo, s * s) < 0 ? 1 : 0);
+        s += (long) Math.floor((errorHi * 0x1p64 + ((hLo - s * s) >>> 11) * 0x1p11) / (2.0 * s));
+        long r = hLo - s * s;
+        while (r < 0) {
+            s--;
+            r += 2 * s + 1;
+        }
+        while (r > 2 * s) {
+            r -= 2 * s + 1;
+            s++;
+        }
+
+        // The next 58 bits are (r * 2^58) / 2s, which may be one too large
+        int lz = Long.numberOfLeadingZeros(2 * s);
+        long d = 2 * s << lz, uHi = r >>> (6 - lz), uLo = r << (58 + lz);
+        long q = LongMath.divide(uHi, uLo, d, LongMath.reciprocal(d));
+        long u = (uLo - q * d) >>> lz;
+        long rootLo = (s << 58) + q, rootHi = (s >>> 6) + (Long.compareUnsigned(rootLo, q) < 0 ? 1 : 0);
+        // The remainder is u * 2^58 - q^2
+        long remLo = (u << 58) - q * q;
+        long remHi = (u >>> 6) - LongMath.unsignedMultiplyHigh(q, q) - (Long.compareUnsigned(u << 58, q * q) < 0 ? 1 : 0);
+        if (remHi < 0) {
+            // (root - 1)^2 leaves a remainder of rem + 2 * (root - 1) + 1
+            rootHi -= rootLo == 0 ? 1 : 0;
+            rootLo--;
+            long twiceLo = rootLo << 1 | 1;
+            remLo += twiceLo;
+            remHi += (rootHi << 1 | rootLo >>> 63) + (Long.compareUnsigned(remLo, twiceLo) < 0 ? 1 : 0);
+        }
+        return Float128.round(false, rootHi, rootLo, (exponent - shift) >> 1, (remHi | remLo) != 0, env);
+    }
+
+    // The significand of a finite binary128 with the implicit bit, as the high word and a.lo
+    private static long quadHi(Float128 f) {
+        long hi = f.hi & QUAD_FRACTION;
+        return f.isSubnormal() ? hi : hi | 1L << 48;
+    }
+
+    // The exponent of the lowest bit of the significand
+    private static int quadExponent(Float128 f) {
+        return Math.max(f.exponent(), -16382) - 112;
+    }
+
+    // How far the significand has to move up to put the top bit at 112, which is only needed for subnormals
+    private static int quadShift(Float128 f) {
+        return f.isSubnormal() ? LongMath.numberOfLeadingZeros(f.hi & QUAD_FRACTION, f.lo) - 15 : 0;
+    }
+
+    // Operations on 8 bit formats look up their results and flags in tables, see ByteTables
+
+    public static E4M3 add(E4M3 a, E4M3 b, Environment env) {
+        return new E4M3(ByteTables.FOR_E4M3.apply(ByteTables.ADD, a.bits, b.bits, env));
+    }
+
+    public static E4M3 subtraction(E4M3 a, E4M3 b, Environment env) {
+        return new E4M3(ByteTables.FOR_E4M3.apply(ByteTables.SUBTRACTION, a.bits, b.bits, env));
+    }
+
+    public static E4M3 multiplication(E4M3 a, E4M3 b, Environment env) {
+        return new E4M3(ByteTables.FOR_E4M3.apply(ByteTables.MULTIPLICATION, a.bits, b.bits, env));
+    }
+
+    public static E4M3 division(E4M3 a, E4M3 b, Environment env) {
+        return new E4M3(ByteTables.FOR_E4M3.apply(ByteTables.DIVISION, a.bits, b.bits, env));
+    }
+
+    public static E5M2 add(E5M2 a, E5M2 b, Environment env) {
+        return new E5M2(ByteTables.FOR_E5M2.apply(ByteTables.ADD, a.bits, b.bits, env));
+    }
+
+    public static E5M2 subtraction(E5M2 a, E5M2 b, Environment env) {
+        return new E5M2(ByteTables.FOR_E5M2.apply(ByteTables.SUBTRACTION, a.bits, b.bits, env));
+    }
+
+    public static E5M2 multiplication(E5M2 a, E5M2 b, Environment env) {
+        return new E5M2(ByteTables.FOR_E5M2.apply(ByteTables.MULTIPLICATION, a.bits, b.bits, env));
+    }
+
+    public static E5M2 division(E5M2 a, E5M2 b, Environment env) {
+        return new E5M2(ByteTables.FOR_E5M2.apply(ByteTables.DIVISION, a.bits, b.bits, env));
+    }
+
+    /**
+     * Computes a + b for length pairs of raw bits from a and b into dst, which may be the same array as either
+     *
+     * @param helper any value of the format of the raw bits
+     */
+    public static void add(byte[] a, int aOffset, byte[] b, int bOffset, byte[] dst, int dstOffset, int length, E4M3 helper, Environment env) {
+        ByteTables.FOR_E4M3.apply(ByteTables.ADD, a, aOffset, b, bOffset, dst, dstOffset, length, env);
+    }
+
+    public static void add(byte[] a, int aOffset, byte[] b, int bOffset, byte[] dst, int dstOffset, int length, E5M2 helper, Environment env) {
+        ByteTables.FOR_E5M2.apply(ByteTables.ADD, a, aOffset, b, bOffset, dst, dstOffset, length, env);
+    }
+
+    /**
+     * Computes a - b for length pairs of raw bits from a and b into dst, which may be the same array as either
+     *
+     * @param helper any value of the format of the raw bits
+     */
+    public static void subtraction(byte[] a, int aOffset, byte[] b, int bOffset, byte[] dst, int dstOffset, int length, E4M3 helper, Environment env) {
+        ByteTables.FOR_E4M3.apply(ByteTables.SUBTRACTION, a, aOffset, b, bOffset, dst, dstOffset, length, env);
+    }
+
+    public static void subtraction(byte[] a, int aOffset, byte[] b, int bOffset, byte[] dst, int dstOffset, int length, E5M2 helper, Environment env) {
+        ByteTables.FOR_E5M2.apply(ByteTables.SUBTRACTION, a, aOffset, b, bOffset, dst, dstOffset, length, env);
+    }
+
+    /**
+     * Computes a * b for length pairs of raw bits from a and b into dst, which may be the same array as either
+     *
+     * @param helper any value of the format of the raw bits
+     */
+    public static void multiplication(byte[] a, int aOffset, byte[] b, int bOffset, byte[] dst, int dstOffset, int length, E4M3 helper, Environment env) {
+        ByteTables.FOR_E4M3.apply(ByteTables.MULTIPLICATION, a, aOffset, b, bOffset, dst, dstOffset, length, env);
+    }
+
+    public static void multiplication(byte[] a, int aOffset, byte[] b, int bOffset, byte[] dst, int dstOffset, int length, E5M2 helper, Environment env) {
+        ByteTables.FOR_E5M2.apply(ByteTables.MULTIPLICATION, a, aOffset, b, bOffset, dst, dstOffset, length, env);
+    }
+
+    /**
+     * Computes a / b for length pairs of raw bits from a and b into dst, which may be the same array as either
+     *
+     * @param helper any value of the format of the raw bits
+     */
+    public static void division(byte[] a, int aOffset, byte[] b, int bOffset, byte[] dst, int dstOffset, int length, E4M3 helper, Environment env) {
+        ByteTables.FOR_E4M3.apply(ByteTables.DIVISION, a, aOffset, b, bOffset, dst, dstOffset, length, env);
+    }
+
+    public static void division(byte[] a, int aOffset, byte[] b, int bOffset, byte[] dst, int dstOffset, int length, E5M2 helper, Environment env) {
+        ByteTables.FOR_E5M2.apply(ByteTables.DIVISION, a, aOffset, b, bOffset, dst, dstOffset, length, env);
+    }
+
+    // Decimal operations compute the exact result on integer coefficients, or enough of it to round, and round with
+    // Decimal64.round or Decimal128.round, which also pick the exponent of exact results. Sums line the coefficients up
+    // exactly unless that would take more than 20 digits below the precision, below which the smaller operand only
+    // matters as a sticky digit. Products are exact, and quotients and square roots are computed to as many digits as
+    // fit in 128 bits (256 bits for decimal128) with the remainder as a sticky digit.
+
+    public static Decimal64 add(Decimal64 a, Decimal64 b, Environment env) {
+        if (a.isNaN() || b.isNaN()) return propagate(a, b, env);
+        // Section 6.1 and 7.2
+        if (a.isInfinite() || b.isInfinite()) {
+            if (a.isInfinite() && b.isInfinite() && a.isSignMinus() != b.isSignMinus()) {
+                env.flags.add(Flags.invalid);
+                return Decimal64.NaN;
+            }
+            return (a.isInfinite() ? a : b).isSignMinus() ? Decimal64.NegativeInfinity : Decimal64.Infinity;
+        }
+        boolean sa = a.isSignMinus(), sb = b.isSignMinus();
+        long ca = a.coefficient(), cb = b.coefficient();
+        int qa = a.exponent(), qb = b.exponent(), ideal = Math.min(qa, qb);
+        // Section 6.3
+        if (ca == 0 || cb == 0) {
+            if (ca == 0 && cb == 0) {
+                return new Decimal64(sa == sb ? sa : env.mode == RoundingMode.min, 0, ideal);
+            }
+            return ca == 0 ? Decimal64.round(sb, 0, cb, qb, false, ideal, env) : Decimal64.round(sa, 0, ca, qa, false, ideal, env);
+        }
+        if (qa + PowersOfTen.digits(ca) < qb + PowersOfTen.digits(cb)) {
+            // Make a the one with the higher leading digit
+            boolean s = sa;
+            sa = sb;
+            sb = s;
+            long c = ca;
+            ca = cb;
+            cb = c;
+            int q = qa;
+            qa = qb;
+            qb = q;
+        }
+        int cutoff = Math.max(ideal, qa + PowersOfTen.digits(ca) - (Decimal64.precision + 20));
+        long[] power = PowersOfTen.pow10Limbs(qa - cutoff);
+        long aHi = LongMath.unsignedMultiplyHigh(ca, power[0]) + ca * power[1], aLo = ca * power[0];
+        long bHi, bLo;
+        boolean sticky = false;
+        if (qb >= cutoff) {
+            power = PowersOfTen.pow10Limbs(qb - cutoff);
+            bHi = LongMath.unsignedMultiplyHigh(cb, power[0]) + cb * power[1];
+            bLo = cb * power[0];
+        } else {
+            int drop = cutoff - qb;
+            bHi = 0;
+            bLo = drop > 19 ? 0 : Long.divideUnsigned(cb, PowersOfTen.pow10(drop));
+            sticky = drop > 19 || bLo * PowersOfTen.pow10(drop) != cb;
+        }
+        boolean sign = sa;
+        long hi, lo;
+        if (sa == sb) {
+            lo = aLo + bLo;
+            hi = aHi + bHi + (Long.compareUnsigned(lo, aLo) < 0 ? 1 : 0);
+        } else {
+            // The digits of b below the cutoff make it slightly larger, which the sticky digit makes up for
+            long subtrahend = bLo + (sticky ? 1 : 0);
+            lo = aLo - subtrahend;
+            hi = aHi - bHi - (Long.compareUnsigned(aLo, subtrahend) < 0 ? 1 : 0);
+            if (hi < 0) {
+                hi = ~hi + (lo == 0 ? 1 : 0);
+                lo = -lo;
+                sign = sb;
+            } else if (hi == 0 && lo == 0) {
+                // Only x + (-x) can cancel exactly
+                return new Decimal64(env.mode == RoundingMode.min, 0, ideal);
+            }
+        }
+        return Decimal64.round(sign, hi, lo, cutoff, sticky, ideal, env);
+    }
+
+    public static Decimal64 subtraction(Decimal64 a, Decimal64 b, Environment env) {
+        if (a.isNaN() || b.isNaN()) return propagate(a, b, env);
+        return add(a, b.negate(), env);
+    }
+
+    public static Decimal64 multiplication(Decimal64 a, Decimal64 b, Environment env) {
+        if (a.isNaN() || b.isNaN()) return propagate(a, b, env);
+        boolean sign = a.isSignMinus() != b.isSignMinus();
+        if (a.isInfinite() || b.isInfinite()) {
+            // Section 7.2
+            if (a.isZero() || b.isZero()) {
+                env.flags.add(Flags.invalid);
+                return Decimal64.NaN;
+            }
+            // Section 6.1
+            return sign ? Decimal64.NegativeInfinity : Decimal64.Infinity;
+        }
+        long ca = a.coefficient(), cb = b.coefficient();
+        int exponent = a.exponent() + b.exponent();
+        return Decimal64.round(sign, LongMath.unsignedMultiplyHigh(ca, cb), ca * cb, exponent, false, exponent, env);
+    }
+
+    public static Decimal64 division(Decimal64 a, Decimal64 b, Environment env) {
+        if (a.isNaN() || b.isNaN()) return propagate(a, b, env);
+        boolean sign = a.isSignMinus() != b.isSignMinus();
+        // Section 7.2
+        if ((a.isInfinite() && b.isInfinite()) || (a.isZero() && b.isZero())) {
+            env.flags.add(Flags.invalid);
+            return Decimal64.NaN;
+        }
+        // Section 6.1
+        if (a.isInfinite()) {
+            return sign ? Decimal64.NegativeInfinity : Decimal64.Infinity;
+        }
+        if (b.isInfinite()) {
+            return new Decimal64(sign, 0, Decimal64.minExponent);
+        }
+        // Section 7.3
+        if (b.isZero()) {
+            env.flags.add(Flags.divByZero);
+            return sign ? Decimal64.NegativeInfinity : Decimal64.Infinity;
+        }
+        long ca = a.coefficient(), cb = b.coefficient();
+        int ideal = a.exponent() - b.exponent();
+        if (ca == 0) {
+            return Decimal64.round(sign, 0, 0, ideal, false, ideal, env);
+        }
+        // a * 10^scale has 38 digits, which leaves at least 22 in the quotient
+        int scale = 38 - PowersOfTen.digits(ca);
+        long[] power = PowersOfTen.pow10Limbs(scale);
+        long hi = LongMath.unsignedMultiplyHigh(ca, power[0]) + ca * power[1], lo = ca * power[0];
+        // Two digits of schoolbook division by the normalized divisor, which is below 2^54 so the shift is never zero
+        int shift = Long.numberOfLeadingZeros(cb);
+        long d = cb << shift, reciprocal = LongMath.reciprocal(d);
+        long x = hi << shift | lo >>> (64 - shift);
+        long qHi = LongMath.divide(hi >>> (64 - shift), x, d, reciprocal);
+        long r = x - qHi * d;
+        x = lo << shift;
+        long qLo = LongMath.divide(r, x, d, reciprocal);
+        return Decimal64.round(sign, qHi, qLo, ideal - scale, x != qLo * d, ideal, env);
+    }
+
+    public static Decimal64 squareRoot(Decimal64 a, Environment env) {
+        if (a.isNaN()) return propagate(a, a, env);
+        int ideal = Math.floorDiv(a.exponent(), 2);
+        // Section 6.3
+        if (a.isZero()) {
+            return new Decimal64(a.isSignMinus(), 0, ideal);
+        }
+        // Section 7.2
+        if (a.isSignMinus()) {
+            env.flags.add(Flags.invalid);
+            return Decimal64.NaN;
+        }
+        // Section 6.1
+        if (a.isInfinite()) {
+            return a;
+        }
+        // a * 10^scale has 36 or 37 digits and an even exponent, so its root has 18 or 19 and fits in a long
+        long c = a.coefficient();
+        int scale = 37 - PowersOfTen.digits(c);
+        if (((a.exponent() - scale) & 1) != 0) scale--;
+        long[] power = PowersOfTen.pow10Limbs(scale);
+        long hi = LongMath.unsignedMultiplyHigh(c, power[0]) + c * power[1], lo = c * power[0];
+        // The double root is within 2^9 of the root, which one step of Newton's iteration brings to within 1
+        long root = (long) Math.sqrt(hi * 0x1p64 + (lo >>> 1) * 2.0);
+        int shift = Long.numberOfLeadingZeros(root);
+        long d = root << shift;
+        long quotient = LongMath.divide(hi << shift | lo >>> 1 >>> (63 - shift), lo << shift, d, LongMath.reciprocal(d));
+        root = (root + quotient) >>> 1;
+        while (compareSquare(root, hi, lo) > 0) root--;
+        while (compareSquare(root + 1, hi, lo) <= 0) root++;
+        return Decimal64.round(false, 0, root, (a.exponent() - scale) / 2, compareSquare(root, hi, lo) != 0, ideal, env);
+    }
+
+    // Compares x^2 with hi:lo
+    private static int compareSquare(long x, long hi, long lo) {
+        long squareHi = LongMath.unsignedMultiplyHigh(x, x), squareLo = x * x;
+        return squareHi != hi ? Long.compareUnsigned(squareHi, hi) : Long.compareUnsigned(squareLo, lo);
+    }
+
+    /**
+     * Rounds a to the exponent of b (Section 5.3.2), which is invalid if the result doesn't fit in the precision
+     */
+    public static Decimal64 quantize(Decimal64 a, Decimal64 b, Environment env) {
+        if (a.isNaN() || b.isNaN()) return propagate(a, b, env);
+        if (a.isInfinite() || b.isInfinite()) {
+            if (a.isInfinite() && b.isInfinite()) {
+                return a;
+            }
+            env.flags.add(Flags.invalid);
+            return Decimal64.NaN;
+        }
+        return Decimal64.roundToExponent(a.isSignMinus(), a.coefficient(), a.exponent(), b.exponent(), env);
+    }
+
+    // Section 6.2 - the first NaN operand comes back quiet, and signalling ones are invalid
+    private static Decimal64 propagate(Decimal64 a, Decimal64 b, Environment env) {
+        if (a.isSignalling() || b.isSignalling()) {
+            env.flags.add(Flags.invalid);
+        }
+        return (a.isNaN() ? a : b).quiet();
+    }
+
+    public static Decimal128 add(Decimal128 a, Decimal128 b, Environment env) {
+        if (a.isNaN() || b.isNaN()) return propagate(a, b, env);
+        // Section 6.1 and 7.2
+        if (a.isInfinite() || b.isInfinite()) {
+            if (a.isInfinite() && b.isInfinite() && a.isSignMinus() != b.isSignMinus()) {
+                env.flags.add(Flags.invalid);
+                return Decimal128.NaN;
+            }
+            return (a.isInfinite() ? a : b).isSignMinus() ? Decimal128.NegativeInfinity : Decimal128.Infinity;
+        }
+        boolean sa = a.isSignMinus(), sb = b.isSignMinus();
+        long[] ca = coefficient(a), cb = coefficient(b);
+        int qa = a.exponent(), qb = b.exponent(), ideal = Math.min(qa, qb);
+        int da = PowersOfTen.digits(ca, 2), db = PowersOfTen.digits(cb, 2);
+        // Section 6.3
+        if (da == 0 || db == 0) {
+            if (da == 0 && db == 0) {
+                return new Decimal128(sa == sb ? sa : env.mode == RoundingMode.min, 0, 0, ideal);
+            }
+            return da == 0 ? Decimal128.round(sb, cb, 2, qb, false, ideal, env) : Decimal128.round(sa, ca, 2, qa, false, ideal, env);
+        }
+        if (qa + da < qb + db) {
+            // Make a the one with the higher leading digit
+            boolean s = sa;
+            sa = sb;
+            sb = s;
+            long[] c = ca;
+            ca = cb;
+            cb = c;
+            int q = qa;
+            qa = qb;
+            qb = q;
+            da = db;
+        }
+        int cutoff = Math.max(ideal, qa + da - (Decimal128.precision + 20));
+        long[] x = new long[6], y = new long[6];
+        Limbs.multiply(ca, 2, PowersOfTen.pow10Limbs(qa - cutoff), 4, x);
+        boolean sticky = false;
+        if (qb >= cutoff) {
+            Limbs.multiply(cb, 2, PowersOfTen.pow10Limbs(qb - cutoff), 4, y);
+        } else {
+            y[0] = cb[0];
+            y[1] = cb[1];
+            for (int n = Math.min(cutoff - qb, 40); n > 0; n -= 19) {
+                sticky |= Limbs.divide(y, 2, PowersOfTen.pow10(Math.min(n, 19))) != 0;
+            }
+        }
+        boolean sign = sa;
+        if (sa == sb) {
+            Limbs.add(x, 0, y, 6);
+        } else {
+            // The digits of b below the cutoff make it slightly larger, which the sticky digit makes up for
+            if (sticky) {
+                Limbs.add(y, 0, ONE, 6);
+            }
+            if (Limbs.subtract(x, 0, y, 6) != 0) {
+                Limbs.negate(x, 6);
+                sign = sb;
+            } else if (Limbs.isZero(x, 6)) {
+                // Only x + (-x) can cancel exactly
+                return new Decimal128(env.mode == RoundingMode.min, 0, 0, ideal);
+            }
+        }
+        return Decimal128.round(sign, x, 6, cutoff, sticky, ideal, env);
+    }
+
+    private static final long[] ONE = {1, 0, 0, 0, 0, 0};
+
+    public static Decimal128 subtraction(Decimal128 a, Decimal128 b, Environment env) {
+        if (a.isNaN() || b.isNaN()) return propagate(a, b, env);
+        return add(a, b.negate(), env);
+    }
+
+    public static Decimal128 multiplication(Decimal128 a, Decimal128 b, Environment env) {
+        if (a.isNaN() || b.isNaN()) return propagate(a, b, env);
+        boolean sign = a.isSignMinus() != b.isSignMinus();
+        if (a.isInfinite() || b.isInfinite()) {
+            // Section 7.2
+            if (a.isZero() || b.isZero()) {
+                env.flags.add(Flags.invalid);
+                return Decimal128.NaN;
+            }
+            // Section 6.1
+            return sign ? Decimal128.NegativeInfinity : Decimal128.Infinity;
+        }
+        long[] product = new long[4];
+        Limbs.multiply(coefficient(a), 2, coefficient(b), 2, product);
+        int exponent = a.exponent() + b.exponent();
+        return Decimal128.round(sign, product, 4, exponent, false, exponent, env);
+    }
+
+    public static Decimal128 division(Decimal128 a, Decimal128 b, Environment env) {
+        if (a.isNaN() || b.isNaN()) return propagate(a, b, env);
+        boolean sign = a.isSignMinus() != b.isSignMinus();
+        // Section 7.2
+        if ((a.isInfinite() && b.isInfinite()) || (a.isZero() && b.isZero())) {
+            env.flags.add(Flags.invalid);
+            return Decimal128.NaN;
+        }
+        // Section 6.1
+        if (a.isInfinite()) {
+            return sign ? Decimal128.NegativeInfinity : Decimal128.Infinity;
+        }
+        if (b.isInfinite()) {
+            return new Decimal128(sign, 0, 0, Decimal128.minExponent);
+        }
+        // Section 7.3
+        if (b.isZero()) {
+            env.flags.add(Flags.divByZero);
+            return sign ? Decimal128.NegativeInfinity : Decimal128.Infinity;
+        }
+        long[] ca = coefficient(a), cb = coefficient(b);
+        int ideal = a.exponent() - b.exponent();
+        if (a.isZero()) {
+            return Decimal128.round(sign, ca, 2, ideal, false, ideal, env);
+        }
+        // a * 10^scale has 76 digits, which leaves at least 42 in the quotient
+        int scale = 76 - PowersOfTen.digits(ca, 2);
+        long[] numerator = new long[6];
+        Limbs.multiply(ca, 2, PowersOfTen.pow10Limbs(scale), 4, numerator);
+        // Normalize the divisor for the division, which leaves the top limb of the dividend zero
+        int vLen = cb[1] != 0 ? 2 : 1, shift = Long.numberOfLeadingZeros(cb[vLen - 1]);
+        long[] u = new long[6], v = new long[vLen], q = new long[6 - vLen];
+        Limbs.orShifted(u, 6, numerator, 6, shift);
+        Limbs.orShifted(v, vLen, cb, vLen, shift);
+        Limbs.divide(u, 6, v, vLen, q);
+        return Decimal128.round(sign, q, q.length, ideal - scale, !Limbs.isZero(u, vLen), ideal, env);
+    }
+
+    public static Decimal128 squareRoot(Decimal128 a, Environment env) {
+        if (a.isNaN()) return propagate(a, a, env);
+        int ideal = Math.floorDiv(a.exponent(), 2);
+        // Section 6.3
+        if (a.isZero()) {
+            return new Decimal128(a.isSignMinus(), 0, 0, ideal);
+        }
+        // Section 7.2
+        if (a.isSignMinus()) {
+            env.flags.add(Flags.invalid);
+            return Decimal128.NaN;
+        }
+        // Section 6.1
+        if (a.isInfinite()) {
+            return a;
+        }
+        // a * 10^scale has 74 or 75 digits and an even exponent, so its root has 37 or 38
+        long[] c = coefficient(a);
+        int scale = 75 - PowersOfTen.digits(c, 2);
+        if (((a.exponent() - scale) & 1) != 0) scale--;
+        long[] n = new long[6], root = new long[7];
+        Limbs.multiply(c, 2, PowersOfTen.pow10Limbs(scale), 4, n);
+        boolean inexact = Limbs.squareRoot(n, 6, root, 7, new LimbPool());
+        return Decimal128.round(false, root, 7, (a.exponent() - scale) / 2, inexact, ideal, env);
+    }
+
+    /**
+     * Rounds a to the exponent of b (Section 5.3.2), which is invalid if the result doesn't fit in the precision
+     */
+    public static Decimal128 quantize(Decimal128 a, Decimal128 b, Environment env) {
+        if (a.isNaN() || b.isNaN()) return propagate(a, b, env);
+        if (a.isInfinite() || b.isInfinite()) {
+            if (a.isInfinite() && b.isInfinite()) {
+                return a;
+            }
+            env.flags.add(Flags.invalid);
+            return Decimal128.NaN;
+        }
+        return Decimal128.roundToExponent(a.isSignMinus(), coefficient(a), a.exponent(), b.exponent(), env);
+    }
+
+    // The coefficient of a finite decimal128 as two limbs
+    private static long[] coefficient(Decimal128 f) {
+        return new long[]{f.coefficientLo(), f.coefficientHi()};
+    }
+
+    // Section 6.2 - the first NaN operand comes back quiet, and signalling ones are invalid
+    private static Decimal128 propagate(Decimal128 a, Decimal128 b, Environment env) {
+        if (a.isSignalling() || b.isSignalling()) {
+            env.flags.add(Flags.invalid);
+        }
+        return (a.isNaN() ? a : b).quiet();
+    }
+
+    // Interval operations round lower bounds towards negative infinity and upper bounds towards positive infinity,
+    // whatever the mode of env is, and signal the flags of those roundings. Each bound is computed exactly once with
+    // ExactFloat and then rounded. When both bounds come from the same exact value, as with thin intervals or when
+    // one product of a multiplication is both the smallest and the largest, it is computed and rounded down once, and
+    // the upper bound is the next value up if that was inexact. Infinite bounds go through the generic operations in
+    // the directed modes instead, and NaIs propagate.
+
+    public static <T extends Floating<T>> Interval<T> add(Interval<T> a, Interval<T> b, Environment env) {
+        if (a.isNaI() || b.isNaI()) return notAnInterval(a, b, env);
+        if (a.isThin() && b.isThin() && isFiniteNonZero(a.lo) && isFiniteNonZero(b.lo)) {
+            ExactFloat sum = a.lo.toExactFloat().add(b.lo.toExactFloat());
+            if (!sum.isZero()) {
+                return roundBoth(a.lo, sum, sum, env);
+            }
+        }
+        Environment down = directed(env, RoundingMode.min), up = directed(env, RoundingMode.max);
+        return bounds(add(a.lo, b.lo, down), add(a.hi, b.hi, up), down, up, env);
+    }
+
+    public static <T extends Floating<T>> Interval<T> subtraction(Interval<T> a, Interval<T> b, Environment env) {
+        if (a.isNaI() || b.isNaI()) return notAnInterval(a, b, env);
+        return add(a, b.negate(), env);
+    }
+
+    public static <T extends Floating<T>> Interval<T> multiplication(Interval<T> a, Interval<T> b, Environment env) {
+        if (a.isNaI() || b.isNaI()) return notAnInterval(a, b, env);
+        if (!isFinite(a) || !isFinite(b)) {
+            return corners(a, b, false, env);
+        }
+        ExactFloat[] products = products(a, b);
+        return roundBoth(a.lo, products[0], products[1], env);
+    }
+
+    /**
+     * Divisors which contain zero give the entire interval, or NaI if they are only zero
+     */
+    public static <T extends Floating<T>> Interval<T> division(Interval<T> a, Interval<T> b, Environment env) {
+        if (a.isNaI() || b.isNaI()) return notAnInterval(a, b, env);
+        if (containsZero(b)) {
+            if (b.lo.isZero() && b.hi.isZero()) {
+                env.flags.add(Flags.invalid);
+                return Interval.of(a.lo.NaN());
+            }
+            return Interval.entire(a.lo);
+        }
+        if (!isFinite(a) || !isFinite(b)) {
+            return corners(a, b, true, env);
+        }
+        int precision = a.lo.maxPrecision();
+        ExactFloat xl = exact(a.lo), xh = a.isThin() ? xl : exact(a.hi), yl = exact(b.lo), yh = b.isThin() ? yl : exact(b.hi);
+        ExactFloat q1 = quotient(xl, yl, precision), q2 = yl == yh ? q1 : quotient(xl, yh, precision);
+        ExactFloat q3 = xl == xh ? q1 : quotient(xh, yl, precision), q4 = xl == xh ? q2 : yl == yh ? q3 : quotient(xh, yh, precision);
+        return roundBoth(a.lo, min(min(q1, q2), min(q3, q4)), max(max(q1, q2), max(q3, q4)), env);
+    }
+
+    /**
+     * The negative part of the interval is left out, so only intervals which are all negative are invalid
+     */
+    public static <T extends Floating<T>> Interval<T> squareRoot(Interval<T> a, Environment env) {
+        if (a.isNaI()) return notAnInterval(a, a, env);
+        if (a.hi.isSignMinus() && !a.hi.isZero()) {
+            env.flags.add(Flags.invalid);
+            return Interval.of(a.lo.NaN());
+        }
+        T lower = a.lo.isSignMinus() ? a.lo.Zero() : a.lo;
+        if (a.isThin() && isFiniteNonZero(lower)) {
+            ExactFloat root = lower.toExactFloat().squareRoot(lower.maxPrecision());
+            return roundBoth(lower, root, root, env);
+        }
+        Environment down = directed(env, RoundingMode.min), up = directed(env, RoundingMode.max);
+        return bounds(squareRoot(lower, down), squareRoot(a.hi, up), down, up, env);
+    }
+
+    /**
+     * Adds c to the exact extremes of a * b, which rounds once. With infinite bounds it is a multiplication and an
+     * addition instead, which still contains every result.
+     */
+    public static <T extends Floating<T>> Interval<T> fusedMultiplyAdd(Interval<T> a, Interval<T> b, Interval<T> c, Environment env) {
+        if (a.isNaI() || b.isNaI()) return notAnInterval(a, b, env);
+        if (c.isNaI()) return notAnInterval(c, c, env);
+        if (!isFinite(a) || !isFinite(b) || !isFinite(c)) {
+            return add(multiplication(a, b, env), c, env);
+        }
+        ExactFloat[] products = products(a, b);
+        ExactFloat lower = products[0].add(exact(c.lo));
+        ExactFloat upper = same(products[0], products[1]) && c.isThin() ? lower : products[1].add(exact(c.hi));
+        return roundBoth(a.lo, lower, upper, env);
+    }
+
+    // The smallest and largest of the exact products of the bounds, with each product computed once
+    private static <T extends Floating<T>> ExactFloat[] products(Interval<T> a, Interval<T> b) {
+        ExactFloat xl = exact(a.lo), xh = a.isThin() ? xl : exact(a.hi), yl = exact(b.lo), yh = b.isThin() ? yl : exact(b.hi);
+        ExactFloat p1 = xl.multiply(yl), p2 = yl == yh ? p1 : xl.multiply(yh);
+        ExactFloat p3 = xl == xh ? p1 : xh.multiply(yl), p4 = xl == xh ? p2 : yl == yh ? p3 : xh.multiply(yh);
+        return new ExactFloat[]{min(min(p1, p2), min(p3, p4)), max(max(p1, p2), max(p3, p4))};
+    }
+
+    /**
+     * The products or quotients of each pair of bounds rounded both ways, for intervals with infinite bounds. Zero
+     * times infinity is zero here, and infinity over infinity is left out since the other pairs cover its limits.
+     */
+    private static <T extends Floating<T>> Interval<T> corners(Interval<T> a, Interval<T> b, boolean divide, Environment env) {
+        Environment down = directed(env, RoundingMode.min), up = directed(env, RoundingMode.max);
+        T lo = null, hi = null;
+        for (int i = 0; i < 4; i++) {
+            T x = (i & 2) == 0 ? a.lo : a.hi, y = (i & 1) == 0 ? b.lo : b.hi;
+            T d, u;
+            if (divide) {
+                if (x.isInfinite() && y.isInfinite()) continue;
+                d = division(x, y, down);
+                u = division(x, y, up);
+            } else if (x.isZero() || y.isZero()) {
+                d = u = x.isSignMinus() == y.isSignMinus() ? x.Zero() : x.NegativeZero();
+            } else {
+                d = multiplication(x, y, down);
+                u = multiplication(x, y, up);
+            }
+            lo = lo == null ? d : Comparisons.minimum(lo, d, env);
+            hi = hi == null ? u : Comparisons.maximum(hi, u, env);
+        }
+        if (lo == null) {
+            return Interval.entire(a.lo);
+        }
+        return bounds(lo, hi, down, up, env);
+    }
+
+    /**
+     * Rounds lower down and upper up. When they are the same value it is only rounded once, and if that is inexact the
+     * upper bound is the next value up. Tininess is detected before rounding, so rounding up would signal the same
+     * flags, apart from overflow when the next value up is past the largest finite one.
+     */
+    private static <T extends Floating<T>> Interval<T> roundBoth(T helper, ExactFloat lower, ExactFloat upper, Environment env) {
+        Environment down = directed(env, RoundingMode.min), up = directed(env, RoundingMode.max);
+        T lo = helper.fromExactFloat(lower, down), hi;
+        if (!same(lower, upper)) {
+            hi = helper.fromExactFloat(upper, up);
+        } else if (!down.flags.contains(Flags.inexact)) {
+            hi = lo;
+        } else {
+            hi = lo.nextUp();
+            if (hi.isInfinite() || hi.isNaN()) up.flags.add(Flags.overflow);
+        }
+        return bounds(lo, hi, down, up, env);
+    }
+
+    // The same value, and zeros of the same sign
+    private static boolean same(ExactFloat x, ExactFloat y) {
+        return x == y || (x.compareTo(y) == 0 && x.sign == y.sign);
+    }
+
+    private static <T extends Floating<T>> Interval<T> bounds(T lo, T hi, Environment down, Environment up, Environment env) {
+        env.flags.addAll(down.flags);
+        env.flags.addAll(up.flags);
+        return new Interval<>(lo, hi);
+    }
+
+    // An environment for one bound, which keeps the precision control of env
+    private static Environment directed(Environment env, RoundingMode mode) {
+        Environment directed = new Environment(mode);
+        directed.precision = env.precision;
+        return directed;
+    }
+
+    private static <T extends Floating<T>> Interval<T> notAnInterval(Interval<T> a, Interval<T> b, Environment env) {
+        if (a.lo.isSignalling() || a.hi.isSignalling() || b.lo.isSignalling() || b.hi.isSignalling()) {
+            env.flags.add(Flags.invalid);
+        }
+        return Interval.of(a.lo.NaN());
+    }
+
+    private static <T extends Floating<T>> boolean isFinite(Interval<T> a) {
+        return !a.lo.isInfinite() && !a.hi.isInfinite();
+    }
+
+    private static <T extends Floating<T>> boolean containsZero(Interval<T> a) {
+        return (a.lo.isSignMinus() || a.lo.isZero()) && (!a.hi.isSignMinus() || a.hi.isZero());
+    }
+
+    private static <T extends Floating<T>> ExactFloat exact(T f) {
+        return f.isZero() ? new ExactFloat(f.isSignMinus(), 0, BigInteger.ZERO) : f.toExactFloat();
+    }
+
+    private static ExactFloat quotient(ExactFloat x, ExactFloat y, int precision) {
+        return x.isZero() ? new ExactFloat(x.sign != y.sign, 0, BigInteger.ZERO) : x.divide(y, precision);
+    }
+
+    private static ExactFloat min(ExactFloat x, ExactFloat y) {
+        return y.compareTo(x) < 0 ? y : x;
+    }
+
+    private static ExactFloat max(ExactFloat x, ExactFloat y) {
+        return y.compareTo(x) > 0 ? y : x;
+    }
+
+    // The binary64 interval kernels below keep the bounds of element i in lo[offset + i] and hi[offset + i]. Every
+    // bound is computed once with double arithmetic, whose rounding error is exact (TwoSum for sums, Math.fma for the
+    // rest) as long as nothing overflows or gets close to underflowing, and the sign of that error says whether the
+    // rounded-to-nearest result is already the bound or its neighbour is. Elements where that doesn't hold go through
+    // the generic interval operations, which also signal overflow and underflow.
+
+    public static void add(long[] aLo, long[] aHi, int aOffset, long[] bLo, long[] bHi, int bOffset, long[] dstLo, long[] dstHi, int dstOffset, int length, Environment env) {
+        boolean inexact = false;
+        for (int i = 0; i < length; i++) {
+            double xl = Double.longBitsToDouble(aLo[aOffset + i]), xh = Double.longBitsToDouble(aHi[aOffset + i]);
+            double yl = Double.longBitsToDouble(bLo[bOffset + i]), yh = Double.longBitsToDouble(bHi[bOffset + i]);
+            double lo = xl + yl, hi = xh + yh;
+            double loError = sumError(xl, yl, lo), hiError = sumError(xh, yh, hi);
+            lo = lowerZero(down(lo, loError), xl, yl);
+            hi = up(hi, hiError);
+            if (!Double.isFinite(lo) || !Double.isFinite(hi)) {
+                Interval<Float64> r = add(interval(aLo[aOffset + i], aHi[aOffset + i]), interval(bLo[bOffset + i], bHi[bOffset + i]), env);
+                dstLo[dstOffset + i] = r.lo.bits;
+                dstHi[dstOffset + i] = r.hi.bits;
+                continue;
+            }
+            inexact |= loError != 0 || hiError != 0;
+            dstLo[dstOffset + i] = Double.doubleToRawLongBits(lo);
+            dstHi[dstOffset + i] = Double.doubleToRawLongBits(hi);
+        }
+        if (inexact) env.flags.add(Flags.inexact);
+    }
+
+    public static void subtraction(long[] aLo, long[] aHi, int aOffset, long[] bLo, long[] bHi, int bOffset, long[] dstLo, long[] dstHi, int dstOffset, int length, Environment env) {
+        boolean inexact = false;
+        for (int i = 0; i < length; i++) {
+            double xl = Double.longBitsToDouble(aLo[aOffset + i]), xh = Double.longBitsToDouble(aHi[aOffset + i]);
+            double yl = -Double.longBitsToDouble(bHi[bOffset + i]), yh = -Double.longBitsToDouble(bLo[bOffset + i]);
+            double lo = xl + yl, hi = xh + yh;
+            double loError = sumError(xl, yl, lo), hiError = sumError(xh, yh, hi);
+            lo = lowerZero(down(lo, loError), xl, yl);
+            hi = up(hi, hiError);
+            if (!Double.isFinite(lo) || !Double.isFinite(hi)) {
+                Interval<Float64> r = subtraction(interval(aLo[aOffset + i], aHi[aOffset + i]), interval(bLo[bOffset + i], bHi[bOffset + i]), env);
+                dstLo[dstOffset + i] = r.lo.bits;
+                dstHi[dstOffset + i] = r.hi.bits;
+                continue;
+            }
+            inexact |= loError != 0 || hiError != 0;
+            dstLo[dstOffset + i] = Double.doubleToRawLongBits(lo);
+            dstHi[dstOffset + i] = Double.doubleToRawLongBits(hi);
+        }
+        if (inexact) env.flags.add(Flags.inexact);
+    }
+
+    public static void multiplication(long[] aLo, long[] aHi, int aOffset, long[] bLo, long[] bHi, int bOffset, long[] dstLo, long[] dstHi, int dstOffset, int length, Environment env) {
+        boolean inexact = false;
+        for (int i = 0; i < length; i++) {
+            double xl = Double.longBitsToDouble(aLo[aOffset + i]), xh = Double.longBitsToDouble(aHi[aOffset + i]);
+            double yl = Double.longBitsToDouble(bLo[bOffset + i]), yh = Double.longBitsToDouble(bHi[bOffset + i]);
+            double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+            boolean fast = true, loExact = false, hiExact = false;
+            for (int k = 0; k < 4; k++) {
+                double x = (k & 2) == 0 ? xl : xh, y = (k & 1) == 0 ? yl : yh;
+                double p = x * y, error = Math.fma(x, y, -p);
+                fast &= Math.abs(p) <= Double.MAX_VALUE && (Math.abs(p) >= 0x1p-969 || x == 0 || y == 0);
+                double d = down(p, error), u = up(p, error);
+                // A bound is exact if one of the products which is equal to it is
+                if (d < lo) {
+                    lo = d;
+                    loExact = error == 0;
+                } else if (d == lo) {
+                    loExact |= error == 0;
+                }
+                if (u > hi) {
+                    hi = u;
+                    hiExact = error == 0;
+                } else if (u == hi) {
+                    hiExact |= error == 0;
+                }
+            }
+            if (!fast || !Double.isFinite(lo) || !Double.isFinite(hi)) {
+                Interval<Float64> r = multiplication(interval(aLo[aOffset + i], aHi[aOffset + i]), interval(bLo[bOffset + i], bHi[bOffset + i]), env);
+                dstLo[dstOffset + i] = r.lo.bits;
+                dstHi[dstOffset + i] = r.hi.bits;
+                continue;
+            }
+            inexact |= !loExact || !hiExact;
+            dstLo[dstOffset + i] = Double.doubleToRawLongBits(lo);
+            dstHi[dstOffset + i] = Double.doubleToRawLongBits(hi);
+        }
+        if (inexact) env.flags.add(Flags.inexact);
+    }
+
+    public static void division(long[] aLo, long[] aHi, int aOffset, long[] bLo, long[] bHi, int bOffset, long[] dstLo, long[] dstHi, int dstOffset, int length, Environment env) {
+        boolean inexact = false;
+        for (int i = 0; i < length; i++) {
+            double xl = Double.longBitsToDouble(aLo[aOffset + i]), xh = Double.longBitsToDouble(aHi[aOffset + i]);
+            double yl = Double.longBitsToDouble(bLo[bOffset + i]), yh = Double.longBitsToDouble(bHi[bOffset + i]);
+            double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+            boolean fast = !(yl <= 0 && yh >= 0), loExact = false, hiExact = false;
+            for (int k = 0; k < 4 && fast; k++) {
+                double x = (k & 2) == 0 ? xl : xh, y = (k & 1) == 0 ? yl : yh;
+                double q = x / y, remainder = Math.fma(-q, y, x);
+                // The remainder is exact when x and q are far enough from underflowing
+                fast = Math.abs(q) <= Double.MAX_VALUE && Math.abs(y) <= Double.MAX_VALUE
+                        && (x == 0 || (Math.abs(x) >= 0x1p-969 && Math.abs(q) >= 0x1p-969));
+                double error = y > 0 ? remainder : -remainder;
+                double d = down(q, error), u = up(q, error);
+                if (d < lo) {
+                    lo = d;
+                    loExact = error == 0;
+                } else if (d == lo) {
+                    loExact |= error == 0;
+                }
+                if (u > hi) {
+                    hi = u;
+                    hiExact = error == 0;
+                } else if (u == hi) {
+                    hiExact |= error == 0;
+                }
+            }
+            if (!fast || !Double.isFinite(lo) || !Double.isFinite(hi)) {
+                Interval<Float64> r = division(interval(aLo[aOffset + i], aHi[aOffset + i]), interval(bLo[bOffset + i], bHi[bOffset + i]), env);
+                dstLo[dstOffset + i] = r.lo.bits;
+                dstHi[dstOffset + i] = r.hi.bits;
+                continue;
+            }
+            inexact |= !loExact || !hiExact;
+            dstLo[dstOffset + i] = Double.doubleToRawLongBits(lo);
+            dstHi[dstOffset + i] = Double.doubleToRawLongBits(hi);
+        }
+        if (inexact) env.flags.add(Flags.inexact);
+    }
+
+    public static void squareRoot(long[] aLo, long[] aHi, int aOffset, long[] dstLo, long[] dstHi, int dstOffset, int length, Environment env) {
+        boolean inexact = false;
+        for (int i = 0; i < length; i++) {
+            double xl = Math.max(Double.longBitsToDouble(aLo[aOffset + i]), 0), xh = Double.longBitsToDouble(aHi[aOffset + i]);
+            // The residual is exact when the operand is far enough from underflowing
+            if (!(xl == 0 || xl >= 0x1p-969) || !(xh >= 0x1p-969 && xh <= Double.MAX_VALUE)) {
+                Interval<Float64> r = squareRoot(interval(aLo[aOffset + i], aHi[aOffset + i]), env);
+                dstLo[dstOffset + i] = r.lo.bits;
+                dstHi[dstOffset + i] = r.hi.bits;
+                continue;
+            }
+            double lo = Math.sqrt(xl), hi = Math.sqrt(xh);
+            double loError = Math.fma(-lo, lo, xl), hiError = Math.fma(-hi, hi, xh);
+            inexact |= loError != 0 || hiError != 0;
+            dstLo[dstOffset + i] = Double.doubleToRawLongBits(down(lo, loError));
+            dstHi[dstOffset + i] = Double.doubleToRawLongBits(up(hi, hiError));
+        }
+        if (inexact) env.flags.add(Flags.inexact);
+    }
+
+    /**
+     * Each bound is the smallest or largest product of a and b plus the same bound of c, rounded once. The exact error of
+     * each fused multiply-add comes from {@link #fmaError}.
+     */
+    public static void fusedMultiplyAdd(long[] aLo, long[] aHi, int aOffset, long[] bLo, long[] bHi, int bOffset, long[] cLo, long[] cHi, int cOffset, long[] dstLo, long[] dstHi, int dstOffset, int length, Environment env) {
+        boolean inexact = false;
+        for (int i = 0; i < length; i++) {
+            double xl = Double.longBitsToDouble(aLo[aOffset + i]), xh = Double.longBitsToDouble(aHi[aOffset + i]);
+            double yl = Double.longBitsToDouble(bLo[bOffset + i]), yh = Double.longBitsToDouble(bHi[bOffset + i]);
+            double cl = Double.longBitsToDouble(cLo[cOffset + i]), ch = Double.longBitsToDouble(cHi[cOffset + i]);
+            double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+            boolean fast = safe(cl) && safe(ch), loExact = false, hiExact = false;
+            for (int k = 0; k < 4 && fast; k++) {
+                double x = (k & 2) == 0 ? xl : xh, y = (k & 1) == 0 ? yl : yh;
+                double l = Math.fma(x, y, cl), h = Math.fma(x, y, ch);
+                // The error is exact when the product and the results are far enough from underflowing
+                fast = safe(x * y) && (x * y != 0 || x == 0 || y == 0) && safe(l) && safe(h);
+                double loError = fmaError(x, y, cl, l), hiError = fmaError(x, y, ch, h);
+                double d = down(l, loError), u = up(h, hiError);
+                if (d < lo) {
+                    lo = d;
+                    loExact = loError == 0;
+                } else if (d == lo) {
+                    loExact |= loError == 0;
+                }
+                if (u > hi) {
+                    hi = u;
+                    hiExact = hiError == 0;
+                } else if (u == hi) {
+                    hiExact |= hiError == 0;
+                }
+            }
+            if (!fast || !Double.isFinite(lo) || !Double.isFinite(hi) || lo == 0 || hi == 0) {
+                Interval<Float64> r = fusedMultiplyAdd(interval(aLo[aOffset + i], aHi[aOffset + i]), interval(bLo[bOffset + i], bHi[bOffset + i]),
+                        interval(cLo[cOffset + i], cHi[cOffset + i]), env);
+                dstLo[dstOffset + i] = r.lo.bits;
+                dstHi[dstOffset + i] = r.hi.bits;
+                continue;
+            }
+            inexact |= !loExact || !hiExact;
+            dstLo[dstOffset + i] = Double.doubleToRawLongBits(lo);
+            dstHi[dstOffset + i] = Double.doubleToRawLongBits(hi);
+        }
+        if (inexact) env.flags.add(Flags.inexact);
+    }
+
+    // Either zero or far enough from underflowing and overflowing
+    private static boolean safe(double x) {
+        return x == 0 || Math.abs(x) >= 0x1p-969 && Math.abs(x) < 0x1p1023;
+    }
+
+    /**
+     * Something with the sign of a * b + c - r, where r is that exact value rounded to nearest. This is ErrFma from
+     * Boldo and Muller, "Exact and Approximated Error of the FMA", which gives the error as r2 + r3 exactly with r3 at
+     * most half an ulp of r2.
+     */
+    private static double fmaError(double a, double b, double c, double r) {
+        double u1 = a * b, u2 = Math.fma(a, b, -u1);
+        double alpha1 = c + u2, z = sumError(c, u2, alpha1);
+        double beta1 = u1 + alpha1, beta2 = sumError(u1, alpha1, beta1);
+        double gamma = (beta1 - r) + beta2;
+        double r2 = gamma + z, r3 = sumError(gamma, z, r2);
+        return r2 != 0 ? r2 : r3;
+    }
+
+    // Section 6.3 - an exact zero sum is -0 when rounding down, unless both addends are +0
+    private static double lowerZero(double sum, double x, double y) {
+        if (sum != 0) return sum;
+        return Double.doubleToRawLongBits(x) == 0 && Double.doubleToRawLongBits(y) == 0 ? 0.0 : -0.0;
+    }
+
+    // The doubles below and above x + error, where x is that exact value rounded to nearest
+    private static double down(double x, double error) {
+        return error < 0 ? Math.nextDown(x) : x;
+    }
+
+    private static double up(double x, double error) {
+        return error > 0 ? Math.nextUp(x) : x;
+    }
+
+    private static Interval<Float64> interval(long lo, long hi) {
+        return lo == hi ? Interval.of(new Float64(lo)) : new Interval<>(new Float64(lo), new Float64(hi));
+    }
+
+    // Overload resolution picks the Float32 and Float16 versions for their arguments, so they reach the generic ones
+    // through these
+    private static <T extends Floating<T>> T genericAdd(T a, T b, Environment env) {
+        return add(a, b, env);
+    }
+
+    private static <T extends Floating<T>> T genericMultiplication(T a, T b, Environment env) {
+        return multiplication(a, b, env);
+    }
+
+    private static <T extends Floating<T>> T genericDivision(T a, T b, Environment env) {
+        return division(a, b, env);
+    }
+
+    private static <T extends Floating<T>> T genericSquareRoot(T a, Environment env) {
+        return squareRoot(a, env);
+    }
+
+    private static <T extends Floating<T>> T genericFusedMultiplyAdd(T a, T b, T c, Environment env) {
+        return fusedMultiplyAdd(a, b, c, env);
+    }
+
+    /**
+     * Adds a and b and rounds the sum once to the format of helper (Section 5.4.1)
+     * <p>
+     * This and the other operations with a helper produce a result in a different format than their operands. Special
+     * cases are exact in the format of the operands, so they are computed there and then converted.
+     *
+     * @param helper any value of the destination format
+     */
+    public static <T extends Floating<T>, U extends Floating<U>> U add(T a, T b, U helper, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b)) {
+            return Conversions.convert(add(a, b, env), helper, env);
+        }
+        ExactFloat out = a.toExactFloat().add(b.toExactFloat());
+        // Check to see if it was x + (-x)
+        if (out.isZero()) {
+            return (env.mode == RoundingMode.min) ? helper.NegativeZero() : helper.Zero();
+        }
+        return helper.fromExactFloat(out, env);
+    }
+
+    public static <T extends Floating<T>, U extends Floating<U>> U subtraction(T a, T b, U helper, Environment env) {
+        // Section 6.2
+        if (a.isNaN() || b.isNaN()) {
+            return Conversions.convert(subtraction(a, b, env), helper, env);
+        }
+        return add(a, b.negate(), helper, env);
+    }
+
+    public static <T extends Floating<T>, U extends Floating<U>> U multiplication(T a, T b, U helper, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b)) {
+            return Conversions.convert(multiplication(a, b, env), helper, env);
+        }
+        return helper.fromExactFloat(a.toExactFloat().multiply(b.toExactFloat()), env);
+    }
+
+    public static <T extends Floating<T>, U extends Floating<U>> U division(T a, T b, U helper, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b)) {
+            return Conversions.convert(division(a, b, env), helper, env);
+        }
+        return helper.fromExactFloat(a.toExactFloat().divide(b.toExactFloat(), precision(helper, env)), env);
+    }
+
+    public static <T extends Floating<T>, U extends Floating<U>> U squareRoot(T a, U helper, Environment env) {
+        if (!isFiniteNonZero(a) || a.isSignMinus()) {
+            return Conversions.convert(squareRoot(a, env), helper, env);
+        }
+        return helper.fromExactFloat(a.toExactFloat().squareRoot(precision(helper, env)), env);
+    }
+
+    public static <T extends Floating<T>, U extends Floating<U>> U fusedMultiplyAdd(T a, T b, T c, U helper, Environment env) {
+        if (!isFiniteNonZero(a) || !isFiniteNonZero(b) || c.isNaN() || c.isInfinite()) {
+            // The product is zero or infinite, so adding c is exact
+            return Conversions.convert(fusedMultiplyAdd(a, b, c, env), helper, env);
+        }
+        ExactFloat out = a.toExactFloat().multiply(b.toExactFloat());
+        if (!c.isZero()) {
+            out = out.add(c.toExactFloat());
+            // Check to see if it was x*y - x*y
+            if (out.isZero()) {
+                return (env.mode == RoundingMode.min) ? helper.NegativeZero() : helper.Zero();
+            }
+        }
+        return helper.fromExactFloat(out, env);
+    }
+
+    // The accuracy for division and square roots, stochastic rounding needs to know the discarded fraction rather than
+    // just which side of the midpoint it is on
+    private static int precision(Floating<?> f, Environment env) {
+        return env.mode == RoundingMode.stochastic ? f.maxPrecision() + 64 : f.maxPrecision();
+    }
+
+    private static boolean isFiniteNonZero(Floating<?> f) {
+        return !f.isNaN() && !f.isInfinite() && !f.isZero();
+    }
+
+    /**
+     * The IEEE remainder a - n * b where n is a / b rounded to the nearest integer, ties to even (Section 5.3.1)
+     * <p>
+     * The result is always exact. For Float32 and Float64 it is computed on the raw bits, so a large difference between
+     * the exponents costs one multiplication per 64 bits of it rather than a huge BigInteger.
+     */
+    public static <T extends Floating<T>> T remainder(T a, T b, Environment env) {
+        return remainder(a, b, true, null, env);
+    }
+
+    /**
+     * Like {@link #remainder(Floating, Floating, Environment)}, and also gives the low bits of the quotient
+     *
+     * @param quotient receives the low 31 bits of |n| in its first element, negated if a / b is negative
+     */
+    public static <T extends Floating<T>> T remainder(T a, T b, int[] quotient, Environment env) {
+        return remainder(a, b, true, quotient, env);
+    }
+
+    /**
+     * The C fmod, a - n * b where n is a / b truncated to an integer. The result is exact and has the sign of a.
+     */
+    public static <T extends Floating<T>> T fmod(T a, T b, Environment env) {
+        return remainder(a, b, false, null, env);
+    }
+
+    /**
+     * Like {@link #fmod(Floating, Floating, Environment)}, and also gives the low bits of the quotient
+     *
+     * @param quotient receives the low 31 bits of |n| in its first element, negated if a / b is negative
+     */
+    public static <T extends Floating<T>> T fmod(T a, T b, int[] quotient, Environment env) {
+        return remainder(a, b, false, quotient, env);
+    }
+
+    public static Float32 remainder(Float32 a, Float32 b, Environment env) {
+        return remainder(a, b, null, env);
+    }
+
+    public static Float32 remainder(Float32 a, Float32 b, int[] quotient, Environment env) {
+        return new Float32((int) remainderBits(a.bits & 0xFFFFFFFFL, b.bits & 0xFFFFFFFFL, true, quotient, 23, 8, env));
+    }
+
+    public static Float32 fmod(Float32 a, Float32 b, Environment env) {
+        return fmod(a, b, null, env);
+    }
+
+    public static Float32 fmod(Float32 a, Float32 b, int[] quotient, Environment env) {
+        return new Float32((int) remainderBits(a.bits & 0xFFFFFFFFL, b.bits & 0xFFFFFFFFL, false, quotient, 23, 8, env));
+    }
+
+    public static Float64 remainder(Float64 a, Float64 b, Environment env) {
+        return remainder(a, b, null, env);
+    }
+
+    public static Float64 remainder(Float64 a, Float64 b, int[] quotient, Environment env) {
+        return new Float64(remainderBits(a.bits, b.bits, true, quotient, 52, 11, env));
+    }
+
+    public static Float64 fmod(Float64 a, Float64 b, Environment env) {
+        return fmod(a, b, null, env);
+    }
+
+    public static Float64 fmod(Float64 a, Float64 b, int[] quotient, Environment env) {
+        return new Float64(remainderBits(a.bits, b.bits, false, quotient, 52, 11, env));
+    }
+
+    private static <T extends Floating<T>> T remainder(T a, T b, boolean nearest, int[] quotient, Environment env) {
+        if (quotient != null) quotient[0] = 0;
+        // Section 6.2
+        if (a.isNaN() || b.isNaN()) {
+            if (a.isSignalling() || b.isSignalling()) {
+                env.flags.add(Flags.invalid);
+                return a.NaN();
+            }
+            return a.isNaN() ? a : b;
+        }
+
+        // Section 7.2
+        if (a.isInfinite() || b.isZero()) {
+            env.flags.add(Flags.invalid);
+            return a.NaN();
+        }
+        if (b.isInfinite() || a.isZero()) {
+            return a;
+        }
+
+        ExactFloat x = a.toExactFloat(), y = b.toExactFloat();
+        int exponent = Math.min(x.exponent, y.exponent);
+        BigInteger divisor = y.significand.shiftLeft(y.exponent - exponent);
+        BigInteger[] qr = x.significand.shiftLeft(x.exponent - exponent).divideAndRemainder(divisor);
+        BigInteger n = qr[0], r = qr[1];
+        if (nearest) {
+            int half = r.shiftLeft(1).compareTo(divisor);
+            if (half > 0 || (half == 0 && n.testBit(0))) {
+                n = n.add(BigInteger.ONE);
+                r = r.subtract(divisor);
+            }
+        }
+        if (quotient != null) {
+            int low = n.intValue() & 0x7FFFFFFF;
+            quotient[0] = x.sign != y.sign ? -low : low;
+        }
+        // Section 5.3.1 - a zero result has the sign of a
+        if (r.signum() == 0) {
+            return x.sign ? a.NegativeZero() : a.Zero();
+        }
+        return a.fromExactFloat(new ExactFloat(x.sign != (r.signum() < 0), exponent, r.abs()), env);
+    }
+
+    /**
+     * Computes remainder or fmod on the raw bits of a binary format
+     */
+    private static long remainderBits(long a, long b, boolean nearest, int[] quotient, int sigbits, int expbits, Environment env) {
+        int bias = (1 << (expbits - 1)) - 1;
+        long signBit = 1L << (sigbits + expbits);
+        long quietBit = 1L << (sigbits - 1);
+        long infinity = ((1L << expbits) - 1) << sigbits;
+        long magnitudeA = a & ~signBit, magnitudeB = b & ~signBit;
+        boolean sign = (a & signBit) != 0;
+        if (quotient != null) quotient[0] = 0;
+
+        // Section 6.2 - like the generic version, a signalling operand gives the canonical NaN
+        if (magnitudeA > infinity || magnitudeB > infinity) {
+            if ((magnitudeA > infinity && (a & quietBit) == 0) || (magnitudeB > infinity && (b & quietBit) == 0)) {
+                env.flags.add(Flags.invalid);
+                return infinity | quietBit;
+            }
+            return magnitudeA > infinity ? a : b;
+        }
+
+        // Section 7.2
+        if (magnitudeA == infinity || magnitudeB == 0) {
+            env.flags.add(Flags.invalid);
+            return infinity | quietBit;
+        }
+        if (magnitudeB == infinity || magnitudeA == 0) {
+            return a;
+        }
+
+        long mx = decode(magnitudeA, sigbits), my = decode(magnitudeB, sigbits);
+        int ex = exponent(magnitudeA, sigbits, bias), ey = exponent(magnitudeB, sigbits, bias);
+        long r, n, divisor;
+        int exponent;
+        if (ex >= ey) {
+            // mx * 2^(ex - ey) mod my, shifting in up to 64 bits at a time
+            n = mx / my;
+            r = mx % my;
+            exponent = ey;
+            divisor = my;
+            int gap = ex - ey;
+            if (gap > 0) {
+                int shift = Long.numberOfLeadingZeros(my);
+                long d = my << shift, reciprocal = LongMath.reciprocal(d);
+                r <<= shift;
+                while (gap > 0) {
+                    int step = Math.min(gap, 64);
+                    long hi = LongMath.shiftRightHi(r, 64 - step), lo = LongMath.shiftLeftLo(r, step);
+                    long digit = LongMath.divide(hi, lo, d, reciprocal);
+                    r = lo - digit * d;
+                    n = LongMath.shiftLeftLo(n, step) + digit;
+                    gap -= step;
+                }
+                r >>>= shift;
+            }
+        } else {
+            int gap = ey - ex;
+            if (gap + 64 - Long.numberOfLeadingZeros(my) > 65 - Long.numberOfLeadingZeros(mx)) {
+                return a; // |b| > 2|a|, so n = 0
+            }
+            divisor = my << gap;
+            n = mx / divisor;
+            r = mx % divisor;
+            exponent = ex;
+        }
+
+        if (nearest && (2 * r > divisor || (2 * r == divisor && (n & 1) != 0))) {
+            r = divisor - r;
+            n++;
+            sign = !sign;
+        }
+        if (quotient != null) {
+            int low = (int) n & 0x7FFFFFFF;
+            quotient[0] = ((a ^ b) & signBit) != 0 ? -low : low;
+        }
+        // Section 5.3.1 - a zero result has the sign of a
+        if (r == 0) return a & signBit;
+        return BinaryRounding.round(sign, r, exponent, false, sigbits, expbits, env);
+    }
+
+    // The integer significand of a finite, non-zero magnitude
+    private static long decode(long magnitude, int sigbits) {
+        long fraction = magnitude & ((1L << sigbits) - 1);
+        return (magnitude >>> sigbits) == 0 ? fraction : fraction | (1L << sigbits);
+    }
+
+    // The exponent of the lowest bit of the significand
+    private static int exponent(long magnitude, int sigbits, int bias) {
+        return Math.max((int) (magnitude >>> sigbits), 1) - bias - sigbits;
     }
 }
@@ -0,0 +1,51 @@
+package jsoftfloat.operations;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A view of ASCII bytes as characters so that Parsing can read straight from byte buffers.
+ * <p>
+ * Indexes are absolute positions in the buffer, so a number in bytes [start, end) is parsed with
+ * parseFloat64Bits(view, start, end, env). The view can be pointed at another buffer with wrap so a single instance
+ * can be reused in a loop without allocating.
+ */
+public final class ByteChars implements CharSequence {
+    private ByteBuffer buffer;
+
+    public ByteChars(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public ByteChars(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    public ByteChars wrap(ByteBuffer buffer) {
+        this.buffer = buffer;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return buffer.limit();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (buffer.get(index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            sb.append(charAt(i));
+        }
+        return sb;
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length()).toString();
+    }
+}
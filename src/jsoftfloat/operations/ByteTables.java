@@ -0,0 +1,131 @@
+package jsoftfloat.operations;
+
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.types.E4M3;
+import jsoftfloat.types.E5M2;
+import jsoftfloat.types.Float16;
+import jsoftfloat.types.Floating;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Precomputed binary operations of a format with 8 bits.
+ * <p>
+ * With 256 values per operand the results of an operation for every pair of operands fit in a 64KiB table, and the
+ * flags it signals in a second one. There is a pair for each operation and deterministic rounding direction, which is
+ * computed with the generic implementation the first time it is used. Two threads building the same table just do the
+ * work twice, so there is no locking. Stochastic rounding can't be tabulated and is computed directly.
+ */
+final class ByteTables<T extends Floating<T>> {
+    static final int ADD = 0, SUBTRACTION = 1, MULTIPLICATION = 2, DIVISION = 3;
+    private static final int MODES = RoundingMode.values().length;
+    private static final Flags[] FLAGS = Flags.values();
+
+    static final ByteTables<E4M3> FOR_E4M3 = new ByteTables<>(E4M3::new, f -> f.bits);
+    static final ByteTables<E5M2> FOR_E5M2 = new ByteTables<>(E5M2::new, f -> f.bits);
+
+    private final IntFunction<T> decode;
+    private final ToIntFunction<T> encode;
+    private final AtomicReferenceArray<byte[]> results = new AtomicReferenceArray<>(4 * MODES),
+            flags = new AtomicReferenceArray<>(4 * MODES);
+    private final short[] float16 = new short[256];
+
+    private ByteTables(IntFunction<T> decode, ToIntFunction<T> encode) {
+        this.decode = decode;
+        this.encode = encode;
+        for (int i = 0; i < float16.length; i++) {
+            T f = decode.apply(i);
+            // Both formats fit in binary16, so only NaNs change
+            float16[i] = f.isNaN() ? (short) (f.isSignMinus() ? 0xFE00 : 0x7E00)
+                    : Conversions.convert(f, Float16.Zero, new Environment()).bits;
+        }
+    }
+
+    /**
+     * @return the raw bits of the binary16 with the same value, or a quiet NaN with the same sign
+     */
+    int toFloat16(int bits) {
+        return float16[bits & 0xFF];
+    }
+
+    /**
+     * @param op one of ADD, SUBTRACTION, MULTIPLICATION and DIVISION
+     * @return the raw bits of a op b
+     */
+    int apply(int op, int a, int b, Environment env) {
+        if (env.mode == RoundingMode.stochastic) {
+            return compute(op, a, b, env);
+        }
+        int table = op * MODES + env.mode.ordinal();
+        byte[] result = table(table, op, env.mode);
+        int i = (a & 0xFF) << 8 | (b & 0xFF);
+        signal(flags.get(table)[i], env);
+        return result[i];
+    }
+
+    /**
+     * Applies op to length pairs of raw bits from a and b and stores the results in dst, which may be a or b
+     */
+    void apply(int op, byte[] a, int aOffset, byte[] b, int bOffset, byte[] dst, int dstOffset, int length, Environment env) {
+        if (env.mode == RoundingMode.stochastic) {
+            for (int i = 0; i < length; i++) {
+                dst[dstOffset + i] = (byte) compute(op, a[aOffset + i], b[bOffset + i], env);
+            }
+            return;
+        }
+        int table = op * MODES + env.mode.ordinal();
+        byte[] result = table(table, op, env.mode), signalled = flags.get(table);
+        int all = 0;
+        for (int i = 0; i < length; i++) {
+            int index = (a[aOffset + i] & 0xFF) << 8 | (b[bOffset + i] & 0xFF);
+            dst[dstOffset + i] = result[index];
+            all |= signalled[index];
+        }
+        signal(all, env);
+    }
+
+    private byte[] table(int table, int op, RoundingMode mode) {
+        byte[] result = results.get(table);
+        if (result != null) {
+            return result;
+        }
+        result = new byte[1 << 16];
+        byte[] signalled = new byte[1 << 16];
+        for (int i = 0; i < result.length; i++) {
+            Environment env = new Environment(mode);
+            result[i] = (byte) compute(op, i >>> 8, i & 0xFF, env);
+            for (Flags f : env.flags) {
+                signalled[i] |= 1 << f.ordinal();
+            }
+        }
+        // The flags go first so that they are there for anyone who sees the results
+        flags.set(table, signalled);
+        results.set(table, result);
+        return result;
+    }
+
+    private int compute(int op, int a, int b, Environment env) {
+        T x = decode.apply(a), y = decode.apply(b);
+        switch (op) {
+            case ADD:
+                return encode.applyAsInt(Arithmetic.add(x, y, env));
+            case SUBTRACTION:
+                return encode.applyAsInt(Arithmetic.subtraction(x, y, env));
+            case MULTIPLICATION:
+                return encode.applyAsInt(Arithmetic.multiplication(x, y, env));
+            default:
+                return encode.applyAsInt(Arithmetic.division(x, y, env));
+        }
+    }
+
+    private static void signal(int signalled, Environment env) {
+        if (signalled == 0) return;
+        for (Flags f : FLAGS) {
+            if ((signalled & 1 << f.ordinal()) != 0) env.flags.add(f);
+        }
+    }
+}
@@ -2,7 +2,20 @@ package jsoftfloat.operations;
 
 import jsoftfloat.Environment;
 import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryRounding;
 import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.internal.Float16Tables;
+import jsoftfloat.types.BFloat16;
+import jsoftfloat.types.Decimal128;
+import jsoftfloat.types.Decimal64;
+import jsoftfloat.types.DoubleDouble;
+import jsoftfloat.types.E4M3;
+import jsoftfloat.types.E5M2;
+import jsoftfloat.types.Float16;
+import jsoftfloat.types.Float32;
+import jsoftfloat.types.Float64;
+import jsoftfloat.types.Float80;
 import jsoftfloat.types.Floating;
 
 import java.math.BigInteger;
@@ -11,22 +24,253 @@ import java.math.BigInteger;
  * Groups conversion operations such as integer to float32, float32 to integer, etc
  */
 public class Conversions {
+    /**
+     * Rounds to an integral value in the rounding direction of env without signalling inexact (Section 5.3.1)
+     */
     public static <T extends Floating<T>> T roundToIntegral(T f, Environment env) {
+        return roundToIntegral(f, env.mode, false, env);
+    }
+
+    /**
+     * Rounds to an integral value in the given rounding direction without signalling inexact (Section 5.3.1)
+     */
+    public static <T extends Floating<T>> T roundToIntegral(T f, RoundingMode mode, Environment env) {
+        return roundToIntegral(f, mode, false, env);
+    }
+
+    /**
+     * Rounds to an integral value in the rounding direction of env and signals inexact if the value changes
+     */
+    public static <T extends Floating<T>> T roundToIntegralExact(T f, Environment env) {
+        return roundToIntegral(f, env.mode, true, env);
+    }
+
+    public static <T extends Floating<T>> T floor(T f, Environment env) {
+        return roundToIntegral(f, RoundingMode.min, false, env);
+    }
+
+    public static <T extends Floating<T>> T ceil(T f, Environment env) {
+        return roundToIntegral(f, RoundingMode.max, false, env);
+    }
+
+    public static <T extends Floating<T>> T trunc(T f, Environment env) {
+        return roundToIntegral(f, RoundingMode.zero, false, env);
+    }
+
+    /**
+     * The C rint, which is the same as roundToIntegralExact
+     */
+    public static <T extends Floating<T>> T rint(T f, Environment env) {
+        return roundToIntegral(f, env.mode, true, env);
+    }
+
+    private static <T extends Floating<T>> T roundToIntegral(T f, RoundingMode mode, boolean exact, Environment env) {
         // Section 5.9 and 7.2
         if (f.isNaN()) {
-            //TODO: signal invalid operation
+            if (f.isSignalling()) {
+                env.flags.add(Flags.invalid);
+                return f.NaN();
+            }
             return f;
         }
-        if (f.isInfinite()) {
-            // TODO: handle correctly
+        if (f.isInfinite() || f.isZero()) {
             return f;
         }
-        if (f.isZero()) {
-            return f;
+        ExactFloat value = f.toExactFloat();
+        ExactFloat rounded = value.roundToIntegral(mode == env.mode ? env : env.withMode(mode));
+        if (exact && rounded.compareTo(value) != 0) {
+            env.flags.add(Flags.inexact);
+        }
+        if (rounded.isZero()) {
+            return f.isSignMinus() ? f.NegativeZero() : f.Zero();
+        }
+        return f.fromExactFloat(rounded, env);
+    }
+
+    public static Float32 roundToIntegral(Float32 f, Environment env) {
+        return new Float32((int) roundToIntegralBits(f.bits & 0xFFFFFFFFL, 23, 8, env.mode, false, env));
+    }
+
+    public static Float32 roundToIntegral(Float32 f, RoundingMode mode, Environment env) {
+        return new Float32((int) roundToIntegralBits(f.bits & 0xFFFFFFFFL, 23, 8, mode, false, env));
+    }
+
+    public static Float32 roundToIntegralExact(Float32 f, Environment env) {
+        return new Float32((int) roundToIntegralBits(f.bits & 0xFFFFFFFFL, 23, 8, env.mode, true, env));
+    }
+
+    public static Float32 floor(Float32 f, Environment env) {
+        return roundToIntegral(f, RoundingMode.min, env);
+    }
+
+    public static Float32 ceil(Float32 f, Environment env) {
+        return roundToIntegral(f, RoundingMode.max, env);
+    }
+
+    public static Float32 trunc(Float32 f, Environment env) {
+        return roundToIntegral(f, RoundingMode.zero, env);
+    }
+
+    public static Float32 rint(Float32 f, Environment env) {
+        return roundToIntegralExact(f, env);
+    }
+
+    public static Float64 roundToIntegral(Float64 f, Environment env) {
+        return new Float64(roundToIntegralBits(f.bits, 52, 11, env.mode, false, env));
+    }
+
+    public static Float64 roundToIntegral(Float64 f, RoundingMode mode, Environment env) {
+        return new Float64(roundToIntegralBits(f.bits, 52, 11, mode, false, env));
+    }
+
+    public static Float64 roundToIntegralExact(Float64 f, Environment env) {
+        return new Float64(roundToIntegralBits(f.bits, 52, 11, env.mode, true, env));
+    }
+
+    public static Float64 floor(Float64 f, Environment env) {
+        return roundToIntegral(f, RoundingMode.min, env);
+    }
+
+    public static Float64 ceil(Float64 f, Environment env) {
+        return roundToIntegral(f, RoundingMode.max, env);
+    }
+
+    public static Float64 trunc(Float64 f, Environment env) {
+        return roundToIntegral(f, RoundingMode.zero, env);
+    }
+
+    public static Float64 rint(Float64 f, Environment env) {
+        return roundToIntegralExact(f, env);
+    }
+
+    // Binary16 values below 2^10 round with a table of their integer parts, everything else needs no rounding
+
+    public static Float16 roundToIntegral(Float16 f, Environment env) {
+        return new Float16(roundToIntegralBits(f.bits, env.mode, false, env));
+    }
+
+    public static Float16 roundToIntegral(Float16 f, RoundingMode mode, Environment env) {
+        return new Float16(roundToIntegralBits(f.bits, mode, false, env));
+    }
+
+    public static Float16 roundToIntegralExact(Float16 f, Environment env) {
+        return new Float16(roundToIntegralBits(f.bits, env.mode, true, env));
+    }
+
+    public static Float16 floor(Float16 f, Environment env) {
+        return roundToIntegral(f, RoundingMode.min, env);
+    }
+
+    public static Float16 ceil(Float16 f, Environment env) {
+        return roundToIntegral(f, RoundingMode.max, env);
+    }
+
+    public static Float16 trunc(Float16 f, Environment env) {
+        return roundToIntegral(f, RoundingMode.zero, env);
+    }
+
+    public static Float16 rint(Float16 f, Environment env) {
+        return roundToIntegralExact(f, env);
+    }
+
+    private static int roundToIntegralBits(int bits, RoundingMode mode, boolean exact, Environment env) {
+        int magnitude = bits & 0x7FFF;
+        // Stochastic rounding needs the whole fraction rather than which side of a half it is on
+        if (magnitude >= 0x6400 || mode == RoundingMode.stochastic) {
+            return (int) roundToIntegralBits(bits & 0xFFFF, 10, 5, mode, exact, env);
+        }
+        int entry = Float16Tables.integral(magnitude);
+        int integer = entry >>> 2, fraction = entry & 3;
+        if (fraction == 0) return bits;
+        if (BinaryRounding.roundAway(bits < 0, (integer & 1) != 0, fraction >= 2, fraction != 2, mode)) {
+            integer++;
+        }
+        if (exact) env.flags.add(Flags.inexact);
+        return (bits & 0x8000) | Float16Tables.fromInteger(integer);
+    }
+
+    /**
+     * Rounds length Float32 values given as raw bits from src to dst, which may be the same array
+     *
+     * @param mode  the rounding direction
+     * @param exact whether to signal inexact like roundToIntegralExact
+     */
+    public static void roundToIntegral(int[] src, int srcOffset, int[] dst, int dstOffset, int length, RoundingMode mode, boolean exact, Environment env) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = (int) roundToIntegralBits(src[srcOffset + i] & 0xFFFFFFFFL, 23, 8, mode, exact, env);
+        }
+    }
+
+    /**
+     * Rounds length Float64 values given as raw bits from src to dst, which may be the same array
+     *
+     * @param mode  the rounding direction
+     * @param exact whether to signal inexact like roundToIntegralExact
+     */
+    public static void roundToIntegral(long[] src, int srcOffset, long[] dst, int dstOffset, int length, RoundingMode mode, boolean exact, Environment env) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = roundToIntegralBits(src[srcOffset + i], 52, 11, mode, exact, env);
         }
-        return f.fromExactFloat(f.toExactFloat().roundToIntegral(env), env);
     }
 
+    /**
+     * Rounds the raw bits of a binary format to an integral value by masking off the fraction bits
+     */
+    private static long roundToIntegralBits(long bits, int sigbits, int expbits, RoundingMode mode, boolean exact, Environment env) {
+        int bias = (1 << (expbits - 1)) - 1;
+        long signBit = 1L << (sigbits + expbits);
+        long infinity = ((1L << expbits) - 1) << sigbits;
+        long magnitude = bits & ~signBit;
+        boolean sign = (bits & signBit) != 0;
+        int biased = (int) (magnitude >>> sigbits);
+
+        // Section 6.2
+        if (magnitude > infinity) {
+            long quietBit = 1L << (sigbits - 1);
+            if ((bits & quietBit) == 0) env.flags.add(Flags.invalid);
+            return bits | quietBit;
+        }
+        // Infinities, zeros and anything of at least 2^sigbits are already integral
+        if (biased >= bias + sigbits || magnitude == 0) {
+            return bits;
+        }
+
+        long result;
+        if (biased < bias) {
+            // Below one, so the result is zero or one
+            boolean half = biased == bias - 1;
+            boolean rest = !half || (magnitude & ((1L << sigbits) - 1)) != 0;
+            boolean away;
+            if (mode == RoundingMode.stochastic) {
+                long significand = (magnitude & ((1L << sigbits) - 1)) | (biased == 0 ? 0 : 1L << sigbits);
+                away = BinaryRounding.roundAwayStochastic(significand, bias + sigbits - Math.max(biased, 1), false, env);
+            } else {
+                away = BinaryRounding.roundAway(sign, false, half, rest, mode);
+            }
+            result = away ? (long) bias << sigbits : 0;
+        } else {
+            int fractionBits = bias + sigbits - biased;
+            long unit = 1L << fractionBits;
+            long fraction = magnitude & (unit - 1);
+            if (fraction == 0) return bits;
+            long truncated = magnitude - fraction;
+            long halfUnit = unit >>> 1;
+            boolean away = mode == RoundingMode.stochastic ? BinaryRounding.roundAwayStochastic(fraction, fractionBits, false, env)
+                    : BinaryRounding.roundAway(sign, (truncated & unit) != 0, fraction >= halfUnit, (fraction & (halfUnit - 1)) != 0, mode);
+            // A carry out of the fraction bits increments the exponent, which is exactly right
+            result = away ? truncated + unit : truncated;
+        }
+        if (exact) env.flags.add(Flags.inexact);
+        return (bits & signBit) | result;
+    }
+
+    private static final BigInteger INT_MAX = BigInteger.valueOf(Integer.MAX_VALUE),
+            INT_MIN = BigInteger.valueOf(Integer.MIN_VALUE),
+            UNSIGNED_INT_MAX = BigInteger.valueOf(0xFFFFFFFFL),
+            LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE),
+            LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE),
+            UNSIGNED_LONG_MAX = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
     public static <T extends Floating<T>> BigInteger convertToIntegral(T f, BigInteger max, BigInteger min, Environment env, boolean quiet) {
         // Section 5.9 and 7.2
         if (f.isNaN()) {
@@ -39,13 +283,13 @@ public class Conversions {
             return f.isSignMinus() ? min : max;
         }
 
-        Environment copy = new Environment();
-        copy.mode = env.mode;
+        // Rounding may signal inexact, which only matters if the result is in range
+        Environment copy = env.withMode(env.mode);
         BigInteger rounded;
         if(f.isZero()){
             rounded = BigInteger.ZERO;
         } else {
-            rounded = f.toExactFloat().toIntegral(env);
+            rounded = f.toExactFloat().toIntegral(copy);
         }
 
         // Section 5.8
@@ -62,27 +306,171 @@ public class Conversions {
     }
 
     public static <T extends Floating<T>> int convertToInt(T f, Environment env, boolean quiet) {
-        BigInteger rounded = convertToIntegral(f,BigInteger.valueOf(Integer.MAX_VALUE),BigInteger.valueOf(Integer.MIN_VALUE),env,quiet);
+        BigInteger rounded = convertToIntegral(f,INT_MAX,INT_MIN,env,quiet);
         return rounded.intValueExact();
     }
 
 
     public static <T extends Floating<T>> int convertToUnsignedInt(T f, Environment env, boolean quiet) {
-        BigInteger rounded = convertToIntegral(f,BigInteger.valueOf(0xFFFFFFFFL),BigInteger.ZERO,env,quiet);
+        BigInteger rounded = convertToIntegral(f,UNSIGNED_INT_MAX,BigInteger.ZERO,env,quiet);
         return (int)(rounded.longValueExact()&0xFFFFFFFFL);
     }
 
     public static <T extends Floating<T>> long convertToLong(T f, Environment env, boolean quiet) {
-        BigInteger rounded = convertToIntegral(f,BigInteger.valueOf(Long.MAX_VALUE),BigInteger.valueOf(Long.MIN_VALUE),env,quiet);
+        BigInteger rounded = convertToIntegral(f,LONG_MAX,LONG_MIN,env,quiet);
         return rounded.longValueExact();
     }
 
 
     public static <T extends Floating<T>> long convertToUnsignedLong(T f, Environment env, boolean quiet) {
-        BigInteger rounded = convertToIntegral(f,BigInteger.valueOf(-1).add(BigInteger.ONE.shiftLeft(64)),BigInteger.ZERO,env,quiet);
+        BigInteger rounded = convertToIntegral(f,UNSIGNED_LONG_MAX,BigInteger.ZERO,env,quiet);
         return rounded.longValue();
     }
 
+    public static int convertToInt(Float32 f, Environment env) {
+        return convertToInt(f, env, false);
+    }
+
+    public static int convertToInt(Float32 f, Environment env, boolean quiet) {
+        return (int) toIntegerBits(f.bits & 0xFFFFFFFFL, 23, 8, 32, false, quiet, env);
+    }
+
+    public static int convertToUnsignedInt(Float32 f, Environment env, boolean quiet) {
+        return (int) toIntegerBits(f.bits & 0xFFFFFFFFL, 23, 8, 32, true, quiet, env);
+    }
+
+    public static long convertToLong(Float32 f, Environment env, boolean quiet) {
+        return toIntegerBits(f.bits & 0xFFFFFFFFL, 23, 8, 64, false, quiet, env);
+    }
+
+    public static long convertToUnsignedLong(Float32 f, Environment env, boolean quiet) {
+        return toIntegerBits(f.bits & 0xFFFFFFFFL, 23, 8, 64, true, quiet, env);
+    }
+
+    public static int convertToInt(Float64 f, Environment env) {
+        return convertToInt(f, env, false);
+    }
+
+    public static int convertToInt(Float64 f, Environment env, boolean quiet) {
+        return (int) toIntegerBits(f.bits, 52, 11, 32, false, quiet, env);
+    }
+
+    public static int convertToUnsignedInt(Float64 f, Environment env, boolean quiet) {
+        return (int) toIntegerBits(f.bits, 52, 11, 32, true, quiet, env);
+    }
+
+    public static long convertToLong(Float64 f, Environment env, boolean quiet) {
+        return toIntegerBits(f.bits, 52, 11, 64, false, quiet, env);
+    }
+
+    public static long convertToUnsignedLong(Float64 f, Environment env, boolean quiet) {
+        return toIntegerBits(f.bits, 52, 11, 64, true, quiet, env);
+    }
+
+    /**
+     * Converts length Float32 values given as raw bits from src to 32 bit integers in dst
+     */
+    public static void convertToInt(int[] src, int srcOffset, int[] dst, int dstOffset, int length, boolean unsigned, boolean quiet, Environment env) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = (int) toIntegerBits(src[srcOffset + i] & 0xFFFFFFFFL, 23, 8, 32, unsigned, quiet, env);
+        }
+    }
+
+    /**
+     * Converts length Float64 values given as raw bits from src to 32 bit integers in dst
+     */
+    public static void convertToInt(long[] src, int srcOffset, int[] dst, int dstOffset, int length, boolean unsigned, boolean quiet, Environment env) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = (int) toIntegerBits(src[srcOffset + i], 52, 11, 32, unsigned, quiet, env);
+        }
+    }
+
+    /**
+     * Converts length Float32 values given as raw bits from src to 64 bit integers in dst
+     */
+    public static void convertToLong(int[] src, int srcOffset, long[] dst, int dstOffset, int length, boolean unsigned, boolean quiet, Environment env) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = toIntegerBits(src[srcOffset + i] & 0xFFFFFFFFL, 23, 8, 64, unsigned, quiet, env);
+        }
+    }
+
+    /**
+     * Converts length Float64 values given as raw bits from src to 64 bit integers in dst
+     */
+    public static void convertToLong(long[] src, int srcOffset, long[] dst, int dstOffset, int length, boolean unsigned, boolean quiet, Environment env) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = toIntegerBits(src[srcOffset + i], 52, 11, 64, unsigned, quiet, env);
+        }
+    }
+
+    /**
+     * Converts the raw bits of a binary format to an integer of the given width, rounding in the mode of env
+     * <p>
+     * Like convertToIntegral, NaNs and values out of range signal invalid and saturate, which is what RISC-V requires.
+     *
+     * @param width 32 or 64
+     * @return the integer, or its two's complement bits if it is unsigned
+     */
+    static long toIntegerBits(long bits, int sigbits, int expbits, int width, boolean unsigned, boolean quiet, Environment env) {
+        int bias = (1 << (expbits - 1)) - 1;
+        long signBit = 1L << (sigbits + expbits);
+        long infinity = ((1L << expbits) - 1) << sigbits;
+        long magnitude = bits & ~signBit;
+        boolean sign = (bits & signBit) != 0;
+        long max = unsigned ? -1L >>> (64 - width) : -1L >>> (65 - width);
+        long min = unsigned ? 0 : -1L << (width - 1);
+
+        // Section 5.9 and 7.2
+        if (magnitude >= infinity) {
+            env.flags.add(Flags.invalid);
+            return magnitude == infinity && sign ? min : max;
+        }
+        if (magnitude == 0) {
+            return 0;
+        }
+
+        int biased = (int) (magnitude >>> sigbits);
+        long significand = (magnitude & ((1L << sigbits) - 1)) | (biased == 0 ? 0 : 1L << sigbits);
+        int exponent = Math.max(biased, 1) - bias - sigbits;
+        long value;
+        boolean inexact = false;
+        if (exponent >= 0) {
+            if (exponent + 64 - Long.numberOfLeadingZeros(significand) > width) {
+                env.flags.add(Flags.invalid);
+                return sign ? min : max;
+            }
+            value = significand << exponent;
+        } else {
+            int shift = -exponent;
+            boolean half, rest;
+            if (shift > sigbits + 1) {
+                value = 0;
+                half = false;
+                rest = true;
+            } else {
+                value = significand >>> shift;
+                half = ((significand >>> (shift - 1)) & 1) != 0;
+                rest = (significand & ((1L << (shift - 1)) - 1)) != 0;
+            }
+            inexact = half || rest;
+            if (inexact) {
+                boolean away = env.mode == RoundingMode.stochastic ? BinaryRounding.roundAwayStochastic(significand, shift, false, env)
+                        : BinaryRounding.roundAway(sign, (value & 1) != 0, half, rest, env.mode);
+                if (away) value++;
+            }
+        }
+
+        // Section 5.8 - value is the magnitude as an unsigned number below 2^width
+        boolean inRange = sign ? Long.compareUnsigned(value, -min) <= 0 : Long.compareUnsigned(value, max) <= 0;
+        if (!inRange) {
+            env.flags.add(Flags.invalid);
+            return sign ? min : max;
+        }
+        if (inexact && !quiet) {
+            env.flags.add(Flags.inexact);
+        }
+        return sign ? -value : value;
+    }
 
     public static <T extends Floating<T>> T convertFromInt(BigInteger i, Environment env, T helper) {
         if(i.equals(BigInteger.ZERO)){
@@ -90,4 +478,512 @@ public class Conversions {
         }
         return helper.fromExactFloat(new ExactFloat(i),env);
     }
+
+    public static Float32 convertFromInt(int i, Environment env, Float32 helper) {
+        return new Float32((int) fromIntegerBits(i < 0, Math.abs((long) i), 23, 8, env));
+    }
+
+    public static Float32 convertFromUnsignedInt(int i, Environment env, Float32 helper) {
+        return new Float32((int) fromIntegerBits(false, i & 0xFFFFFFFFL, 23, 8, env));
+    }
+
+    public static Float32 convertFromLong(long i, Environment env, Float32 helper) {
+        // -Long.MIN_VALUE overflows to itself, which is the right magnitude as an unsigned number
+        return new Float32((int) fromIntegerBits(i < 0, Math.abs(i), 23, 8, env));
+    }
+
+    public static Float32 convertFromUnsignedLong(long i, Environment env, Float32 helper) {
+        return new Float32((int) fromIntegerBits(false, i, 23, 8, env));
+    }
+
+    public static Float64 convertFromInt(int i, Environment env, Float64 helper) {
+        return new Float64(fromIntegerBits(i < 0, Math.abs((long) i), 52, 11, env));
+    }
+
+    public static Float64 convertFromUnsignedInt(int i, Environment env, Float64 helper) {
+        return new Float64(fromIntegerBits(false, i & 0xFFFFFFFFL, 52, 11, env));
+    }
+
+    public static Float64 convertFromLong(long i, Environment env, Float64 helper) {
+        return new Float64(fromIntegerBits(i < 0, Math.abs(i), 52, 11, env));
+    }
+
+    public static Float64 convertFromUnsignedLong(long i, Environment env, Float64 helper) {
+        return new Float64(fromIntegerBits(false, i, 52, 11, env));
+    }
+
+    /**
+     * Converts length 32 bit integers from src to the raw bits of Float32 values in dst
+     */
+    public static void convertFromInt(int[] src, int srcOffset, int[] dst, int dstOffset, int length, boolean unsigned, Environment env) {
+        for (int i = 0; i < length; i++) {
+            int v = src[srcOffset + i];
+            dst[dstOffset + i] = (int) (unsigned ? fromIntegerBits(false, v & 0xFFFFFFFFL, 23, 8, env) : fromIntegerBits(v < 0, Math.abs((long) v), 23, 8, env));
+        }
+    }
+
+    /**
+     * Converts length 32 bit integers from src to the raw bits of Float64 values in dst. This is always exact, and the
+     * loop has no branches so that it can be vectorized.
+     */
+    public static void convertFromInt(int[] src, int srcOffset, long[] dst, int dstOffset, int length, boolean unsigned) {
+        for (int i = 0; i < length; i++) {
+            int v = src[srcOffset + i];
+            long magnitude = unsigned ? v & 0xFFFFFFFFL : Math.abs((long) v);
+            long sign = unsigned ? 0 : (long) v & 0x80000000_00000000L;
+            int lz = Long.numberOfLeadingZeros(magnitude);
+            // The implicit bit of the shifted magnitude adds one to the exponent field
+            long bits = ((long) (1023 + 63 - 1 - lz) << 52) + ((magnitude << lz) >>> 11);
+            dst[dstOffset + i] = magnitude == 0 ? 0 : sign | bits;
+        }
+    }
+
+    /**
+     * Converts length 64 bit integers from src to the raw bits of Float32 values in dst
+     */
+    public static void convertFromLong(long[] src, int srcOffset, int[] dst, int dstOffset, int length, boolean unsigned, Environment env) {
+        for (int i = 0; i < length; i++) {
+            long v = src[srcOffset + i];
+            dst[dstOffset + i] = (int) (unsigned ? fromIntegerBits(false, v, 23, 8, env) : fromIntegerBits(v < 0, Math.abs(v), 23, 8, env));
+        }
+    }
+
+    /**
+     * Converts length 64 bit integers from src to the raw bits of Float64 values in dst
+     */
+    public static void convertFromLong(long[] src, int srcOffset, long[] dst, int dstOffset, int length, boolean unsigned, Environment env) {
+        for (int i = 0; i < length; i++) {
+            long v = src[srcOffset + i];
+            dst[dstOffset + i] = unsigned ? fromIntegerBits(false, v, 52, 11, env) : fromIntegerBits(v < 0, Math.abs(v), 52, 11, env);
+        }
+    }
+
+    /**
+     * Converts an integer to the raw bits of a binary format, rounding in the mode of env
+     *
+     * @param magnitude the unsigned magnitude of the integer
+     */
+    static long fromIntegerBits(boolean sign, long magnitude, int sigbits, int expbits, Environment env) {
+        if (magnitude == 0) {
+            return 0;
+        }
+        int top = 63 - Long.numberOfLeadingZeros(magnitude);
+        if (top > sigbits) {
+            return BinaryRounding.round(sign, magnitude, 0, false, sigbits, expbits, env);
+        }
+        // Exact, and the implicit bit adds one to the exponent field
+        int bias = (1 << (expbits - 1)) - 1;
+        long bits = ((long) (top + bias - 1) << sigbits) + (magnitude << (sigbits - top));
+        return sign ? bits | 1L << (sigbits + expbits) : bits;
+    }
+
+    /**
+     * Converts between any two formats (Section 5.4.2), rounding in the mode of env. NaNs lose their payload.
+     *
+     * @param helper any value of the destination format
+     */
+    public static <T extends Floating<T>, U extends Floating<U>> U convert(T f, U helper, Environment env) {
+        // Section 6.2
+        if (f.isNaN()) {
+            if (f.isSignalling()) env.flags.add(Flags.invalid);
+            return helper.NaN();
+        }
+        if (f.isInfinite()) {
+            return f.isSignMinus() ? helper.NegativeInfinity() : helper.Infinity();
+        }
+        if (f.isZero()) {
+            return f.isSignMinus() ? helper.NegativeZero() : helper.Zero();
+        }
+        return helper.fromExactFloat(f.toExactFloat(), env);
+    }
+
+    /**
+     * Widens a Float32 to a Float64, which is always exact. NaNs keep their payload and are quieted.
+     */
+    public static Float64 convertToFloat64(Float32 f, Environment env) {
+        return new Float64(widen(f.bits, env));
+    }
+
+    /**
+     * Narrows a Float64 to a Float32, rounding in the mode of env. NaNs keep the top of their payload and are quieted.
+     */
+    public static Float32 convertToFloat32(Float64 f, Environment env) {
+        return new Float32(narrow(f.bits, env));
+    }
+
+    /**
+     * Widens a Float16 to a Float32, which is always exact. NaNs keep their payload and are quieted.
+     */
+    public static Float32 convertToFloat32(Float16 f, Environment env) {
+        if (f.isSignalling()) env.flags.add(Flags.invalid);
+        return new Float32(Float16Tables.toFloat32(f.bits));
+    }
+
+    /**
+     * Widens a Float16 to a Float64, which is always exact. NaNs keep their payload and are quieted.
+     */
+    public static Float64 convertToFloat64(Float16 f, Environment env) {
+        // The binary32 is quiet, so only the first widening can signal
+        return new Float64(widen(convertToFloat32(f, env).bits, env));
+    }
+
+    /**
+     * Narrows a Float32 to a Float16, rounding in the mode of env. NaNs keep the top of their payload and are quieted.
+     */
+    public static Float16 convertToFloat16(Float32 f, Environment env) {
+        return new Float16((int) narrow(f.bits & 0xFFFFFFFFL, 23, 8, 10, 5, env));
+    }
+
+    /**
+     * Narrows a Float64 to a Float16, rounding in the mode of env. NaNs keep the top of their payload and are quieted.
+     */
+    public static Float16 convertToFloat16(Float64 f, Environment env) {
+        return new Float16((int) narrow(f.bits, 52, 11, 10, 5, env));
+    }
+
+    /**
+     * Widens a BFloat16 to a Float32 by appending zeros, which is always exact. NaNs keep their payload and are quieted.
+     */
+    public static Float32 convertToFloat32(BFloat16 f, Environment env) {
+        if (f.isSignalling()) env.flags.add(Flags.invalid);
+        return new Float32(f.isNaN() ? f.bits << 16 | 0x00400000 : f.bits << 16);
+    }
+
+    /**
+     * Narrows a Float32 to a BFloat16, rounding in the mode of env. NaNs keep the top of their payload and are quieted.
+     */
+    public static BFloat16 convertToBFloat16(Float32 f, Environment env) {
+        return new BFloat16((int) narrow(f.bits & 0xFFFFFFFFL, 23, 8, 7, 8, env));
+    }
+
+    /**
+     * Narrows a Float64 to a BFloat16, rounding in the mode of env. NaNs keep the top of their payload and are quieted.
+     */
+    public static BFloat16 convertToBFloat16(Float64 f, Environment env) {
+        return new BFloat16((int) narrow(f.bits, 52, 11, 7, 8, env));
+    }
+
+    /**
+     * Narrows length Float32 values given as raw bits from src to BFloat16 raw bits in dst
+     * <p>
+     * Rounding to nearest even is done without branches, collecting the flags for the whole array, so that the loop
+     * can be vectorized. Other rounding directions round each element like convertToBFloat16.
+     */
+    public static void convertToBFloat16(int[] src, int srcOffset, short[] dst, int dstOffset, int length, Environment env) {
+        if (env.mode != RoundingMode.even) {
+            for (int i = 0; i < length; i++) {
+                dst[dstOffset + i] = (short) narrow(src[srcOffset + i] & 0xFFFFFFFFL, 23, 8, 7, 8, env);
+            }
+            return;
+        }
+        int inexact = 0, underflow = 0, overflow = 0, invalid = 0;
+        for (int i = 0; i < length; i++) {
+            int bits = src[srcOffset + i];
+            int magnitude = bits & 0x7FFFFFFF;
+            int nan = (0x7F800000 - magnitude) >> 31; // All ones for NaNs
+            int discarded = bits & 0xFFFF & ~nan;
+            // Adding just under half a unit, or exactly half for odd results, carries into the kept bits when rounding up
+            int rounded = (bits + 0x7FFF + ((bits >>> 16) & 1)) >>> 16;
+            dst[dstOffset + i] = (short) ((rounded & ~nan) | ((bits >>> 16 | 0x0040) & nan));
+            inexact |= discarded;
+            underflow |= discarded & ((magnitude - 0x00800000) >> 31);
+            // Exactly the values from halfway below 2^128 up to infinity round to infinity
+            overflow |= (0x7F7F7FFF - magnitude) & (magnitude - 0x7F800000);
+            invalid |= nan & ~bits & 0x00400000;
+        }
+        if (inexact != 0) env.flags.add(Flags.inexact);
+        if (underflow != 0) env.flags.add(Flags.underflow);
+        if (overflow < 0) env.flags.add(Flags.overflow);
+        if (invalid != 0) env.flags.add(Flags.invalid);
+    }
+
+    /**
+     * Widens length BFloat16 values given as raw bits from src to Float32 raw bits in dst, which is a branch free shift
+     */
+    public static void convertToFloat32(short[] src, int srcOffset, int[] dst, int dstOffset, int length, Environment env) {
+        int invalid = 0;
+        for (int i = 0; i < length; i++) {
+            int bits = src[srcOffset + i] << 16;
+            int nan = (0x7F800000 - (bits & 0x7FFFFFFF)) >> 31;
+            invalid |= nan & ~bits & 0x00400000;
+            dst[dstOffset + i] = bits | (nan & 0x00400000);
+        }
+        if (invalid != 0) env.flags.add(Flags.invalid);
+    }
+
+    /**
+     * Widens a Float64 to a Float80, which is always exact. NaNs keep their payload and are quieted.
+     */
+    public static Float80 convertToFloat80(Float64 f, Environment env) {
+        boolean sign = f.isSignMinus();
+        int biased = (int) (f.bits >>> 52) & 0x7FF;
+        long fraction = f.bits & 0x000FFFFF_FFFFFFFFL;
+        if (biased == 0x7FF) {
+            // Section 6.2 - the payload moves to the top of the wider fraction
+            if (fraction != 0 && (fraction & 0x00080000_00000000L) == 0) env.flags.add(Flags.invalid);
+            long quiet = fraction != 0 ? 0x40000000_00000000L : 0;
+            return new Float80(sign ? 0xFFFF : 0x7FFF, 0x80000000_00000000L | quiet | fraction << 11);
+        }
+        if (biased == 0) {
+            if (fraction == 0) return sign ? Float80.NegativeZero : Float80.Zero;
+            // Subnormal, which is normal with the wider exponent
+            int shift = Long.numberOfLeadingZeros(fraction);
+            return new Float80(sign, -1022 - 52 + 63 - shift, fraction << shift);
+        }
+        return new Float80(sign, biased - 1023, 0x80000000_00000000L | fraction << 11);
+    }
+
+    /**
+     * Widens a Float32 to a Float80, which is always exact. NaNs keep their payload and are quieted.
+     */
+    public static Float80 convertToFloat80(Float32 f, Environment env) {
+        // The binary64 is quiet, so only the first widening can signal
+        return convertToFloat80(new Float64(widen(f.bits, env)), env);
+    }
+
+    /**
+     * Narrows a Float80 to a Float64, rounding in the mode of env. NaNs keep the top of their payload and are quieted.
+     * Precision control does not apply.
+     */
+    public static Float64 convertToFloat64(Float80 f, Environment env) {
+        return new Float64(narrow(f, 52, 11, env));
+    }
+
+    /**
+     * Narrows a Float80 to a Float32, rounding in the mode of env. NaNs keep the top of their payload and are quieted.
+     * Precision control does not apply.
+     */
+    public static Float32 convertToFloat32(Float80 f, Environment env) {
+        return new Float32((int) narrow(f, 23, 8, env));
+    }
+
+    /**
+     * Widens a Float64 to a DoubleDouble with a zero trailing part. NaNs keep their payload and are quieted.
+     */
+    public static DoubleDouble convertToDoubleDouble(Float64 f, Environment env) {
+        if (f.isSignalling()) {
+            env.flags.add(Flags.invalid);
+            return new DoubleDouble(f.bits | 0x00080000_00000000L, 0);
+        }
+        return new DoubleDouble(f.bits, 0);
+    }
+
+    /**
+     * Rounds the exact value of a DoubleDouble to a Float64 in the mode of env
+     * <p>
+     * The leading part is the exact value rounded to nearest, so the result is either it or its neighbour on the side
+     * of the trailing part, which is never zero if the value is inexact. Stochastic rounding and the largest finite
+     * numbers, where the neighbour could overflow, use the generic addition of the two parts instead.
+     */
+    public static Float64 convertToFloat64(DoubleDouble f, Environment env) {
+        if ((f.lo & 0x7FFFFFFF_FFFFFFFFL) == 0) {
+            return f.high();
+        }
+        if (env.mode == RoundingMode.stochastic || (f.hi & 0x7FFFFFFF_FFFFFFFFL) == 0x7FEFFFFF_FFFFFFFFL) {
+            return Arithmetic.add(f.high(), f.low(), env);
+        }
+        env.flags.add(Flags.inexact);
+        // Whether the neighbour is further from zero
+        boolean sameSign = (f.hi < 0) == (f.lo < 0);
+        long neighbour = sameSign ? f.hi + 1 : f.hi - 1;
+        boolean towardsLo;
+        switch (env.mode) {
+            case away:
+                // Only a tie rounds differently than to even, and then the leading part is the one closer to zero
+                double gap = Double.longBitsToDouble(neighbour) - Double.longBitsToDouble(f.hi); // Exact
+                towardsLo = sameSign && gap == 2 * Double.longBitsToDouble(f.lo);
+                break;
+            case zero:
+                towardsLo = !sameSign;
+                break;
+            case min:
+                towardsLo = f.lo < 0;
+                break;
+            case max:
+                towardsLo = f.lo >= 0;
+                break;
+            case odd:
+                towardsLo = (f.hi & 1) == 0;
+                break;
+            default:
+                towardsLo = false;
+        }
+        return new Float64(towardsLo ? neighbour : f.hi);
+    }
+
+    /**
+     * Widens a Decimal64 to a Decimal128, which is always exact and keeps the exponent. NaNs keep their payload and are
+     * quieted.
+     */
+    public static Decimal128 convertToDecimal128(Decimal64 f, Environment env) {
+        if (f.isNaN()) {
+            if (f.isSignalling()) {
+                env.flags.add(Flags.invalid);
+            }
+            return new Decimal128((f.bits & 0xFC000000_00000000L) & ~0x02000000_00000000L, f.bits & 0x3FFFF_FFFFFFFFL);
+        }
+        if (f.isInfinite()) {
+            return f.isSignMinus() ? Decimal128.NegativeInfinity : Decimal128.Infinity;
+        }
+        return new Decimal128(f.isSignMinus(), 0, f.coefficient(), f.exponent());
+    }
+
+    /**
+     * Narrows a Decimal128 to a Decimal64, rounding in the mode of env and keeping the exponent if the value is exact.
+     * NaNs keep the low 50 bits of their payload and are quieted.
+     */
+    public static Decimal64 convertToDecimal64(Decimal128 f, Environment env) {
+        if (f.isNaN()) {
+            if (f.isSignalling()) {
+                env.flags.add(Flags.invalid);
+            }
+            return new Decimal64((f.hi & 0xFC000000_00000000L) & ~0x02000000_00000000L | (f.lo & 0x3FFFF_FFFFFFFFL));
+        }
+        if (f.isInfinite()) {
+            return f.isSignMinus() ? Decimal64.NegativeInfinity : Decimal64.Infinity;
+        }
+        return Decimal64.round(f.isSignMinus(), f.coefficientHi(), f.coefficientLo(), f.exponent(), false, f.exponent(), env);
+    }
+
+    // The 8 bit formats widen through a table of their binary16 values, which is exact except that NaNs lose their
+    // payload
+
+    public static Float16 convertToFloat16(E4M3 f, Environment env) {
+        return new Float16(ByteTables.FOR_E4M3.toFloat16(f.bits));
+    }
+
+    public static Float16 convertToFloat16(E5M2 f, Environment env) {
+        if (f.isSignalling()) env.flags.add(Flags.invalid);
+        return new Float16(ByteTables.FOR_E5M2.toFloat16(f.bits));
+    }
+
+    public static Float32 convertToFloat32(E4M3 f, Environment env) {
+        return new Float32(Float16Tables.toFloat32(ByteTables.FOR_E4M3.toFloat16(f.bits)));
+    }
+
+    public static Float32 convertToFloat32(E5M2 f, Environment env) {
+        if (f.isSignalling()) env.flags.add(Flags.invalid);
+        return new Float32(Float16Tables.toFloat32(ByteTables.FOR_E5M2.toFloat16(f.bits)));
+    }
+
+    /**
+     * Widens length values given as raw bits from src to Float16 raw bits in dst
+     *
+     * @param helper any value of the format of src
+     */
+    public static void convertToFloat16(byte[] src, int srcOffset, short[] dst, int dstOffset, int length, E4M3 helper, Environment env) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = (short) ByteTables.FOR_E4M3.toFloat16(src[srcOffset + i]);
+        }
+    }
+
+    public static void convertToFloat16(byte[] src, int srcOffset, short[] dst, int dstOffset, int length, E5M2 helper, Environment env) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = convertToFloat16(new E5M2(src[srcOffset + i]), env).bits;
+        }
+    }
+
+    /**
+     * Widens length values given as raw bits from src to Float32 raw bits in dst
+     *
+     * @param helper any value of the format of src
+     */
+    public static void convertToFloat32(byte[] src, int srcOffset, int[] dst, int dstOffset, int length, E4M3 helper, Environment env) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = Float16Tables.toFloat32(ByteTables.FOR_E4M3.toFloat16(src[srcOffset + i]));
+        }
+    }
+
+    public static void convertToFloat32(byte[] src, int srcOffset, int[] dst, int dstOffset, int length, E5M2 helper, Environment env) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = convertToFloat32(new E5M2(src[srcOffset + i]), env).bits;
+        }
+    }
+
+    /**
+     * Widens length Float32 values given as raw bits from src to Float64 raw bits in dst
+     */
+    public static void convertToFloat64(int[] src, int srcOffset, long[] dst, int dstOffset, int length, Environment env) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = widen(src[srcOffset + i], env);
+        }
+    }
+
+    /**
+     * Narrows length Float64 values given as raw bits from src to Float32 raw bits in dst
+     */
+    public static void convertToFloat32(long[] src, int srcOffset, int[] dst, int dstOffset, int length, Environment env) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = narrow(src[srcOffset + i], env);
+        }
+    }
+
+    private static long widen(int bits, Environment env) {
+        long sign = (long) (bits & 0x80000000) << 32;
+        int biased = (bits >>> 23) & 0xFF;
+        long fraction = bits & 0x007FFFFF;
+        if (biased == 0xFF) {
+            // Section 6.2 - the payload moves to the top of the wider fraction
+            if (fraction != 0 && (fraction & 0x00400000) == 0) env.flags.add(Flags.invalid);
+            long quiet = fraction != 0 ? 0x00080000_00000000L : 0;
+            return sign | 0x7FF00000_00000000L | quiet | (fraction << 29);
+        }
+        if (biased == 0) {
+            if (fraction == 0) return sign;
+            // Subnormal, so shift the top bit into the implicit position
+            int shift = Long.numberOfLeadingZeros(fraction) - 40;
+            return sign | ((long) (1023 - 126 - shift) << 52) + ((fraction << (29 + shift)) & 0x000FFFFF_FFFFFFFFL);
+        }
+        return sign | ((long) (biased - 127 + 1023) << 52) | (fraction << 29);
+    }
+
+    static int narrow(long bits, Environment env) {
+        return (int) narrow(bits, 52, 11, 23, 8, env);
+    }
+
+    /**
+     * Rounds the raw bits of a binary format to a narrower one, NaNs keep the top of their payload and are quieted
+     */
+    static long narrow(long bits, int fromSigbits, int fromExpbits, int sigbits, int expbits, Environment env) {
+        boolean sign = (bits & 1L << (fromSigbits + fromExpbits)) != 0;
+        int maxBiased = (1 << fromExpbits) - 1;
+        int biased = (int) (bits >>> fromSigbits) & maxBiased;
+        long fraction = bits & ((1L << fromSigbits) - 1);
+        long signBit = sign ? 1L << (sigbits + expbits) : 0;
+        if (biased == maxBiased) {
+            long infinity = ((1L << expbits) - 1) << sigbits;
+            if (fraction == 0) return signBit | infinity;
+            // Section 6.2 - keep the top of the payload, which the quiet bit makes non-zero
+            if ((fraction & 1L << (fromSigbits - 1)) == 0) env.flags.add(Flags.invalid);
+            return signBit | infinity | 1L << (sigbits - 1) | fraction >>> (fromSigbits - sigbits);
+        }
+        if (biased == 0 && fraction == 0) {
+            return signBit;
+        }
+        long significand = biased == 0 ? fraction : fraction | 1L << fromSigbits;
+        int bias = (1 << (fromExpbits - 1)) - 1;
+        return BinaryRounding.round(sign, significand, Math.max(biased, 1) - bias - fromSigbits, false, sigbits, expbits, env);
+    }
+
+    /**
+     * Rounds a Float80 to the raw bits of a binary format. Unnormals and the other invalid encodings give the default
+     * NaN, as they have no payload to keep.
+     */
+    private static long narrow(Float80 f, int sigbits, int expbits, Environment env) {
+        long signBit = f.isSignMinus() ? 1L << (sigbits + expbits) : 0;
+        long infinity = ((1L << expbits) - 1) << sigbits;
+        if (f.isNaN()) {
+            // Section 6.2
+            if (f.isSignalling()) env.flags.add(Flags.invalid);
+            long payload = f.exponent() == 16384 ? (f.significand & 0x3FFFFFFF_FFFFFFFFL) >>> (63 - sigbits) : 0;
+            return signBit | infinity | 1L << (sigbits - 1) | payload;
+        }
+        if (f.isInfinite()) {
+            return signBit | infinity;
+        }
+        if (f.isZero()) {
+            return signBit;
+        }
+        return BinaryRounding.round(f.isSignMinus(), f.significand, Math.max(f.exponent(), -16382) - 63, false, sigbits, expbits, env);
+    }
 }
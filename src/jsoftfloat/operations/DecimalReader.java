@@ -0,0 +1,138 @@
+package jsoftfloat.operations;
+
+import jsoftfloat.Environment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads decimal numbers from a stream of ASCII bytes straight into arrays of raw bits.
+ * <p>
+ * Numbers are separated by any run of whitespace, commas or semicolons, so both CSV files and whitespace separated
+ * lists can be read. Each number is parsed in place from the byte buffer by Parsing, so no String is created per
+ * value. The source can either be a channel, which is read through a reusable buffer, or a complete ByteBuffer such
+ * as a MappedByteBuffer of a file.
+ * <p>
+ * All numbers are rounded according to the environment and their flags accumulate in it.
+ */
+public class DecimalReader {
+    private final ReadableByteChannel channel;
+    private final Environment env;
+    private ByteBuffer buffer;
+    private final ByteChars chars;
+    private boolean eof;
+
+    public DecimalReader(ReadableByteChannel channel, Environment env) {
+        this.channel = channel;
+        this.env = env;
+        buffer = ByteBuffer.allocate(1 << 16);
+        buffer.flip();
+        chars = new ByteChars(buffer);
+    }
+
+    /**
+     * Reads from the remaining bytes of buffer; this is the fastest way to read a memory mapped file
+     */
+    public DecimalReader(ByteBuffer buffer, Environment env) {
+        this.channel = null;
+        this.env = env;
+        this.buffer = buffer;
+        eof = true;
+        chars = new ByteChars(buffer);
+    }
+
+    /**
+     * Reads up to length binary32 values
+     *
+     * @return the number of values read or -1 if the end of the input has been reached
+     * @throws NumberFormatException if a field is not a valid number
+     */
+    public int readFloat32(int[] dst, int offset, int length) throws IOException {
+        int count = 0;
+        while (count < length && nextToken()) {
+            dst[offset + count++] = Parsing.parseFloat32Bits(chars, tokenStart, tokenEnd, env);
+            buffer.position(tokenEnd);
+        }
+        return (count == 0 && length > 0) ? -1 : count;
+    }
+
+    /**
+     * Reads up to length binary64 values
+     *
+     * @return the number of values read or -1 if the end of the input has been reached
+     * @throws NumberFormatException if a field is not a valid number
+     */
+    public int readFloat64(long[] dst, int offset, int length) throws IOException {
+        int count = 0;
+        while (count < length && nextToken()) {
+            dst[offset + count++] = Parsing.parseFloat64Bits(chars, tokenStart, tokenEnd, env);
+            buffer.position(tokenEnd);
+        }
+        return (count == 0 && length > 0) ? -1 : count;
+    }
+
+    private int tokenStart, tokenEnd;
+
+    // Finds the next token and makes sure all of it is in the buffer
+    private boolean nextToken() throws IOException {
+        int i = buffer.position();
+        while (true) {
+            while (i < buffer.limit() && isSeparator(buffer.get(i))) i++;
+            if (i < buffer.limit()) break;
+            buffer.position(i);
+            if (!fill()) return false;
+            i = buffer.position();
+        }
+        int start = i;
+        while (true) {
+            while (i < buffer.limit() && !isSeparator(buffer.get(i))) i++;
+            if (i < buffer.limit() || eof) break;
+            // The token may continue in the next block
+            int read = i - start;
+            buffer.position(start);
+            if (!fill()) {
+                start = buffer.position();
+                i = start + read;
+                break;
+            }
+            start = buffer.position();
+            i = start + read;
+        }
+        tokenStart = start;
+        tokenEnd = i;
+        return true;
+    }
+
+    /**
+     * Moves the unread bytes to the front of the buffer and reads more after them
+     *
+     * @return false if there was nothing more to read
+     */
+    private boolean fill() throws IOException {
+        if (eof) return false;
+        if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+            // A single token fills the buffer
+            ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+            bigger.put(buffer);
+            bigger.flip();
+            buffer = bigger;
+            chars.wrap(bigger);
+        }
+        buffer.compact();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0 && buffer.hasRemaining());
+        buffer.flip();
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == ',' || b == '\n' || b == '\r' || b == '\t' || b == ';';
+    }
+}
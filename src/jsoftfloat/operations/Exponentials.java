@@ -0,0 +1,701 @@
+package jsoftfloat.operations;
+
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryRounding;
+import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.internal.LongMath;
+import jsoftfloat.types.Float32;
+import jsoftfloat.types.Float64;
+import jsoftfloat.types.Floating;
+
+import java.math.BigInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Groups the exponential and logarithm operations of Section 9.2
+ * <p>
+ * All results are correctly rounded using Ziv's strategy. Float32 and Float64 are first approximated from tables in
+ * 128 bit fixed point on longs, which is accurate to better than 2^-64. Only if that approximation is too close to a
+ * rounding boundary to decide the result, they fall back to the generic implementation. It evaluates the function with
+ * ExactFloat at increasing precision until the result can be rounded, so it works for any format but is much slower.
+ */
+public class Exponentials {
+    private static final int EXP = 0, EXP2 = 1, EXPM1 = 2, LOG = 3, LOG2 = 4, LOG10 = 5, LOG1P = 6;
+
+    public static <T extends Floating<T>> T exp(T a, Environment env) {
+        return compute(a, EXP, env);
+    }
+
+    public static <T extends Floating<T>> T exp2(T a, Environment env) {
+        return compute(a, EXP2, env);
+    }
+
+    public static <T extends Floating<T>> T expm1(T a, Environment env) {
+        return compute(a, EXPM1, env);
+    }
+
+    public static <T extends Floating<T>> T log(T a, Environment env) {
+        return compute(a, LOG, env);
+    }
+
+    public static <T extends Floating<T>> T log2(T a, Environment env) {
+        return compute(a, LOG2, env);
+    }
+
+    public static <T extends Floating<T>> T log10(T a, Environment env) {
+        return compute(a, LOG10, env);
+    }
+
+    public static <T extends Floating<T>> T log1p(T a, Environment env) {
+        return compute(a, LOG1P, env);
+    }
+
+    public static Float32 exp(Float32 a, Environment env) {
+        return compute32(a, EXP, env);
+    }
+
+    public static Float32 exp2(Float32 a, Environment env) {
+        return compute32(a, EXP2, env);
+    }
+
+    public static Float32 expm1(Float32 a, Environment env) {
+        return compute32(a, EXPM1, env);
+    }
+
+    public static Float32 log(Float32 a, Environment env) {
+        return compute32(a, LOG, env);
+    }
+
+    public static Float32 log2(Float32 a, Environment env) {
+        return compute32(a, LOG2, env);
+    }
+
+    public static Float32 log10(Float32 a, Environment env) {
+        return compute32(a, LOG10, env);
+    }
+
+    public static Float32 log1p(Float32 a, Environment env) {
+        return compute32(a, LOG1P, env);
+    }
+
+    public static Float64 exp(Float64 a, Environment env) {
+        return compute64(a, EXP, env);
+    }
+
+    public static Float64 exp2(Float64 a, Environment env) {
+        return compute64(a, EXP2, env);
+    }
+
+    public static Float64 expm1(Float64 a, Environment env) {
+        return compute64(a, EXPM1, env);
+    }
+
+    public static Float64 log(Float64 a, Environment env) {
+        return compute64(a, LOG, env);
+    }
+
+    public static Float64 log2(Float64 a, Environment env) {
+        return compute64(a, LOG2, env);
+    }
+
+    public static Float64 log10(Float64 a, Environment env) {
+        return compute64(a, LOG10, env);
+    }
+
+    public static Float64 log1p(Float64 a, Environment env) {
+        return compute64(a, LOG1P, env);
+    }
+
+    private static Float32 compute32(Float32 a, int kind, Environment env) {
+        long bits = approximate(a.bits & 0xFFFFFFFFL, 23, 8, kind, env);
+        return bits != -1 ? new Float32((int) bits) : compute(a, kind, env);
+    }
+
+    private static Float64 compute64(Float64 a, int kind, Environment env) {
+        long bits = approximate(a.bits, 52, 11, kind, env);
+        // Only a quiet NaN with all bits set comes back as -1, and the generic path returns it unchanged
+        return bits != -1 ? new Float64(bits) : compute(a, kind, env);
+    }
+
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+    private static final ExactFloat ONE = new ExactFloat(BigInteger.ONE);
+
+    private static <T extends Floating<T>> T compute(T a, int kind, Environment env) {
+        // Section 6.2
+        if (a.isNaN()) {
+            if (a.isSignalling()) {
+                env.flags.add(Flags.invalid);
+                return a.NaN();
+            }
+            return a;
+        }
+        boolean exponential = kind <= EXPM1;
+        if (exponential) {
+            // Section 9.2.1
+            if (a.isInfinite()) {
+                if (!a.isSignMinus()) return a;
+                return kind == EXPM1 ? a.fromExactFloat(new ExactFloat(true, 0, BigInteger.ONE), env) : a.Zero();
+            }
+            if (a.isZero()) {
+                return kind == EXPM1 ? a : a.fromExactFloat(ONE, env);
+            }
+        } else {
+            if (kind == LOG1P) {
+                if (a.isZero()) return a;
+                int cmp = a.isInfinite() ? 1 : a.toExactFloat().abs().compareTo(ONE);
+                if (a.isSignMinus() && cmp == 0) {
+                    env.flags.add(Flags.divByZero);
+                    return a.NegativeInfinity();
+                }
+                if (a.isSignMinus() && cmp > 0) {
+                    env.flags.add(Flags.invalid);
+                    return a.NaN();
+                }
+            } else {
+                if (a.isZero()) {
+                    env.flags.add(Flags.divByZero);
+                    return a.NegativeInfinity();
+                }
+                if (a.isSignMinus()) {
+                    env.flags.add(Flags.invalid);
+                    return a.NaN();
+                }
+            }
+            if (a.isInfinite()) return a;
+        }
+
+        ExactFloat x = a.toExactFloat().normalize();
+        int msb = x.exponent + x.significand.bitLength() - 1;
+        // Results within a relative 2^-bits of a representable number round like any other value that close. Ziv's
+        // strategy would need about as many bits as the distance to tell them apart, so they are handled directly.
+        int bits = 2 * a.maxPrecision() + 8;
+        if (msb < -bits) {
+            if (kind == EXP || kind == EXP2) return a.fromExactFloat(ONE.add(new ExactFloat(x.sign, -bits, BigInteger.ONE)), env);
+            if (kind == EXPM1) return a.fromExactFloat(x.add(x.abs().shiftRight(bits)), env);
+            if (kind == LOG1P) return a.fromExactFloat(x.add(x.abs().shiftRight(bits).negate()), env);
+        }
+        if (exponential) {
+            // Far out of range of every format, e^(2^20) overflows and e^(-2^20) underflows
+            if (msb >= 20) {
+                if (!x.sign) return a.fromExactFloat(new ExactFloat(false, 1 << 21, BigInteger.ONE), env);
+                if (kind != EXPM1) return a.fromExactFloat(new ExactFloat(false, -(1 << 21), BigInteger.ONE), env);
+            }
+            if (kind == EXPM1 && x.sign && msb >= 32 - Integer.numberOfLeadingZeros(bits)) {
+                // e^x < 2^-bits, so the result is just above -1
+                return a.fromExactFloat(new ExactFloat(true, -bits, BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE)), env);
+            }
+            if (kind == EXP2 && x.exponent >= 0) {
+                return a.fromExactFloat(new ExactFloat(false, x.significand.shiftLeft(x.exponent).intValue() * (x.sign ? -1 : 1), BigInteger.ONE), env);
+            }
+        } else if (kind != LOG1P) {
+            if (x.significand.equals(BigInteger.ONE) && x.exponent == 0) {
+                return a.Zero(); // log(1) = +0 in every rounding mode
+            }
+            if (kind == LOG2 && x.significand.equals(BigInteger.ONE)) {
+                return a.fromExactFloat(new ExactFloat(BigInteger.valueOf(x.exponent)), env);
+            }
+            if (kind == LOG10 && x.exponent > 0 && x.significand.equals(BigInteger.valueOf(5).pow(x.exponent))) {
+                return a.fromExactFloat(new ExactFloat(BigInteger.valueOf(x.exponent)), env);
+            }
+        }
+
+        return roundAccurately(a, accuracy -> evaluate(x, kind, accuracy), env);
+    }
+
+    /**
+     * Rounds a value which can only be approximated to the format of a
+     *
+     * @param function computes the value to within two units in the last place of at least the given number of bits
+     */
+    static <T extends Floating<T>> T roundAccurately(T a, IntFunction<ExactFloat> function, Environment env) {
+        // Stochastic rounding can't be decided from the ends, but once they truncate the same no representable number is
+        // between them and v holds the discarded fraction to many more bits than the format
+        boolean stochastic = env.mode == RoundingMode.stochastic;
+        RoundingMode mode = stochastic ? RoundingMode.zero : env.mode;
+        for (int accuracy = 2 * a.maxPrecision() + 32; ; accuracy *= 2) {
+            ExactFloat v = function.apply(accuracy);
+            // The value is within two units of the last place of v, so if both ends round the same so does it
+            ExactFloat error = new ExactFloat(false, v.exponent + 1, BigInteger.ONE);
+            Environment lowEnv = new Environment(mode), highEnv = new Environment(mode);
+            T low = a.fromExactFloat(v.add(error.negate()), lowEnv);
+            T high = a.fromExactFloat(v.add(error), highEnv);
+            if (low.isSignMinus() == high.isSignMinus() && lowEnv.flags.equals(highEnv.flags) &&
+                    (low.isInfinite() ? high.isInfinite() : Comparisons.compareQuietEqual(low, high, lowEnv))) {
+                if (stochastic) {
+                    return a.fromExactFloat(v, env);
+                }
+                env.flags.addAll(lowEnv.flags);
+                return low;
+            }
+        }
+    }
+
+    private static ExactFloat evaluate(ExactFloat x, int kind, int accuracy) {
+        switch (kind) {
+            case EXP:
+                return x.exp(accuracy);
+            case EXP2:
+                return x.exp2(accuracy);
+            case EXPM1:
+                return x.expm1(accuracy);
+            case LOG:
+                return x.log(accuracy);
+            case LOG2:
+                return x.log2(accuracy);
+            case LOG10:
+                return x.log10(accuracy);
+            case LOG1P:
+            default:
+                return x.add(ONE).log(accuracy);
+        }
+    }
+
+    /**
+     * Handles the special cases and approximates the result from raw bits of a binary format
+     *
+     * @return the raw bits of the result or -1 if the accurate path is needed
+     */
+    private static long approximate(long bits, int sigbits, int expbits, int kind, Environment env) {
+        // The approximations only tell which side of a rounding boundary the result is on, not the discarded fraction
+        if (env.mode == RoundingMode.stochastic) return -1;
+        int bias = (1 << (expbits - 1)) - 1;
+        int maxExponent = (1 << expbits) - 1;
+        long signBit = 1L << (sigbits + expbits);
+        long quietBit = 1L << (sigbits - 1);
+        long infinity = (long) maxExponent << sigbits, one = (long) bias << sigbits;
+        boolean sign = (bits & signBit) != 0;
+        long magnitude = bits & ~signBit;
+        int biased = (int) (magnitude >>> sigbits);
+        long fraction = bits & ((1L << sigbits) - 1);
+
+        // Section 6.2
+        if (magnitude > infinity) {
+            if ((bits & quietBit) == 0) env.flags.add(Flags.invalid);
+            return bits | quietBit;
+        }
+        if (kind <= EXPM1) {
+            // Section 9.2.1
+            if (magnitude == infinity) return !sign ? bits : kind == EXPM1 ? signBit | one : 0;
+            if (magnitude == 0) return kind == EXPM1 ? bits : one;
+        } else {
+            if (kind == LOG1P) {
+                if (magnitude == 0) return bits;
+                if (sign && magnitude == one) {
+                    env.flags.add(Flags.divByZero);
+                    return signBit | infinity;
+                }
+                if (sign && magnitude > one) {
+                    env.flags.add(Flags.invalid);
+                    return infinity | quietBit;
+                }
+            } else {
+                if (magnitude == 0) {
+                    env.flags.add(Flags.divByZero);
+                    return signBit | infinity;
+                }
+                if (sign) {
+                    env.flags.add(Flags.invalid);
+                    return infinity | quietBit;
+                }
+                if (bits == one) return 0;
+            }
+            if (magnitude == infinity) return bits;
+        }
+
+        long mx = biased == 0 ? fraction : fraction | (1L << sigbits);
+        int ex = Math.max(biased, 1) - bias - sigbits;
+        if (kind <= EXPM1) {
+            return approximateExp(sign, mx, ex, kind, sigbits, expbits, env);
+        }
+        return approximateLog(sign, mx, ex, kind, sigbits, expbits, env);
+    }
+
+    // 2^(j/64) for j in [0, 64) in Q126 as pairs of words
+    private static final long[] EXP_TABLE = new long[128];
+    // 64 / ln(2) in Q56
+    private static final long INV_LN2_64;
+    // ln(2) / 64 in Q116 and ln(2) in Q128
+    private static final long LN2_64_HI, LN2_64_LO, LN2_HI, LN2_LO;
+    // Coefficients 1/k! of e^r = 1 + r + r^2 (1/2 + r/6 + ...) in Q63
+    private static final long[] EXP_POLY = new long[9];
+
+    // 2^62 / c for c = j / 128 with j in [96, 192]
+    private static final long[] LOG_INV = new long[97];
+    // log(c) = -log(1 / c) of the rounded inverse in Q116 as pairs of words
+    private static final long[] LOG_TABLE = new long[2 * 97];
+    // ln(2) in Q116, 1/ln(2) in Q126 and 1/ln(10) in Q128
+    private static final long LN2_116_HI, LN2_116_LO, INV_LN2_HI, INV_LN2_LO, INV_LN10_HI, INV_LN10_LO;
+    // Coefficients (-1)^i / (i + 2) of log(1 + z) = z - z^2 (1/2 - z/3 + ...) in Q63
+    private static final long[] LOG_POLY = new long[11];
+
+    static {
+        int bits = 256;
+        BigInteger ln2 = fixed(new ExactFloat(TWO).log(bits), bits);
+        BigInteger ln10 = fixed(new ExactFloat(BigInteger.TEN).log(bits), bits);
+        INV_LN2_64 = BigInteger.ONE.shiftLeft(bits + 62).divide(ln2).longValueExact();
+        BigInteger c = ln2.shiftRight(bits - 110);
+        LN2_64_HI = c.shiftRight(64).longValue();
+        LN2_64_LO = c.longValue();
+        c = ln2.shiftRight(bits - 128);
+        LN2_HI = c.shiftRight(64).longValue();
+        LN2_LO = c.longValue();
+        c = ln2.shiftRight(bits - 116);
+        LN2_116_HI = c.shiftRight(64).longValue();
+        LN2_116_LO = c.longValue();
+        c = BigInteger.ONE.shiftLeft(bits + 126).divide(ln2);
+        INV_LN2_HI = c.shiftRight(64).longValue();
+        INV_LN2_LO = c.longValue();
+        c = BigInteger.ONE.shiftLeft(bits + 128).divide(ln10);
+        INV_LN10_HI = c.shiftRight(64).longValue();
+        INV_LN10_LO = c.longValue();
+
+        for (int j = 0; j < 64; j++) {
+            c = root(BigInteger.ONE.shiftLeft(126 * 64 + j), 64);
+            EXP_TABLE[2 * j] = c.shiftRight(64).longValue();
+            EXP_TABLE[2 * j + 1] = c.longValue();
+        }
+        BigInteger factorial = BigInteger.ONE;
+        for (int k = 2; k < 11; k++) {
+            factorial = factorial.multiply(BigInteger.valueOf(k));
+            EXP_POLY[k - 2] = BigInteger.ONE.shiftLeft(63).divide(factorial).longValueExact();
+        }
+
+        for (int j = 96; j <= 192; j++) {
+            long inv = BigInteger.ONE.shiftLeft(69).add(BigInteger.valueOf(j / 2)).divide(BigInteger.valueOf(j)).longValueExact();
+            LOG_INV[j - 96] = inv;
+            if (inv != 1L << 62) {
+                c = fixed(new ExactFloat(false, -62, BigInteger.valueOf(inv)).log(bits).negate(), 116);
+                LOG_TABLE[2 * (j - 96)] = c.shiftRight(64).longValue();
+                LOG_TABLE[2 * (j - 96) + 1] = c.longValue();
+            }
+        }
+        for (int i = 0; i < LOG_POLY.length; i++) {
+            long coefficient = (1L << 62) / (i + 2) * 2;
+            LOG_POLY[i] = (i % 2 == 0) ? coefficient : -coefficient;
+        }
+    }
+
+    // floor(x * 2^bits)
+    static BigInteger fixed(ExactFloat x, int bits) {
+        BigInteger value = x.sign ? x.significand.negate() : x.significand;
+        int shift = x.exponent + bits;
+        return shift >= 0 ? value.shiftLeft(shift) : value.shiftRight(-shift);
+    }
+
+    // floor(a^(1/n)) by Newton's method from above
+    private static BigInteger root(BigInteger a, int n) {
+        BigInteger x = BigInteger.ONE.shiftLeft(a.bitLength() / n + 1);
+        BigInteger big = BigInteger.valueOf(n), smaller = BigInteger.valueOf(n - 1);
+        while (true) {
+            BigInteger y = x.multiply(smaller).add(a.divide(x.pow(n - 1))).divide(big);
+            if (y.compareTo(x) >= 0) return x;
+            x = y;
+        }
+    }
+
+    /**
+     * Approximates e^x, 2^x or e^x - 1 for x = (-1)^sign * mx * 2^ex
+     * <p>
+     * x = (k + j/64) ln(2) + r with |r| &lt;= ln(2)/128, so e^x = 2^k * 2^(j/64) * e^r, where 2^(j/64) comes from a
+     * table and e^r - 1 from a polynomial.
+     */
+    private static long approximateExp(boolean sign, long mx, int ex, int kind, int sigbits, int expbits, Environment env) {
+        int msb = ex + 63 - Long.numberOfLeadingZeros(mx);
+        if (msb >= 11) {
+            // Beyond the range of Float64 in both directions
+            if (!sign) return BinaryRounding.overflow(false, sigbits, expbits, env);
+            if (kind == EXPM1) return BinaryRounding.round(true, -1L >>> 1, -63, true, sigbits, expbits, env);
+            return BinaryRounding.round(false, 1, -(1 << 20), true, sigbits, expbits, env);
+        }
+        if (msb < -64) {
+            if (kind == EXPM1) {
+                // e^x - 1 = x + x^2/2 + ..., which is slightly above x
+                int shift = Long.numberOfLeadingZeros(mx) - 1;
+                long m = mx << shift;
+                return BinaryRounding.round(sign, sign ? m - 1 : m, ex - shift, true, sigbits, expbits, env);
+            }
+            // Within 2^-63 of 1
+            if (sign) return BinaryRounding.round(false, -1L >>> 1, -63, true, sigbits, expbits, env);
+            return BinaryRounding.round(false, 1L << 62, -62, true, sigbits, expbits, env);
+        }
+
+        // |x| in Q116, below 2^127
+        int s = ex + 116;
+        long xHi = LongMath.shiftLeftHi(0, mx, s), xLo = LongMath.shiftLeftLo(mx, s);
+        long n, dHi, dLo;
+        if (kind == EXP2) {
+            n = (xHi + (1L << 45)) >>> 46;
+            dHi = xHi - (n << 46);
+            dLo = xLo;
+        } else {
+            n = (LongMath.unsignedMultiplyHigh(xHi, INV_LN2_64) + (1L << 43)) >>> 44;
+            long ncLo = LN2_64_LO * n;
+            long ncHi = LN2_64_HI * n + LongMath.unsignedMultiplyHigh(LN2_64_LO, n);
+            dLo = xLo - ncLo;
+            dHi = xHi - ncHi - (Long.compareUnsigned(xLo, ncLo) < 0 ? 1 : 0);
+        }
+        boolean rNeg = sign != (dHi < 0);
+        if (dHi < 0) {
+            dLo = -dLo;
+            dHi = ~dHi + (dLo == 0 ? 1 : 0);
+        }
+        // |r| in Q127
+        long rHi = (dHi << 11) | (dLo >>> 53), rLo = dLo << 11;
+        if (kind == EXP2) {
+            long hi = LongMath.multiplyHighHi(rHi, rLo, LN2_HI, LN2_LO);
+            rLo = LongMath.multiplyHighLo(rHi, rLo, LN2_HI, LN2_LO);
+            rHi = hi;
+        }
+        long signedN = sign ? -n : n;
+        int k = (int) (signedN >> 6), j = (int) (signedN & 63);
+
+        // w = e^r - 1 = r + r^2 P(r), |w| = wHi:wLo * 2^er within errW units
+        long wHi = 0, wLo = 0, errW = 0;
+        int lz = LongMath.numberOfLeadingZeros(rHi, rLo);
+        int er = -126 - lz;
+        if (lz < 128) {
+            wHi = LongMath.shiftLeftHi(rHi, rLo, lz - 1);
+            wLo = LongMath.shiftLeftLo(rLo, lz - 1);
+            long rTop = LongMath.shiftLeftHi(rHi, rLo, lz);
+            long r2 = LongMath.unsignedMultiplyHigh(rTop, rTop);
+            long r70 = (rHi << 7) | (rLo >>> 57);
+            if (rNeg) r70 = -r70;
+            long p = EXP_POLY[EXP_POLY.length - 1];
+            for (int i = EXP_POLY.length - 2; i >= 0; i--) {
+                p = EXP_POLY[i] + (Math.multiplyHigh(r70, p) >> 6);
+            }
+            long t = LongMath.unsignedMultiplyHigh(r2, p << 1);
+            // r^2 P(r) = t * 2^(2 er + 190), aligned to units of 2^er
+            int shift = 64 - lz;
+            long tHi = shift >= 0 ? LongMath.shiftLeftHi(0, t, shift) : 0;
+            long tLo = shift >= 0 ? LongMath.shiftLeftLo(t, shift) : LongMath.shiftRightLo(0, t, -shift);
+            if (rNeg) {
+                long lo = wLo - tLo;
+                wHi = wHi - tHi - (Long.compareUnsigned(wLo, tLo) < 0 ? 1 : 0);
+                wLo = lo;
+            } else {
+                long lo = wLo + tLo;
+                wHi = wHi + tHi + (Long.compareUnsigned(lo, wLo) < 0 ? 1 : 0);
+                wLo = lo;
+            }
+            errW = LongMath.shiftRightLo(tHi, tLo, 58) + 4;
+        }
+
+        if (kind == EXPM1 && n == 0) {
+            return BinaryRounding.roundApproximation(rNeg, wHi, wLo, er, errW, sigbits, expbits, env);
+        }
+
+        // M = 2^(j/64) (1 + w) in Q126
+        long mHi = EXP_TABLE[2 * j], mLo = EXP_TABLE[2 * j + 1];
+        long errM = kind == EXP2 ? 12 : (1L << 29) + 8;
+        if (lz < 128) {
+            long pHi = LongMath.multiplyHighHi(mHi, mLo, wHi, wLo);
+            long pLo = LongMath.multiplyHighLo(mHi, mLo, wHi, wLo);
+            long qHi = LongMath.shiftRightHi(pHi, lz - 2), qLo = LongMath.shiftRightLo(pHi, pLo, lz - 2);
+            if (rNeg) {
+                long lo = mLo - qLo;
+                mHi = mHi - qHi - (Long.compareUnsigned(mLo, qLo) < 0 ? 1 : 0);
+                mLo = lo;
+            } else {
+                long lo = mLo + qLo;
+                mHi = mHi + qHi + (Long.compareUnsigned(lo, mLo) < 0 ? 1 : 0);
+                mLo = lo;
+            }
+            errM += errW >>> (lz - 1);
+        }
+        if (kind != EXPM1) {
+            return BinaryRounding.roundApproximation(false, mHi, mLo, k - 126, errM, sigbits, expbits, env);
+        }
+
+        // Subtract 1 = 2^(126 - k) units
+        if (k > 126) {
+            return BinaryRounding.roundApproximation(false, mHi, mLo, k - 126, errM + 1, sigbits, expbits, env);
+        }
+        if (k >= 0) {
+            long oneHi = LongMath.shiftLeftHi(0, 1, 126 - k), oneLo = LongMath.shiftLeftLo(1, 126 - k);
+            long lo = mLo - oneLo;
+            mHi = mHi - oneHi - (Long.compareUnsigned(mLo, oneLo) < 0 ? 1 : 0);
+            return BinaryRounding.roundApproximation(false, mHi, lo, k - 126, errM, sigbits, expbits, env);
+        }
+        if (k < -64) {
+            // e^x is below 2^-63
+            return BinaryRounding.round(true, -1L >>> 1, -63, true, sigbits, expbits, env);
+        }
+        // 1 - M * 2^k in Q126
+        long sHi = LongMath.shiftRightHi(mHi, -k), sLo = LongMath.shiftRightLo(mHi, mLo, -k);
+        long lo = -sLo;
+        long hi = (1L << 62) - sHi - (sLo != 0 ? 1 : 0);
+        return BinaryRounding.roundApproximation(true, hi, lo, -126, (errM >>> -k) + 2, sigbits, expbits, env);
+    }
+
+    /**
+     * Approximates log(x), log2(x), log10(x) or log(1 + x) for x = (-1)^sign * mx * 2^ex
+     * <p>
+     * The argument u = y * 2^k where y is close to c = j/128, so log(u) = k ln(2) + log(c) + log(1 + z) with
+     * z = y/c - 1 and |z| &lt; 2^-7. Both 1/c and log(c) come from tables and log(1 + z) from a polynomial.
+     */
+    private static long approximateLog(boolean sign, long mx, int ex, int kind, int sigbits, int expbits, Environment env) {
+        int msb = ex + 63 - Long.numberOfLeadingZeros(mx);
+        if (kind == LOG2 && (mx & (mx - 1)) == 0) {
+            return BinaryRounding.round(msb < 0, Math.abs(msb), 0, false, sigbits, expbits, env);
+        }
+        if (kind == LOG10) {
+            int zeros = Long.numberOfTrailingZeros(mx);
+            long odd = mx >>> zeros, power = 1;
+            int e = ex + zeros;
+            for (int i = 0; i < e && power <= odd; i++) power *= 5;
+            if (e > 0 && power == odd) {
+                return BinaryRounding.round(false, e, 0, false, sigbits, expbits, env);
+            }
+        }
+
+        // u = uHi:uLo * 2^eu is the argument, 1 + x for log1p
+        long uHi = 0, uLo = mx;
+        int eu = ex;
+        long extraError = 0;
+        if (kind == LOG1P) {
+            if (msb < -64) {
+                // log(1 + x) = x - x^2/2 + ..., which is slightly below x
+                int shift = Long.numberOfLeadingZeros(mx) - 1;
+                long m = mx << shift;
+                return BinaryRounding.round(sign, sign ? m : m - 1, ex - shift, true, sigbits, expbits, env);
+            }
+            if (msb < -7) {
+                // Use x as z directly to avoid losing its low bits in 1 + x
+                long zHi = LongMath.shiftLeftHi(0, mx, ex + 126), zLo = LongMath.shiftLeftLo(mx, ex + 126);
+                if (sign) {
+                    zLo = -zLo;
+                    zHi = ~zHi + (zLo == 0 ? 1 : 0);
+                }
+                return finishLog(zHi, zLo, 0, 128, 0, kind, sigbits, expbits, env);
+            }
+            if (sign) {
+                // -1 < x <= -2^-7, so 1 is in range of the low word
+                uLo = (1L << -ex) - mx;
+            } else if (ex < 0) {
+                uLo = (1L << -ex) + mx;
+            } else if (ex <= 74) {
+                uHi = LongMath.shiftLeftHi(0, mx, ex);
+                uLo = LongMath.shiftLeftLo(mx, ex) + 1;
+                eu = 0;
+            } else {
+                // Adding 1 changes the result by less than 2^-75, which is 2^41 units in Q116
+                extraError = 1L << 42;
+            }
+        }
+
+        int lz = LongMath.numberOfLeadingZeros(uHi, uLo);
+        uHi = LongMath.shiftLeftHi(uHi, uLo, lz);
+        uLo = LongMath.shiftLeftLo(uLo, lz);
+        eu -= lz;
+        // u = y * 2^k with 0.75 <= y < 1.5
+        boolean upper = (uHi & (1L << 62)) != 0;
+        int k = eu + (upper ? 128 : 127);
+        int j = (int) (((uHi >>> (upper ? 56 : 55)) + 1) >>> 1);
+        long inv = LOG_INV[j - 96];
+        // y / c in Q126
+        long w0 = uLo * inv;
+        long t1 = LongMath.unsignedMultiplyHigh(uLo, inv), t2 = uHi * inv;
+        long w1 = t1 + t2;
+        long w2 = LongMath.unsignedMultiplyHigh(uHi, inv) + (Long.compareUnsigned(w1, t1) < 0 ? 1 : 0);
+        long pHi = upper ? w2 : (w2 << 1) | (w1 >>> 63);
+        long pLo = upper ? w1 : (w1 << 1) | (w0 >>> 63);
+        return finishLog(pHi - (1L << 62), pLo, k, j, extraError, kind, sigbits, expbits, env);
+    }
+
+    // Computes k ln(2) + log(c) + log(1 + z) for z = zHi:zLo * 2^-126 in two's complement and scales it to the base
+    private static long finishLog(long zHi, long zLo, int k, int j, long extraError, int kind, int sigbits, int expbits, Environment env) {
+        boolean zNeg = zHi < 0;
+        if (zNeg) {
+            zLo = -zLo;
+            zHi = ~zHi + (zLo == 0 ? 1 : 0);
+        }
+        // |log(1 + z)| = lHi:lLo * 2^el within errL units
+        long lHi = 0, lLo = 0, errL = 0;
+        int lz = LongMath.numberOfLeadingZeros(zHi, zLo);
+        int el = -125 - lz;
+        if (lz < 128) {
+            lHi = LongMath.shiftLeftHi(zHi, zLo, lz - 1);
+            lLo = LongMath.shiftLeftLo(zLo, lz - 1);
+            long zTop = LongMath.shiftLeftHi(zHi, zLo, lz);
+            long z2 = LongMath.unsignedMultiplyHigh(zTop, zTop);
+            long z70 = (zHi << 8) | (zLo >>> 56);
+            if (zNeg) z70 = -z70;
+            long q = LOG_POLY[LOG_POLY.length - 1];
+            for (int i = LOG_POLY.length - 2; i >= 0; i--) {
+                q = LOG_POLY[i] + (Math.multiplyHigh(z70, q) >> 6);
+            }
+            long t = LongMath.unsignedMultiplyHigh(z2, q << 1);
+            // z^2 Q(z) = t * 2^(2 el + 190), aligned to units of 2^el
+            int shift = 65 - lz;
+            long tHi = shift >= 0 ? LongMath.shiftLeftHi(0, t, shift) : 0;
+            long tLo = shift >= 0 ? LongMath.shiftLeftLo(t, shift) : LongMath.shiftRightLo(0, t, -shift);
+            if (zNeg) {
+                long lo = lLo + tLo;
+                lHi = lHi + tHi + (Long.compareUnsigned(lo, lLo) < 0 ? 1 : 0);
+                lLo = lo;
+            } else {
+                long lo = lLo - tLo;
+                lHi = lHi - tHi - (Long.compareUnsigned(lLo, tLo) < 0 ? 1 : 0);
+                lLo = lo;
+            }
+            errL = LongMath.shiftRightLo(tHi, tLo, 58) + 4;
+        }
+
+        boolean negative;
+        long sHi, sLo, error;
+        int exponent;
+        if (k == 0 && j == 128) {
+            negative = zNeg;
+            sHi = lHi;
+            sLo = lLo;
+            exponent = el;
+            error = errL;
+        } else {
+            // Sum in Q116
+            long ak = Math.abs(k);
+            sHi = LN2_116_HI * ak + LongMath.unsignedMultiplyHigh(LN2_116_LO, ak);
+            sLo = LN2_116_LO * ak;
+            if (k < 0) {
+                sLo = -sLo;
+                sHi = ~sHi + (sLo == 0 ? 1 : 0);
+            }
+            long cLo = LOG_TABLE[2 * (j - 96) + 1];
+            long lo = sLo + cLo;
+            sHi = sHi + LOG_TABLE[2 * (j - 96)] + (Long.compareUnsigned(lo, sLo) < 0 ? 1 : 0);
+            sLo = lo;
+            error = ak + extraError + 4;
+            if (lz < 128) {
+                long aHi = LongMath.shiftRightHi(lHi, 9 + lz), aLo = LongMath.shiftRightLo(lHi, lLo, 9 + lz);
+                if (zNeg) {
+                    lo = sLo - aLo;
+                    sHi = sHi - aHi - (Long.compareUnsigned(sLo, aLo) < 0 ? 1 : 0);
+                } else {
+                    lo = sLo + aLo;
+                    sHi = sHi + aHi + (Long.compareUnsigned(lo, sLo) < 0 ? 1 : 0);
+                }
+                sLo = lo;
+                error += (errL >>> (9 + lz)) + 1;
+            }
+            negative = sHi < 0;
+            if (negative) {
+                sLo = -sLo;
+                sHi = ~sHi + (sLo == 0 ? 1 : 0);
+            }
+            exponent = -116;
+        }
+        if (kind == LOG2 || kind == LOG10) {
+            int shift = LongMath.numberOfLeadingZeros(sHi, sLo);
+            if (Long.numberOfLeadingZeros(error) <= shift + 1) return -1;
+            long hi = LongMath.shiftLeftHi(sHi, sLo, shift), lo = LongMath.shiftLeftLo(sLo, shift);
+            long cHi = kind == LOG2 ? INV_LN2_HI : INV_LN10_HI, cLo = kind == LOG2 ? INV_LN2_LO : INV_LN10_LO;
+            sHi = LongMath.multiplyHighHi(hi, lo, cHi, cLo);
+            sLo = LongMath.multiplyHighLo(hi, lo, cHi, cLo);
+            exponent += 128 - shift - (kind == LOG2 ? 126 : 128);
+            error = ((error << shift) >>> 1) + 4;
+        }
+        return BinaryRounding.roundApproximation(negative, sHi, sLo, exponent, error, sigbits, expbits, env);
+    }
+}
@@ -0,0 +1,630 @@
+package jsoftfloat.operations;
+
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryRounding;
+import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.internal.Limbs;
+import jsoftfloat.types.BFloat16;
+import jsoftfloat.types.BigFloat;
+import jsoftfloat.types.Decimal128;
+import jsoftfloat.types.Decimal64;
+import jsoftfloat.types.DoubleDouble;
+import jsoftfloat.types.E4M3;
+import jsoftfloat.types.E5M2;
+import jsoftfloat.types.Float128;
+import jsoftfloat.types.Float16;
+import jsoftfloat.types.Float32;
+import jsoftfloat.types.Float64;
+import jsoftfloat.types.Float80;
+import jsoftfloat.types.Floating;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+import static jsoftfloat.internal.PowersOfTen.*;
+
+/**
+ * Groups conversions from floats to decimal character sequences - Section 5.12
+ * <p>
+ * The shortest representation is computed with Raffaello Giulietti's Schubfach algorithm directly from the bits. It
+ * produces the decimal with the fewest digits that rounds back to the same float, choosing the closest one if there
+ * are several. The output layout matches Double.toString: plain notation for 10^-3 &lt;= |v| &lt; 10^7, computerized
+ * scientific notation otherwise.
+ * <p>
+ * Hexadecimal output is exact and needs no rounding; it follows Double.toHexString, for example "0x1.8p3".
+ */
+public class Formatting {
+    private static final long MASK_63 = 0x7FFFFFFF_FFFFFFFFL, MASK_32 = 0xFFFFFFFFL;
+    private static final BigDecimal TWO_TO_64 = new BigDecimal(BigInteger.ONE.shiftLeft(64));
+
+    public static String toString(Float32 f) {
+        return appendFloat32(new StringBuilder(16), f.bits).toString();
+    }
+
+    public static String toString(Float64 f) {
+        return appendFloat64(new StringBuilder(24), f.bits).toString();
+    }
+
+    /**
+     * Binary16 has so few digits that the shortest decimal which rounds back is found by trying each length in turn
+     */
+    public static String toString(Float16 f) {
+        return appendShortest(new StringBuilder(12), f, f.bits & 0x3FF, 0x200).toString();
+    }
+
+    public static String toString(BFloat16 f) {
+        return appendShortest(new StringBuilder(12), f, f.bits & 0x7F, 0x40).toString();
+    }
+
+    public static String toString(E5M2 f) {
+        return appendShortest(new StringBuilder(12), f, f.bits & 0x3, 0x2).toString();
+    }
+
+    /**
+     * E4M3 has a single quiet NaN without a payload, and no infinities
+     */
+    public static String toString(E4M3 f) {
+        return appendShortest(new StringBuilder(12), f, 1, 1).toString();
+    }
+
+    /**
+     * Unnormals and the other invalid encodings print as signalling NaNs, which is how they are treated
+     */
+    public static String toString(Float80 f) {
+        if (!f.isNaN()) {
+            return appendShortest(new StringBuilder(32), f, 0, 0).toString();
+        }
+        StringBuilder sb = new StringBuilder(32);
+        if (f.isSignMinus()) sb.append('-');
+        sb.append(f.isSignalling() ? "sNaN" : "NaN");
+        long payload = f.significand & 0x3FFFFFFF_FFFFFFFFL;
+        if (payload != 0) {
+            sb.append("(0x").append(Long.toHexString(payload)).append(')');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The payload of a binary128 NaN doesn't fit in a long, so it is printed from both words
+     */
+    public static String toString(Float128 f) {
+        if (!f.isNaN()) {
+            return appendShortest(new StringBuilder(48), f, 0, 0).toString();
+        }
+        StringBuilder sb = new StringBuilder(48);
+        if (f.isSignMinus()) sb.append('-');
+        sb.append(f.isSignalling() ? "sNaN" : "NaN");
+        long top = f.hi & 0x00007FFF_FFFFFFFFL;
+        if (top != 0) {
+            String low = Long.toHexString(f.lo);
+            sb.append("(0x").append(Long.toHexString(top)).append("0000000000000000", low.length(), 16).append(low).append(')');
+        } else if (f.lo != 0) {
+            sb.append("(0x").append(Long.toHexString(f.lo)).append(')');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A double-double has no fixed precision to find a shortest representation for, so it is printed to 32 significant
+     * digits, which is about its usual precision
+     */
+    public static String toString(DoubleDouble f) {
+        StringBuilder sb = new StringBuilder(48);
+        if (!f.isFinite() || f.isZero()) {
+            return appendFloat64(sb, f.hi).toString();
+        }
+        if (f.isSignMinus()) sb.append('-');
+        return appendDecimal(sb, f.toExactFloat().abs().toBigDecimal().round(new MathContext(32, java.math.RoundingMode.HALF_EVEN))).toString();
+    }
+
+    /**
+     * Printed to ceil(precision * log10(2)) + 1 significant digits, which is always enough to read back the same value
+     */
+    public static String toString(BigFloat f) {
+        StringBuilder sb = new StringBuilder();
+        if (f.isNaN() || f.isInfinite() || f.isZero()) {
+            long bits = f.isNaN() ? 0x7FF80000_00000000L : f.isInfinite() ? 0x7FF00000_00000000L : 0;
+            return appendFloat64(sb, (f.isSignMinus() ? 0x80000000_00000000L : 0) | bits).toString();
+        }
+        if (f.isSignMinus()) sb.append('-');
+        int digits = (int) Math.ceil(f.precision * 0.30102999566398120) + 1;
+        return appendDecimal(sb, f.toExactFloat().abs().toBigDecimal().round(new MathContext(digits, java.math.RoundingMode.HALF_EVEN))).toString();
+    }
+
+    /**
+     * Decimal formats keep their exponent, so the coefficient is printed whole in the to-scientific-string layout:
+     * plain notation when the exponent is at most zero and the adjusted exponent at least -6, and d.dddE+n otherwise
+     */
+    public static String toString(Decimal64 f) {
+        StringBuilder sb = new StringBuilder(24);
+        if (f.isNaN() || f.isInfinite()) {
+            return appendDecimalSpecial(sb, f.isSignMinus(), f.isNaN(), f.isSignalling(), 0, f.bits & 0x3FFFF_FFFFFFFFL).toString();
+        }
+        if (f.isSignMinus()) sb.append('-');
+        return appendScientific(sb, Long.toString(f.coefficient()), f.exponent()).toString();
+    }
+
+    public static String toString(Decimal128 f) {
+        StringBuilder sb = new StringBuilder(48);
+        if (f.isNaN() || f.isInfinite()) {
+            return appendDecimalSpecial(sb, f.isSignMinus(), f.isNaN(), f.isSignalling(), f.hi & 0x3FFF_FFFFFFFFL, f.lo).toString();
+        }
+        if (f.isSignMinus()) sb.append('-');
+        String coefficient;
+        long hi = f.coefficientHi(), lo = f.coefficientLo();
+        if (hi == 0 && lo >= 0) {
+            coefficient = Long.toString(lo);
+        } else {
+            // Split off the low 19 digits, which leaves at most 15
+            long[] c = {lo, hi};
+            String low = Long.toUnsignedString(Limbs.divide(c, 2, pow10(19)));
+            coefficient = c[0] == 0 ? low : c[0] + "0000000000000000000".substring(low.length()) + low;
+        }
+        return appendScientific(sb, coefficient, f.exponent()).toString();
+    }
+
+    private static StringBuilder appendScientific(StringBuilder sb, String coefficient, int exponent) {
+        int adjusted = exponent + coefficient.length() - 1;
+        if (exponent <= 0 && adjusted >= -6) {
+            int point = coefficient.length() + exponent;
+            if (exponent == 0) {
+                return sb.append(coefficient);
+            } else if (point > 0) {
+                return sb.append(coefficient, 0, point).append('.').append(coefficient, point, coefficient.length());
+            }
+            sb.append("0.");
+            for (int i = point; i < 0; i++) sb.append('0');
+            return sb.append(coefficient);
+        }
+        sb.append(coefficient.charAt(0));
+        if (coefficient.length() > 1) {
+            sb.append('.').append(coefficient, 1, coefficient.length());
+        }
+        return sb.append('E').append(adjusted >= 0 ? "+" : "").append(adjusted);
+    }
+
+    private static StringBuilder appendDecimalSpecial(StringBuilder sb, boolean sign, boolean nan, boolean signalling, long payloadHi, long payloadLo) {
+        if (sign) sb.append('-');
+        if (!nan) {
+            return sb.append("Infinity");
+        }
+        sb.append(signalling ? "sNaN" : "NaN");
+        if (payloadHi != 0) {
+            String low = Long.toHexString(payloadLo);
+            sb.append("(0x").append(Long.toHexString(payloadHi)).append("0000000000000000", low.length(), 16).append(low).append(')');
+        } else if (payloadLo != 0) {
+            sb.append("(0x").append(Long.toHexString(payloadLo)).append(')');
+        }
+        return sb;
+    }
+
+    /**
+     * @param fraction the fraction bits of NaNs
+     * @param quietBit the bit of the fraction which is set in quiet NaNs
+     */
+    private static <T extends Floating<T>> StringBuilder appendShortest(StringBuilder sb, T f, int fraction, int quietBit) {
+        if (f.isNaN() || f.isInfinite()) {
+            return appendSpecial(sb, f.isSignMinus(), f.isNaN() ? fraction : 0, quietBit);
+        }
+        if (f.isSignMinus()) sb.append('-');
+        if (f.isZero()) {
+            return sb.append("0.0");
+        }
+        ExactFloat value = f.toExactFloat().abs();
+        BigDecimal exact = value.toBigDecimal();
+        // Each length has at most two candidates, one on each side
+        for (int digits = 1; ; digits++) {
+            BigDecimal down = exact.round(new MathContext(digits, java.math.RoundingMode.DOWN)),
+                    up = exact.round(new MathContext(digits, java.math.RoundingMode.UP));
+            boolean downIn = roundsTo(down, f, value), upIn = roundsTo(up, f, value);
+            if (downIn || upIn) {
+                BigDecimal d = upIn ? up : down;
+                if (downIn && upIn) {
+                    // Pick the closest one, or the even one if they are equally close
+                    int cmp = exact.subtract(down).compareTo(up.subtract(exact));
+                    d = cmp < 0 || (cmp == 0 && !down.unscaledValue().testBit(0)) ? down : up;
+                }
+                return appendDecimal(sb, d);
+            }
+        }
+    }
+
+    private static <T extends Floating<T>> boolean roundsTo(BigDecimal d, T helper, ExactFloat value) {
+        ExactFloat candidate = new ExactFloat(d.unscaledValue());
+        if (d.scale() > 0) {
+            candidate = candidate.divide(new ExactFloat(BigInteger.TEN.pow(d.scale())), helper.maxPrecision());
+        } else {
+            candidate = candidate.multiply(new ExactFloat(BigInteger.TEN.pow(-d.scale())));
+        }
+        T rounded = helper.fromExactFloat(candidate, new Environment());
+        return rounded.isFinite() && !rounded.isZero() && rounded.toExactFloat().compareTo(value) == 0;
+    }
+
+    public static StringBuilder append(StringBuilder sb, Float32 f) {
+        return appendFloat32(sb, f.bits);
+    }
+
+    public static StringBuilder append(StringBuilder sb, Float64 f) {
+        return appendFloat64(sb, f.bits);
+    }
+
+    /**
+     * Appends the shortest decimal which rounds back to a binary32 given as raw bits
+     */
+    public static StringBuilder appendFloat32(StringBuilder sb, int bits) {
+        int t = bits & 0x007FFFFF;
+        int bq = (bits >>> 23) & 0xFF;
+        if (bq == 0xFF) {
+            return appendSpecial(sb, bits < 0, t, 0x00400000);
+        }
+        if (bits < 0) sb.append('-');
+        if (bq != 0) {
+            int mq = 150 - bq;
+            int c = 0x00800000 | t;
+            // Integers can be printed directly
+            if (0 < mq && mq < 24) {
+                int f = c >> mq;
+                if (f << mq == c) {
+                    return appendDecimal(sb, f, 0);
+                }
+            }
+            return toDecimal32(sb, -mq, c, 0);
+        }
+        if (t != 0) {
+            // The smallest subnormals need an extra digit to be computed correctly
+            return t < 8 ? toDecimal32(sb, -149, 10 * t, -1) : toDecimal32(sb, -149, t, 0);
+        }
+        return sb.append("0.0");
+    }
+
+    /**
+     * Appends the shortest decimal which rounds back to a binary64 given as raw bits
+     */
+    public static StringBuilder appendFloat64(StringBuilder sb, long bits) {
+        long t = bits & 0x000FFFFF_FFFFFFFFL;
+        int bq = (int) (bits >>> 52) & 0x7FF;
+        if (bq == 0x7FF) {
+            return appendSpecial(sb, bits < 0, t, 0x00080000_00000000L);
+        }
+        if (bits < 0) sb.append('-');
+        if (bq != 0) {
+            int mq = 1075 - bq;
+            long c = 0x00100000_00000000L | t;
+            // Integers can be printed directly
+            if (0 < mq && mq < 53) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return appendDecimal(sb, f, 0);
+                }
+            }
+            return toDecimal64(sb, -mq, c, 0);
+        }
+        if (t != 0) {
+            // The smallest subnormals need an extra digit to be computed correctly
+            return t < 3 ? toDecimal64(sb, -1074, 10 * t, -1) : toDecimal64(sb, -1074, t, 0);
+        }
+        return sb.append("0.0");
+    }
+
+    // Section 5.12.1; NaN payloads are kept rather than collapsed into "NaN"
+    private static StringBuilder appendSpecial(StringBuilder sb, boolean sign, long significand, long quietBit) {
+        if (sign) sb.append('-');
+        if (significand == 0) {
+            return sb.append("Infinity");
+        }
+        sb.append((significand & quietBit) == 0 ? "sNaN" : "NaN");
+        long payload = significand & ~quietBit;
+        if (payload != 0) {
+            sb.append("(0x").append(Long.toHexString(payload)).append(')');
+        }
+        return sb;
+    }
+
+    public static String toHexString(Float32 f) {
+        return appendHexFloat32(new StringBuilder(16), f.bits).toString();
+    }
+
+    public static String toHexString(Float64 f) {
+        return appendHexFloat64(new StringBuilder(24), f.bits).toString();
+    }
+
+    /**
+     * Appends a binary32 given as raw bits as an exact hexadecimal literal in the same layout as Float.toHexString
+     */
+    public static StringBuilder appendHexFloat32(StringBuilder sb, int bits) {
+        int t = bits & 0x007FFFFF;
+        int bq = (bits >>> 23) & 0xFF;
+        if (bq == 0xFF) {
+            return appendSpecial(sb, bits < 0, t, 0x00400000);
+        }
+        if (bits < 0) sb.append('-');
+        // The 23 bit fraction is padded to 6 whole digits
+        return appendHex(sb, bq != 0, (long) t << 1, 6, bq != 0 ? bq - 127 : t != 0 ? -126 : 0);
+    }
+
+    /**
+     * Appends a binary64 given as raw bits as an exact hexadecimal literal in the same layout as Double.toHexString
+     */
+    public static StringBuilder appendHexFloat64(StringBuilder sb, long bits) {
+        long t = bits & 0x000FFFFF_FFFFFFFFL;
+        int bq = (int) (bits >>> 52) & 0x7FF;
+        if (bq == 0x7FF) {
+            return appendSpecial(sb, bits < 0, t, 0x00080000_00000000L);
+        }
+        if (bits < 0) sb.append('-');
+        return appendHex(sb, bq != 0, t, 13, bq != 0 ? bq - 1023 : t != 0 ? -1022 : 0);
+    }
+
+    private static StringBuilder appendHex(StringBuilder sb, boolean normal, long fraction, int digits, int exponent) {
+        sb.append(normal ? "0x1." : "0x0.");
+        if (fraction == 0) {
+            sb.append('0');
+        } else {
+            // Trailing zero digits are dropped
+            int last = Long.numberOfTrailingZeros(fraction) / 4;
+            for (int i = digits - 1; i >= last; i--) {
+                sb.append(Character.forDigit((int) (fraction >>> (4 * i)) & 0xF, 16));
+            }
+        }
+        return sb.append('p').append(exponent);
+    }
+
+    /*
+     * Computes the shortest decimal in the rounding interval of c * 2^q. The boundaries of the interval and the value
+     * itself are scaled by 10^-k and computed to 2 extra bits (the "vb" values) which is enough to decide which
+     * candidates are inside the interval. dk is a correction for inputs whose significand was scaled by 10.
+     */
+    private static StringBuilder toDecimal32(StringBuilder sb, int q, int c, int dk) {
+        int out = c & 0x1;
+        long cb = (long) c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != 0x00800000 || q == -149) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // The interval is asymmetric at powers of two
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 33;
+        long g = g1(k) + 1;
+        int vb = rop32(g, cb << h);
+        int vbl = rop32(g, cbl << h);
+        int vbr = rop32(g, cbr << h);
+        int s = vb >> 2;
+        if (s >= 100) {
+            // Try a decimal with one digit less first
+            int sp10 = 10 * (int) (s * 1_717_986_919L >>> 34);
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return appendDecimal(sb, upin ? sp10 : tp10, k);
+            }
+        }
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return appendDecimal(sb, uin ? s : t, k + dk);
+        }
+        // Both are in the interval; pick the closer one
+        int cmp = vb - (s + t << 1);
+        return appendDecimal(sb, cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    private static StringBuilder toDecimal64(StringBuilder sb, int q, long c, int dk) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != 0x00100000_00000000L || q == -1074) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // The interval is asymmetric at powers of two
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+        long g1 = g1(k);
+        long g0 = g0(k);
+        long vb = rop64(g1, g0, cb << h);
+        long vbl = rop64(g1, g0, cbl << h);
+        long vbr = rop64(g1, g0, cbr << h);
+        long s = vb >> 2;
+        if (s >= 100) {
+            // Try a decimal with one digit less first
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return appendDecimal(sb, upin ? sp10 : tp10, k);
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return appendDecimal(sb, uin ? s : t, k + dk);
+        }
+        // Both are in the interval; pick the closer one
+        long cmp = vb - (s + t << 1);
+        return appendDecimal(sb, cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    // Rounds g * cp / 2^127 to odd, which keeps enough information to compare against the interval bounds
+    private static int rop32(long g, long cp) {
+        long x1 = Math.multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    private static long rop64(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /**
+     * Appends f * 10^e in the same layout as Double.toString
+     */
+    private static StringBuilder appendDecimal(StringBuilder sb, long f, int e) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int len = digits(f);
+        int exp = e + len - 1;
+        if (0 <= exp && exp < 7) {
+            if (len <= exp + 1) {
+                appendDigits(sb, f, len);
+                appendZeros(sb, exp + 1 - len);
+                return sb.append(".0");
+            }
+            appendDigits(sb, f, len);
+            return sb.insert(sb.length() - (len - exp - 1), '.');
+        } else if (-3 <= exp && exp < 0) {
+            sb.append("0.");
+            appendZeros(sb, -exp - 1);
+            return appendDigits(sb, f, len);
+        }
+        appendDigits(sb, f, len);
+        if (len == 1) {
+            sb.append(".0");
+        } else {
+            sb.insert(sb.length() - len + 1, '.');
+        }
+        return sb.append('E').append(exp);
+    }
+
+    /**
+     * Like appendDecimal for decimals which may have more digits than fit in a long
+     */
+    private static StringBuilder appendDecimal(StringBuilder sb, BigDecimal d) {
+        d = d.stripTrailingZeros();
+        if (d.unscaledValue().bitLength() < 63) {
+            return appendDecimal(sb, d.unscaledValue().longValue(), -d.scale());
+        }
+        // At least 19 digits, so there is always a fraction
+        String digits = d.unscaledValue().toString();
+        int exp = digits.length() - 1 - d.scale();
+        if (0 <= exp && exp < 7) {
+            return sb.append(digits, 0, exp + 1).append('.').append(digits, exp + 1, digits.length());
+        } else if (-3 <= exp && exp < 0) {
+            sb.append("0.");
+            appendZeros(sb, -exp - 1);
+            return sb.append(digits);
+        }
+        return sb.append(digits.charAt(0)).append('.').append(digits, 1, digits.length()).append('E').append(exp);
+    }
+
+    private static int digits(long f) {
+        int len = 1;
+        while (f >= 10) {
+            f /= 10;
+            len++;
+        }
+        return len;
+    }
+
+    private static StringBuilder appendDigits(StringBuilder sb, long f, int len) {
+        int end = sb.length() + len;
+        sb.setLength(end);
+        for (int i = end - 1; i >= end - len; i--) {
+            sb.setCharAt(i, (char) ('0' + f % 10));
+            f /= 10;
+        }
+        return sb;
+    }
+
+    private static void appendZeros(StringBuilder sb, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append('0');
+        }
+    }
+
+    /**
+     * Converts a float to a decimal with a fixed number of significant digits - Section 5.12.2
+     * <p>
+     * The result is correctly rounded according to the rounding mode and inexact is signalled if any digits were lost.
+     * It is always in computerized scientific notation so that trailing zeros show the precision, for example
+     * "1.500E2".
+     *
+     * @param f      the float to convert
+     * @param digits the number of significant digits, must be positive
+     * @param env    the environment to round in
+     * @return the decimal character sequence
+     */
+    public static <T extends Floating<T>> String toString(T f, int digits, Environment env) {
+        assert digits > 0 : "At least one digit is required";
+        StringBuilder sb = new StringBuilder(digits + 8);
+        if (f.isSignMinus()) sb.append('-');
+        if (f.isNaN()) {
+            return sb.append(f.isSignalling() ? "sNaN" : "NaN").toString();
+        }
+        if (f.isInfinite()) {
+            return sb.append("Infinity").toString();
+        }
+        if (f.isZero()) {
+            sb.append('0');
+            if (digits > 1) {
+                sb.append('.');
+                appendZeros(sb, digits - 1);
+            }
+            return sb.append("E0").toString();
+        }
+        BigDecimal exact = f.toExactFloat().abs().toBigDecimal();
+        BigDecimal rounded = exact.round(new MathContext(digits, decimalMode(env, f.isSignMinus())));
+        if (rounded.compareTo(exact) != 0) {
+            env.flags.add(Flags.inexact);
+            if (env.mode == RoundingMode.odd && !rounded.unscaledValue().testBit(0)) {
+                // Truncated to an even last digit, so the next one up is odd and can't carry
+                rounded = rounded.add(rounded.ulp());
+            } else if (env.mode == RoundingMode.stochastic) {
+                // The discarded fraction of the last digit, to 64 bits
+                BigDecimal fraction = exact.subtract(rounded).divide(rounded.ulp()).multiply(TWO_TO_64);
+                long top = fraction.toBigInteger().longValue();
+                if (BinaryRounding.roundAwayStochastic(top, fraction.compareTo(new BigDecimal(fraction.toBigInteger())) != 0, env)) {
+                    rounded = rounded.add(rounded.ulp()).round(new MathContext(digits));
+                }
+            }
+        }
+        String unscaled = rounded.unscaledValue().toString();
+        sb.append(unscaled.charAt(0));
+        if (digits > 1) {
+            sb.append('.').append(unscaled, 1, unscaled.length());
+            appendZeros(sb, digits - unscaled.length());
+        }
+        return sb.append('E').append(unscaled.length() - 1 - rounded.scale()).toString();
+    }
+
+    // The magnitude is rounded, so directed modes have to account for the sign
+    private static java.math.RoundingMode decimalMode(Environment env, boolean negative) {
+        switch (env.mode) {
+            case away:
+                return java.math.RoundingMode.HALF_UP;
+            case min:
+                return negative ? java.math.RoundingMode.UP : java.math.RoundingMode.DOWN;
+            case max:
+                return negative ? java.math.RoundingMode.DOWN : java.math.RoundingMode.UP;
+            case zero:
+            case odd:
+            case stochastic:
+                return java.math.RoundingMode.DOWN;
+            case even:
+            default:
+                return java.math.RoundingMode.HALF_EVEN;
+        }
+    }
+}
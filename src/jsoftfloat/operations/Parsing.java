@@ -0,0 +1,598 @@
+package jsoftfloat.operations;
+
+import jsoftfloat.Environment;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryRounding;
+import jsoftfloat.internal.LongMath;
+import jsoftfloat.types.BFloat16;
+import jsoftfloat.types.Decimal128;
+import jsoftfloat.types.Decimal64;
+import jsoftfloat.types.Float16;
+import jsoftfloat.types.Float32;
+import jsoftfloat.types.Float64;
+
+import java.math.BigInteger;
+
+import static jsoftfloat.internal.PowersOfTen.*;
+
+/**
+ * Groups conversions from decimal character sequences to floats - Section 5.12
+ * <p>
+ * Results are correctly rounded in the environment's rounding mode and signal inexact, overflow and underflow like
+ * any other operation. Most inputs are decided with long arithmetic only: exact products and quotients by powers of
+ * five are handled directly, and everything else is multiplied by a 126 bit approximation of the power of ten in the
+ * style of Eisel and Lemire. Only when the error of that approximation could change the rounding does it fall back to
+ * exact BigInteger arithmetic.
+ * <p>
+ * The accepted syntax is an optional sign followed by either a decimal number with an optional exponent, "Infinity",
+ * "inf", "NaN" or "sNaN" (case insensitive). NaNs may carry a hexadecimal payload like "NaN(0x1f)", which is what
+ * Formatting produces for them. Hexadecimal significands with a binary exponent like "0x1.8p3" are also accepted.
+ * <p>
+ * Decimal64 and Decimal128 take the same syntax apart from hexadecimal significands, and keep the exponent of exact
+ * literals.
+ * <p>
+ * Every method takes a CharSequence; ByteChars lets them read directly from byte arrays and buffers.
+ */
+public class Parsing {
+    private static final long[] POW5 = new long[28];
+
+    static {
+        POW5[0] = 1;
+        for (int i = 1; i < POW5.length; i++) {
+            POW5[i] = POW5[i - 1] * 5;
+        }
+    }
+
+    public static Float16 parseFloat16(CharSequence s, Environment env) {
+        return new Float16((int) parse(s, 0, s.length(), 10, 5, env));
+    }
+
+    public static BFloat16 parseBFloat16(CharSequence s, Environment env) {
+        return new BFloat16((int) parse(s, 0, s.length(), 7, 8, env));
+    }
+
+    public static Float32 parseFloat32(CharSequence s, Environment env) {
+        return new Float32(parseFloat32Bits(s, 0, s.length(), env));
+    }
+
+    public static Float64 parseFloat64(CharSequence s, Environment env) {
+        return new Float64(parseFloat64Bits(s, 0, s.length(), env));
+    }
+
+    /**
+     * Parses a decimal64, keeping the exponent of the literal when it is exact, so "1.50" is 150E-2
+     */
+    public static Decimal64 parseDecimal64(CharSequence s, Environment env) {
+        long[] c = new long[2];
+        DecimalLiteral d = parseDecimal(s, c, 38);
+        if (d.special != 0) {
+            return new Decimal64(d.special | (d.payloadLo & 0x3FFFF_FFFFFFFFL));
+        }
+        return Decimal64.round(d.sign, c[1], c[0], d.exponent, d.sticky, d.exponent, env);
+    }
+
+    public static Decimal128 parseDecimal128(CharSequence s, Environment env) {
+        long[] c = new long[4];
+        DecimalLiteral d = parseDecimal(s, c, 76);
+        if (d.special != 0) {
+            return new Decimal128(d.special | (d.payloadHi & 0x3FFF_FFFFFFFFL), d.payloadLo);
+        }
+        return Decimal128.round(d.sign, c, 4, d.exponent, d.sticky, d.exponent, env);
+    }
+
+    // What parseDecimal found besides the coefficient: special is the top bits of an infinity or NaN, and zero otherwise
+    private static final class DecimalLiteral {
+        boolean sign, sticky;
+        int exponent;
+        long special, payloadHi, payloadLo;
+    }
+
+    /**
+     * Reads the coefficient into c, keeping at most maxDigits significant digits and whether any dropped ones are
+     * non-zero
+     */
+    private static DecimalLiteral parseDecimal(CharSequence s, long[] c, int maxDigits) {
+        DecimalLiteral d = new DecimalLiteral();
+        int start = 0, end = s.length(), i = start;
+        if (i >= end) {
+            throw error(s, start, end);
+        }
+        char ch = s.charAt(i);
+        if (ch == '-' || ch == '+') {
+            d.sign = ch == '-';
+            i++;
+        }
+        if (i < end && !isDigit(s.charAt(i)) && s.charAt(i) != '.') {
+            parseDecimalSpecial(s, start, i, end, d);
+            return d;
+        }
+        // Digits are gathered 18 at a time and then moved into c
+        long chunk = 0;
+        int digits = 0, chunkDigits = 0, q = 0;
+        boolean any = false, point = false;
+        for (; i < end; i++) {
+            ch = s.charAt(i);
+            if (ch == '.' && !point) {
+                point = true;
+                continue;
+            }
+            if (!isDigit(ch)) break;
+            any = true;
+            if (digits < maxDigits) {
+                chunk = chunk * 10 + (ch - '0');
+                chunkDigits++;
+                if (chunk != 0) digits++;
+                if (point) q--;
+                if (chunkDigits == 18) {
+                    multiplyAdd(c, pow10(18), chunk);
+                    chunk = 0;
+                    chunkDigits = 0;
+                }
+            } else {
+                if (!point) q++;
+                d.sticky |= ch != '0';
+            }
+        }
+        multiplyAdd(c, pow10(chunkDigits), chunk);
+        if (!any) {
+            throw error(s, start, end);
+        }
+        int exp10 = 0;
+        if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                negativeExponent = s.charAt(i) == '-';
+                i++;
+            }
+            if (i >= end || !isDigit(s.charAt(i))) {
+                throw error(s, start, end);
+            }
+            while (i < end && isDigit(ch = s.charAt(i))) {
+                // Anything this large is an overflow or underflow anyway
+                if (exp10 < 100_000_000) exp10 = exp10 * 10 + (ch - '0');
+                i++;
+            }
+            exp10 = negativeExponent ? -exp10 : exp10;
+        }
+        if (i != end) {
+            throw error(s, start, end);
+        }
+        d.exponent = q + exp10;
+        return d;
+    }
+
+    // c = c * m + a
+    private static void multiplyAdd(long[] c, long m, long a) {
+        long carry = a;
+        for (int i = 0; i < c.length; i++) {
+            long lo = c[i] * m, hi = LongMath.unsignedMultiplyHigh(c[i], m);
+            lo += carry;
+            c[i] = lo;
+            carry = hi + (Long.compareUnsigned(lo, carry) < 0 ? 1 : 0);
+        }
+    }
+
+    // Infinity, NaN and sNaN with a payload of up to 128 bits, in the decimal encodings
+    private static void parseDecimalSpecial(CharSequence s, int start, int i, int end, DecimalLiteral d) {
+        long signBit = d.sign ? 0x80000000_00000000L : 0;
+        if (matches(s, i, end, "infinity") || matches(s, i, end, "inf")) {
+            d.special = signBit | 0x78000000_00000000L;
+            return;
+        }
+        boolean signalling = false;
+        if (i < end && (s.charAt(i) == 's' || s.charAt(i) == 'S')) {
+            signalling = true;
+            i++;
+        }
+        int open = i + 3;
+        if (open > end || !matches(s, i, open, "nan")) {
+            throw error(s, start, end);
+        }
+        if (open < end) {
+            // NaN(0x...)
+            if (end - open < 4 || s.charAt(open) != '(' || s.charAt(open + 1) != '0' || (s.charAt(open + 2) | 0x20) != 'x'
+                    || s.charAt(end - 1) != ')') {
+                throw error(s, start, end);
+            }
+            for (int j = open + 3; j < end - 1; j++) {
+                int digit = Character.digit(s.charAt(j), 16);
+                if (digit < 0) throw error(s, start, end);
+                d.payloadHi = d.payloadHi << 4 | d.payloadLo >>> 60;
+                d.payloadLo = d.payloadLo << 4 | digit;
+            }
+        }
+        d.special = signBit | (signalling ? 0x7E000000_00000000L : 0x7C000000_00000000L);
+    }
+
+    /**
+     * Parses s[start, end) into the raw bits of a binary32 without creating any intermediate objects
+     *
+     * @throws NumberFormatException if the characters are not a valid number
+     */
+    public static int parseFloat32Bits(CharSequence s, int start, int end, Environment env) {
+        return (int) parse(s, start, end, 23, 8, env);
+    }
+
+    /**
+     * Parses s[start, end) into the raw bits of a binary64 without creating any intermediate objects
+     *
+     * @throws NumberFormatException if the characters are not a valid number
+     */
+    public static long parseFloat64Bits(CharSequence s, int start, int end, Environment env) {
+        return parse(s, start, end, 52, 11, env);
+    }
+
+    static long parse(CharSequence s, int start, int end, int sigbits, int expbits, Environment env) {
+        int i = start;
+        if (i >= end) {
+            throw error(s, start, end);
+        }
+        boolean sign = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            sign = c == '-';
+            i++;
+        }
+        if (end - i >= 2 && s.charAt(i) == '0' && (s.charAt(i + 1) | 0x20) == 'x') {
+            return hex(s, start, i + 2, end, sign, sigbits, expbits, env);
+        }
+        if (i < end && !isDigit(s.charAt(i)) && s.charAt(i) != '.') {
+            return parseSpecial(s, start, i, end, sign, sigbits, expbits);
+        }
+
+        // Accumulate up to 19 significant digits; value = (w + a fraction if truncated) * 10^q
+        long w = 0;
+        int digits = 0, q = 0;
+        boolean truncated = false, any = false;
+        while (i < end && isDigit(c = s.charAt(i))) {
+            any = true;
+            if (digits < 19) {
+                w = w * 10 + (c - '0');
+                if (w != 0) digits++;
+            } else {
+                q++;
+                truncated |= c != '0';
+            }
+            i++;
+        }
+        if (i < end && s.charAt(i) == '.') {
+            i++;
+            while (i < end && isDigit(c = s.charAt(i))) {
+                any = true;
+                if (digits < 19) {
+                    w = w * 10 + (c - '0');
+                    if (w != 0) digits++;
+                    q--;
+                } else {
+                    truncated |= c != '0';
+                }
+                i++;
+            }
+        }
+        if (!any) {
+            throw error(s, start, end);
+        }
+        int exp10 = 0;
+        if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                negativeExponent = s.charAt(i) == '-';
+                i++;
+            }
+            if (i >= end || !isDigit(s.charAt(i))) {
+                throw error(s, start, end);
+            }
+            while (i < end && isDigit(c = s.charAt(i))) {
+                // Anything this large is an overflow or underflow anyway
+                if (exp10 < 100_000_000) exp10 = exp10 * 10 + (c - '0');
+                i++;
+            }
+            exp10 = negativeExponent ? -exp10 : exp10;
+        }
+        if (i != end) {
+            throw error(s, start, end);
+        }
+        if (w == 0) {
+            return sign ? 1L << (sigbits + expbits) : 0;
+        }
+        q += exp10;
+
+        // Values which are definitely out of range; |value| is in [10^(q + digits - 1), 10^(q + digits))
+        int bias = (1 << (expbits - 1)) - 1;
+        if (q + digits - 1 > 0 && flog2pow10(Math.min(q + digits - 1, 100_000)) > bias) {
+            return BinaryRounding.overflow(sign, sigbits, expbits, env);
+        }
+        // Less than a quarter of the smallest subnormal, or for stochastic rounding too little of it for 64 random bits
+        int tiny = -bias - sigbits - (env.mode == RoundingMode.stochastic ? 65 : 1);
+        if (q + digits < 0 && flog2pow10(Math.max(q + digits, -100_000)) + 1 < tiny) {
+            return BinaryRounding.round(sign, 1, tiny, false, sigbits, expbits, env);
+        }
+
+        // Exact products and quotients with powers of 5 fit in a long
+        int tz = Long.numberOfTrailingZeros(w);
+        long odd = w >>> tz;
+        if (!truncated && odd > 0) {
+            if (0 <= q && q < POW5.length) {
+                long product = odd * POW5[q];
+                if (Math.multiplyHigh(odd, POW5[q]) == 0 && product >= 0) {
+                    return BinaryRounding.round(sign, product, tz + q, false, sigbits, expbits, env);
+                }
+            } else if (-POW5.length < q && q < 0 && odd % POW5[-q] == 0) {
+                return BinaryRounding.round(sign, odd / POW5[-q], tz + q, false, sigbits, expbits, env);
+            }
+        }
+
+        long bits = approximate(sign, w, q, truncated, sigbits, expbits, env);
+        if (bits != -1) {
+            return bits;
+        }
+        return exact(s, start, end, sign, exp10, sigbits, expbits, env);
+    }
+
+    public static Float16 parseHexFloat16(CharSequence s, Environment env) {
+        return new Float16((int) parseHex(s, 0, s.length(), 10, 5, env));
+    }
+
+    public static BFloat16 parseHexBFloat16(CharSequence s, Environment env) {
+        return new BFloat16((int) parseHex(s, 0, s.length(), 7, 8, env));
+    }
+
+    public static Float32 parseHexFloat32(CharSequence s, Environment env) {
+        return new Float32(parseHexFloat32Bits(s, 0, s.length(), env));
+    }
+
+    public static Float64 parseHexFloat64(CharSequence s, Environment env) {
+        return new Float64(parseHexFloat64Bits(s, 0, s.length(), env));
+    }
+
+    /**
+     * Parses a hexadecimal literal like "-0x1.8p3" in s[start, end) into the raw bits of a binary32
+     * <p>
+     * Digits beyond the precision of the format are rounded according to the environment; the exponent is optional.
+     *
+     * @throws NumberFormatException if the characters are not a valid hexadecimal literal
+     */
+    public static int parseHexFloat32Bits(CharSequence s, int start, int end, Environment env) {
+        return (int) parseHex(s, start, end, 23, 8, env);
+    }
+
+    /**
+     * Parses a hexadecimal literal like "-0x1.8p3" in s[start, end) into the raw bits of a binary64
+     * <p>
+     * Digits beyond the precision of the format are rounded according to the environment; the exponent is optional.
+     *
+     * @throws NumberFormatException if the characters are not a valid hexadecimal literal
+     */
+    public static long parseHexFloat64Bits(CharSequence s, int start, int end, Environment env) {
+        return parseHex(s, start, end, 52, 11, env);
+    }
+
+    static long parseHex(CharSequence s, int start, int end, int sigbits, int expbits, Environment env) {
+        int i = start;
+        boolean sign = false;
+        if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            sign = s.charAt(i) == '-';
+            i++;
+        }
+        if (end - i < 3 || s.charAt(i) != '0' || (s.charAt(i + 1) | 0x20) != 'x') {
+            throw error(s, start, end);
+        }
+        return hex(s, start, i + 2, end, sign, sigbits, expbits, env);
+    }
+
+    // Parses what follows "0x"; the digits are exact in binary so the only rounding is the final one
+    private static long hex(CharSequence s, int start, int i, int end, boolean sign, int sigbits, int expbits, Environment env) {
+        // value = (significand + a fraction if sticky) * 2^exponent
+        long significand = 0, exponent = 0;
+        boolean sticky = false, any = false, point = false;
+        for (; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '.' && !point) {
+                point = true;
+                continue;
+            }
+            int digit = hexDigit(c);
+            if (digit < 0) break;
+            any = true;
+            if (significand >>> 56 == 0) {
+                significand = (significand << 4) | digit;
+                if (point) exponent -= 4;
+            } else {
+                sticky |= digit != 0;
+                if (!point) exponent += 4;
+            }
+        }
+        if (!any) {
+            throw error(s, start, end);
+        }
+        if (i < end && (s.charAt(i) | 0x20) == 'p') {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                negativeExponent = s.charAt(i) == '-';
+                i++;
+            }
+            if (i >= end || !isDigit(s.charAt(i))) {
+                throw error(s, start, end);
+            }
+            int exp2 = 0;
+            char c;
+            while (i < end && isDigit(c = s.charAt(i))) {
+                // Anything this large is an overflow or underflow anyway
+                if (exp2 < 100_000_000) exp2 = exp2 * 10 + (c - '0');
+                i++;
+            }
+            exponent += negativeExponent ? -exp2 : exp2;
+        }
+        if (i != end) {
+            throw error(s, start, end);
+        }
+        if (significand == 0) {
+            return sign ? 1L << (sigbits + expbits) : 0;
+        }
+        exponent = Math.max(-(1 << 24), Math.min(exponent, 1 << 24));
+        return BinaryRounding.round(sign, significand, (int) exponent, sticky, sigbits, expbits, env);
+    }
+
+    /**
+     * Multiplies w by an approximation of 10^q and rounds the result if the approximation error cannot affect it
+     *
+     * @return the rounded bits or -1 if the exact computation is needed
+     */
+    private static long approximate(boolean sign, long w, int q, boolean truncated, int sigbits, int expbits, Environment env) {
+        // Only a guard and a round bit are kept, which is not enough of the discarded fraction for stochastic rounding
+        if (env.mode == RoundingMode.stochastic) return -1;
+        int lz = Long.numberOfLeadingZeros(w);
+        long wn = w << lz;
+        long g1 = g1(-q), g0 = g0(-q);
+        // 10^q = β 2^r with g - 1 <= β < g; compute t = floor(wn g / 2^63) which is 126 or 127 bits
+        long aHi = LongMath.unsignedMultiplyHigh(wn, g1), aLo = wn * g1;
+        long bHi = LongMath.unsignedMultiplyHigh(wn, g0), bLo = wn * g0;
+        long b = (bHi << 1) | (bLo >>> 63);
+        long tLo = aLo + b;
+        long tHi = aHi + (Long.compareUnsigned(tLo, aLo) < 0 ? 1 : 0);
+
+        // wn β / 2^63 is in [t - 2, t + 1), and the truncated digits can add up to 2^lz g / 2^63 < 2^(lz + 63)
+        long lLo = tLo - 2;
+        long lHi = tHi - (Long.compareUnsigned(tLo, 2) < 0 ? 1 : 0);
+        long uLo = tLo, uHi = tHi; // inclusive upper bound t + 1 - 1
+        if (truncated) {
+            int e = lz + 63;
+            long addLo = e < 64 ? 1L << e : 0, addHi = e < 64 ? 0 : 1L << (e - 64);
+            uLo = tLo + addLo;
+            uHi = tHi + addHi + (Long.compareUnsigned(uLo, tLo) < 0 ? 1 : 0);
+        }
+
+        // Keep a guard bit and a round bit beyond the precision of the format. If both bounds agree on those bits and
+        // have bits below them, the value is strictly between two such numbers, which is all rounding needs to know
+        int shift = 64 + (63 - Long.numberOfLeadingZeros(tHi)) - (sigbits + 2);
+        long lSig = shiftRight(lHi, lLo, shift);
+        long uSig = shiftRight(uHi, uLo, shift);
+        if (lSig != uSig || !hasLowBits(lHi, lLo, shift)) {
+            return -1;
+        }
+        int r = flog2pow10(q) - 125;
+        return BinaryRounding.round(sign, lSig, shift + r + 63 - lz, true, sigbits, expbits, env);
+    }
+
+    // The bits of a 128 bit number from shift upwards; there are never more than 64 of them here
+    private static long shiftRight(long hi, long lo, int shift) {
+        if (shift >= 64) {
+            return hi >>> (shift - 64);
+        }
+        return (hi << (64 - shift)) | (lo >>> shift);
+    }
+
+    private static boolean hasLowBits(long hi, long lo, int shift) {
+        if (shift > 64) {
+            return lo != 0 || (hi << (128 - shift)) != 0;
+        }
+        return shift == 64 ? lo != 0 : (lo << (64 - shift)) != 0;
+    }
+
+    // Uses every digit and exact BigInteger arithmetic
+    private static long exact(CharSequence s, int start, int end, boolean sign, int exp10, int sigbits, int expbits, Environment env) {
+        StringBuilder digits = new StringBuilder(end - start);
+        int q = exp10;
+        boolean fraction = false;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '.') {
+                fraction = true;
+            } else if (c == 'e' || c == 'E') {
+                break;
+            } else if (isDigit(c)) {
+                digits.append(c);
+                if (fraction) q--;
+            }
+        }
+        BigInteger d = new BigInteger(digits.toString());
+        BigInteger significand;
+        int exponent;
+        boolean sticky = false;
+        if (q >= 0) {
+            significand = d.multiply(BigInteger.TEN.pow(q));
+            exponent = 0;
+        } else {
+            // Compute enough quotient bits to round correctly and keep the remainder as a sticky bit. Stochastic rounding
+            // needs 64 bits of the discarded fraction instead of a guard and a round bit.
+            BigInteger divisor = BigInteger.TEN.pow(-q);
+            int guard = env.mode == RoundingMode.stochastic ? 66 : 3;
+            int shift = Math.max(0, divisor.bitLength() - d.bitLength() + sigbits + guard);
+            BigInteger[] qr = d.shiftLeft(shift).divideAndRemainder(divisor);
+            significand = qr[0];
+            exponent = -shift;
+            sticky = qr[1].signum() != 0;
+        }
+        if (env.mode == RoundingMode.stochastic) {
+            return BinaryRounding.roundStochastic(sign, significand, exponent, sticky, sigbits, expbits, env);
+        }
+        int extra = significand.bitLength() - 62;
+        if (extra > 0) {
+            sticky |= significand.getLowestSetBit() < extra;
+            significand = significand.shiftRight(extra);
+            exponent += extra;
+        }
+        return BinaryRounding.round(sign, significand.longValue(), exponent, sticky, sigbits, expbits, env);
+    }
+
+    private static long parseSpecial(CharSequence s, int start, int i, int end, boolean sign, int sigbits, int expbits) {
+        long signBit = sign ? 1L << (sigbits + expbits) : 0;
+        long infinity = ((1L << expbits) - 1) << sigbits;
+        if (matches(s, i, end, "infinity") || matches(s, i, end, "inf")) {
+            return signBit | infinity;
+        }
+        boolean signalling = false;
+        if (i < end && (s.charAt(i) == 's' || s.charAt(i) == 'S')) {
+            signalling = true;
+            i++;
+        }
+        int open = i + 3;
+        if (open > end || !matches(s, i, open, "nan")) {
+            throw error(s, start, end);
+        }
+        long payload = 0;
+        if (open < end) {
+            // NaN(0x...)
+            if (end - open < 4 || s.charAt(open) != '(' || s.charAt(open + 1) != '0' || (s.charAt(open + 2) | 0x20) != 'x'
+                    || s.charAt(end - 1) != ')') {
+                throw error(s, start, end);
+            }
+            for (int j = open + 3; j < end - 1; j++) {
+                int digit = Character.digit(s.charAt(j), 16);
+                if (digit < 0) throw error(s, start, end);
+                payload = (payload << 4) | digit;
+            }
+        }
+        long quiet = 1L << (sigbits - 1);
+        payload &= quiet - 1;
+        if (signalling) {
+            return signBit | infinity | (payload == 0 ? 1 : payload);
+        }
+        return signBit | infinity | quiet | payload;
+    }
+
+    private static boolean matches(CharSequence s, int start, int end, String lower) {
+        if (end - start != lower.length()) return false;
+        for (int i = 0; i < lower.length(); i++) {
+            if (Character.toLowerCase(s.charAt(start + i)) != lower.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int hexDigit(char c) {
+        if (isDigit(c)) return c - '0';
+        char lower = (char) (c | 0x20);
+        return lower >= 'a' && lower <= 'f' ? lower - 'a' + 10 : -1;
+    }
+
+    private static NumberFormatException error(CharSequence s, int start, int end) {
+        return new NumberFormatException("Not a valid number: \"" + s.subSequence(start, end) + "\"");
+    }
+}
@@ -0,0 +1,572 @@
+package jsoftfloat.operations;
+
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.Float16Tables;
+import jsoftfloat.types.Float64;
+
+/**
+ * Executes decoded instructions of the RISC-V F, D and Zfh extensions on register files of raw bits, so that a
+ * simulator doesn't need to map them onto the other operations itself
+ * <p>
+ * The f registers are longs in which binary32 and binary16 values are NaN-boxed: their upper bits are all ones, and an
+ * operand which isn't boxed reads as the canonical NaN. NaN results are always the canonical NaN. Flags and the
+ * dynamic rounding mode live in an int laid out like fcsr, fflags in bits 0 to 4 and frm in bits 5 to 7, and
+ * tininess is detected after rounding like RISC-V requires.
+ * <p>
+ * Instructions are dispatched through a table, and binary32 and binary16 operations and most binary64 ones are
+ * computed with double arithmetic and its exact errors, so executing them doesn't allocate. Binary64 results near the
+ * ends of the exponent range, and binary64 fused multiply-adds which round ties away, go through the Float64
+ * operations. A RiscV keeps an Environment, so like one it isn't thread safe and each hart needs its own.
+ */
+public final class RiscV {
+    /**
+     * The bits of fflags, which are in the same order as Flags
+     */
+    public static final int NX = 1, UF = 2, OF = 4, DZ = 8, NV = 16;
+
+    /**
+     * The values of the fmt field
+     */
+    public static final int S = 0, D = 1, H = 2;
+
+    public static final int MADD = 0x43, MSUB = 0x47, NMSUB = 0x4B, NMADD = 0x4F, OP_FP = 0x53;
+
+    // Operations up to FROM_INTEGER round in the mode given by rm
+    private static final int ADD = 1, SUBTRACT = 2, MULTIPLY = 3, DIVIDE = 4, SQUARE_ROOT = 5,
+            FMADD = 6, FMSUB = 7, FNMSUB = 8, FNMADD = 9, CONVERT = 10, TO_INTEGER = 11, FROM_INTEGER = 12,
+            SIGN_INJECT = 13, MIN_MAX = 14, COMPARE = 15, CLASSIFY = 16, MOVE = 17;
+
+    // The operation of an OP-FP instruction by funct7 and rs2, where rs2 either selects a variant or is a register.
+    // Zero is an illegal instruction, which includes every binary128 one.
+    private static final byte[] OPERATIONS = new byte[128 * 32];
+
+    static {
+        for (int fmt = S; fmt <= H; fmt++) {
+            for (int rs2 = 0; rs2 < 32; rs2++) {
+                define(0x00, fmt, rs2, ADD);
+                define(0x01, fmt, rs2, SUBTRACT);
+                define(0x02, fmt, rs2, MULTIPLY);
+                define(0x03, fmt, rs2, DIVIDE);
+                define(0x04, fmt, rs2, SIGN_INJECT);
+                define(0x05, fmt, rs2, MIN_MAX);
+                define(0x14, fmt, rs2, COMPARE);
+            }
+            define(0x0B, fmt, 0, SQUARE_ROOT);
+            for (int from = S; from <= H; from++) {
+                if (from != fmt) define(0x08, fmt, from, CONVERT);
+            }
+            for (int rs2 = 0; rs2 < 4; rs2++) {
+                define(0x18, fmt, rs2, TO_INTEGER);
+                define(0x1A, fmt, rs2, FROM_INTEGER);
+            }
+            define(0x1C, fmt, 0, CLASSIFY);
+            define(0x1E, fmt, 0, MOVE);
+        }
+    }
+
+    private static void define(int funct5, int fmt, int rs2, int operation) {
+        OPERATIONS[(funct5 << 2 | fmt) << 5 | rs2] = (byte) operation;
+    }
+
+    // Indexed by fmt
+    private static final int[] SIGBITS = {23, 52, 10}, EXPBITS = {8, 11, 5};
+    private static final long[] CANONICAL_NAN = {0x7FC00000L, 0x7FF80000_00000000L, 0x7E00L};
+    private static final long[] BOX = {0xFFFFFFFF_00000000L, 0, 0xFFFFFFFF_FFFF0000L};
+
+    // By rm, where 5 and 6 are reserved and 7 is replaced by frm
+    private static final RoundingMode[] MODES = {RoundingMode.even, RoundingMode.zero, RoundingMode.min,
+            RoundingMode.max, RoundingMode.away, null, null, null};
+
+    // Binary64 results at least this large in magnitude have exact errors from Math.fma, and fused multiply-adds
+    // whose terms are at most HUGE can't overflow while computing theirs
+    private static final double TINY = 0x1p-968, HUGE = 0x1p1021;
+
+    private final Environment env = new Environment();
+
+    /**
+     * @return the value of a register as the raw bits of fmt, or the canonical NaN if it isn't NaN-boxed
+     */
+    public static long unbox(long register, int fmt) {
+        return (register & BOX[fmt]) == BOX[fmt] ? register & ~BOX[fmt] : CANONICAL_NAN[fmt];
+    }
+
+    /**
+     * @return the raw bits of fmt NaN-boxed to fill a register, which is what loads write
+     */
+    public static long box(long bits, int fmt) {
+        return bits | BOX[fmt];
+    }
+
+    /**
+     * Executes an instruction given as its 32 bit encoding
+     *
+     * @see #execute(int, int, int, int, int, int, long[], long[], int)
+     */
+    public int execute(int instruction, long[] f, long[] x, int fcsr) {
+        return execute(instruction & 0x7F, instruction >>> 25, (instruction >>> 20) & 0x1F, (instruction >>> 15) & 0x1F,
+                (instruction >>> 12) & 7, (instruction >>> 7) & 0x1F, f, x, fcsr);
+    }
+
+    /**
+     * Executes an instruction given as the fields of its encoding. Fused multiply-adds have rs3 and fmt where the
+     * other instructions have funct7, so that is how they are passed.
+     *
+     * @param f    the f registers
+     * @param x    the x registers, where x[0] is never written and 32 bit results are sign extended
+     * @param fcsr the flags and the dynamic rounding mode
+     * @return fcsr with the flags the instruction signalled added
+     * @throws IllegalArgumentException if it isn't an F, D or Zfh instruction on registers, or its rounding mode is
+     *                                  reserved
+     */
+    public int execute(int opcode, int funct7, int rs2, int rs1, int rm, int rd, long[] f, long[] x, int fcsr) {
+        int fmt = funct7 & 3;
+        int operation;
+        if (opcode == OP_FP) {
+            operation = OPERATIONS[funct7 << 5 | rs2];
+        } else if ((opcode == MADD || opcode == MSUB || opcode == NMSUB || opcode == NMADD) && fmt != 3) {
+            operation = FMADD + ((opcode >>> 2) & 3);
+        } else {
+            operation = 0;
+        }
+        if (operation == 0) {
+            throw illegal(opcode, funct7, rs2, rm);
+        }
+        if (operation <= FROM_INTEGER) {
+            RoundingMode mode = MODES[rm == 7 ? (fcsr >>> 5) & 7 : rm];
+            if (mode == null) throw illegal(opcode, funct7, rs2, rm);
+            env.mode = mode;
+        }
+        env.flags.clear();
+
+        long sign = signBit(fmt);
+        long a = unbox(f[rs1], fmt), b = unbox(f[rs2], fmt);
+        int width = SIGBITS[fmt] + EXPBITS[fmt] + 1;
+        switch (operation) {
+            case ADD:
+                f[rd] = box(add(a, b, fmt), fmt);
+                break;
+            case SUBTRACT:
+                f[rd] = box(add(a, b ^ sign, fmt), fmt);
+                break;
+            case MULTIPLY:
+                f[rd] = box(multiply(a, b, fmt), fmt);
+                break;
+            case DIVIDE:
+                f[rd] = box(divide(a, b, fmt), fmt);
+                break;
+            case SQUARE_ROOT:
+                f[rd] = box(squareRoot(a, fmt), fmt);
+                break;
+            case FMADD:
+            case FMSUB:
+            case FNMSUB:
+            case FNMADD: {
+                // The negated variants negate the product, the subtracting ones the addend
+                int variant = operation - FMADD;
+                long c = unbox(f[funct7 >>> 2], fmt);
+                f[rd] = box(fusedMultiplyAdd((variant & 2) != 0 ? a ^ sign : a, b, (variant & 1) != 0 ? c ^ sign : c, fmt), fmt);
+                break;
+            }
+            case CONVERT:
+                f[rd] = box(convert(unbox(f[rs1], rs2), rs2, fmt), fmt);
+                break;
+            case TO_INTEGER: {
+                long result = Conversions.toIntegerBits(a, SIGBITS[fmt], EXPBITS[fmt], rs2 < 2 ? 32 : 64, (rs2 & 1) != 0, false, env);
+                write(x, rd, rs2 < 2 ? (int) result : result);
+                break;
+            }
+            case FROM_INTEGER:
+                f[rd] = box(fromInteger(x[rs1], rs2, fmt), fmt);
+                break;
+            case SIGN_INJECT:
+                if (rm > 2) throw illegal(opcode, funct7, rs2, rm);
+                // fsgnj, fsgnjn and fsgnjx
+                long injected = rm == 0 ? b & sign : rm == 1 ? ~b & sign : (a ^ b) & sign;
+                f[rd] = box((a & ~sign) | injected, fmt);
+                break;
+            case MIN_MAX:
+                if (rm > 1) throw illegal(opcode, funct7, rs2, rm);
+                f[rd] = box(minMax(a, b, fmt, rm == 1), fmt);
+                break;
+            case COMPARE:
+                if (rm > 2) throw illegal(opcode, funct7, rs2, rm);
+                write(x, rd, compare(a, b, fmt, rm) ? 1 : 0);
+                break;
+            case CLASSIFY:
+                if (rm > 1) throw illegal(opcode, funct7, rs2, rm);
+                // fmv.x moves the raw bits, boxed or not
+                write(x, rd, rm == 0 ? f[rs1] << (64 - width) >> (64 - width) : classify(a, fmt));
+                break;
+            case MOVE:
+                if (rm != 0) throw illegal(opcode, funct7, rs2, rm);
+                f[rd] = box(x[rs1] & (-1L >>> (64 - width)), fmt);
+                break;
+        }
+        return fcsr | fflags();
+    }
+
+    private static IllegalArgumentException illegal(int opcode, int funct7, int rs2, int rm) {
+        return new IllegalArgumentException("Not an F, D or Zfh instruction: opcode " + opcode + ", funct7 " + funct7
+                + ", rs2 " + rs2 + ", rm " + rm);
+    }
+
+    private static void write(long[] x, int rd, long value) {
+        if (rd != 0) x[rd] = value;
+    }
+
+    private int fflags() {
+        return (env.flags.contains(Flags.inexact) ? NX : 0) | (env.flags.contains(Flags.underflow) ? UF : 0)
+                | (env.flags.contains(Flags.overflow) ? OF : 0) | (env.flags.contains(Flags.divByZero) ? DZ : 0)
+                | (env.flags.contains(Flags.invalid) ? NV : 0);
+    }
+
+    private long add(long a, long b, int fmt) {
+        if (isNaN(a, fmt) || isNaN(b, fmt)) {
+            return nan(isSignalling(a, fmt) || isSignalling(b, fmt), fmt);
+        }
+        double x = toDouble(a, fmt), y = toDouble(b, fmt), sum = x + y;
+        if (Double.isNaN(sum)) {
+            return nan(true, fmt);
+        }
+        if (Double.isInfinite(x) || Double.isInfinite(y)) {
+            return exact(sum, fmt);
+        }
+        if (sum == 0) {
+            return exact(zeroSum(x, y), fmt);
+        }
+        if (fmt == D && !isSafe(sum)) {
+            return slow(ADD, a, b, 0);
+        }
+        double error = Arithmetic.sumError(x, y, sum);
+        return round(sum, error, Math.abs(error) == Math.ulp(sum) / 2, fmt);
+    }
+
+    private long multiply(long a, long b, int fmt) {
+        if (isNaN(a, fmt) || isNaN(b, fmt)) {
+            return nan(isSignalling(a, fmt) || isSignalling(b, fmt), fmt);
+        }
+        double x = toDouble(a, fmt), y = toDouble(b, fmt), product = x * y;
+        if (Double.isNaN(product)) {
+            return nan(true, fmt);
+        }
+        if (!isFiniteNonZero(x) || !isFiniteNonZero(y)) {
+            return exact(product, fmt);
+        }
+        if (fmt == D && !isSafe(product)) {
+            return slow(MULTIPLY, a, b, 0);
+        }
+        // Binary32 and binary16 products are exact
+        double error = Math.fma(x, y, -product);
+        return round(product, error, Math.abs(error) == Math.ulp(product) / 2, fmt);
+    }
+
+    private long divide(long a, long b, int fmt) {
+        if (isNaN(a, fmt) || isNaN(b, fmt)) {
+            return nan(isSignalling(a, fmt) || isSignalling(b, fmt), fmt);
+        }
+        double x = toDouble(a, fmt), y = toDouble(b, fmt), quotient = x / y;
+        if (Double.isNaN(quotient)) {
+            return nan(true, fmt);
+        }
+        // Section 7.3
+        if (y == 0) {
+            if (!Double.isInfinite(x)) env.flags.add(Flags.divByZero);
+            return exact(quotient, fmt);
+        }
+        if (!isFiniteNonZero(x) || Double.isInfinite(y)) {
+            return exact(quotient, fmt);
+        }
+        if (fmt == D && !(isSafe(quotient) && Math.abs(x) >= TINY)) {
+            return slow(DIVIDE, a, b, 0);
+        }
+        // The exact quotient is quotient + remainder / y
+        double remainder = Math.fma(-quotient, y, x);
+        boolean tie = Math.abs(remainder) == Math.abs(y) * (Math.ulp(quotient) / 2);
+        return round(quotient, y > 0 ? remainder : -remainder, tie, fmt);
+    }
+
+    private long squareRoot(long a, int fmt) {
+        if (isNaN(a, fmt)) {
+            return nan(isSignalling(a, fmt), fmt);
+        }
+        double x = toDouble(a, fmt);
+        if (x < 0) {
+            return nan(true, fmt);
+        }
+        if (x == 0 || Double.isInfinite(x)) {
+            return a;
+        }
+        if (fmt == D && x < TINY) {
+            return slow(SQUARE_ROOT, a, 0, 0);
+        }
+        // Square roots are never halfway between two values
+        double root = Math.sqrt(x);
+        return round(root, Math.fma(-root, root, x), false, fmt);
+    }
+
+    private long fusedMultiplyAdd(long a, long b, long c, int fmt) {
+        double x = toDouble(a, fmt), y = toDouble(b, fmt), z = toDouble(c, fmt), product = x * y;
+        if (isNaN(a, fmt) || isNaN(b, fmt) || isNaN(c, fmt)) {
+            // Infinity times zero is invalid even when the addend is a quiet NaN
+            boolean invalid = Double.isNaN(product) && !Double.isNaN(x) && !Double.isNaN(y);
+            return nan(invalid || isSignalling(a, fmt) || isSignalling(b, fmt) || isSignalling(c, fmt), fmt);
+        }
+        if (Double.isNaN(product)) {
+            return nan(true, fmt);
+        }
+        if (Double.isInfinite(z) && !Double.isInfinite(x) && !Double.isInfinite(y)) {
+            // Even if the double product overflows
+            return c;
+        }
+        if (fmt != D || !isFiniteNonZero(x) || !isFiniteNonZero(y)) {
+            // The product is exact, or the sum is infinite anyway, so this is like add
+            double sum = product + z;
+            if (Double.isNaN(sum)) {
+                return nan(true, fmt);
+            }
+            if (Double.isInfinite(product) || Double.isInfinite(z)) {
+                return exact(sum, fmt);
+            }
+            if (sum == 0) {
+                return exact(zeroSum(product, z), fmt);
+            }
+            if (fmt == D) {
+                // The product is zero
+                return exact(sum, fmt);
+            }
+            return round(sum, Arithmetic.sumError(product, z, sum), false, fmt);
+        }
+        double result = Math.fma(x, y, z);
+        if (!isSafe(result) || !isSafe(product) || Math.abs(result) > HUGE || Math.abs(product) > HUGE
+                || Math.abs(z) > HUGE || env.mode == RoundingMode.away) {
+            return slow(FMADD, a, b, c);
+        }
+        return round(result, fmaError(x, y, z, product, result), false, fmt);
+    }
+
+    /**
+     * Computes something with the sign of x * y + z - result with Shewchuk's Grow-Expansion, adding z and then -result
+     * to the exact product. The components of an expansion don't overlap, so the largest non-zero one has the sign of
+     * their sum.
+     */
+    private static double fmaError(double x, double y, double z, double product, double result) {
+        double low = Math.fma(x, y, -product);
+        double s = z + low, e0 = Arithmetic.sumError(z, low, s);
+        double t = s + product, e1 = Arithmetic.sumError(s, product, t);
+        double u = e0 - result, f0 = Arithmetic.sumError(-result, e0, u);
+        double v = u + e1, f1 = Arithmetic.sumError(u, e1, v);
+        double w = v + t, f2 = Arithmetic.sumError(v, t, w);
+        return w != 0 ? w : f2 != 0 ? f2 : f1 != 0 ? f1 : f0;
+    }
+
+    // Section 6.3 - an exact zero sum of operands with opposite signs is +0, except when rounding towards -Infinity
+    private double zeroSum(double x, double y) {
+        boolean opposite = (Double.doubleToRawLongBits(x) ^ Double.doubleToRawLongBits(y)) < 0;
+        return opposite && env.mode == RoundingMode.min ? -0.0 : x + y;
+    }
+
+    /**
+     * Rounds value, the double nearest to a result which is off from it by something with the sign of error, to fmt
+     *
+     * @param tie whether the result is halfway between value and the next double away from zero
+     */
+    private long round(double value, double error, boolean tie, int fmt) {
+        if (fmt != D) {
+            return narrow(Arithmetic.toOdd(value, error), fmt);
+        }
+        if (error != 0) {
+            env.flags.add(Flags.inexact);
+            boolean up = error > 0, positive = value > 0;
+            switch (env.mode) {
+                case min:
+                    value = up ? value : Math.nextDown(value);
+                    break;
+                case max:
+                    value = up ? Math.nextUp(value) : value;
+                    break;
+                case zero:
+                    value = up == positive ? value : positive ? Math.nextDown(value) : Math.nextUp(value);
+                    break;
+                case away:
+                    value = tie && up == positive ? (positive ? Math.nextUp(value) : Math.nextDown(value)) : value;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return Double.doubleToRawLongBits(value);
+    }
+
+    /**
+     * Narrows the raw bits of a double to fmt. Conversions.narrow detects tininess before rounding, so underflow is
+     * taken back when the result is the smallest normal number and would have been with an unbounded exponent too.
+     */
+    private long narrow(long bits, int fmt) {
+        int sigbits = SIGBITS[fmt], expbits = EXPBITS[fmt];
+        long result = Conversions.narrow(bits, 52, 11, sigbits, expbits, env);
+        long smallest = 1L << sigbits, sign = signBit(fmt);
+        if ((result & ~sign) == smallest && env.flags.contains(Flags.underflow)) {
+            // Doubling is exact and takes the value out of the subnormal range
+            long scaled = Double.doubleToRawLongBits(Double.longBitsToDouble(bits) * 2);
+            if ((Conversions.narrow(scaled, 52, 11, sigbits, expbits, env) & ~sign) == smallest << 1) {
+                env.flags.remove(Flags.underflow);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes a binary64 operation whose result may overflow or be tiny with the Float64 operations, and detects
+     * tininess after rounding like narrow. Sums and square roots are never tiny and inexact.
+     */
+    private long slow(int operation, long a, long b, long c) {
+        long result = generic(operation, a, b, c);
+        long sign = signBit(D);
+        if ((result & ~sign) == 1L << 52 && env.flags.contains(Flags.underflow)) {
+            // Double the dividend, or the smaller factor and the addend, so that the result is twice as large
+            boolean first = operation == DIVIDE || (a & ~sign) < (b & ~sign);
+            long scaled = generic(operation, first ? twice(a) : a, first ? b : twice(b), twice(c));
+            if ((scaled & ~sign) == 2L << 52) {
+                env.flags.remove(Flags.underflow);
+            }
+        }
+        return result;
+    }
+
+    private long generic(int operation, long a, long b, long c) {
+        Float64 x = new Float64(a), y = new Float64(b);
+        switch (operation) {
+            case ADD:
+                return Arithmetic.add(x, y, env).bits;
+            case MULTIPLY:
+                return Arithmetic.multiplication(x, y, env).bits;
+            case DIVIDE:
+                return Arithmetic.division(x, y, env).bits;
+            case SQUARE_ROOT:
+                return Arithmetic.squareRoot(x, env).bits;
+            default:
+                return Arithmetic.fusedMultiplyAdd(x, y, new Float64(c), env).bits;
+        }
+    }
+
+    private static long twice(long bits) {
+        return Double.doubleToRawLongBits(Double.longBitsToDouble(bits) * 2);
+    }
+
+    private long convert(long bits, int from, int to) {
+        if (isNaN(bits, from)) {
+            return nan(isSignalling(bits, from), to);
+        }
+        double value = toDouble(bits, from);
+        return SIGBITS[to] < SIGBITS[from] ? narrow(Double.doubleToRawLongBits(value), to) : exact(value, to);
+    }
+
+    /**
+     * @param rs2 0 for a signed 32 bit integer, 1 for an unsigned one, and 2 and 3 for 64 bit ones
+     */
+    private long fromInteger(long i, int rs2, int fmt) {
+        boolean sign = rs2 == 0 ? (int) i < 0 : rs2 == 2 && i < 0;
+        // -Long.MIN_VALUE overflows to itself, which is the right magnitude as an unsigned number
+        long magnitude = rs2 == 0 ? Math.abs((long) (int) i) : rs2 == 1 ? i & 0xFFFFFFFFL : rs2 == 2 ? Math.abs(i) : i;
+        return Conversions.fromIntegerBits(sign, magnitude, SIGBITS[fmt], EXPBITS[fmt], env);
+    }
+
+    /**
+     * fmin and fmax, which are minimumNumber and maximumNumber: NaNs are ignored unless both operands are
+     */
+    private long minMax(long a, long b, int fmt, boolean max) {
+        if (isSignalling(a, fmt) || isSignalling(b, fmt)) {
+            env.flags.add(Flags.invalid);
+        }
+        boolean aNaN = isNaN(a, fmt), bNaN = isNaN(b, fmt);
+        if (aNaN || bNaN) {
+            return aNaN && bNaN ? CANONICAL_NAN[fmt] : aNaN ? b : a;
+        }
+        double x = toDouble(a, fmt), y = toDouble(b, fmt);
+        // -0 is less than +0
+        boolean less = x < y || (x == y && (a & signBit(fmt)) != 0);
+        return less != max ? a : b;
+    }
+
+    /**
+     * feq is quiet, flt and fle signal invalid for any NaN
+     *
+     * @param rm 2 for feq, 1 for flt and 0 for fle
+     */
+    private boolean compare(long a, long b, int fmt, int rm) {
+        boolean unordered = isNaN(a, fmt) || isNaN(b, fmt);
+        if (rm == 2 ? isSignalling(a, fmt) || isSignalling(b, fmt) : unordered) {
+            env.flags.add(Flags.invalid);
+        }
+        if (unordered) {
+            return false;
+        }
+        double x = toDouble(a, fmt), y = toDouble(b, fmt);
+        return rm == 2 ? x == y : rm == 1 ? x < y : x <= y;
+    }
+
+    /**
+     * @return the fclass mask: bits 0 to 7 are -Infinity, negative normal, negative subnormal, -0, +0, positive
+     * subnormal, positive normal and +Infinity, bit 8 is a signalling NaN and bit 9 a quiet one
+     */
+    private static long classify(long bits, int fmt) {
+        int sigbits = SIGBITS[fmt], expbits = EXPBITS[fmt];
+        long sign = signBit(fmt), magnitude = bits & ~sign, infinity = ((1L << expbits) - 1) << sigbits;
+        if (magnitude > infinity) {
+            return isSignalling(bits, fmt) ? 1 << 8 : 1 << 9;
+        }
+        int index = magnitude == infinity ? 0 : magnitude >= 1L << sigbits ? 1 : magnitude != 0 ? 2 : 3;
+        return 1 << ((bits & sign) != 0 ? index : 7 - index);
+    }
+
+    private long nan(boolean invalid, int fmt) {
+        if (invalid) env.flags.add(Flags.invalid);
+        return CANONICAL_NAN[fmt];
+    }
+
+    // The raw bits of a value of fmt, which has to be exact
+    private long exact(double value, int fmt) {
+        switch (fmt) {
+            case S:
+                return Float.floatToRawIntBits((float) value) & 0xFFFFFFFFL;
+            case D:
+                return Double.doubleToRawLongBits(value);
+            default:
+                return Conversions.narrow(Double.doubleToRawLongBits(value), 52, 11, 10, 5, env);
+        }
+    }
+
+    // Every binary32 and binary16 value is exact as a double, and NaNs are checked on the raw bits beforehand
+    private static double toDouble(long bits, int fmt) {
+        switch (fmt) {
+            case S:
+                return Float.intBitsToFloat((int) bits);
+            case D:
+                return Double.longBitsToDouble(bits);
+            default:
+                return Float.intBitsToFloat(Float16Tables.toFloat32((int) bits));
+        }
+    }
+
+    private static boolean isSafe(double value) {
+        return Math.abs(value) >= TINY && Math.abs(value) < Double.MAX_VALUE;
+    }
+
+    private static boolean isFiniteNonZero(double value) {
+        return value != 0 && !Double.isInfinite(value);
+    }
+
+    private static long signBit(int fmt) {
+        return 1L << (SIGBITS[fmt] + EXPBITS[fmt]);
+    }
+
+    private static boolean isNaN(long bits, int fmt) {
+        return (bits & ~signBit(fmt)) > ((1L << EXPBITS[fmt]) - 1) << SIGBITS[fmt];
+    }
+
+    private static boolean isSignalling(long bits, int fmt) {
+        return isNaN(bits, fmt) && (bits & 1L << (SIGBITS[fmt] - 1)) == 0;
+    }
+}
@@ -0,0 +1,774 @@
+package jsoftfloat.operations;
+
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryRounding;
+import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.internal.LongMath;
+import jsoftfloat.types.Float32;
+import jsoftfloat.types.Float64;
+import jsoftfloat.types.Floating;
+
+import java.math.BigInteger;
+
+/**
+ * Groups the trigonometric operations of Section 9.2
+ * <p>
+ * Results are correctly rounded in the same way as {@link Exponentials}: Float32 and Float64 are approximated in 128
+ * bit fixed point on longs first and only fall back to the generic ExactFloat implementation if that approximation is
+ * too close to a rounding boundary. Arguments of sin, cos and tan are reduced modulo pi/2 with the Payne-Hanek method,
+ * which multiplies the significand with just the four words of a precomputed table of 2/pi that matter at its
+ * exponent. The reduced argument is then split into a multiple of 1/64, whose sine and cosine come from a table, and a
+ * small remainder for the polynomials.
+ */
+public class Trigonometry {
+    private static final int SIN = 0, COS = 1, TAN = 2, SINPI = 3, COSPI = 4, ATAN = 5;
+
+    public static <T extends Floating<T>> T sin(T a, Environment env) {
+        return compute(a, SIN, env);
+    }
+
+    public static <T extends Floating<T>> T cos(T a, Environment env) {
+        return compute(a, COS, env);
+    }
+
+    public static <T extends Floating<T>> T tan(T a, Environment env) {
+        return compute(a, TAN, env);
+    }
+
+    public static <T extends Floating<T>> T sinPi(T a, Environment env) {
+        return compute(a, SINPI, env);
+    }
+
+    public static <T extends Floating<T>> T cosPi(T a, Environment env) {
+        return compute(a, COSPI, env);
+    }
+
+    public static <T extends Floating<T>> T atan(T a, Environment env) {
+        return compute(a, ATAN, env);
+    }
+
+    public static Float32 sin(Float32 a, Environment env) {
+        return compute32(a, SIN, env);
+    }
+
+    public static Float32 cos(Float32 a, Environment env) {
+        return compute32(a, COS, env);
+    }
+
+    public static Float32 tan(Float32 a, Environment env) {
+        return compute32(a, TAN, env);
+    }
+
+    public static Float32 sinPi(Float32 a, Environment env) {
+        return compute32(a, SINPI, env);
+    }
+
+    public static Float32 cosPi(Float32 a, Environment env) {
+        return compute32(a, COSPI, env);
+    }
+
+    public static Float32 atan(Float32 a, Environment env) {
+        return compute32(a, ATAN, env);
+    }
+
+    public static Float64 sin(Float64 a, Environment env) {
+        return compute64(a, SIN, env);
+    }
+
+    public static Float64 cos(Float64 a, Environment env) {
+        return compute64(a, COS, env);
+    }
+
+    public static Float64 tan(Float64 a, Environment env) {
+        return compute64(a, TAN, env);
+    }
+
+    public static Float64 sinPi(Float64 a, Environment env) {
+        return compute64(a, SINPI, env);
+    }
+
+    public static Float64 cosPi(Float64 a, Environment env) {
+        return compute64(a, COSPI, env);
+    }
+
+    public static Float64 atan(Float64 a, Environment env) {
+        return compute64(a, ATAN, env);
+    }
+
+    /**
+     * Computes the angle of the point (x, y) from the positive x axis in the range [-pi, pi]
+     */
+    public static <T extends Floating<T>> T atan2(T y, T x, Environment env) {
+        return computeAtan2(y, x, env);
+    }
+
+    public static Float32 atan2(Float32 y, Float32 x, Environment env) {
+        long bits = approximateAtan2(y.bits & 0xFFFFFFFFL, x.bits & 0xFFFFFFFFL, 23, 8, env);
+        return bits != -1 ? new Float32((int) bits) : computeAtan2(y, x, env);
+    }
+
+    public static Float64 atan2(Float64 y, Float64 x, Environment env) {
+        long bits = approximateAtan2(y.bits, x.bits, 52, 11, env);
+        return bits != -1 ? new Float64(bits) : computeAtan2(y, x, env);
+    }
+
+    private static Float32 compute32(Float32 a, int kind, Environment env) {
+        long bits = approximate(a.bits & 0xFFFFFFFFL, 23, 8, kind, env);
+        return bits != -1 ? new Float32((int) bits) : compute(a, kind, env);
+    }
+
+    private static Float64 compute64(Float64 a, int kind, Environment env) {
+        long bits = approximate(a.bits, 52, 11, kind, env);
+        // Only a quiet NaN with all bits set comes back as -1, and the generic path returns it unchanged
+        return bits != -1 ? new Float64(bits) : compute(a, kind, env);
+    }
+
+    private static final ExactFloat ONE = new ExactFloat(BigInteger.ONE);
+
+    private static <T extends Floating<T>> T computeAtan2(T y, T x, Environment env) {
+        // Section 6.2
+        if (y.isNaN() || x.isNaN()) {
+            if (y.isSignalling() || x.isSignalling()) {
+                env.flags.add(Flags.invalid);
+                return y.NaN();
+            }
+            return y.isNaN() ? y : x;
+        }
+        boolean negative = y.isSignMinus();
+        // Section 9.2.1
+        if (y.isZero()) {
+            return x.isSignMinus() ? angle(y, negative, 1, 0, env) : y;
+        }
+        if (y.isInfinite()) {
+            if (x.isInfinite()) return angle(y, negative, x.isSignMinus() ? 3 : 1, 2, env);
+            return angle(y, negative, 1, 1, env);
+        }
+        if (x.isInfinite()) {
+            if (x.isSignMinus()) return angle(y, negative, 1, 0, env);
+            return negative ? y.NegativeZero() : y.Zero();
+        }
+        if (x.isZero()) {
+            return angle(y, negative, 1, 1, env);
+        }
+
+        ExactFloat a = y.toExactFloat().normalize(), b = x.toExactFloat().normalize();
+        int bits = 2 * y.maxPrecision() + 8;
+        if (!b.sign && b.significand.equals(BigInteger.ONE) &&
+                a.exponent + a.significand.bitLength() - b.exponent < -bits) {
+            // y / x is exact and atan2 is just below it, see compute
+            ExactFloat q = new ExactFloat(a.sign, a.exponent - b.exponent, a.significand);
+            return y.fromExactFloat(q.add(q.shiftRight(bits).negate()), env);
+        }
+        return Exponentials.roundAccurately(y, accuracy -> ExactFloat.atan2(a, b, accuracy), env);
+    }
+
+    private static <T extends Floating<T>> T compute(T a, int kind, Environment env) {
+        // Section 6.2
+        if (a.isNaN()) {
+            if (a.isSignalling()) {
+                env.flags.add(Flags.invalid);
+                return a.NaN();
+            }
+            return a;
+        }
+        // Section 9.2.1
+        if (a.isInfinite()) {
+            if (kind == ATAN) return angle(a, a.isSignMinus(), 1, 1, env);
+            env.flags.add(Flags.invalid);
+            return a.NaN();
+        }
+        if (a.isZero()) {
+            return kind == COS || kind == COSPI ? a.fromExactFloat(ONE, env) : a;
+        }
+
+        ExactFloat x = a.toExactFloat().normalize();
+        if ((kind == SINPI || kind == COSPI) && x.exponent >= -1) {
+            // x is a multiple of 1/2, so the result is exactly 0 or +-1
+            int k = x.exponent >= 1 ? 0 : x.significand.shiftLeft(x.exponent + 1).intValue() & 3;
+            if (kind == SINPI) {
+                if (k % 2 == 0) return x.sign ? a.NegativeZero() : a.Zero();
+                return a.fromExactFloat(new ExactFloat((k == 3) != x.sign, 0, BigInteger.ONE), env);
+            }
+            if (k % 2 == 1) return a.Zero();
+            return a.fromExactFloat(new ExactFloat(k == 2, 0, BigInteger.ONE), env);
+        }
+        int msb = x.exponent + x.significand.bitLength() - 1;
+        // Results within a relative 2^-bits of a representable number are handled directly, see Exponentials
+        int bits = 2 * a.maxPrecision() + 8;
+        if (msb < -bits) {
+            if (kind == SIN || kind == ATAN) return a.fromExactFloat(x.add(x.shiftRight(bits).negate()), env);
+            if (kind == TAN) return a.fromExactFloat(x.add(x.shiftRight(bits)), env);
+            if (kind == COS || kind == COSPI) return a.fromExactFloat(ONE.add(new ExactFloat(true, -bits, BigInteger.ONE)), env);
+        }
+        return Exponentials.roundAccurately(a, accuracy -> evaluate(x, kind, accuracy), env);
+    }
+
+    private static ExactFloat evaluate(ExactFloat x, int kind, int accuracy) {
+        switch (kind) {
+            case SIN:
+                return x.sin(accuracy);
+            case COS:
+                return x.cos(accuracy);
+            case TAN:
+                return x.tan(accuracy);
+            case SINPI:
+                return x.sinPi(accuracy);
+            case COSPI:
+                return x.cosPi(accuracy);
+            case ATAN:
+            default:
+                return x.atan(accuracy);
+        }
+    }
+
+    // Rounds (-1)^negative * multiple * pi / 2^log2
+    private static <T extends Floating<T>> T angle(T a, boolean negative, int multiple, int log2, Environment env) {
+        return Exponentials.roundAccurately(a, accuracy -> {
+            ExactFloat pi = ExactFloat.pi(accuracy);
+            // Dropping three bits keeps the error within two units in the last place
+            BigInteger significand = pi.significand.multiply(BigInteger.valueOf(multiple)).shiftRight(3);
+            return new ExactFloat(negative, pi.exponent + 3 - log2, significand);
+        }, env);
+    }
+
+    /**
+     * Handles the special cases and approximates the result from raw bits of a binary format
+     *
+     * @return the raw bits of the result or -1 if the accurate path is needed
+     */
+    private static long approximate(long bits, int sigbits, int expbits, int kind, Environment env) {
+        // The approximations only tell which side of a rounding boundary the result is on, not the discarded fraction
+        if (env.mode == RoundingMode.stochastic) return -1;
+        int bias = (1 << (expbits - 1)) - 1;
+        int maxExponent = (1 << expbits) - 1;
+        long signBit = 1L << (sigbits + expbits);
+        long quietBit = 1L << (sigbits - 1);
+        long infinity = (long) maxExponent << sigbits, one = (long) bias << sigbits;
+        boolean sign = (bits & signBit) != 0;
+        long magnitude = bits & ~signBit;
+        int biased = (int) (magnitude >>> sigbits);
+        long fraction = bits & ((1L << sigbits) - 1);
+
+        // Section 6.2
+        if (magnitude > infinity) {
+            if ((bits & quietBit) == 0) env.flags.add(Flags.invalid);
+            return bits | quietBit;
+        }
+        // Section 9.2.1
+        if (magnitude == infinity) {
+            if (kind == ATAN) return BinaryRounding.roundApproximation(sign, PI_HI, PI_LO, -127, 2, sigbits, expbits, env);
+            env.flags.add(Flags.invalid);
+            return infinity | quietBit;
+        }
+        if (magnitude == 0) return kind == COS || kind == COSPI ? one : bits;
+
+        long mx = biased == 0 ? fraction : fraction | (1L << sigbits);
+        int ex = Math.max(biased, 1) - bias - sigbits;
+        if ((kind == SINPI || kind == COSPI) && ex + Long.numberOfTrailingZeros(mx) >= -1) {
+            // x is a multiple of 1/2, and k = 2|x| mod 4
+            int k = ex >= 1 ? 0 : (int) (ex >= -1 ? mx << (ex + 1) : mx >>> -(ex + 1)) & 3;
+            if (kind == SINPI) {
+                if (k % 2 == 0) return sign ? signBit : 0;
+                return (k == 3) != sign ? signBit | one : one;
+            }
+            if (k % 2 == 1) return 0;
+            return k == 2 ? signBit | one : one;
+        }
+        int msb = ex + 63 - Long.numberOfLeadingZeros(mx);
+        if (msb < -33 && kind != SINPI) {
+            // Within a relative 2^-63 of |x| or 1, sin and atan are just below |x|, tan just above it and cos just below 1
+            if (kind == COS || kind == COSPI) return BinaryRounding.round(false, -1L >>> 1, -63, true, sigbits, expbits, env);
+            int shift = Long.numberOfLeadingZeros(mx) - 1;
+            long m = mx << shift;
+            return BinaryRounding.round(sign, kind == TAN ? m : m - 1, ex - shift, true, sigbits, expbits, env);
+        }
+        if (kind == ATAN) {
+            return approximateAtan(sign, mx, ex, 1, 0, magnitude > one, false, sigbits, expbits, env);
+        }
+
+        // |x| = n pi/2 + r with |r| <= pi/4
+        Fixed r;
+        int quadrant;
+        if (kind == SINPI || kind == COSPI) {
+            r = new Fixed(0, 0, 0, 0);
+            quadrant = reducePi(mx, ex, msb, r);
+        } else if (msb < -1) {
+            int lz = Long.numberOfLeadingZeros(mx);
+            r = new Fixed(mx << lz, 0, ex - lz - 64, 0);
+            quadrant = 0;
+        } else {
+            r = new Fixed(0, 0, 0, 0);
+            quadrant = reduce(mx, ex, r);
+        }
+        if (quadrant < 0) return -1;
+
+        boolean odd = (quadrant & 1) != 0;
+        Fixed result;
+        boolean negative;
+        if (kind == TAN) {
+            // tan(r + pi/2) = -cos(r) / sin(r)
+            Fixed s = evaluate(r, false), c = evaluate(r, true);
+            if (!s.normalize() || !c.normalize()) return -1;
+            result = odd ? divide(c, s) : divide(s, c);
+            if (result == null) return -1;
+            negative = (odd != r.negative) != sign;
+        } else if (kind == SIN || kind == SINPI) {
+            result = evaluate(r, odd);
+            negative = (odd ? quadrant == 3 : r.negative != (quadrant == 2)) != sign;
+        } else {
+            result = evaluate(r, !odd);
+            negative = odd ? r.negative != (quadrant == 1) : quadrant == 2;
+        }
+        return BinaryRounding.roundApproximation(negative, result.hi, result.lo, result.exponent, result.error, sigbits, expbits, env);
+    }
+
+    private static long approximateAtan2(long yBits, long xBits, int sigbits, int expbits, Environment env) {
+        // The approximations only tell which side of a rounding boundary the result is on, not the discarded fraction
+        if (env.mode == RoundingMode.stochastic) return -1;
+        int bias = (1 << (expbits - 1)) - 1;
+        int maxExponent = (1 << expbits) - 1;
+        long signBit = 1L << (sigbits + expbits);
+        long quietBit = 1L << (sigbits - 1);
+        long infinity = (long) maxExponent << sigbits;
+        boolean negative = (yBits & signBit) != 0, xNegative = (xBits & signBit) != 0;
+        long yMagnitude = yBits & ~signBit, xMagnitude = xBits & ~signBit;
+
+        // Section 6.2
+        boolean yNaN = yMagnitude > infinity, xNaN = xMagnitude > infinity;
+        if (yNaN || xNaN) {
+            if ((yNaN && (yBits & quietBit) == 0) || (xNaN && (xBits & quietBit) == 0)) {
+                env.flags.add(Flags.invalid);
+            }
+            return (yNaN ? yBits : xBits) | quietBit;
+        }
+        // Section 9.2.1
+        if (yMagnitude == 0) {
+            if (!xNegative) return yBits;
+            return BinaryRounding.roundApproximation(negative, PI_HI, PI_LO, -126, 2, sigbits, expbits, env);
+        }
+        if (yMagnitude == infinity) {
+            if (xMagnitude != infinity) {
+                return BinaryRounding.roundApproximation(negative, PI_HI, PI_LO, -127, 2, sigbits, expbits, env);
+            }
+            if (xNegative) {
+                return BinaryRounding.roundApproximation(negative, THREE_QUARTER_PI_HI, THREE_QUARTER_PI_LO, -126, 2, sigbits, expbits, env);
+            }
+            return BinaryRounding.roundApproximation(negative, PI_HI, PI_LO, -128, 2, sigbits, expbits, env);
+        }
+        if (xMagnitude == infinity) {
+            if (!xNegative) return negative ? signBit : 0;
+            return BinaryRounding.roundApproximation(negative, PI_HI, PI_LO, -126, 2, sigbits, expbits, env);
+        }
+        if (xMagnitude == 0) {
+            return BinaryRounding.roundApproximation(negative, PI_HI, PI_LO, -127, 2, sigbits, expbits, env);
+        }
+
+        int yBiased = (int) (yMagnitude >>> sigbits), xBiased = (int) (xMagnitude >>> sigbits);
+        long fractionMask = (1L << sigbits) - 1;
+        long my = yBiased == 0 ? yBits & fractionMask : (yBits & fractionMask) | (1L << sigbits);
+        long mx = xBiased == 0 ? xBits & fractionMask : (xBits & fractionMask) | (1L << sigbits);
+        int ey = Math.max(yBiased, 1) - bias - sigbits, ex = Math.max(xBiased, 1) - bias - sigbits;
+        return approximateAtan(negative, my, ey, mx, ex, yMagnitude > xMagnitude, xNegative, sigbits, expbits, env);
+    }
+
+    /**
+     * Approximates atan2(y, x) for |y| = my * 2^ey and |x| = mx * 2^ex
+     * <p>
+     * With q = min(|x|, |y|) / max(|x|, |y|) &lt;= 1, atan(q) = atan(c) + atan(z) where c = j/64 is close to q,
+     * atan(c) comes from a table and z = (q - c) / (1 + q c) is small. Swapping and negative x are accounted for with
+     * pi/2 - atan(q) and pi - atan(q).
+     */
+    private static long approximateAtan(boolean negative, long my, int ey, long mx, int ex, boolean swap, boolean xNegative, int sigbits, int expbits, Environment env) {
+        long nm = swap ? mx : my, dm = swap ? my : mx;
+        int en = swap ? ex : ey, ed = swap ? ey : ex;
+        int ln = Long.numberOfLeadingZeros(nm), ld = Long.numberOfLeadingZeros(dm);
+        Fixed n = new Fixed(nm << ln, 0, en - ln - 64, 0), d = new Fixed(dm << ld, 0, ed - ld - 64, 0);
+        Fixed q = dm << ld == Long.MIN_VALUE ? new Fixed(n.hi, 0, n.exponent - d.exponent - 127, 0) : divide(n, d);
+        if (!q.normalize()) return -1;
+
+        Fixed theta;
+        if (q.exponent < -134) {
+            theta = oddSeries(q, ATAN_POLY);
+            if (!swap && !xNegative) {
+                return BinaryRounding.roundApproximation(negative, theta.hi, theta.lo, theta.exponent, theta.error, sigbits, expbits, env);
+            }
+        } else {
+            theta = atanTable(q);
+            if (theta == null) return -1;
+        }
+
+        // Put everything together in Q126
+        int shift = -126 - theta.exponent;
+        Fixed result = new Fixed(LongMath.shiftRightHi(theta.hi, shift), LongMath.shiftRightLo(theta.hi, theta.lo, shift),
+                -126, (shift < 64 ? theta.error >>> shift : 0) + 1);
+        if (swap) {
+            result.subtractFrom(HALF_PI_HI, HALF_PI_LO);
+            result.error++;
+        }
+        if (xNegative) {
+            result.subtractFrom(PI_HI, PI_LO);
+            result.error++;
+        }
+        return BinaryRounding.roundApproximation(negative, result.hi, result.lo, result.exponent, result.error, sigbits, expbits, env);
+    }
+
+    // atan(q) in Q127 for a normalized 2^-7 <= q <= 1
+    private static Fixed atanTable(Fixed q) {
+        int shift = -127 - q.exponent;
+        long qHi = LongMath.shiftRightHi(q.hi, shift), qLo = LongMath.shiftRightLo(q.hi, q.lo, shift);
+        long error = (q.error >>> shift) + 1;
+        int j = (int) (((qHi >>> 56) + 1) >>> 1);
+        Fixed result = new Fixed(ATAN_TABLE[2 * j], ATAN_TABLE[2 * j + 1], -127, error + 2);
+
+        // q - c in Q127
+        long nHi = qHi - ((long) j << 57), nLo = qLo;
+        boolean zNegative = nHi < 0;
+        if (zNegative) {
+            nLo = -nLo;
+            nHi = ~nHi + (nLo == 0 ? 1 : 0);
+        }
+        if ((nHi | nLo) == 0) return result;
+        // 1 + q c in Q126, and the error in q only changes atan(z) by about as much as q itself
+        long sHi = qHi >>> 6, sLo = LongMath.shiftRightLo(qHi, qLo, 6);
+        long pHi = sHi * j + LongMath.unsignedMultiplyHigh(sLo, j), pLo = sLo * j;
+        Fixed n = new Fixed(nHi, nLo, -127, 0), d = new Fixed((1L << 62) + (pHi >>> 1), (pLo >>> 1) | (pHi << 63), -126, 64);
+        n.normalize();
+        if (!d.normalize()) return null;
+        Fixed z = divide(n, d);
+        if (z == null || !z.normalize()) return null;
+        Fixed atan = oddSeries(z, ATAN_POLY);
+
+        shift = -127 - atan.exponent;
+        long aHi = LongMath.shiftRightHi(atan.hi, shift), aLo = LongMath.shiftRightLo(atan.hi, atan.lo, shift);
+        if (zNegative) {
+            result.subtract(aHi, aLo);
+        } else {
+            result.add(aHi, aLo);
+        }
+        result.error += (shift < 64 ? atan.error >>> shift : 0) + 1;
+        return result;
+    }
+
+    /**
+     * Reduces |x| = mx * 2^ex modulo pi/2 with the Payne-Hanek method
+     * <p>
+     * Bits of 2/pi whose product with |x| is a multiple of 4 don't change the result, so only the four words starting
+     * at the one which includes the bit with weight 2^(ex - 2) are needed. They give 2|x|/pi to at least 190 bits
+     * after the point.
+     *
+     * @param r receives |x| - n pi/2
+     * @return n mod 4 or -1 if r is too close to 0 to have enough accurate bits
+     */
+    private static int reduce(long mx, int ex, Fixed r) {
+        int start = Math.max(0, Math.floorDiv(ex - 2, 64));
+        // z = mx * the 256 bits of 2/pi, which has fb bits after the point
+        long[] z = new long[5];
+        long carry = 0;
+        for (int t = 3; t >= 0; t--) {
+            long w = TWO_OVER_PI[start + t];
+            long lo = mx * w + carry;
+            carry = LongMath.unsignedMultiplyHigh(mx, w) + (Long.compareUnsigned(lo, carry) < 0 ? 1 : 0);
+            z[t + 1] = lo;
+        }
+        z[0] = carry;
+        int fb = 64 * (start + 4) - ex;
+        int quadrant = (int) bitsAt(z, fb) & 3;
+        r.negative = (bitsAt(z, fb - 1) & 1) != 0;
+        if (r.negative) {
+            // Round to the nearest quadrant, which leaves 1 - f as the fraction
+            quadrant++;
+            long increment = 1;
+            for (int t = 4; t >= 0; t--) {
+                z[t] = ~z[t] + increment;
+                increment = increment == 1 && z[t] == 0 ? 1 : 0;
+            }
+        }
+
+        int top = -1;
+        for (int w = (fb - 1) >> 6; w >= 0 && top < 0; w--) {
+            long word = 64 * w + 63 >= fb ? bitsAt(z, 64 * w) & ((1L << (fb - 64 * w)) - 1) : bitsAt(z, 64 * w);
+            if (word != 0) top = 64 * w + 63 - Long.numberOfLeadingZeros(word);
+        }
+        // The truncated part of 2/pi adds less than 2^(len - fb) to the fraction, which is 2^error units of r
+        int error = 64 - Long.numberOfLeadingZeros(mx) + 127 - top;
+        if (top < 0 || error >= 60) return -1;
+        long fHi = bitsAt(z, top - 63), fLo = bitsAt(z, top - 127);
+        r.hi = LongMath.multiplyHighHi(fHi, fLo, PI_HI, PI_LO);
+        r.lo = LongMath.multiplyHighLo(fHi, fLo, PI_HI, PI_LO);
+        r.exponent = top - fb - 126;
+        r.error = (error > 0 ? 1L << error : 1) + 4;
+        return r.normalize() ? quadrant & 3 : -1;
+    }
+
+    // 64 bits of the 320 bit number z starting at bit position p from the bottom
+    private static long bitsAt(long[] z, int p) {
+        if (p <= -64) return 0;
+        if (p < 0) return z[4] << -p;
+        int w = p >> 6, s = p & 63;
+        long low = w <= 4 ? z[4 - w] >>> s : 0;
+        return s == 0 || w >= 4 ? low : low | (z[3 - w] << (64 - s));
+    }
+
+    /**
+     * Reduces |x| = mx * 2^ex for sinPi and cosPi, which can be done exactly
+     *
+     * @param r receives pi (|x| - n/2)
+     * @return n mod 4
+     */
+    private static int reducePi(long mx, int ex, int msb, Fixed r) {
+        long m = mx;
+        int n = 0;
+        if (msb >= -2) {
+            // Not a multiple of 1/2, so 1 <= s < 64
+            int s = -ex - 1;
+            long k = (mx + (1L << (s - 1))) >>> s;
+            m = mx - (k << s);
+            r.negative = m < 0;
+            m = Math.abs(m);
+            n = (int) k & 3;
+        }
+        int lz = Long.numberOfLeadingZeros(m);
+        r.hi = LongMath.multiplyHighHi(m << lz, 0, PI_HI, PI_LO);
+        r.lo = LongMath.multiplyHighLo(m << lz, 0, PI_HI, PI_LO);
+        r.exponent = ex - lz - 62;
+        r.error = 2;
+        r.normalize();
+        return n;
+    }
+
+    /**
+     * Approximates sin(|r|) or cos(r) for a normalized |r| &lt;= pi/4
+     * <p>
+     * |r| = a + d where a = j/64 and |d| &lt;= 1/128, so sin(|r|) = sin(a) - sin(a) (1 - cos(d)) + cos(a) sin(d) and
+     * cos(r) = cos(a) - cos(a) (1 - cos(d)) - sin(a) sin(d). The values at a come from tables and the others from
+     * polynomials.
+     */
+    private static Fixed evaluate(Fixed r, boolean cosine) {
+        if (r.exponent < -134) {
+            return cosine ? evenSeries(r) : oddSeries(r, SIN_POLY);
+        }
+        // |r| in Q127
+        int shift = -127 - r.exponent;
+        long rHi = LongMath.shiftRightHi(r.hi, shift), rLo = LongMath.shiftRightLo(r.hi, r.lo, shift);
+        long error = (r.error >>> shift) + 1;
+        int j = (int) (((rHi >>> 56) + 1) >>> 1);
+
+        long dHi = rHi - ((long) j << 57), dLo = rLo;
+        boolean dNegative = dHi < 0;
+        if (dNegative) {
+            dLo = -dLo;
+            dHi = ~dHi + (dLo == 0 ? 1 : 0);
+        }
+        // d^2/2 in Q127, |d| in Q70, d^2 in Q76 and d^4 in Q90
+        Fixed cos = new Fixed(LongMath.multiplyHighHi(dHi, dLo, dHi, dLo), LongMath.multiplyHighLo(dHi, dLo, dHi, dLo), -127, 0);
+        long d = LongMath.shiftRightLo(dHi, dLo, 57);
+        long d2 = LongMath.shiftRightLo(cos.hi, cos.lo, 50);
+        long d4 = LongMath.unsignedMultiplyHigh(d2 << 1, d2 << 1);
+        long u = d2 >>> 13;
+        // 1 - cos(d) = d^2/2 - d^4 (1/24 - ...) and |d| - sin(|d|) in Q84
+        long c = LongMath.unsignedMultiplyHigh(d4 << 1, -polynomial(COS_POLY, 1, u) << 2);
+        cos.subtract(c >>> 29, c << 35);
+        long b = LongMath.unsignedMultiplyHigh(d, LongMath.unsignedMultiplyHigh(d2 << 1, polynomial(SIN_POLY, 0, u) << 2));
+        Fixed sin = new Fixed(dHi, dLo, -127, 0);
+        sin.subtract(b >>> 21, b << 43);
+
+        long sinHi = SIN_TABLE[2 * j], sinLo = SIN_TABLE[2 * j + 1];
+        long cosHi = COS_TABLE[2 * j], cosLo = COS_TABLE[2 * j + 1];
+        long aHi = cosine ? cosHi : sinHi, aLo = cosine ? cosLo : sinLo;
+        Fixed result = new Fixed(aHi, aLo, -127, error + (1L << 47));
+        result.addProduct(true, aHi, aLo, cos.hi, cos.lo);
+        result.addProduct(cosine != dNegative, cosine ? sinHi : cosHi, cosine ? sinLo : cosLo, sin.hi, sin.lo);
+        return result;
+    }
+
+    // |r| - |r|^3 P(r^2) for a normalized |r| < 2^-7 and a polynomial with coefficients in Q63 close to 1/6 or 1/3
+    private static Fixed oddSeries(Fixed r, long[] poly) {
+        long r2 = LongMath.unsignedMultiplyHigh(r.hi, r.hi);
+        // r^2 = r2 * 2^(2e + 192), and in Q63 for the polynomial
+        int shift = -2 * r.exponent - 255;
+        long u = shift < 64 ? r2 >>> shift : 0;
+        long t = LongMath.unsignedMultiplyHigh(r2, polynomial(poly, 0, u));
+        long c = LongMath.unsignedMultiplyHigh(r.hi, t);
+        // |r|^3 P(r^2) = c * 2^(3e + 321), aligned to units of 2^e
+        shift = 2 * r.exponent + 321;
+        long cHi = shift >= 0 ? LongMath.shiftLeftHi(0, c, shift) : 0;
+        long cLo = shift >= 0 ? LongMath.shiftLeftLo(c, shift) : LongMath.shiftRightLo(0, c, -shift);
+        Fixed result = new Fixed(r.hi, r.lo, r.exponent, r.error + LongMath.shiftRightLo(cHi, cLo, 58) + 4);
+        result.subtract(cHi, cLo);
+        return result;
+    }
+
+    // cos(r) = 1 - r^2 P(r^2) in Q126 for a normalized |r| < 2^-7
+    private static Fixed evenSeries(Fixed r) {
+        long r2 = LongMath.unsignedMultiplyHigh(r.hi, r.hi);
+        int shift = -2 * r.exponent - 255;
+        long u = shift < 64 ? r2 >>> shift : 0;
+        long t = LongMath.unsignedMultiplyHigh(r2, polynomial(COS_POLY, 0, u));
+        // r^2 P(r^2) = t * 2^(2e + 193)
+        shift = 2 * r.exponent + 319;
+        long tHi = shift >= 0 ? LongMath.shiftLeftHi(0, t, shift) : 0;
+        long tLo = shift >= 0 ? LongMath.shiftLeftLo(t, shift) : LongMath.shiftRightLo(0, t, -shift);
+        // An error in r changes cos(r) by at most |r| times as much
+        Fixed result = new Fixed(1L << 62, 0, -126, (r.error >>> 16) + LongMath.shiftRightLo(tHi, tLo, 58) + 5);
+        result.subtract(tHi, tLo);
+        return result;
+    }
+
+    // Evaluates the polynomial with coefficients[from], ... in Q63 at 0 <= u < 1 in Q63
+    private static long polynomial(long[] coefficients, int from, long u) {
+        long p = coefficients[coefficients.length - 1];
+        for (int i = coefficients.length - 2; i >= from; i--) {
+            p = coefficients[i] + (Math.multiplyHigh(u, p) << 1);
+        }
+        return p;
+    }
+
+    /**
+     * Divides normalized a by normalized b
+     * <p>
+     * A 64 bit reciprocal of b from a double and one Newton step gives a quotient q to about 60 bits, and the
+     * remainder a - b q corrects it to about 117 bits.
+     *
+     * @return the quotient in (1/2, 2) in Q127 or null if the errors are too large
+     */
+    private static Fixed divide(Fixed a, Fixed b) {
+        if (((a.error | b.error) >>> 58) != 0) return null;
+        // y = 2^62 / b and q = 2^61 a / b
+        long y = (long) (0x1p62 / ((b.hi >>> 11) * 0x1p-52));
+        long t = LongMath.unsignedMultiplyHigh(b.hi, y);
+        y += Math.multiplyHigh(y, ((1L << 61) - t) << 3);
+        long q = LongMath.unsignedMultiplyHigh(a.hi, y);
+
+        // b q in Q127
+        long p0 = b.lo * q;
+        long m1 = LongMath.unsignedMultiplyHigh(b.lo, q);
+        long p1 = m1 + b.hi * q;
+        long p2 = LongMath.unsignedMultiplyHigh(b.hi, q) + (Long.compareUnsigned(p1, m1) < 0 ? 1 : 0);
+        long sHi = (p2 << 3) | (p1 >>> 61), sLo = (p1 << 3) | (p0 >>> 61);
+        // The remainder is below 2^70 units, so its top bits fit in a long
+        long remainderLo = a.lo - sLo;
+        long remainderHi = a.hi - sHi - (Long.compareUnsigned(a.lo, sLo) < 0 ? 1 : 0);
+        long correction = Math.multiplyHigh((remainderHi << 56) | (remainderLo >>> 8), y);
+
+        Fixed result = new Fixed(q << 2, 0, a.exponent - b.exponent - 127, 2 * (a.error + b.error) + (1L << 12));
+        result.add(correction >> 54, correction << 10);
+        return result;
+    }
+
+    // An intermediate value (-1)^negative * hi:lo * 2^exponent within error units of lo
+    private static final class Fixed {
+        boolean negative;
+        long hi, lo;
+        int exponent;
+        long error;
+
+        Fixed(long hi, long lo, int exponent, long error) {
+            this.hi = hi;
+            this.lo = lo;
+            this.exponent = exponent;
+            this.error = error;
+        }
+
+        void add(long bHi, long bLo) {
+            long sum = lo + bLo;
+            hi = hi + bHi + (Long.compareUnsigned(sum, lo) < 0 ? 1 : 0);
+            lo = sum;
+        }
+
+        void subtract(long bHi, long bLo) {
+            long difference = lo - bLo;
+            hi = hi - bHi - (Long.compareUnsigned(lo, bLo) < 0 ? 1 : 0);
+            lo = difference;
+        }
+
+        // Replaces hi:lo with b - hi:lo
+        void subtractFrom(long bHi, long bLo) {
+            long difference = bLo - lo;
+            hi = bHi - hi - (Long.compareUnsigned(bLo, lo) < 0 ? 1 : 0);
+            lo = difference;
+        }
+
+        // Adds or subtracts a * b / 2^127
+        void addProduct(boolean subtract, long aHi, long aLo, long bHi, long bLo) {
+            long pHi = LongMath.multiplyHighHi(aHi, aLo, bHi, bLo), pLo = LongMath.multiplyHighLo(aHi, aLo, bHi, bLo);
+            pHi = (pHi << 1) | (pLo >>> 63);
+            pLo <<= 1;
+            if (subtract) {
+                subtract(pHi, pLo);
+            } else {
+                add(pHi, pLo);
+            }
+        }
+
+        // Shifts the top bit into the top of hi, returns false if the value is zero or the error gets too large
+        boolean normalize() {
+            int lz = LongMath.numberOfLeadingZeros(hi, lo);
+            if (lz == 128 || (error != 0 && Long.numberOfLeadingZeros(error) <= lz + 1)) return false;
+            hi = LongMath.shiftLeftHi(hi, lo, lz);
+            lo = LongMath.shiftLeftLo(lo, lz);
+            exponent -= lz;
+            error <<= lz;
+            return true;
+        }
+    }
+
+    // Bits of 2/pi after the point, most significant word first
+    private static final long[] TWO_OVER_PI = new long[20];
+    // pi, pi/2 and 3pi/4 in Q126
+    private static final long PI_HI, PI_LO, HALF_PI_HI, HALF_PI_LO, THREE_QUARTER_PI_HI, THREE_QUARTER_PI_LO;
+    // sin(j/64) and cos(j/64) for j in [0, 52) in Q127 as pairs of words
+    private static final long[] SIN_TABLE = new long[2 * 52], COS_TABLE = new long[2 * 52];
+    // atan(j/64) for j in [0, 64] in Q127 as pairs of words
+    private static final long[] ATAN_TABLE = new long[2 * 65];
+    // Coefficients of (x - sin(x)) / x^3, (1 - cos(x)) / x^2 and (x - atan(x)) / x^3 as polynomials in x^2 in Q63
+    private static final long[] SIN_POLY = new long[6], COS_POLY = new long[6], ATAN_POLY = new long[7];
+
+    static {
+        int bits = 1536;
+        BigInteger pi = Exponentials.fixed(ExactFloat.pi(bits), bits);
+        BigInteger c = BigInteger.ONE.shiftLeft(64 * TWO_OVER_PI.length + 1 + bits).divide(pi);
+        for (int i = 0; i < TWO_OVER_PI.length; i++) {
+            TWO_OVER_PI[i] = c.shiftRight(64 * (TWO_OVER_PI.length - 1 - i)).longValue();
+        }
+        c = pi.shiftRight(bits - 126);
+        PI_HI = c.shiftRight(64).longValue();
+        PI_LO = c.longValue();
+        c = pi.shiftRight(bits - 125);
+        HALF_PI_HI = c.shiftRight(64).longValue();
+        HALF_PI_LO = c.longValue();
+        c = pi.multiply(BigInteger.valueOf(3)).shiftRight(bits - 124);
+        THREE_QUARTER_PI_HI = c.shiftRight(64).longValue();
+        THREE_QUARTER_PI_LO = c.longValue();
+
+        for (int j = 1; j < 65; j++) {
+            ExactFloat a = new ExactFloat(false, -6, BigInteger.valueOf(j));
+            if (j < 52) {
+                c = Exponentials.fixed(a.sin(256), 127);
+                SIN_TABLE[2 * j] = c.shiftRight(64).longValue();
+                SIN_TABLE[2 * j + 1] = c.longValue();
+                c = Exponentials.fixed(a.cos(256), 127);
+                COS_TABLE[2 * j] = c.shiftRight(64).longValue();
+                COS_TABLE[2 * j + 1] = c.longValue();
+            }
+            c = Exponentials.fixed(a.atan(256), 127);
+            ATAN_TABLE[2 * j] = c.shiftRight(64).longValue();
+            ATAN_TABLE[2 * j + 1] = c.longValue();
+        }
+        BigInteger factorial = BigInteger.ONE;
+        for (int k = 2; k < 2 * SIN_POLY.length + 2; k++) {
+            factorial = factorial.multiply(BigInteger.valueOf(k));
+            long coefficient = BigInteger.ONE.shiftLeft(63).divide(factorial).longValueExact();
+            if (k % 2 == 0) {
+                COS_POLY[k / 2 - 1] = (k % 4 == 2) ? coefficient : -coefficient;
+            } else {
+                SIN_POLY[k / 2 - 1] = (k % 4 == 3) ? coefficient : -coefficient;
+            }
+        }
+        for (int i = 0; i < ATAN_POLY.length; i++) {
+            long coefficient = Long.MAX_VALUE / (2 * i + 3);
+            ATAN_POLY[i] = (i % 2 == 0) ? coefficient : -coefficient;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package jsoftfloat.types;
+
+import jsoftfloat.Environment;
+import jsoftfloat.internal.BinaryFormat;
+import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.operations.Formatting;
+
+/**
+ * Represents the bfloat16 format, which is the top half of a Binary32: the same exponent range with 8 bits of
+ * precision
+ */
+public class BFloat16 extends Floating<BFloat16> {
+    public static final BFloat16 Zero = new BFloat16(0),
+            NegativeZero = new BFloat16(0x8000),
+            NaN = new BFloat16(0x7FC0),
+            Infinity = new BFloat16(0x7F80),
+            NegativeInfinity = new BFloat16(0xFF80);
+
+    public final short bits;
+
+    /**
+     * @param bits the raw bits in the low 16 bits
+     */
+    public BFloat16(int bits) {
+        this.bits = (short) bits;
+    }
+
+    public BFloat16(boolean sign, int exponent, int significand) {
+        this(((sign) ? 0x8000 : 0) | (((exponent + 127) & 0xFF) << 7) | (significand & 0x007F));
+    }
+
+    public int exponent() {
+        return ((bits >>> 7) & 0xFF) - 127;
+    }
+
+    public BFloat16 negate() {
+        return new BFloat16(bits ^ 0x8000); // Flip the sign bit
+    }
+
+    @Override
+    public BFloat16 nextUp() {
+        return new BFloat16((int) BinaryFormat.nextUp(bits & 0xFFFF, sigbits, expbits));
+    }
+
+    public BFloat16 abs() {
+        return new BFloat16(bits & 0x7FFF);
+    }
+
+    public BFloat16 copySign(BFloat16 signToTake) {
+        return new BFloat16((bits & 0x7FFF) | (signToTake.bits & 0x8000));
+    }
+
+    public boolean isSignMinus() {
+        return bits < 0;
+    }
+
+    public boolean isInfinite() {
+        return (bits & 0x7FFF) == 0x7F80;
+    }
+
+    public boolean isNormal() {
+        return exponent() != -127 && exponent() != 128;
+    }
+
+    public boolean isSubnormal() {
+        return exponent() == -127 && !isZero();
+    }
+
+    public boolean isNaN() {
+        return (bits & 0x7FFF) > 0x7F80;
+    }
+
+    // Section 6.2.1
+    public boolean isSignalling() {
+        return isNaN() && (bits & 0x0040) == 0;
+    }
+
+    public boolean isCanonical() {
+        return true;
+    }
+
+    public boolean isZero() {
+        return (bits & 0x7FFF) == 0;
+    }
+
+    @Override
+    public BFloat16 NaN() {
+        return NaN;
+    }
+
+    @Override
+    public BFloat16 Zero() {
+        return Zero;
+    }
+
+    @Override
+    public BFloat16 NegativeZero() {
+        return NegativeZero;
+    }
+
+    @Override
+    public BFloat16 Infinity() {
+        return Infinity;
+    }
+
+    @Override
+    public BFloat16 NegativeInfinity() {
+        return NegativeInfinity;
+    }
+
+    // The format for BinaryFormat, as constants so that its methods are specialized for bfloat16 once inlined
+    private static final int sigbits = 7, expbits = 8;
+
+    @Override
+    public BFloat16 fromExactFloat(ExactFloat ef, Environment env) {
+        return new BFloat16((int) BinaryFormat.fromExactFloat(ef, sigbits, expbits, env));
+    }
+
+    public static BFloat16 fromExact(ExactFloat ef, Environment e) {
+        return Zero.fromExactFloat(ef, e);
+    }
+
+    @Override
+    public ExactFloat toExactFloat() {
+        return BinaryFormat.toExactFloat(bits & 0xFFFF, sigbits, expbits);
+    }
+
+    /**
+     * @return the shortest decimal representation which converts back to this float
+     */
+    @Override
+    public String toString() {
+        return Formatting.toString(this);
+    }
+
+    @Override
+    public int maxPrecision() {
+        return 16;
+    }
+}
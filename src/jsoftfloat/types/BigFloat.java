@@ -0,0 +1,475 @@
+package jsoftfloat.types;
+
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryRounding;
+import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.internal.LimbPool;
+import jsoftfloat.internal.Limbs;
+import jsoftfloat.operations.Formatting;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * A mutable binary float with a precision and exponent range chosen when it is created, in the style of MPFR
+ * <p>
+ * The significand is kept in ceil(precision / 64) limbs, left aligned so that the top bit of the top limb is the
+ * leading bit. Operations write their result, rounded in the mode of the environment, into the float they are called
+ * on, which may also be one of the operands. Values below the normal range are subnormal like in the IEEE formats, so
+ * {@code BigFloat.ofFormat(52, 11, pool)} rounds exactly like Float64.
+ * <p>
+ * Intermediate results are built in buffers from a LimbPool, so after the first few operations nothing is allocated.
+ * NaNs have no payload and are always quiet.
+ */
+public final class BigFloat {
+    private static final int ZERO = 0, FINITE = 1, INFINITE = 2, NAN = 3;
+    // Just the leading bit, which stands in for an operand that only matters as a sticky bit
+    private static final long[] LEADING = {0x80000000_00000000L};
+
+    /**
+     * The number of significand bits
+     */
+    public final int precision;
+    /**
+     * The exponents of the smallest normal and the largest finite numbers
+     */
+    public final int minExponent, maxExponent;
+    private final LimbPool pool;
+    private final long[] limbs;
+    private boolean sign;
+    private int kind;
+    // The exponent of the leading bit
+    private int exponent;
+
+    /**
+     * Creates a positive zero
+     *
+     * @param precision   the number of significand bits
+     * @param minExponent the exponent of the smallest normal number, results below it are subnormal
+     * @param maxExponent the exponent of the largest finite numbers
+     * @param pool        where the scratch space of operations on this float comes from
+     */
+    public BigFloat(int precision, int minExponent, int maxExponent, LimbPool pool) {
+        assert precision > 0 && minExponent <= maxExponent : "The precision must be positive and the range non-empty";
+        this.precision = precision;
+        this.minExponent = minExponent;
+        this.maxExponent = maxExponent;
+        this.pool = pool;
+        limbs = new long[(precision + 63) >>> 6];
+    }
+
+    /**
+     * Creates a positive zero with an exponent range so wide that it is practically unbounded
+     */
+    public BigFloat(int precision, LimbPool pool) {
+        this(precision, -(1 << 30), 1 << 30, pool);
+    }
+
+    public BigFloat(int precision) {
+        this(precision, new LimbPool());
+    }
+
+    /**
+     * Creates a positive zero which rounds like the binary interchange format with these parameters
+     *
+     * @param sigbits the number of explicitly stored significand bits
+     * @param expbits the number of exponent bits
+     */
+    public static BigFloat ofFormat(int sigbits, int expbits, LimbPool pool) {
+        int bias = (1 << (expbits - 1)) - 1;
+        return new BigFloat(sigbits + 1, 1 - bias, bias, pool);
+    }
+
+    public boolean isNaN() {
+        return kind == NAN;
+    }
+
+    public boolean isInfinite() {
+        return kind == INFINITE;
+    }
+
+    public boolean isZero() {
+        return kind == ZERO;
+    }
+
+    public boolean isSignMinus() {
+        return sign;
+    }
+
+    /**
+     * @return the exponent of the leading bit of a finite, non-zero value
+     */
+    public int exponent() {
+        return exponent;
+    }
+
+    /**
+     * Flips the sign, which is always exact
+     */
+    public BigFloat negate() {
+        sign = !sign;
+        return this;
+    }
+
+    /**
+     * Sets this to other, rounded to the precision of this
+     */
+    public BigFloat set(BigFloat other, Environment env) {
+        if (other.kind != FINITE) {
+            return setSpecial(other.kind, other.sign);
+        }
+        int n = other.limbs.length;
+        long[] m = pool.take(n);
+        System.arraycopy(other.limbs, 0, m, 0, n);
+        round(other.sign, m, n, other.lsbExponent(), false, env);
+        pool.give(m);
+        return this;
+    }
+
+    public BigFloat set(ExactFloat ef, Environment env) {
+        if (ef.isZero()) {
+            return setSpecial(ZERO, ef.sign);
+        }
+        byte[] bytes = ef.significand.toByteArray();
+        int n = (bytes.length + 7) >>> 3;
+        long[] m = pool.take(n);
+        for (int i = 0; i < bytes.length; i++) {
+            m[i >>> 3] |= (bytes[bytes.length - 1 - i] & 0xFFL) << (8 * (i & 7));
+        }
+        round(ef.sign, m, n, ef.exponent, false, env);
+        pool.give(m);
+        return this;
+    }
+
+    /**
+     * Sets this to f, rounded to the precision of this. Signalling NaNs signal invalid.
+     */
+    public <T extends Floating<T>> BigFloat set(T f, Environment env) {
+        if (f.isNaN()) {
+            if (f.isSignalling()) env.flags.add(Flags.invalid);
+            return setSpecial(NAN, false);
+        }
+        if (f.isInfinite() || f.isZero()) {
+            return setSpecial(f.isInfinite() ? INFINITE : ZERO, f.isSignMinus());
+        }
+        return set(f.toExactFloat(), env);
+    }
+
+    public ExactFloat toExactFloat() {
+        assert kind == FINITE : "Only finite, non-zero values are exact";
+        byte[] magnitude = new byte[8 * limbs.length];
+        for (int i = 0; i < magnitude.length; i++) {
+            magnitude[magnitude.length - 1 - i] = (byte) (limbs[i >>> 3] >>> (8 * (i & 7)));
+        }
+        return new ExactFloat(sign, (int) lsbExponent(), new BigInteger(1, magnitude));
+    }
+
+    /**
+     * Rounds this to another format
+     *
+     * @param helper any value of the format
+     */
+    public <T extends Floating<T>> T toFloating(T helper, Environment env) {
+        switch (kind) {
+            case NAN:
+                return helper.NaN();
+            case INFINITE:
+                return sign ? helper.NegativeInfinity() : helper.Infinity();
+            case ZERO:
+                return sign ? helper.NegativeZero() : helper.Zero();
+            default:
+                return helper.fromExactFloat(toExactFloat(), env);
+        }
+    }
+
+    /**
+     * Sets this to a + b
+     */
+    public BigFloat add(BigFloat a, BigFloat b, Environment env) {
+        return add(a, b, b.sign, env);
+    }
+
+    /**
+     * Sets this to a - b
+     */
+    public BigFloat subtract(BigFloat a, BigFloat b, Environment env) {
+        return add(a, b, !b.sign, env);
+    }
+
+    // Adds a to b with its sign replaced by bSign
+    private BigFloat add(BigFloat a, BigFloat b, boolean bSign, Environment env) {
+        boolean aSign = a.sign;
+        // Section 6.2
+        if (a.kind == NAN || b.kind == NAN) {
+            return setSpecial(NAN, false);
+        }
+        if (a.kind == INFINITE || b.kind == INFINITE) {
+            // Section 7.2
+            if (a.kind == b.kind && aSign != bSign) {
+                env.flags.add(Flags.invalid);
+                return setSpecial(NAN, false);
+            }
+            // Section 6.1
+            return setSpecial(INFINITE, a.kind == INFINITE ? aSign : bSign);
+        }
+        if (a.kind == ZERO && b.kind == ZERO) {
+            // Section 6.3
+            return setSpecial(ZERO, aSign == bSign ? aSign : env.mode == RoundingMode.min);
+        }
+        if (a.kind == ZERO) return set(b, env).setSign(bSign);
+        if (b.kind == ZERO) return set(a, env);
+
+        if (a.exponent < b.exponent) {
+            BigFloat t = a;
+            a = b;
+            b = t;
+            aSign = bSign;
+            bSign = t.sign;
+        }
+        long aLsb = a.lsbExponent(), bLsb = b.lsbExponent(), bTop = b.exponent;
+        long[] bLimbs = b.limbs;
+        // Below the cutoff b can't change the rounding, or the 64 bits stochastic rounding uses, so it only needs to
+        // be a single bit well below the rest
+        long cutoff = Math.min(aLsb, (long) a.exponent - precision - 66);
+        boolean sticky = bTop < cutoff - 2;
+        if (sticky) {
+            bLimbs = LEADING;
+            bLsb = cutoff - 3 - 63;
+        }
+        long lsb = Math.min(aLsb, bLsb);
+        // One more bit for the carry
+        int len = (int) ((a.exponent + 2 - lsb + 63) >>> 6);
+        long[] x = pool.take(len), y = pool.take(len);
+        Limbs.orShifted(x, len, a.limbs, a.limbs.length, aLsb - lsb);
+        Limbs.orShifted(y, len, bLimbs, bLimbs.length, bLsb - lsb);
+        boolean sign = aSign;
+        if (aSign == bSign) {
+            Limbs.add(x, 0, y, len);
+        } else if (Limbs.subtract(x, 0, y, len) != 0) {
+            Limbs.negate(x, len);
+            sign = bSign;
+        }
+        if (Limbs.isZero(x, len)) {
+            // Only x + (-x) can cancel exactly
+            setSpecial(ZERO, env.mode == RoundingMode.min);
+        } else {
+            round(sign, x, len, lsb, sticky, env);
+        }
+        pool.give(y);
+        pool.give(x);
+        return this;
+    }
+
+    /**
+     * Sets this to a * b
+     */
+    public BigFloat multiply(BigFloat a, BigFloat b, Environment env) {
+        boolean sign = a.sign != b.sign;
+        if (a.kind == NAN || b.kind == NAN) {
+            return setSpecial(NAN, false);
+        }
+        if (a.kind == INFINITE || b.kind == INFINITE) {
+            // Section 7.2
+            if (a.kind == ZERO || b.kind == ZERO) {
+                env.flags.add(Flags.invalid);
+                return setSpecial(NAN, false);
+            }
+            return setSpecial(INFINITE, sign);
+        }
+        if (a.kind == ZERO || b.kind == ZERO) {
+            return setSpecial(ZERO, sign);
+        }
+        int na = a.limbs.length, nb = b.limbs.length;
+        long[] product = pool.take(na + nb);
+        Limbs.multiply(a.limbs, na, b.limbs, nb, product);
+        round(sign, product, na + nb, a.lsbExponent() + b.lsbExponent(), false, env);
+        pool.give(product);
+        return this;
+    }
+
+    /**
+     * Sets this to a / b
+     */
+    public BigFloat divide(BigFloat a, BigFloat b, Environment env) {
+        boolean sign = a.sign != b.sign;
+        if (a.kind == NAN || b.kind == NAN) {
+            return setSpecial(NAN, false);
+        }
+        // Section 7.2
+        if (a.kind == b.kind && (a.kind == ZERO || a.kind == INFINITE)) {
+            env.flags.add(Flags.invalid);
+            return setSpecial(NAN, false);
+        }
+        // Section 6.1
+        if (a.kind == INFINITE || b.kind == INFINITE || a.kind == ZERO) {
+            return setSpecial(a.kind == INFINITE ? INFINITE : ZERO, sign);
+        }
+        // Section 7.3
+        if (b.kind == ZERO) {
+            env.flags.add(Flags.divByZero);
+            return setSpecial(INFINITE, sign);
+        }
+        // Shift a by enough limbs that the quotient has 66 more bits than the result, so that the remainder is only
+        // needed as a sticky bit
+        int na = a.limbs.length, nb = b.limbs.length;
+        int shift = Math.max(0, (precision + 66 + 63) / 64 + nb - na);
+        int uLen = na + shift + 1;
+        long[] u = pool.take(uLen), q = pool.take(uLen - nb);
+        System.arraycopy(a.limbs, 0, u, shift, na);
+        Limbs.divide(u, uLen, b.limbs, nb, q);
+        boolean sticky = !Limbs.isZero(u, nb);
+        round(sign, q, uLen - nb, a.lsbExponent() - 64L * shift - b.lsbExponent(), sticky, env);
+        pool.give(q);
+        pool.give(u);
+        return this;
+    }
+
+    /**
+     * Sets this to the square root of a
+     */
+    public BigFloat squareRoot(BigFloat a, Environment env) {
+        if (a.kind == NAN) {
+            return setSpecial(NAN, false);
+        }
+        // Section 6.3
+        if (a.kind == ZERO) {
+            return setSpecial(ZERO, a.sign);
+        }
+        // Section 7.2
+        if (a.sign) {
+            env.flags.add(Flags.invalid);
+            return setSpecial(NAN, false);
+        }
+        if (a.kind == INFINITE) {
+            return setSpecial(INFINITE, false);
+        }
+        // The significand times 2^shift, with an even exponent and enough bits that its integer root has 66 more bits
+        // than the result
+        int na = a.limbs.length;
+        long shift = Math.max(0, 2L * (precision + 66) - 64L * na);
+        if (((a.lsbExponent() - shift) & 1) != 0) shift++;
+        int nLen = (int) ((64L * na + shift + 63) >>> 6), rLen = nLen / 2 + 4;
+        long[] n = pool.take(nLen), root = pool.take(rLen);
+        Limbs.orShifted(n, nLen, a.limbs, na, shift);
+        boolean sticky = Limbs.squareRoot(n, nLen, root, rLen, pool);
+        round(false, root, rLen, (a.lsbExponent() - shift) / 2, sticky, env);
+        pool.give(root);
+        pool.give(n);
+        return this;
+    }
+
+    // The exponent of the lowest bit of the limbs
+    private long lsbExponent() {
+        return exponent - (64L * limbs.length - 1);
+    }
+
+    private BigFloat setSign(boolean sign) {
+        this.sign = sign;
+        return this;
+    }
+
+    private BigFloat setSpecial(int kind, boolean sign) {
+        this.kind = kind;
+        this.sign = sign;
+        return this;
+    }
+
+    /**
+     * Rounds (-1)^sign * (m + f) * 2^lsbExponent into this, where 0 &lt; f &lt; 1 if sticky and f = 0 otherwise
+     * <p>
+     * This is BinaryRounding.round for a significand of any length. If sticky is set, m needs at least 66 bits below
+     * the lowest bit that is kept so that the fraction is known to 64 bits.
+     */
+    private void round(boolean sign, long[] m, int len, long lsbExponent, boolean sticky, Environment env) {
+        long length = Limbs.bitLength(m, len);
+        assert length > 0 : "Zeros should be handled explicitly";
+        long top = lsbExponent + length - 1;
+        if (top > maxExponent) {
+            overflow(sign, env);
+            return;
+        }
+
+        // The exponent of the lowest bit which is kept and its index in m
+        long lsb = Math.max(top, minExponent) - (precision - 1);
+        long shift = lsb - lsbExponent;
+        boolean half = Limbs.testBit(m, len, shift - 1);
+        boolean rest = sticky || Limbs.anyBelow(m, len, shift - 1);
+        int n = limbs.length;
+        long kept = length - shift;
+        Arrays.fill(limbs, 0);
+        if (kept > 0) {
+            Limbs.orShifted(limbs, n, m, len, 64L * n - length);
+            Limbs.clearBelow(limbs, n, 64L * n - kept);
+        }
+        this.kind = FINITE;
+        this.sign = sign;
+        this.exponent = (int) top;
+        if (!half && !rest) {
+            return;
+        }
+
+        env.flags.add(Flags.inexact);
+        // Section 7.5
+        if (top < minExponent) {
+            env.flags.add(Flags.underflow);
+        }
+        boolean away;
+        if (env.mode == RoundingMode.stochastic) {
+            away = BinaryRounding.roundAwayStochastic(Limbs.bits(m, len, shift - 64),
+                    sticky || Limbs.anyBelow(m, len, shift - 64), env);
+        } else {
+            away = BinaryRounding.roundAway(sign, Limbs.testBit(m, len, shift), half, rest, env);
+        }
+        if (!away) {
+            if (kept <= 0) kind = ZERO;
+            return;
+        }
+        if (kept <= 0) {
+            // Everything was below the lowest bit, which it rounded up to
+            limbs[n - 1] = 0x80000000_00000000L;
+            exponent = (int) lsb;
+            return;
+        }
+        // Add one at the lowest kept bit, which only carries out of the top if all kept bits were set
+        long bit = 64L * n - kept;
+        int i = (int) (bit >>> 6);
+        long before = limbs[i];
+        limbs[i] += 1L << (bit & 63);
+        boolean carry = Long.compareUnsigned(limbs[i], before) < 0;
+        while (carry && ++i < n) {
+            carry = ++limbs[i] == 0;
+        }
+        if (carry) {
+            limbs[n - 1] = 0x80000000_00000000L;
+            if (++exponent > maxExponent) {
+                overflow(sign, env);
+            }
+        }
+    }
+
+    // Section 7.4
+    private void overflow(boolean sign, Environment env) {
+        env.flags.add(Flags.overflow);
+        env.flags.add(Flags.inexact);
+        if (env.mode == RoundingMode.stochastic || BinaryRounding.roundAway(sign, true, true, true, env)) {
+            setSpecial(INFINITE, sign);
+        } else {
+            // Largest finite number
+            Arrays.fill(limbs, -1);
+            Limbs.clearBelow(limbs, limbs.length, 64L * limbs.length - precision);
+            kind = FINITE;
+            this.sign = sign;
+            exponent = maxExponent;
+        }
+    }
+
+    /**
+     * @return the value to enough significant digits to tell it apart from its neighbours
+     */
+    @Override
+    public String toString() {
+        return Formatting.toString(this);
+    }
+}
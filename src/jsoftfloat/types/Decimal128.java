@@ -0,0 +1,314 @@
+package jsoftfloat.types;
+
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryRounding;
+import jsoftfloat.internal.Limbs;
+import jsoftfloat.operations.Formatting;
+
+import static jsoftfloat.internal.PowersOfTen.*;
+
+/**
+ * Represents the IEEE 754 decimal128 format with the binary integer decimal (BID) encoding: 34 digits of coefficient
+ * and exponents from -6176 to 6111 for the last digit
+ * <p>
+ * The coefficient takes 113 bits, so unlike decimal64 the encodings with an implied 100 at the top of the coefficient
+ * are never canonical and read as zero. See Decimal64 for how exponents are chosen.
+ */
+public final class Decimal128 {
+    public static final int precision = 34, minExponent = -6176, maxExponent = 6111;
+    private static final int bias = 6176;
+    // 10^34 - 1
+    private static final long MAX_HI = 0x1ED09_BEAD87C0L, MAX_LO = 0x378D8E63_FFFFFFFFL, SIGN = 0x80000000_00000000L;
+
+    public static final Decimal128 Zero = new Decimal128(false, 0, 0, 0),
+            NegativeZero = new Decimal128(true, 0, 0, 0),
+            NaN = new Decimal128(0x7C000000_00000000L, 0),
+            Infinity = new Decimal128(0x78000000_00000000L, 0),
+            NegativeInfinity = new Decimal128(0xF8000000_00000000L, 0);
+
+    /**
+     * The high and low words of the encoding
+     */
+    public final long hi, lo;
+
+    public Decimal128(long hi, long lo) {
+        this.hi = hi;
+        this.lo = lo;
+    }
+
+    /**
+     * @param coefficientHi the high word of a coefficient of at most 34 digits
+     * @param exponent      the exponent of the last digit of the coefficient, from -6176 to 6111
+     */
+    public Decimal128(boolean sign, long coefficientHi, long coefficientLo, int exponent) {
+        this(encode(sign, coefficientHi, coefficientLo, exponent), coefficientLo);
+    }
+
+    private static long encode(boolean sign, long coefficientHi, long coefficientLo, int exponent) {
+        assert !greaterThanMax(coefficientHi, coefficientLo) : "The coefficient has too many digits";
+        assert exponent >= minExponent && exponent <= maxExponent : "The exponent is out of range";
+        return (sign ? SIGN : 0) | (long) (exponent + bias) << 49 | coefficientHi;
+    }
+
+    private static boolean greaterThanMax(long hi, long lo) {
+        return hi != MAX_HI ? Long.compareUnsigned(hi, MAX_HI) > 0 : Long.compareUnsigned(lo, MAX_LO) > 0;
+    }
+
+    private boolean isCanonicalCoefficient() {
+        return (hi & 0x60000000_00000000L) != 0x60000000_00000000L && !greaterThanMax(hi & 0x1FFFF_FFFFFFFFL, lo);
+    }
+
+    /**
+     * @return the high word of the coefficient of a finite value
+     */
+    public long coefficientHi() {
+        return isCanonicalCoefficient() ? hi & 0x1FFFF_FFFFFFFFL : 0;
+    }
+
+    /**
+     * @return the low word of the coefficient of a finite value
+     */
+    public long coefficientLo() {
+        return isCanonicalCoefficient() ? lo : 0;
+    }
+
+    /**
+     * @return the exponent of the last digit of the coefficient of a finite value
+     */
+    public int exponent() {
+        boolean large = (hi & 0x60000000_00000000L) == 0x60000000_00000000L;
+        return ((int) (large ? hi >>> 47 : hi >>> 49) & 0x3FFF) - bias;
+    }
+
+    public Decimal128 negate() {
+        return new Decimal128(hi ^ SIGN, lo);
+    }
+
+    public Decimal128 abs() {
+        return new Decimal128(hi & ~SIGN, lo);
+    }
+
+    public boolean isSignMinus() {
+        return hi < 0;
+    }
+
+    public boolean isInfinite() {
+        return (hi & 0x7C000000_00000000L) == 0x78000000_00000000L;
+    }
+
+    public boolean isNaN() {
+        return (hi & 0x7C000000_00000000L) == 0x7C000000_00000000L;
+    }
+
+    public boolean isSignalling() {
+        return (hi & 0x7E000000_00000000L) == 0x7E000000_00000000L;
+    }
+
+    public boolean isFinite() {
+        return (hi & 0x78000000_00000000L) != 0x78000000_00000000L;
+    }
+
+    public boolean isZero() {
+        return isFinite() && coefficientHi() == 0 && coefficientLo() == 0;
+    }
+
+    /**
+     * @return whether the value is finite and its adjusted exponent is at least -6143
+     */
+    public boolean isNormal() {
+        int digits = digits(coefficientHi(), coefficientLo());
+        return isFinite() && digits != 0 && exponent() + digits - 1 >= minExponent + precision - 1;
+    }
+
+    public boolean isSubnormal() {
+        return isFinite() && !isZero() && !isNormal();
+    }
+
+    /**
+     * @return whether the exponents are the same, or both are infinite or NaN (Section 5.7.3)
+     */
+    public boolean sameQuantum(Decimal128 other) {
+        if (!isFinite() || !other.isFinite()) {
+            return isNaN() == other.isNaN() && isInfinite() == other.isInfinite();
+        }
+        return exponent() == other.exponent();
+    }
+
+    /**
+     * @return the NaN with the payload of this one and the quiet bit set
+     */
+    public Decimal128 quiet() {
+        return new Decimal128(hi & ~0x02000000_00000000L, lo);
+    }
+
+    /**
+     * Rounds (-1)^sign * (c[0, len) + f) * 10^exponent to 34 digits with the exponent range of the format, where
+     * 0 &lt; f &lt; 1 if sticky and f = 0 otherwise, like {@link Decimal64#round}
+     *
+     * @param c      a coefficient below 10^77
+     * @param sticky whether there are non-zero digits below the coefficient, which then needs more than 34 digits
+     * @param ideal  the exponent Section 5.2 prefers for exact results
+     */
+    public static Decimal128 round(boolean sign, long[] c, int len, int exponent, boolean sticky, int ideal, Environment env) {
+        int digits = digits(c, len);
+        if (digits == 0) {
+            assert !sticky : "The coefficient needs to be non-zero if there are digits below it";
+            return new Decimal128(sign, 0, 0, Math.max(minExponent, Math.min(ideal, maxExponent)));
+        }
+        // Digits to drop to fit in the precision and to stay above the smallest exponent
+        long drop = Math.max(digits - precision, (long) minExponent - exponent);
+        if (drop <= 0) {
+            assert !sticky : "The coefficient needs more digits than the precision if there are digits below it";
+            return exact(sign, new long[]{c[0], len > 1 ? c[1] : 0}, exponent, ideal, env);
+        }
+        // Section 7.5
+        boolean tiny = exponent + digits - 1 < minExponent + precision - 1;
+        long[] kept = new long[2];
+        boolean inexact = roundDigits(sign, c, len, digits, drop, sticky, tiny, kept, env);
+        int keptExponent = (int) (exponent + drop);
+        if (!inexact) {
+            return exact(sign, kept, keptExponent, ideal, env);
+        }
+        if (greaterThanMax(kept[1], kept[0])) {
+            long[] power = pow10Limbs(precision - 1);
+            kept[0] = power[0];
+            kept[1] = power[1];
+            keptExponent++;
+        }
+        if (keptExponent > maxExponent) {
+            return overflow(sign, env);
+        }
+        return new Decimal128(sign, kept[1], kept[0], keptExponent);
+    }
+
+    /**
+     * Rounds (c + f) / 10^drop to an integer of at most two limbs, signalling inexact and, if tiny, underflow
+     *
+     * @param digits the number of digits of c, which is non-zero
+     * @param kept   where the rounded quotient goes
+     * @return whether it is inexact
+     */
+    private static boolean roundDigits(boolean sign, long[] c, int len, int digits, long drop, boolean sticky, boolean tiny, long[] kept, Environment env) {
+        // Divide c * 2^64 by 10^drop, so that the lowest limb is the dropped fraction
+        long[] w = new long[len + 1];
+        boolean below = sticky;
+        if (drop > digits + 20) {
+            // Even the fraction is zero
+            below = true;
+        } else {
+            System.arraycopy(c, 0, w, 1, len);
+            for (int n = (int) drop; n > 0; n -= 19) {
+                below |= Limbs.divide(w, len + 1, pow10(Math.min(n, 19))) != 0;
+            }
+        }
+        assert Limbs.isZero(w, len + 1) || Limbs.bitLength(w, len + 1) <= 192 : "The kept digits fit in two limbs";
+        kept[0] = w[1];
+        kept[1] = len > 1 ? w[2] : 0;
+        long fraction = w[0];
+        boolean half = fraction < 0, rest = (fraction << 1) != 0 || below;
+        if (!half && !rest) {
+            return false;
+        }
+        env.flags.add(Flags.inexact);
+        if (tiny) {
+            env.flags.add(Flags.underflow);
+        }
+        boolean away = env.mode == RoundingMode.stochastic ? BinaryRounding.roundAwayStochastic(fraction, below, env)
+                : BinaryRounding.roundAway(sign, (kept[0] & 1) != 0, half, rest, env);
+        if (away && ++kept[0] == 0) {
+            kept[1]++;
+        }
+        return true;
+    }
+
+    /**
+     * Rounds (-1)^sign * c * 10^exponent to a multiple of 10^target, which is quantize (Section 5.3.2) for finite
+     * operands. Results which need more than 34 digits are invalid.
+     *
+     * @param c the coefficient as two limbs
+     */
+    public static Decimal128 roundToExponent(boolean sign, long[] c, int exponent, int target, Environment env) {
+        int digits = digits(c, 2);
+        if (digits == 0) {
+            return new Decimal128(sign, 0, 0, target);
+        }
+        if (exponent >= target) {
+            int n = exponent - target;
+            if (n >= precision || digits + n > precision) {
+                env.flags.add(Flags.invalid);
+                return NaN;
+            }
+            long[] scaled = c.clone();
+            multiplyByPow10(scaled, n);
+            return new Decimal128(sign, scaled[1], scaled[0], target);
+        }
+        // Dropping at least one of at most 34 digits always leaves room to round up
+        long[] kept = new long[2];
+        roundDigits(sign, c, 2, digits, (long) target - exponent, false, false, kept, env);
+        return new Decimal128(sign, kept[1], kept[0], target);
+    }
+
+    /**
+     * Moves an exact coefficient of at most 34 digits as close to the ideal exponent as it can go
+     */
+    private static Decimal128 exact(boolean sign, long[] c, int exponent, int ideal, Environment env) {
+        ideal = Math.max(minExponent, Math.min(ideal, maxExponent));
+        int digits = digits(c, 2);
+        if (exponent > ideal) {
+            int n = Math.min(exponent - ideal, precision - digits);
+            multiplyByPow10(c, n);
+            exponent -= n;
+            digits += n;
+        } else {
+            long[] quotient = new long[2];
+            while (exponent < ideal) {
+                quotient[0] = c[0];
+                quotient[1] = c[1];
+                if (Limbs.divide(quotient, 2, 10) != 0) break;
+                c[0] = quotient[0];
+                c[1] = quotient[1];
+                exponent++;
+                digits--;
+            }
+        }
+        if (exponent > maxExponent) {
+            // Only representable if there is room to pad the coefficient with zeros
+            int n = exponent - maxExponent;
+            if (digits + n > precision) {
+                return overflow(sign, env);
+            }
+            multiplyByPow10(c, n);
+            exponent = maxExponent;
+        }
+        return new Decimal128(sign, c[1], c[0], exponent);
+    }
+
+    // Multiplies two limbs in place by 10^n, where the product has to fit
+    private static void multiplyByPow10(long[] c, int n) {
+        long[] power = pow10Limbs(n), product = new long[4];
+        Limbs.multiply(c, 2, power, 2, product);
+        c[0] = product[0];
+        c[1] = product[1];
+    }
+
+    // Section 7.4
+    private static Decimal128 overflow(boolean sign, Environment env) {
+        env.flags.add(Flags.overflow);
+        env.flags.add(Flags.inexact);
+        if (env.mode == RoundingMode.stochastic || BinaryRounding.roundAway(sign, true, true, true, env)) {
+            return sign ? NegativeInfinity : Infinity;
+        } else {
+            return new Decimal128(sign, MAX_HI, MAX_LO, maxExponent); // Largest finite number
+        }
+    }
+
+    /**
+     * @return the IEEE 754 character sequence for the value, which keeps its exponent
+     */
+    @Override
+    public String toString() {
+        return Formatting.toString(this);
+    }
+}
@@ -0,0 +1,291 @@
+package jsoftfloat.types;
+
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryRounding;
+import jsoftfloat.internal.LongMath;
+import jsoftfloat.operations.Formatting;
+
+import static jsoftfloat.internal.PowersOfTen.*;
+
+/**
+ * Represents the IEEE 754 decimal64 format with the binary integer decimal (BID) encoding: 16 digits of coefficient and
+ * exponents from -398 to 369 for the last digit
+ * <p>
+ * Decimal values are not exact binary fractions, so this doesn't extend Floating. A value has several encodings which
+ * differ in their exponent (its cohort, e.g. 1.0 and 1.00), and the operations in Arithmetic pick the exponent
+ * Section 5.2 prefers. Coefficients above 10^16 - 1 are not canonical and read as zero.
+ */
+public final class Decimal64 {
+    public static final int precision = 16, minExponent = -398, maxExponent = 369;
+    private static final int bias = 398;
+    private static final long MAX_COEFFICIENT = 9999999999999999L, SIGN = 0x80000000_00000000L;
+
+    public static final Decimal64 Zero = new Decimal64(false, 0, 0),
+            NegativeZero = new Decimal64(true, 0, 0),
+            NaN = new Decimal64(0x7C000000_00000000L),
+            Infinity = new Decimal64(0x78000000_00000000L),
+            NegativeInfinity = new Decimal64(0xF8000000_00000000L);
+
+    public final long bits;
+
+    public Decimal64(long bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * @param coefficient at most 16 digits
+     * @param exponent    the exponent of the last digit of the coefficient, from -398 to 369
+     */
+    public Decimal64(boolean sign, long coefficient, int exponent) {
+        this(encode(sign, coefficient, exponent));
+    }
+
+    private static long encode(boolean sign, long coefficient, int exponent) {
+        assert coefficient >= 0 && coefficient <= MAX_COEFFICIENT : "The coefficient has too many digits";
+        assert exponent >= minExponent && exponent <= maxExponent : "The exponent is out of range";
+        long biased = exponent + bias, signBit = sign ? SIGN : 0;
+        if (coefficient < 1L << 53) {
+            return signBit | biased << 53 | coefficient;
+        }
+        // Large coefficients have an implied 100 at their top, which frees two bits for the exponent
+        return signBit | 0x60000000_00000000L | biased << 51 | (coefficient & 0x7FFFF_FFFFFFFFL);
+    }
+
+    private boolean isLargeForm() {
+        return (bits & 0x60000000_00000000L) == 0x60000000_00000000L;
+    }
+
+    /**
+     * @return the coefficient of a finite value
+     */
+    public long coefficient() {
+        if (!isLargeForm()) {
+            return bits & 0x1FFFFF_FFFFFFFFL;
+        }
+        long coefficient = (bits & 0x7FFFF_FFFFFFFFL) | 1L << 53;
+        return coefficient > MAX_COEFFICIENT ? 0 : coefficient;
+    }
+
+    /**
+     * @return the exponent of the last digit of the coefficient of a finite value
+     */
+    public int exponent() {
+        return ((int) (isLargeForm() ? bits >>> 51 : bits >>> 53) & 0x3FF) - bias;
+    }
+
+    public Decimal64 negate() {
+        return new Decimal64(bits ^ SIGN);
+    }
+
+    public Decimal64 abs() {
+        return new Decimal64(bits & ~SIGN);
+    }
+
+    public boolean isSignMinus() {
+        return bits < 0;
+    }
+
+    public boolean isInfinite() {
+        return (bits & 0x7C000000_00000000L) == 0x78000000_00000000L;
+    }
+
+    public boolean isNaN() {
+        return (bits & 0x7C000000_00000000L) == 0x7C000000_00000000L;
+    }
+
+    public boolean isSignalling() {
+        return (bits & 0x7E000000_00000000L) == 0x7E000000_00000000L;
+    }
+
+    public boolean isFinite() {
+        return (bits & 0x78000000_00000000L) != 0x78000000_00000000L;
+    }
+
+    public boolean isZero() {
+        return isFinite() && coefficient() == 0;
+    }
+
+    /**
+     * @return whether the value is finite and its adjusted exponent is at least -383
+     */
+    public boolean isNormal() {
+        long coefficient = coefficient();
+        return isFinite() && coefficient != 0 && exponent() + digits(coefficient) - 1 >= minExponent + precision - 1;
+    }
+
+    public boolean isSubnormal() {
+        return isFinite() && !isZero() && !isNormal();
+    }
+
+    /**
+     * @return whether the exponents are the same, or both are infinite or NaN (Section 5.7.3)
+     */
+    public boolean sameQuantum(Decimal64 other) {
+        if (!isFinite() || !other.isFinite()) {
+            return isNaN() == other.isNaN() && isInfinite() == other.isInfinite();
+        }
+        return exponent() == other.exponent();
+    }
+
+    /**
+     * @return the NaN with the payload of this one and the quiet bit set
+     */
+    public Decimal64 quiet() {
+        return new Decimal64(bits & ~0x02000000_00000000L);
+    }
+
+    /**
+     * Rounds (-1)^sign * (hi:lo + f) * 10^exponent to 16 digits with the exponent range of the format, where
+     * 0 &lt; f &lt; 1 if sticky and f = 0 otherwise
+     * <p>
+     * This is the decimal BinaryRounding.round. An exact result takes the exponent closest to ideal, an inexact one has
+     * all 16 digits unless it is subnormal. Tininess is detected before rounding.
+     *
+     * @param sticky whether there are non-zero digits below the coefficient, which then needs more than 16 digits
+     * @param ideal  the exponent Section 5.2 prefers for exact results
+     */
+    public static Decimal64 round(boolean sign, long hi, long lo, int exponent, boolean sticky, int ideal, Environment env) {
+        int digits = digits(hi, lo);
+        if (digits == 0) {
+            assert !sticky : "The coefficient needs to be non-zero if there are digits below it";
+            return new Decimal64(sign, 0, Math.max(minExponent, Math.min(ideal, maxExponent)));
+        }
+        // Digits to drop to fit in the precision and to stay above the smallest exponent
+        long drop = Math.max(digits - precision, (long) minExponent - exponent);
+        if (drop <= 0) {
+            assert !sticky : "The coefficient needs more digits than the precision if there are digits below it";
+            return exact(sign, lo, exponent, ideal, env);
+        }
+        // Section 7.5
+        boolean tiny = exponent + digits - 1 < minExponent + precision - 1;
+        long kept = roundDigits(sign, hi, lo, digits, drop, sticky, tiny, env);
+        int keptExponent = (int) (exponent + drop);
+        if (kept >= 0) {
+            return exact(sign, kept, keptExponent, ideal, env);
+        }
+        kept = ~kept;
+        if (kept > MAX_COEFFICIENT) {
+            kept = pow10(precision - 1);
+            keptExponent++;
+        }
+        if (keptExponent > maxExponent) {
+            return overflow(sign, env);
+        }
+        return new Decimal64(sign, kept, keptExponent);
+    }
+
+    /**
+     * Rounds (hi:lo + f) / 10^drop to an integer which fits in a long, signalling inexact and, if tiny, underflow
+     *
+     * @param digits the number of digits of hi:lo, which is non-zero
+     * @return the rounded quotient, complemented if it is inexact
+     */
+    private static long roundDigits(boolean sign, long hi, long lo, int digits, long drop, boolean sticky, boolean tiny, Environment env) {
+        // Divide hi:lo * 2^64 by 10^drop, so that the low word is the dropped fraction
+        long w2 = hi, w1 = lo, w0 = 0;
+        boolean below = sticky;
+        if (drop > digits + 20) {
+            // Even the fraction is zero
+            w2 = w1 = 0;
+            below = true;
+        } else {
+            for (int n = (int) drop; n > 0; n -= 19) {
+                int k = Math.min(n, 19), shift = Long.numberOfLeadingZeros(pow10(k));
+                long d = pow10(k) << shift, reciprocal = pow10Reciprocal(k);
+                long x = shift == 0 ? w2 : w2 << shift | w1 >>> (64 - shift);
+                long q2 = LongMath.divide(shift == 0 ? 0 : w2 >>> (64 - shift), x, d, reciprocal), r = x - q2 * d;
+                x = shift == 0 ? w1 : w1 << shift | w0 >>> (64 - shift);
+                long q1 = LongMath.divide(r, x, d, reciprocal);
+                r = x - q1 * d;
+                x = w0 << shift;
+                long q0 = LongMath.divide(r, x, d, reciprocal);
+                below |= x != q0 * d;
+                w2 = q2;
+                w1 = q1;
+                w0 = q0;
+            }
+        }
+        assert w2 == 0 : "The kept digits fit in a long";
+        long kept = w1;
+        boolean half = w0 < 0, rest = (w0 << 1) != 0 || below;
+        if (!half && !rest) {
+            return kept;
+        }
+        env.flags.add(Flags.inexact);
+        if (tiny) {
+            env.flags.add(Flags.underflow);
+        }
+        boolean away = env.mode == RoundingMode.stochastic ? BinaryRounding.roundAwayStochastic(w0, below, env)
+                : BinaryRounding.roundAway(sign, (kept & 1) != 0, half, rest, env);
+        return ~(away ? kept + 1 : kept);
+    }
+
+    /**
+     * Rounds (-1)^sign * coefficient * 10^exponent to a multiple of 10^target, which is quantize (Section 5.3.2) for
+     * finite operands. Results which need more than 16 digits are invalid.
+     */
+    public static Decimal64 roundToExponent(boolean sign, long coefficient, int exponent, int target, Environment env) {
+        if (coefficient == 0) {
+            return new Decimal64(sign, 0, target);
+        }
+        if (exponent >= target) {
+            int n = exponent - target;
+            if (n >= precision || digits(coefficient) + n > precision) {
+                env.flags.add(Flags.invalid);
+                return NaN;
+            }
+            return new Decimal64(sign, coefficient * pow10(n), target);
+        }
+        // Dropping at least one of at most 16 digits always leaves room to round up
+        long kept = roundDigits(sign, 0, coefficient, digits(coefficient), (long) target - exponent, false, false, env);
+        return new Decimal64(sign, kept < 0 ? ~kept : kept, target);
+    }
+
+    /**
+     * Moves an exact coefficient of at most 16 digits as close to the ideal exponent as it can go
+     */
+    private static Decimal64 exact(boolean sign, long coefficient, int exponent, int ideal, Environment env) {
+        ideal = Math.max(minExponent, Math.min(ideal, maxExponent));
+        if (exponent > ideal) {
+            int n = Math.min(exponent - ideal, precision - digits(coefficient));
+            coefficient *= pow10(n);
+            exponent -= n;
+        } else {
+            while (exponent < ideal && coefficient % 10 == 0) {
+                coefficient /= 10;
+                exponent++;
+            }
+        }
+        if (exponent > maxExponent) {
+            // Only representable if there is room to pad the coefficient with zeros
+            int n = exponent - maxExponent;
+            if (digits(coefficient) + n > precision) {
+                return overflow(sign, env);
+            }
+            coefficient *= pow10(n);
+            exponent = maxExponent;
+        }
+        return new Decimal64(sign, coefficient, exponent);
+    }
+
+    // Section 7.4
+    private static Decimal64 overflow(boolean sign, Environment env) {
+        env.flags.add(Flags.overflow);
+        env.flags.add(Flags.inexact);
+        if (env.mode == RoundingMode.stochastic || BinaryRounding.roundAway(sign, true, true, true, env)) {
+            return sign ? NegativeInfinity : Infinity;
+        } else {
+            return new Decimal64(sign, MAX_COEFFICIENT, maxExponent); // Largest finite number
+        }
+    }
+
+    /**
+     * @return the IEEE 754 character sequence for the value, which keeps its exponent
+     */
+    @Override
+    public String toString() {
+        return Formatting.toString(this);
+    }
+}
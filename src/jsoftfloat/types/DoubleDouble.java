@@ -0,0 +1,105 @@
+package jsoftfloat.types;
+
+import jsoftfloat.Environment;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.operations.Formatting;
+
+/**
+ * Represents the unevaluated sum of two binary64 values, which gives about 106 bits of precision with the exponent
+ * range of binary64.
+ * <p>
+ * The pair is normalized: hi is hi + lo rounded to nearest, so |lo| is at most half a unit in the last place of hi.
+ * Unlike the other types this isn't a format with a fixed precision (1 + 2^-1000 is a valid value), so it doesn't
+ * extend Floating and the operations in Arithmetic are not correctly rounded. They are built from binary64 operations
+ * rounded to nearest and have relative errors of a few 2^-106.
+ */
+public final class DoubleDouble {
+    public static final DoubleDouble Zero = new DoubleDouble(0, 0),
+            NegativeZero = new DoubleDouble(0x80000000_00000000L, 0),
+            NaN = new DoubleDouble(0x7FF80000_00000000L, 0);
+
+    /**
+     * The raw bits of the leading binary64
+     */
+    public final long hi;
+    /**
+     * The raw bits of the trailing binary64, which is zero unless hi is finite and non-zero
+     */
+    public final long lo;
+
+    /**
+     * @param hi the raw bits of hi + lo rounded to nearest
+     * @param lo the raw bits of the rest
+     */
+    public DoubleDouble(long hi, long lo) {
+        this.hi = hi;
+        this.lo = lo;
+    }
+
+    public DoubleDouble(Float64 hi, Float64 lo) {
+        this(hi.bits, lo.bits);
+    }
+
+    public Float64 high() {
+        return new Float64(hi);
+    }
+
+    public Float64 low() {
+        return new Float64(lo);
+    }
+
+    public DoubleDouble negate() {
+        return new DoubleDouble(hi ^ 0x80000000_00000000L, lo == 0 ? 0 : lo ^ 0x80000000_00000000L);
+    }
+
+    public boolean isSignMinus() {
+        return hi < 0;
+    }
+
+    public boolean isNaN() {
+        return (hi & 0x7FFFFFFF_FFFFFFFFL) > 0x7FF00000_00000000L;
+    }
+
+    public boolean isInfinite() {
+        return (hi & 0x7FFFFFFF_FFFFFFFFL) == 0x7FF00000_00000000L;
+    }
+
+    public boolean isZero() {
+        return (hi & 0x7FFFFFFF_FFFFFFFFL) == 0;
+    }
+
+    public boolean isFinite() {
+        return (hi & 0x7FFFFFFF_FFFFFFFFL) < 0x7FF00000_00000000L;
+    }
+
+    /**
+     * @return the exact value of hi + lo
+     */
+    public ExactFloat toExactFloat() {
+        assert isFinite() && !isZero() : "Only finite, non-zero values are exact";
+        ExactFloat sum = high().toExactFloat();
+        return (lo & 0x7FFFFFFF_FFFFFFFFL) == 0 ? sum : sum.add(low().toExactFloat());
+    }
+
+    /**
+     * Rounds an exact value to the closest pair, the trailing part is rounded to nearest even
+     */
+    public static DoubleDouble fromExact(ExactFloat ef) {
+        Environment env = new Environment(RoundingMode.even);
+        Float64 hi = Float64.fromExact(ef, env);
+        if (!hi.isFinite() || hi.isZero()) {
+            return new DoubleDouble(hi.bits, 0);
+        }
+        ExactFloat rest = ef.add(hi.toExactFloat().negate());
+        return new DoubleDouble(hi.bits, rest.isZero() ? 0 : Float64.fromExact(rest, env).bits);
+    }
+
+    /**
+     * @return the value to 32 significant digits
+     */
+    @Override
+    public String toString() {
+        return Formatting.toString(this);
+    }
+}
@@ -0,0 +1,164 @@
+package jsoftfloat.types;
+
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryFormat;
+import jsoftfloat.internal.BinaryRounding;
+import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.operations.Formatting;
+
+/**
+ * Represents the E4M3 format of the OCP 8-bit floating point specification
+ * <p>
+ * It gives up the infinities for range: only S.1111.111 is NaN, so the largest number is 448. Results which would
+ * round to infinity are NaN instead, and there are no signalling NaNs.
+ */
+public class E4M3 extends Floating<E4M3> {
+    public static final E4M3 Zero = new E4M3(0),
+            NegativeZero = new E4M3(0x80),
+            NaN = new E4M3(0x7F);
+
+    public final byte bits;
+
+    /**
+     * @param bits the raw bits in the low 8 bits
+     */
+    public E4M3(int bits) {
+        this.bits = (byte) bits;
+    }
+
+    public int exponent() {
+        return ((bits >>> 3) & 0xF) - 7;
+    }
+
+    public E4M3 negate() {
+        return new E4M3(bits ^ 0x80); // Flip the sign bit
+    }
+
+    /**
+     * E4M3 has no infinities, so the step past the largest finite number is the NaN which it overflows to, and the NaN
+     * which negative values overflow to steps up to the most negative finite number
+     */
+    @Override
+    public E4M3 nextUp() {
+        int magnitude = bits & 0x7F;
+        if (magnitude == 0x7F && bits >= 0) return this;
+        if (bits == (byte) 0x80) return new E4M3(1);
+        return new E4M3(bits >= 0 ? magnitude + 1 : 0x80 | (magnitude - 1));
+    }
+
+    public E4M3 abs() {
+        return new E4M3(bits & 0x7F);
+    }
+
+    public boolean isSignMinus() {
+        return bits < 0;
+    }
+
+    public boolean isInfinite() {
+        return false;
+    }
+
+    public boolean isNormal() {
+        return (bits & 0x78) != 0 && !isNaN();
+    }
+
+    public boolean isSubnormal() {
+        return (bits & 0x78) == 0 && !isZero();
+    }
+
+    public boolean isNaN() {
+        return (bits & 0x7F) == 0x7F;
+    }
+
+    public boolean isSignalling() {
+        return false;
+    }
+
+    public boolean isCanonical() {
+        return true;
+    }
+
+    public boolean isZero() {
+        return (bits & 0x7F) == 0;
+    }
+
+    @Override
+    public E4M3 NaN() {
+        return NaN;
+    }
+
+    @Override
+    public E4M3 Zero() {
+        return Zero;
+    }
+
+    @Override
+    public E4M3 NegativeZero() {
+        return NegativeZero;
+    }
+
+    /**
+     * @return NaN, as there is no infinity
+     */
+    @Override
+    public E4M3 Infinity() {
+        return NaN;
+    }
+
+    /**
+     * @return NaN, as there is no infinity
+     */
+    @Override
+    public E4M3 NegativeInfinity() {
+        return NaN;
+    }
+
+    // E4M3 has the precision and subnormals of a format with 5 exponent bits and 3 significand bits whose values are
+    // scaled by 2^8, and the same biased exponents while it is in range
+    private static final int sigbits = 3, expbits = 5, scale = 8;
+
+    @Override
+    public E4M3 fromExactFloat(ExactFloat ef, Environment env) {
+        if (ef.isZero()) {
+            return ef.sign ? NegativeZero : Zero;
+        }
+        ExactFloat scaled = new ExactFloat(ef.sign, ef.exponent - scale, ef.significand);
+        int bits = (int) BinaryFormat.fromExactFloat(scaled, sigbits, expbits, env);
+        int sign = (bits >>> 1) & 0x80;
+        if ((bits & 0xFF) < 0x7F) {
+            return new E4M3(sign | (bits & 0x7F));
+        }
+        // Section 7.4
+        env.flags.add(Flags.overflow);
+        env.flags.add(Flags.inexact);
+        if (env.mode == RoundingMode.stochastic || BinaryRounding.roundAway(ef.sign, true, true, true, env)) {
+            return new E4M3(sign | 0x7F);
+        }
+        return new E4M3(sign | 0x7E); // Largest finite number
+    }
+
+    public static E4M3 fromExact(ExactFloat ef, Environment e) {
+        return Zero.fromExactFloat(ef, e);
+    }
+
+    @Override
+    public ExactFloat toExactFloat() {
+        ExactFloat scaled = BinaryFormat.toExactFloat((bits & 0x80) << 1 | (bits & 0x7F), sigbits, expbits);
+        return new ExactFloat(scaled.sign, scaled.exponent + scale, scaled.significand);
+    }
+
+    /**
+     * @return the shortest decimal representation which converts back to this float
+     */
+    @Override
+    public String toString() {
+        return Formatting.toString(this);
+    }
+
+    @Override
+    public int maxPrecision() {
+        return 10;
+    }
+}
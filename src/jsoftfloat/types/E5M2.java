@@ -0,0 +1,132 @@
+package jsoftfloat.types;
+
+import jsoftfloat.Environment;
+import jsoftfloat.internal.BinaryFormat;
+import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.operations.Formatting;
+
+/**
+ * Represents the E5M2 format of the OCP 8-bit floating point specification, which follows the IEEE rules like a Binary16
+ * with only 2 significand bits
+ */
+public class E5M2 extends Floating<E5M2> {
+    public static final E5M2 Zero = new E5M2(0),
+            NegativeZero = new E5M2(0x80),
+            NaN = new E5M2(0x7E),
+            Infinity = new E5M2(0x7C),
+            NegativeInfinity = new E5M2(0xFC);
+
+    public final byte bits;
+
+    /**
+     * @param bits the raw bits in the low 8 bits
+     */
+    public E5M2(int bits) {
+        this.bits = (byte) bits;
+    }
+
+    public int exponent() {
+        return ((bits >>> 2) & 0x1F) - 15;
+    }
+
+    public E5M2 negate() {
+        return new E5M2(bits ^ 0x80); // Flip the sign bit
+    }
+
+    @Override
+    public E5M2 nextUp() {
+        return new E5M2((int) BinaryFormat.nextUp(bits & 0xFF, sigbits, expbits));
+    }
+
+    public E5M2 abs() {
+        return new E5M2(bits & 0x7F);
+    }
+
+    public boolean isSignMinus() {
+        return bits < 0;
+    }
+
+    public boolean isInfinite() {
+        return (bits & 0x7F) == 0x7C;
+    }
+
+    public boolean isNormal() {
+        return exponent() != -15 && exponent() != 16;
+    }
+
+    public boolean isSubnormal() {
+        return exponent() == -15 && !isZero();
+    }
+
+    public boolean isNaN() {
+        return (bits & 0x7F) > 0x7C;
+    }
+
+    // Section 6.2.1
+    public boolean isSignalling() {
+        return isNaN() && (bits & 0x02) == 0;
+    }
+
+    public boolean isCanonical() {
+        return true;
+    }
+
+    public boolean isZero() {
+        return (bits & 0x7F) == 0;
+    }
+
+    @Override
+    public E5M2 NaN() {
+        return NaN;
+    }
+
+    @Override
+    public E5M2 Zero() {
+        return Zero;
+    }
+
+    @Override
+    public E5M2 NegativeZero() {
+        return NegativeZero;
+    }
+
+    @Override
+    public E5M2 Infinity() {
+        return Infinity;
+    }
+
+    @Override
+    public E5M2 NegativeInfinity() {
+        return NegativeInfinity;
+    }
+
+    // The format for BinaryFormat, as constants so that its methods are specialized for E5M2 once inlined
+    private static final int sigbits = 2, expbits = 5;
+
+    @Override
+    public E5M2 fromExactFloat(ExactFloat ef, Environment env) {
+        return new E5M2((int) BinaryFormat.fromExactFloat(ef, sigbits, expbits, env));
+    }
+
+    public static E5M2 fromExact(ExactFloat ef, Environment e) {
+        return Zero.fromExactFloat(ef, e);
+    }
+
+    @Override
+    public ExactFloat toExactFloat() {
+        return BinaryFormat.toExactFloat(bits & 0xFF, sigbits, expbits);
+    }
+
+    /**
+     * @return the shortest decimal representation which converts back to this float
+     */
+    @Override
+    public String toString() {
+        return Formatting.toString(this);
+    }
+
+    @Override
+    public int maxPrecision() {
+        return 10;
+    }
+}
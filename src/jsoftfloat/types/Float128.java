@@ -0,0 +1,293 @@
+package jsoftfloat.types;
+
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryRounding;
+import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.internal.LongMath;
+import jsoftfloat.operations.Formatting;
+
+import java.math.BigInteger;
+
+/**
+ * Represents the Binary128 format, with the raw bits split into two longs
+ * <p>
+ * The arithmetic in Arithmetic works on the words directly and rounds its results with {@link #round}, so only the
+ * conversions to and from ExactFloat need BigIntegers.
+ */
+public class Float128 extends Floating<Float128> {
+    // Masks of the high word
+    private static final long SIGN = 0x80000000_00000000L, EXPONENT = 0x7FFF0000_00000000L,
+            FRACTION = 0x0000FFFF_FFFFFFFFL, QUIET = 0x00008000_00000000L;
+    private static final int sigbits = 112, bias = 16383;
+
+    public static final Float128 Zero = new Float128(0, 0),
+            NegativeZero = new Float128(SIGN, 0),
+            NaN = new Float128(EXPONENT | QUIET, 0),
+            Infinity = new Float128(EXPONENT, 0),
+            NegativeInfinity = new Float128(SIGN | EXPONENT, 0);
+
+    /**
+     * The sign, exponent and top 48 bits of the fraction
+     */
+    public final long hi;
+    /**
+     * The low 64 bits of the fraction
+     */
+    public final long lo;
+
+    public Float128(long hi, long lo) {
+        this.hi = hi;
+        this.lo = lo;
+    }
+
+    public Float128(boolean sign, int exponent, long significandHi, long significandLo) {
+        this(((sign) ? SIGN : 0) | (((exponent + bias) & 0x7FFFL) << 48) | (significandHi & FRACTION), significandLo);
+    }
+
+    public int exponent() {
+        return ((int) (hi >>> 48) & 0x7FFF) - bias;
+    }
+
+    public Float128 negate() {
+        return new Float128(hi ^ SIGN, lo); // Flip the sign bit
+    }
+
+    @Override
+    public Float128 nextUp() {
+        if (isNaN() || (isInfinite() && !isSignMinus())) return this;
+        if (hi == SIGN && lo == 0) return new Float128(0, 1);
+        // Positive values step away from zero and negative ones towards it, carrying between the words
+        if (hi >= 0) return new Float128(lo == -1 ? hi + 1 : hi, lo + 1);
+        return new Float128(lo == 0 ? hi - 1 : hi, lo - 1);
+    }
+
+    public Float128 abs() {
+        return new Float128(hi & ~SIGN, lo);
+    }
+
+    public Float128 copySign(Float128 signToTake) {
+        return new Float128((hi & ~SIGN) | (signToTake.hi & SIGN), lo);
+    }
+
+    public boolean isSignMinus() {
+        return hi < 0;
+    }
+
+    public boolean isInfinite() {
+        return (hi & ~SIGN) == EXPONENT && lo == 0;
+    }
+
+    public boolean isNormal() {
+        return exponent() != -bias && exponent() != bias + 1;
+    }
+
+    public boolean isSubnormal() {
+        return exponent() == -bias && !isZero();
+    }
+
+    public boolean isNaN() {
+        return (hi & ~SIGN) > EXPONENT || ((hi & ~SIGN) == EXPONENT && lo != 0);
+    }
+
+    // Section 6.2.1
+    public boolean isSignalling() {
+        return isNaN() && (hi & QUIET) == 0;
+    }
+
+    public boolean isCanonical() {
+        return true;
+    }
+
+    public boolean isZero() {
+        return (hi & ~SIGN) == 0 && lo == 0;
+    }
+
+    @Override
+    public Float128 NaN() {
+        return NaN;
+    }
+
+    @Override
+    public Float128 Zero() {
+        return Zero;
+    }
+
+    @Override
+    public Float128 NegativeZero() {
+        return NegativeZero;
+    }
+
+    @Override
+    public Float128 Infinity() {
+        return Infinity;
+    }
+
+    @Override
+    public Float128 NegativeInfinity() {
+        return NegativeInfinity;
+    }
+
+    /**
+     * Rounds (-1)^sign * (hi:lo + f) * 2^exponent, where 0 &lt; f &lt; 1 if sticky and f = 0 otherwise.
+     * <p>
+     * This is BinaryRounding.round for a significand of 128 bits.
+     *
+     * @param hi       the high word of an unsigned significand, hi:lo must be non-zero if sticky is set
+     * @param lo       the low word of the significand
+     * @param exponent the exponent of the lowest bit of lo
+     * @param sticky   whether there are non-zero bits below the significand
+     */
+    public static Float128 round(boolean sign, long hi, long lo, int exponent, boolean sticky, Environment env) {
+        if (hi == 0 && lo == 0) {
+            assert !sticky : "The significand needs to be non-zero if there are bits below it";
+            return sign ? NegativeZero : Zero;
+        }
+        int top = exponent + 127 - LongMath.numberOfLeadingZeros(hi, lo);
+        if (top > bias) {
+            return overflow(sign, env);
+        }
+
+        // The exponent of the lowest bit which is kept
+        int lsb = Math.max(top, 1 - bias) - sigbits;
+        int shift = lsb - exponent;
+        long keptHi, keptLo;
+        boolean half, rest;
+        if (shift <= 0) {
+            keptHi = LongMath.shiftLeftHi(hi, lo, -shift);
+            keptLo = LongMath.shiftLeftLo(lo, -shift);
+            half = false;
+            rest = sticky;
+        } else if (shift <= 128) {
+            keptHi = LongMath.shiftRightHi(hi, shift);
+            keptLo = LongMath.shiftRightLo(hi, lo, shift);
+            half = ((shift <= 64 ? lo >>> (shift - 1) : hi >>> (shift - 65)) & 1) != 0;
+            rest = sticky || LongMath.anyBelow(hi, lo, shift - 1);
+        } else {
+            keptHi = keptLo = 0;
+            half = false;
+            rest = true;
+        }
+
+        if (half || rest) {
+            env.flags.add(Flags.inexact);
+            // Section 7.5
+            if (top < 1 - bias) {
+                env.flags.add(Flags.underflow);
+            }
+            boolean away;
+            if (env.mode == RoundingMode.stochastic) {
+                // The discarded bits as a fraction of 2^64
+                long fraction = shift <= 0 ? 0 : shift < 64 ? lo << (64 - shift) : LongMath.shiftRightLo(hi, lo, shift - 64);
+                away = BinaryRounding.roundAwayStochastic(fraction, sticky || (shift > 64 && LongMath.anyBelow(hi, lo, shift - 64)), env);
+            } else {
+                away = BinaryRounding.roundAway(sign, (keptLo & 1) != 0, half, rest, env);
+            }
+            if (away && ++keptLo == 0) {
+                keptHi++;
+            }
+        }
+
+        // Adding kept carries the implicit bit (and any rounding overflow) into the exponent field
+        long bits = ((long) (lsb + sigbits + bias - 1) << 48) + keptHi;
+        if (bits >= EXPONENT) {
+            return overflow(sign, env);
+        }
+        return new Float128((sign ? SIGN : 0) | bits, keptLo);
+    }
+
+    // Section 7.4
+    private static Float128 overflow(boolean sign, Environment env) {
+        env.flags.add(Flags.overflow);
+        env.flags.add(Flags.inexact);
+        if (env.mode == RoundingMode.stochastic || BinaryRounding.roundAway(sign, true, true, true, env)) {
+            return sign ? NegativeInfinity : Infinity;
+        } else {
+            return new Float128((sign ? SIGN : 0) | (EXPONENT - 1), -1); // Largest finite number
+        }
+    }
+
+    @Override
+    public Float128 fromExactFloat(ExactFloat ef, Environment env) {
+        if (ef.isZero()) {
+            return ef.sign ? NegativeZero : Zero;
+        }
+        BigInteger significand = ef.significand;
+        int extra = Math.max(0, significand.bitLength() - 127);
+        if (extra > 0 && env.mode == RoundingMode.stochastic) {
+            return roundStochastic(ef, extra, env);
+        }
+        // Only the top 127 bits can be kept, anything below them just makes the value inexact
+        boolean sticky = extra > 0 && significand.getLowestSetBit() < extra;
+        // Values this far out of range round the same with a clamped exponent, which keeps the arithmetic in int range
+        long exponent = Math.max(-(1 << 24), Math.min((long) ef.exponent + extra, 1 << 24));
+        BigInteger kept = significand.shiftRight(extra);
+        return round(ef.sign, kept.shiftRight(64).longValue(), kept.longValue(), (int) exponent, sticky, env);
+    }
+
+    /**
+     * Truncates to the top 127 bits and then decides whether to round away with all of the significand, like
+     * BinaryRounding.roundStochastic
+     */
+    private static Float128 roundStochastic(ExactFloat ef, int extra, Environment env) {
+        BigInteger significand = ef.significand, kept = significand.shiftRight(extra);
+        Environment truncated = env.withMode(RoundingMode.zero);
+        Float128 result = round(ef.sign, kept.shiftRight(64).longValue(), kept.longValue(), ef.exponent + extra,
+                significand.getLowestSetBit() < extra, truncated);
+        if (truncated.flags.contains(Flags.overflow)) {
+            return overflow(ef.sign, env);
+        }
+        env.flags.addAll(truncated.flags);
+        if (!truncated.flags.contains(Flags.inexact)) {
+            return result;
+        }
+
+        int discarded = Math.max(result.exponent(), 1 - bias) - sigbits - ef.exponent;
+        BigInteger fraction = significand.subtract(significand.shiftRight(discarded).shiftLeft(discarded));
+        if (!BinaryRounding.roundAwayStochastic(fraction, discarded, false, env)) {
+            return result;
+        }
+        long lo = result.lo + 1, hi = result.hi + (lo == 0 ? 1 : 0);
+        if ((hi & ~SIGN) == EXPONENT) {
+            return overflow(ef.sign, env);
+        }
+        return new Float128(hi, lo);
+    }
+
+    public static Float128 fromExact(ExactFloat ef, Environment e) {
+        return Zero.fromExactFloat(ef, e);
+    }
+
+    @Override
+    public ExactFloat toExactFloat() {
+        assert !isInfinite() : "Infinity is not exact";
+        assert !isNaN() : "NaNs are not exact";
+        assert !isZero() : "Zeros should be handled explicitly";
+
+        int biased = exponent() + bias;
+        long top = hi & FRACTION;
+        if (biased != 0) {
+            top |= 1L << 48; // Add back the implied one
+        }
+        byte[] magnitude = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            magnitude[i] = (byte) (top >>> (56 - 8 * i));
+            magnitude[i + 8] = (byte) (lo >>> (56 - 8 * i));
+        }
+        return new ExactFloat(isSignMinus(), Math.max(biased, 1) - bias - sigbits, new BigInteger(1, magnitude));
+    }
+
+    /**
+     * @return the shortest decimal representation which converts back to this float
+     */
+    @Override
+    public String toString() {
+        return Formatting.toString(this);
+    }
+
+    @Override
+    public int maxPrecision() {
+        return 120;
+    }
+}
@@ -0,0 +1,151 @@
+package jsoftfloat.types;
+
+import jsoftfloat.Environment;
+import jsoftfloat.internal.BinaryFormat;
+import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.internal.Float16Tables;
+import jsoftfloat.operations.Formatting;
+
+/**
+ * Represents the Binary16 format
+ * <p>
+ * The classification predicates read a small table; see Float16Tables for the other operations which are precomputed.
+ */
+public class Float16 extends Floating<Float16> {
+    public static final Float16 Zero = new Float16(0),
+            NegativeZero = new Float16(0x8000),
+            NaN = new Float16(0x7E00),
+            Infinity = new Float16(0x7C00),
+            NegativeInfinity = new Float16(0xFC00);
+
+    public final short bits;
+
+    /**
+     * @param bits the raw bits in the low 16 bits
+     */
+    public Float16(int bits) {
+        this.bits = (short) bits;
+    }
+
+    public Float16(boolean sign, int exponent, int significand) {
+        this(((sign) ? 0x8000 : 0) | (((exponent + 15) & 0x1F) << 10) | (significand & 0x03FF));
+    }
+
+    public int exponent() {
+        return ((bits >>> 10) & 0x1F) - 15;
+    }
+
+    public Float16 negate() {
+        return new Float16(bits ^ 0x8000); // Flip the sign bit
+    }
+
+    @Override
+    public Float16 nextUp() {
+        return new Float16((int) BinaryFormat.nextUp(bits & 0xFFFF, sigbits, expbits));
+    }
+
+    public Float16 abs() {
+        return new Float16(bits & 0x7FFF);
+    }
+
+    public Float16 copySign(Float16 signToTake) {
+        return new Float16((bits & 0x7FFF) | (signToTake.bits & 0x8000));
+    }
+
+    public boolean isSignMinus() {
+        return bits < 0;
+    }
+
+    public boolean isInfinite() {
+        return is(Float16Tables.INFINITE);
+    }
+
+    public boolean isNormal() {
+        return is(Float16Tables.NORMAL);
+    }
+
+    public boolean isSubnormal() {
+        return is(Float16Tables.SUBNORMAL);
+    }
+
+    public boolean isNaN() {
+        return is(Float16Tables.NAN);
+    }
+
+    // Section 6.2.1
+    public boolean isSignalling() {
+        return is(Float16Tables.SIGNALLING);
+    }
+
+    public boolean isCanonical() {
+        return true;
+    }
+
+    public boolean isZero() {
+        return is(Float16Tables.ZERO);
+    }
+
+    @Override
+    public boolean isFinite() {
+        return !is(Float16Tables.INFINITE | Float16Tables.NAN);
+    }
+
+    private boolean is(int classes) {
+        return (Float16Tables.classify(bits) & classes) != 0;
+    }
+
+    @Override
+    public Float16 NaN() {
+        return NaN;
+    }
+
+    @Override
+    public Float16 Zero() {
+        return Zero;
+    }
+
+    @Override
+    public Float16 NegativeZero() {
+        return NegativeZero;
+    }
+
+    @Override
+    public Float16 Infinity() {
+        return Infinity;
+    }
+
+    @Override
+    public Float16 NegativeInfinity() {
+        return NegativeInfinity;
+    }
+
+    // The format for BinaryFormat, as constants so that its methods are specialized for binary16 once inlined
+    private static final int sigbits = 10, expbits = 5;
+
+    @Override
+    public Float16 fromExactFloat(ExactFloat ef, Environment env) {
+        return new Float16((int) BinaryFormat.fromExactFloat(ef, sigbits, expbits, env));
+    }
+
+    public static Float16 fromExact(ExactFloat ef, Environment e) {
+        return Zero.fromExactFloat(ef, e);
+    }
+
+    @Override
+    public ExactFloat toExactFloat() {
+        return BinaryFormat.toExactFloat(bits & 0xFFFF, sigbits, expbits);
+    }
+
+    /**
+     * @return the shortest decimal representation which converts back to this float
+     */
+    @Override
+    public String toString() {
+        return Formatting.toString(this);
+    }
+
+    @Override
+    public int maxPrecision() {
+        return 20;
+    }
+}
@@ -1,17 +1,15 @@
 package jsoftfloat.types;
 
 import jsoftfloat.Environment;
-import jsoftfloat.Flags;
-import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryFormat;
 import jsoftfloat.internal.ExactFloat;
-
-import java.math.BigInteger;
+import jsoftfloat.operations.Conversions;
+import jsoftfloat.operations.Formatting;
 
 /**
- * Represents the Binary32 format
+ * Represents the Binary64 format
  */
 public class Float64 extends Floating<Float64> {
-    // TODO: make a more abstract binary float class
     public static final Float64 Zero = new Float64(0),
             NegativeZero = new Float64(0x80000000_00000000L),
             NaN = new Float64(0x7FF80000_00000000L),
@@ -33,30 +31,22 @@ public class Float64 extends Floating<Float64> {
     }
 
     /**
-     * @param num An integer to be converted to
-     * @return
+     * @param num An integer to be converted, rounding to nearest even if it is too large to be exact
+     * @return the closest Float64
      */
-
     public static Float64 fromInteger(long num) {
-        if (num == 0) return Zero;
-        boolean sign = num < 0;
-        num = sign ? -num : num;
-        int exponent = 0;
-        long significand = 0;
-        for (int i = 62; i >= 0; i--) {
-            if (((num >> i) & 1) == 1) {
-                exponent = i;
-                significand = (num << (64 - i)) >>> 11;
-                break;
-            }
-        }
-        return new Float64(sign,exponent,significand);
+        return Conversions.convertFromLong(num, new Environment(), Zero);
     }
 
     public Float64 negate() {
         return new Float64(bits ^ 0x80000000_00000000L); // Flip the sign bit
     }
 
+    @Override
+    public Float64 nextUp() {
+        return new Float64(BinaryFormat.nextUp(bits, sigbits, expbits));
+    }
+
     public Float64 abs() {
         return new Float64(bits & 0x7FFFFFFF_FFFFFFFFL);
     }
@@ -125,117 +115,13 @@ public class Float64 extends Floating<Float64> {
     }
 
 
-    // Some constants that allow fromExactFloat to be mostly copied
-    private static final int sigbits = 52, expbits = 11,
-            maxexp = 1 << (expbits - 1),
-            minexp = -(1 << (expbits - 1)) + 1;
-    private static final long
-            sigmask = (1L << sigbits) - 1;
+    // The format for BinaryFormat, as constants so that its methods are specialized for binary64 once inlined
+    private static final int sigbits = 52, expbits = 11;
+    private static final long sigmask = (1L << sigbits) - 1;
 
     @Override
     public Float64 fromExactFloat(ExactFloat ef, Environment env) {
-        if (ef.isZero()) {
-            return ef.sign ? Float64.NegativeZero : Float64.Zero;
-        }
-        ef = ef.normalize();
-        int normalizedExponent = ef.exponent + ef.significand.bitLength();
-
-        // Used to calculate how to round at the end
-        Float64 awayZero, towardsZero;
-        BigInteger roundedBits;
-        int bitsToRound;
-
-        if (normalizedExponent <= minexp + 1) {
-            // Subnormal
-
-            if (ef.exponent > minexp - sigbits) {
-                assert ef.significand.bitLength() <= sigbits : "Its actually normal";
-                return new Float64(ef.sign, minexp, ef.significand.shiftLeft(-(minexp - sigbits + 1) + ef.exponent).longValueExact());
-            }
-
-            env.flags.add(Flags.inexact);
-            env.flags.add(Flags.underflow); // Section 7.5
-            bitsToRound = (minexp - sigbits + 1) - ef.exponent;
-            BigInteger mainBits = ef.significand.shiftRight(bitsToRound).shiftLeft(bitsToRound);
-            roundedBits = ef.significand.subtract(mainBits);
-
-            towardsZero = new Float64(ef.sign, minexp, ef.significand.shiftRight(bitsToRound).longValueExact());
-            BigInteger upBits = ef.significand.shiftRight(bitsToRound).add(BigInteger.valueOf(1));
-            if (upBits.testBit(0) || upBits.bitLength() <= sigbits) {
-                assert upBits.bitLength() <= sigbits;
-                awayZero = new Float64(ef.sign, minexp, upBits.longValueExact());
-            } else {
-                awayZero = new Float64(ef.sign, minexp + 1, upBits.longValueExact() & sigmask);
-            }
-        } else if (normalizedExponent > maxexp) {
-            // Section 7.4
-            env.flags.add(Flags.overflow);
-            env.flags.add(Flags.inexact);
-            switch (env.mode) {
-                case zero:
-                    return new Float64(ef.sign, maxexp - 1, -1); // Largest finite number
-                case min:
-                case max:
-                    if (ef.sign != (env.mode == RoundingMode.max)) {
-                        return ef.sign ? Float64.NegativeInfinity : Float64.Infinity;
-                    } else {
-                        return new Float64(ef.sign, maxexp - 1, -1); // Largest finite number
-                    }
-                case away:
-                case even:
-                    return ef.sign ? Float64.NegativeInfinity : Float64.Infinity;
-            }
-            assert false : "Not reachable";
-            return ef.sign ? Float64.NegativeInfinity : Float64.Infinity;
-        } else {
-            if (ef.significand.bitLength() <= (sigbits + 1)) {
-                // No rounding needed
-                assert ef.exponent + ef.significand.bitLength() - 1 > minexp : "Its actually subnormal";
-                Float64 a = new Float64(ef.sign, ef.exponent + ef.significand.bitLength() - 1, ef.significand.shiftLeft((sigbits + 1) - ef.significand.bitLength()).longValueExact() & sigmask);
-
-                return a;
-            }
-            env.flags.add(Flags.inexact);
-            bitsToRound = ef.significand.bitLength() - (sigbits + 1);
-            BigInteger mainBits = ef.significand.shiftRight(bitsToRound).shiftLeft(bitsToRound);
-            roundedBits = ef.significand.subtract(mainBits);
-
-            BigInteger upBits = ef.significand.shiftRight(bitsToRound).add(BigInteger.valueOf(1));
-
-            towardsZero = new Float64(ef.sign, ef.exponent + sigbits + bitsToRound, ef.significand.shiftRight(bitsToRound).longValueExact() & sigmask);
-            if (upBits.testBit(0) || upBits.bitLength() <= sigbits + 1) {
-                awayZero = new Float64(ef.sign, ef.exponent + sigbits + bitsToRound, upBits.longValueExact() & sigmask);
-            } else {
-                awayZero = new Float64(ef.sign, ef.exponent + (sigbits + 1) + bitsToRound, upBits.shiftRight(1).longValueExact() & sigmask);
-            }
-
-        }
-
-        // Either round towards or away from zero based on rounding mode
-        switch (env.mode) {
-            case zero:
-                return towardsZero;
-            case max:
-            case min:
-                if (ef.sign != (env.mode == RoundingMode.max)) {
-                    return awayZero;
-                } else {
-                    return towardsZero;
-                }
-        }
-
-        // See which result is closer to the non-rounded version
-        if (roundedBits.equals(BigInteger.ONE.shiftLeft(bitsToRound - 1))) {
-            if (env.mode == RoundingMode.away || (awayZero.bits & 1) == 0) {
-                return awayZero;
-            } else {
-                return towardsZero;
-            }
-        } else if (roundedBits.compareTo(BigInteger.ONE.shiftLeft(bitsToRound - 1)) > 0) {
-            return awayZero;
-        } else {
-            return towardsZero;
-        }
+        return new Float64(BinaryFormat.fromExactFloat(ef, sigbits, expbits, env));
     }
 
     public static Float64 fromExact(ExactFloat ef, Environment e) {
@@ -244,27 +130,15 @@ public class Float64 extends Floating<Float64> {
 
     @Override
     public ExactFloat toExactFloat() {
-        assert !isInfinite() : "Infinity is not exact";
-        assert !isNaN() : "NaNs are not exact";
-        assert !isZero() : "Zeros should be handled explicitly";
+        return BinaryFormat.toExactFloat(bits, sigbits, expbits);
+    }
 
-        boolean sign = isSignMinus();
-        int exponent;
-        BigInteger significand;
-        if (isZero()) {
-            exponent = 0;
-            significand = BigInteger.ZERO;
-        } else if (isNormal()) {
-            exponent = exponent() - sigbits;
-            significand = BigInteger.valueOf((bits & sigmask) + (sigmask+1)); // Add back the implied one
-        } else if (isSubnormal()) {
-            exponent = exponent() - (sigbits-1);
-            significand = BigInteger.valueOf(bits & sigmask);
-        } else {
-            assert false : "This should not be reachable";
-            return null;
-        }
-        return new ExactFloat(sign, exponent, significand);
+    /**
+     * @return the shortest decimal representation which converts back to this float
+     */
+    @Override
+    public String toString() {
+        return Formatting.toString(this);
     }
 
     @Override
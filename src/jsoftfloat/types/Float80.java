@@ -0,0 +1,323 @@
+package jsoftfloat.types;
+
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryRounding;
+import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.internal.LongMath;
+import jsoftfloat.operations.Formatting;
+
+import java.math.BigInteger;
+
+/**
+ * Represents the x87 80 bit extended precision format: a sign, a 15 bit exponent and a 64 bit significand with an
+ * explicit integer bit
+ * <p>
+ * The integer bit has to match the exponent. Unnormals (a non-zero exponent without it), pseudo-NaNs and
+ * pseudo-infinities are not valid operands since the 80387, so they are treated as signalling NaNs. Pseudo-denormals (a
+ * zero exponent with the integer bit set) are still read like the hardware does, as the same value with an exponent of
+ * one. Neither is canonical.
+ */
+public class Float80 extends Floating<Float80> {
+    private static final long INTEGER_BIT = 0x80000000_00000000L;
+    private static final int bias = 16383;
+
+    public static final Float80 Zero = new Float80(0, 0),
+            NegativeZero = new Float80(0x8000, 0),
+            NaN = new Float80(0x7FFF, 0xC0000000_00000000L),
+            Infinity = new Float80(0x7FFF, INTEGER_BIT),
+            NegativeInfinity = new Float80(0xFFFF, INTEGER_BIT);
+
+    /**
+     * The sign and the biased exponent, the top 16 bits of the format
+     */
+    public final short signExponent;
+    /**
+     * The significand, including the integer bit
+     */
+    public final long significand;
+
+    /**
+     * @param signExponent the sign and biased exponent in the low 16 bits
+     */
+    public Float80(int signExponent, long significand) {
+        this.signExponent = (short) signExponent;
+        this.significand = significand;
+    }
+
+    public Float80(boolean sign, int exponent, long significand) {
+        this(((sign) ? 0x8000 : 0) | ((exponent + bias) & 0x7FFF), significand);
+    }
+
+    public int exponent() {
+        return (signExponent & 0x7FFF) - bias;
+    }
+
+    public Float80 negate() {
+        return new Float80(signExponent ^ 0x8000, significand); // Flip the sign bit
+    }
+
+    @Override
+    public Float80 nextUp() {
+        if (isNaN() || (isInfinite() && !isSignMinus())) return this;
+        int exponent = signExponent & 0x7FFF;
+        if (isSignMinus()) {
+            if (significand == 0) return new Float80(0, 1);
+            // Below the integer bit of a normal number is the largest significand of the exponent under it
+            if (significand == INTEGER_BIT && exponent > 0) {
+                return new Float80(signExponent - 1, exponent > 1 ? -1 : Long.MAX_VALUE);
+            }
+            return new Float80(signExponent, significand - 1);
+        }
+        if (significand == -1) return new Float80(exponent + 1, INTEGER_BIT);
+        // The largest subnormal number steps up to the smallest normal one
+        if (significand == Long.MAX_VALUE && exponent == 0) return new Float80(1, INTEGER_BIT);
+        return new Float80(exponent, significand + 1);
+    }
+
+    public Float80 abs() {
+        return new Float80(signExponent & 0x7FFF, significand);
+    }
+
+    public Float80 copySign(Float80 signToTake) {
+        return new Float80((signExponent & 0x7FFF) | (signToTake.signExponent & 0x8000), significand);
+    }
+
+    public boolean isSignMinus() {
+        return signExponent < 0;
+    }
+
+    public boolean isInfinite() {
+        return (signExponent & 0x7FFF) == 0x7FFF && significand == INTEGER_BIT;
+    }
+
+    public boolean isNormal() {
+        int biased = signExponent & 0x7FFF;
+        return biased != 0 && biased != 0x7FFF && significand < 0;
+    }
+
+    public boolean isSubnormal() {
+        return (signExponent & 0x7FFF) == 0 && significand != 0;
+    }
+
+    public boolean isNaN() {
+        int biased = signExponent & 0x7FFF;
+        return biased == 0x7FFF ? significand != INTEGER_BIT : biased != 0 && significand >= 0;
+    }
+
+    // Section 6.2.1 - only NaNs with both the integer and quiet bits set are quiet
+    public boolean isSignalling() {
+        return isNaN() && ((signExponent & 0x7FFF) != 0x7FFF || (significand >>> 62) != 3);
+    }
+
+    public boolean isCanonical() {
+        return (signExponent & 0x7FFF) == 0 ? significand >= 0 : significand < 0;
+    }
+
+    public boolean isZero() {
+        return (signExponent & 0x7FFF) == 0 && significand == 0;
+    }
+
+    @Override
+    public Float80 NaN() {
+        return NaN;
+    }
+
+    @Override
+    public Float80 Zero() {
+        return Zero;
+    }
+
+    @Override
+    public Float80 NegativeZero() {
+        return NegativeZero;
+    }
+
+    @Override
+    public Float80 Infinity() {
+        return Infinity;
+    }
+
+    @Override
+    public Float80 NegativeInfinity() {
+        return NegativeInfinity;
+    }
+
+    /**
+     * Rounds (-1)^sign * (hi:lo + f) * 2^exponent to precision bits with the exponent range of the format, where
+     * 0 &lt; f &lt; 1 if sticky and f = 0 otherwise.
+     * <p>
+     * This is BinaryRounding.round for a significand of 128 bits. A precision below 64 works like the x87 precision
+     * control: the result has the low bits of its significand cleared, subnormals included.
+     *
+     * @param hi        the high word of an unsigned significand, hi:lo must be non-zero if sticky is set
+     * @param lo        the low word of the significand
+     * @param exponent  the exponent of the lowest bit of lo
+     * @param sticky    whether there are non-zero bits below the significand
+     * @param precision the number of significand bits to keep, at most 64
+     */
+    public static Float80 round(boolean sign, long hi, long lo, int exponent, boolean sticky, int precision, Environment env) {
+        if (hi == 0 && lo == 0) {
+            assert !sticky : "The significand needs to be non-zero if there are bits below it";
+            return sign ? NegativeZero : Zero;
+        }
+        int top = exponent + 127 - LongMath.numberOfLeadingZeros(hi, lo);
+        if (top > bias) {
+            return overflow(sign, precision, env);
+        }
+
+        // The exponent of the lowest bit which is kept
+        int lsb = Math.max(top, 1 - bias) - (precision - 1);
+        int shift = lsb - exponent;
+        long kept;
+        boolean half, rest;
+        if (shift <= 0) {
+            kept = lo << -shift; // The whole value fits in precision bits, so hi is zero
+            half = false;
+            rest = sticky;
+        } else if (shift <= 128) {
+            kept = LongMath.shiftRightLo(hi, lo, shift);
+            half = ((shift <= 64 ? lo >>> (shift - 1) : hi >>> (shift - 65)) & 1) != 0;
+            rest = sticky || LongMath.anyBelow(hi, lo, shift - 1);
+        } else {
+            kept = 0;
+            half = false;
+            rest = true;
+        }
+
+        // The exponent of the integer bit
+        int integer = lsb + precision - 1;
+        if (half || rest) {
+            env.flags.add(Flags.inexact);
+            // Section 7.5
+            if (top < 1 - bias) {
+                env.flags.add(Flags.underflow);
+            }
+            boolean away;
+            if (env.mode == RoundingMode.stochastic) {
+                // The discarded bits as a fraction of 2^64
+                long fraction = shift <= 0 ? 0 : shift < 64 ? lo << (64 - shift) : LongMath.shiftRightLo(hi, lo, shift - 64);
+                away = BinaryRounding.roundAwayStochastic(fraction, sticky || (shift > 64 && LongMath.anyBelow(hi, lo, shift - 64)), env);
+            } else {
+                away = BinaryRounding.roundAway(sign, (kept & 1) != 0, half, rest, env);
+            }
+            if (away && ++kept == (precision == 64 ? 0 : 1L << precision)) {
+                // Rounded up to the next power of two
+                kept = 1L << (precision - 1);
+                integer++;
+                if (integer > bias) {
+                    return overflow(sign, precision, env);
+                }
+            }
+        }
+
+        long significand = kept << (64 - precision);
+        // Subnormal results only have the integer bit set if they rounded up to the smallest normal number
+        int biased = significand < 0 ? integer + bias : 0;
+        return new Float80((sign ? 0x8000 : 0) | biased, significand);
+    }
+
+    // Section 7.4
+    private static Float80 overflow(boolean sign, int precision, Environment env) {
+        env.flags.add(Flags.overflow);
+        env.flags.add(Flags.inexact);
+        if (env.mode == RoundingMode.stochastic || BinaryRounding.roundAway(sign, true, true, true, env)) {
+            return sign ? NegativeInfinity : Infinity;
+        } else {
+            return new Float80((sign ? 0x8000 : 0) | 0x7FFE, -1L << (64 - precision)); // Largest finite number
+        }
+    }
+
+    /**
+     * Rounds to the full 64 bits of precision, the precision control only applies to arithmetic
+     */
+    @Override
+    public Float80 fromExactFloat(ExactFloat ef, Environment env) {
+        return round(ef, 64, env);
+    }
+
+    /**
+     * Rounds an exact value to precision bits with the exponent range of the format, like {@link #round(boolean, long,
+     * long, int, boolean, int, Environment)}
+     */
+    public static Float80 round(ExactFloat ef, int precision, Environment env) {
+        if (ef.isZero()) {
+            return ef.sign ? NegativeZero : Zero;
+        }
+        BigInteger significand = ef.significand;
+        int extra = Math.max(0, significand.bitLength() - 127);
+        if (extra > 0 && env.mode == RoundingMode.stochastic) {
+            return roundStochastic(ef, extra, precision, env);
+        }
+        // Only the top 127 bits can be kept, anything below them just makes the value inexact
+        boolean sticky = extra > 0 && significand.getLowestSetBit() < extra;
+        // Values this far out of range round the same with a clamped exponent, which keeps the arithmetic in int range
+        long exponent = Math.max(-(1 << 24), Math.min((long) ef.exponent + extra, 1 << 24));
+        BigInteger kept = significand.shiftRight(extra);
+        return round(ef.sign, kept.shiftRight(64).longValue(), kept.longValue(), (int) exponent, sticky, precision, env);
+    }
+
+    /**
+     * Truncates to the top 127 bits and then decides whether to round away with all of the significand, like
+     * BinaryRounding.roundStochastic
+     */
+    private static Float80 roundStochastic(ExactFloat ef, int extra, int precision, Environment env) {
+        BigInteger significand = ef.significand, kept = significand.shiftRight(extra);
+        Environment truncated = env.withMode(RoundingMode.zero);
+        Float80 result = round(ef.sign, kept.shiftRight(64).longValue(), kept.longValue(), ef.exponent + extra,
+                significand.getLowestSetBit() < extra, precision, truncated);
+        if (truncated.flags.contains(Flags.overflow)) {
+            return overflow(ef.sign, precision, env);
+        }
+        env.flags.addAll(truncated.flags);
+        if (!truncated.flags.contains(Flags.inexact)) {
+            return result;
+        }
+
+        int discarded = Math.max(result.exponent(), 1 - bias) - (precision - 1) - ef.exponent;
+        BigInteger fraction = significand.subtract(significand.shiftRight(discarded).shiftLeft(discarded));
+        if (!BinaryRounding.roundAwayStochastic(fraction, discarded, false, env)) {
+            return result;
+        }
+        long next = result.significand + (1L << (64 - precision));
+        int signExponent = result.signExponent;
+        if (next == 0) {
+            next = INTEGER_BIT;
+            signExponent++;
+            if ((signExponent & 0x7FFF) == 0x7FFF) {
+                return overflow(ef.sign, precision, env);
+            }
+        } else if (next == INTEGER_BIT) {
+            signExponent++; // The largest subnormal rounded up to the smallest normal number
+        }
+        return new Float80(signExponent, next);
+    }
+
+    public static Float80 fromExact(ExactFloat ef, Environment e) {
+        return Zero.fromExactFloat(ef, e);
+    }
+
+    @Override
+    public ExactFloat toExactFloat() {
+        assert !isInfinite() : "Infinity is not exact";
+        assert !isNaN() : "NaNs are not exact";
+        assert !isZero() : "Zeros should be handled explicitly";
+
+        BigInteger unsigned = BigInteger.valueOf(significand >>> 1).shiftLeft(1).or(BigInteger.valueOf(significand & 1));
+        return new ExactFloat(isSignMinus(), Math.max(exponent(), 1 - bias) - 63, unsigned);
+    }
+
+    /**
+     * @return the shortest decimal representation which converts back to this float
+     */
+    @Override
+    public String toString() {
+        return Formatting.toString(this);
+    }
+
+    @Override
+    public int maxPrecision() {
+        return 72;
+    }
+}
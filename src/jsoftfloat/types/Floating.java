@@ -47,4 +47,9 @@ public abstract class Floating<T extends Floating<T>> {
 
     public abstract T negate();
 
+    /**
+     * @return the least value above this one, or this one for NaNs and positive infinity (Section 5.3.1)
+     */
+    public abstract T nextUp();
+
 }
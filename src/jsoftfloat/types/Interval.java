@@ -0,0 +1,60 @@
+package jsoftfloat.types;
+
+import jsoftfloat.Environment;
+import jsoftfloat.operations.Comparisons;
+
+/**
+ * A closed interval [lo, hi] of values of a floating point format, which the interval operations in Arithmetic keep
+ * around every value the exact computation could have
+ * <p>
+ * Either bound may be infinite. An interval with a NaN bound is not an interval (NaI), which is what invalid
+ * operations produce. The operations compute the exact results of a thin interval, whose bounds are the same value,
+ * once for both of them.
+ */
+public final class Interval<T extends Floating<T>> {
+    public final T lo, hi;
+
+    public Interval(T lo, T hi) {
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+    /**
+     * @return the interval which only contains x
+     */
+    public static <T extends Floating<T>> Interval<T> of(T x) {
+        return new Interval<>(x, x);
+    }
+
+    /**
+     * @return the interval of all values, from negative to positive infinity
+     */
+    public static <T extends Floating<T>> Interval<T> entire(T helper) {
+        return new Interval<>(helper.NegativeInfinity(), helper.Infinity());
+    }
+
+    public boolean isNaI() {
+        return lo.isNaN() || hi.isNaN();
+    }
+
+    /**
+     * @return whether both bounds are the same value, with the same sign if they are zeros
+     */
+    public boolean isThin() {
+        return lo == hi || (!isNaI() && Comparisons.compareQuietEqual(lo, hi, new Environment()) && lo.isSignMinus() == hi.isSignMinus());
+    }
+
+    public boolean contains(T x) {
+        Environment env = new Environment();
+        return !isNaI() && Comparisons.compareQuietLessThanEqual(lo, x, env) && Comparisons.compareQuietLessThanEqual(x, hi, env);
+    }
+
+    public Interval<T> negate() {
+        return isThin() ? of(lo.negate()) : new Interval<>(hi.negate(), lo.negate());
+    }
+
+    @Override
+    public String toString() {
+        return "[" + lo + ", " + hi + "]";
+    }
+}
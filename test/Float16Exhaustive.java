@@ -0,0 +1,123 @@
+import jsoftfloat.Environment;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryFormat;
+import jsoftfloat.operations.Arithmetic;
+import jsoftfloat.operations.Conversions;
+import jsoftfloat.types.Float16;
+import jsoftfloat.types.Float32;
+import jsoftfloat.types.Floating;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exhaustive test of the binary16 lookup tables against the generic ExactFloat implementations.
+ * <p>
+ * Every binary16 bit pattern is checked in every deterministic rounding mode, with the flags. Narrowing is checked for
+ * every binary32 with the top 16 bits set to each pattern and a handful of bottom halves around the rounding
+ * boundaries. The bit patterns are spread over all processors.
+ */
+public class Float16Exhaustive {
+    private static final RoundingMode[] MODES = {RoundingMode.even, RoundingMode.away, RoundingMode.min,
+            RoundingMode.max, RoundingMode.zero, RoundingMode.odd};
+    private static final int[] LOW_HALVES = {0, 1, 0x0FFF, 0x1000, 0x1001, 0x2000, 0x7FFF, 0x8000, 0xFFFF};
+
+    @Test
+    void ExhaustiveClassification() {
+        all(bits -> {
+            Float16 f = new Float16(bits);
+            BinaryFormat format = BinaryFormat.BINARY16;
+            String message = "0x" + Integer.toHexString(bits);
+            assertEquals(format.isNaN(bits), f.isNaN(), message);
+            assertEquals(format.isSignalling(bits), f.isSignalling(), message);
+            assertEquals(format.isInfinite(bits), f.isInfinite(), message);
+            assertEquals(format.isZero(bits), f.isZero(), message);
+            assertEquals(format.isSubnormal(bits), f.isSubnormal(), message);
+            assertEquals(format.isNormal(bits), f.isNormal(), message);
+            assertEquals(!f.isNaN() && !f.isInfinite(), f.isFinite(), message);
+        });
+    }
+
+    @Test
+    void ExhaustiveWidening() {
+        all(bits -> {
+            Float16 f = new Float16(bits);
+            Environment e1 = new Environment(), e2 = new Environment();
+            Float32 widened = Conversions.convertToFloat32(f, e1);
+            Float32 expected = Conversions.convert(f, Float32.Zero, e2);
+            if (f.isNaN()) {
+                // The generic conversion drops the payload
+                assertEquals(0x7FC00000 | (bits & 0x1FF) << 13, widened.bits & 0x7FFFFFFF);
+                assertEquals(f.isSignMinus(), widened.isSignMinus());
+            } else {
+                assertEquals(expected.bits, widened.bits, "0x" + Integer.toHexString(bits));
+            }
+            assertEquals(e2.flags, e1.flags);
+            assertEquals(Double.doubleToRawLongBits(Float.intBitsToFloat(widened.bits)),
+                    Conversions.convertToFloat64(f, new Environment()).bits);
+        });
+    }
+
+    @Test
+    void ExhaustiveNarrowing() {
+        all(hi -> {
+            for (int lo : LOW_HALVES) {
+                Float32 f = new Float32(hi << 16 | lo);
+                if (f.isNaN()) continue;
+                for (RoundingMode mode : MODES) {
+                    Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                    Float16 expected = Conversions.convert(f, Float16.Zero, e2);
+                    assertEquals(expected.bits, Conversions.convertToFloat16(f, e1).bits, f.bits + " in " + mode);
+                    assertEquals(e2.flags, e1.flags);
+                }
+            }
+        });
+    }
+
+    @Test
+    void ExhaustiveSquareRoot() {
+        all(bits -> {
+            Float16 f = new Float16(bits);
+            for (RoundingMode mode : MODES) {
+                Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                Float16 expected = genericSquareRoot(f, e2);
+                assertEquals(expected.bits, Arithmetic.squareRoot(f, e1).bits, "0x" + Integer.toHexString(bits) + " in " + mode);
+                assertEquals(e2.flags, e1.flags);
+            }
+        });
+    }
+
+    @Test
+    void ExhaustiveRoundToIntegral() {
+        all(bits -> {
+            Float16 f = new Float16(bits);
+            for (RoundingMode mode : MODES) {
+                Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                Float16 expected = genericRint(f, e2), actual = Conversions.rint(f, e1);
+                if (f.isNaN()) {
+                    // The generic version drops the payload
+                    assertTrue(actual.isNaN() && !actual.isSignalling());
+                } else {
+                    assertEquals(expected.bits, actual.bits, "0x" + Integer.toHexString(bits) + " in " + mode);
+                }
+                assertEquals(e2.flags, e1.flags);
+            }
+        });
+    }
+
+    private static void all(IntConsumer test) {
+        IntStream.range(0, 0x10000).parallel().forEach(test);
+    }
+
+    // Overload resolution would pick the table versions for Float16 arguments
+    private static <T extends Floating<T>> T genericSquareRoot(T f, Environment env) {
+        return Arithmetic.squareRoot(f, env);
+    }
+
+    private static <T extends Floating<T>> T genericRint(T f, Environment env) {
+        return Conversions.rint(f, env);
+    }
+}
@@ -0,0 +1,428 @@
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.operations.Arithmetic;
+import jsoftfloat.types.Float64;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential fuzzing of the binary64 arithmetic operations.
+ * <p>
+ * Exhaustive testing like in ComprehensiveTesting is impossible for 64 bit inputs, so operands are generated with a
+ * bias towards the cases which are hard to get right: ties, subnormals, cancellation, overflow and exact products.
+ * Round to nearest even is checked against the hardware double operations. The other modes are checked against an
+ * exact BigDecimal oracle which only needs to decide on which side of the hardware result the exact value lies.
+ * Stochastic rounding only has to give one of the results of rounding down and up.
+ * <p>
+ * The number of cases per operation and rounding mode can be set with -Djsoftfloat.fuzz.cases and the seed with
+ * -Djsoftfloat.fuzz.seed. By default a fixed seed and 16384 cases keep a plain test run quick and reproducible, so
+ * larger sweeps with random seeds are opt-in. A failure is shrunk to a simpler input before being reported along with
+ * the seed, which replays it.
+ */
+public class Float64Fuzzing {
+    private static final long CASES = Long.getLong("jsoftfloat.fuzz.cases", 1 << 14);
+    private static final long SEED = Long.getLong("jsoftfloat.fuzz.seed", 26);
+
+    private static final long SIGN = 0x80000000_00000000L, EXP = 0x7FF00000_00000000L, SIG = 0x000FFFFF_FFFFFFFFL;
+
+    enum Op {
+        add(2), sub(2), mul(2), div(2), sqrt(1), fma(3);
+        final int arity;
+
+        Op(int arity) {
+            this.arity = arity;
+        }
+    }
+
+    @Test
+    void FuzzAdd() {
+        fuzz(Op.add);
+    }
+
+    @Test
+    void FuzzSub() {
+        fuzz(Op.sub);
+    }
+
+    @Test
+    void FuzzMult() {
+        fuzz(Op.mul);
+    }
+
+    @Test
+    void FuzzDiv() {
+        fuzz(Op.div);
+    }
+
+    @Test
+    void FuzzSqrt() {
+        fuzz(Op.sqrt);
+    }
+
+    @Test
+    void FuzzFma() {
+        fuzz(Op.fma);
+    }
+
+    private void fuzz(Op op) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        SplittableRandom root = new SplittableRandom(SEED);
+        try {
+            List<Future<Failure>> results = new ArrayList<>();
+            for (RoundingMode mode : RoundingMode.values()) {
+                long perThread = CASES / threads + 1;
+                for (int t = 0; t < threads; t++) {
+                    SplittableRandom rng = root.split();
+                    results.add(pool.submit(() -> run(op, mode, rng, perThread)));
+                }
+            }
+            for (Future<Failure> f : results) {
+                Failure failure = f.get();
+                if (failure != null) {
+                    long[] shrunk = shrink(op, failure.mode, failure.in);
+                    fail(describe(op, failure.mode, shrunk) + " (seed " + SEED + ")");
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("seed " + SEED, e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static final class Failure {
+        final long[] in;
+        final RoundingMode mode;
+
+        Failure(long[] in, RoundingMode mode) {
+            this.in = in;
+            this.mode = mode;
+        }
+    }
+
+    // Returns the first failure or null
+    private static Failure run(Op op, RoundingMode mode, SplittableRandom rng, long cases) {
+        long[] in = new long[3];
+        for (long i = 0; i < cases; i++) {
+            generate(op, rng, in);
+            if (!check(op, mode, in)) {
+                return new Failure(in.clone(), mode);
+            }
+        }
+        return null;
+    }
+
+    private static void generate(Op op, SplittableRandom rng, long[] in) {
+        long a = operand(rng);
+        in[0] = a;
+        in[1] = operand(rng);
+        in[2] = operand(rng);
+        switch (rng.nextInt(6)) {
+            case 0:
+                // Near ties: b sits around half an ulp of a
+                in[1] = withExponent(rng.nextLong(), exponent(a) - 53 + rng.nextInt(5) - 2);
+                if (op == Op.fma) in[2] = withExponent(rng.nextLong(), exponent(a) + exponent(in[1]) - 53 + rng.nextInt(5) - 2);
+                break;
+            case 1:
+                // Massive cancellation: b is within a few ulps of -a
+                in[1] = (a ^ SIGN) + rng.nextInt(9) - 4;
+                if (op == Op.sub) in[1] ^= SIGN;
+                if (op == Op.fma) in[2] = (mulBits(a, in[1]) ^ SIGN) + rng.nextInt(9) - 4;
+                break;
+            case 2:
+                // Subnormal boundaries
+                in[0] = withExponent(rng.nextLong(), -1022 - rng.nextInt(3) + (rng.nextBoolean() ? 0 : 2));
+                in[1] = rng.nextBoolean() ? withExponent(rng.nextLong(), -1022 + rng.nextInt(3)) : rng.nextLong() & (SIGN | 0xFFF);
+                if (op == Op.mul || op == Op.fma) in[1] = withExponent(rng.nextLong(), rng.nextInt(64) - 60);
+                if (op == Op.div) in[1] = withExponent(rng.nextLong(), rng.nextInt(64) - 4);
+                break;
+            case 3:
+                // Overflow thresholds: results land around the largest finite number
+                in[0] = withExponent(rng.nextLong(), 1023 - rng.nextInt(3));
+                in[1] = withExponent(rng.nextLong(), (op == Op.mul || op == Op.fma) ? rng.nextInt(3) : (op == Op.div ? -rng.nextInt(3) : 1023 - rng.nextInt(3)));
+                if (rng.nextBoolean()) in[0] = 0x7FEFFFFF_FFFFFFFFL - rng.nextInt(4) | (rng.nextLong() & SIGN);
+                break;
+            case 4:
+                // Exact products: few significant bits so products and quotients often fit
+                in[0] = withExponent(rng.nextLong() & ~((1L << (rng.nextInt(52) + 1)) - 1), rng.nextInt(200) - 100);
+                in[1] = withExponent(rng.nextLong() & ~((1L << (rng.nextInt(52) + 1)) - 1), rng.nextInt(200) - 100);
+                if (op == Op.sqrt) in[0] = mulBits(in[1], in[1]);
+                break;
+            default:
+                // Leave the operands as they are
+                break;
+        }
+        if (op == Op.sqrt && rng.nextInt(4) != 0) in[0] &= ~SIGN;
+    }
+
+    private static long operand(SplittableRandom rng) {
+        switch (rng.nextInt(16)) {
+            case 0:
+                return rng.nextBoolean() ? Double.doubleToRawLongBits(0.0) : Double.doubleToRawLongBits(-0.0);
+            case 1:
+                return rng.nextBoolean() ? EXP : (EXP | SIGN);
+            case 2:
+                // Small integers
+                return Double.doubleToRawLongBits(rng.nextInt(-64, 64));
+            case 3:
+                // Powers of two and their neighbours
+                return withExponent(0, rng.nextInt(-1074, 1024)) + rng.nextInt(3) - 1;
+            default:
+                return withExponent(rng.nextLong(), rng.nextInt(-1040, 1024));
+        }
+    }
+
+    private static long withExponent(long bits, int exp) {
+        exp = Math.max(-1023, Math.min(1023, exp));
+        return (bits & (SIGN | SIG)) | ((long) (exp + 1023) << 52);
+    }
+
+    private static int exponent(long bits) {
+        return (int) ((bits & EXP) >>> 52) - 1023;
+    }
+
+    private static long mulBits(long a, long b) {
+        return Double.doubleToRawLongBits(Double.longBitsToDouble(a) * Double.longBitsToDouble(b));
+    }
+
+    private static boolean check(Op op, RoundingMode mode, long[] in) {
+        Environment env = new Environment(mode);
+        long actual = soft(op, in, env).bits;
+        double a = Double.longBitsToDouble(in[0]), b = Double.longBitsToDouble(in[1]), c = Double.longBitsToDouble(in[2]);
+        // Unused operands should not be able to affect the oracle
+        if (op.arity < 3) c = 0;
+        if (op.arity < 2) b = 0;
+        double nearest = hard(op, a, b, c);
+        if (Double.isNaN(nearest)) {
+            return Double.isNaN(Double.longBitsToDouble(actual));
+        }
+        long expected;
+        if (mode == RoundingMode.even) {
+            expected = Double.doubleToRawLongBits(nearest);
+        } else if (mode == RoundingMode.stochastic) {
+            // Random, but always one of the two neighbours of the exact result
+            long down = Double.doubleToRawLongBits(directed(op, RoundingMode.min, a, b, c, nearest));
+            long up = Double.doubleToRawLongBits(directed(op, RoundingMode.max, a, b, c, nearest));
+            expected = actual == down ? down : up;
+        } else {
+            expected = Double.doubleToRawLongBits(directed(op, mode, a, b, c, nearest));
+        }
+        if (expected != actual) return false;
+        // The oracle can tell exactly when a finite result was inexact
+        if (isFinite(a) && isFinite(b) && isFinite(c) && !(op == Op.div && b == 0)) {
+            boolean inexact = compare(op, a, b, c, Double.longBitsToDouble(expected)) != 0;
+            return inexact == env.flags.contains(Flags.inexact);
+        }
+        return true;
+    }
+
+    private static boolean isFinite(double d) {
+        return !Double.isInfinite(d) && !Double.isNaN(d);
+    }
+
+    private static Float64 soft(Op op, long[] in, Environment env) {
+        Float64 a = new Float64(in[0]), b = new Float64(in[1]), c = new Float64(in[2]);
+        switch (op) {
+            case add:
+                return Arithmetic.add(a, b, env);
+            case sub:
+                return Arithmetic.subtraction(a, b, env);
+            case mul:
+                return Arithmetic.multiplication(a, b, env);
+            case div:
+                return Arithmetic.division(a, b, env);
+            case sqrt:
+                return Arithmetic.squareRoot(a, env);
+            default:
+                return Arithmetic.fusedMultiplyAdd(a, b, c, env);
+        }
+    }
+
+    private static double hard(Op op, double a, double b, double c) {
+        switch (op) {
+            case add:
+                return a + b;
+            case sub:
+                return a - b;
+            case mul:
+                return a * b;
+            case div:
+                return a / b;
+            case sqrt:
+                return StrictMath.sqrt(a);
+            default:
+                return Math.fma(a, b, c);
+        }
+    }
+
+    /**
+     * Computes the result in a directed mode from the correctly rounded nearest result
+     */
+    private static double directed(Op op, RoundingMode mode, double a, double b, double c, double nearest) {
+        if (!isFinite(a) || !isFinite(b) || !isFinite(c) || (op == Op.div && b == 0)) {
+            // Special values are exact, and are not affected by rounding
+            return nearest;
+        }
+        int cmp = compare(op, a, b, c, nearest);
+        if (cmp == 0) {
+            if (nearest == 0 && Double.doubleToRawLongBits(nearest) == 0 && mode == RoundingMode.min && exactZeroSum(op, a, b, c)) {
+                return -0.0; // Section 6.3
+            }
+            return nearest;
+        }
+        boolean negative = nearest < 0 || (nearest == 0 && Double.doubleToRawLongBits(nearest) != 0);
+        switch (mode) {
+            case max:
+                return cmp > 0 ? Math.nextUp(nearest) : nearest;
+            case min:
+                return cmp < 0 ? Math.nextDown(nearest) : nearest;
+            case zero:
+                if (negative) {
+                    return cmp > 0 ? Math.nextUp(nearest) : nearest;
+                } else {
+                    return cmp < 0 ? Math.nextDown(nearest) : nearest;
+                }
+            case odd:
+                // The neighbour with an odd significand, which is the largest finite number rather than infinity
+                if (Double.isInfinite(nearest)) return Math.copySign(Double.MAX_VALUE, nearest);
+                if ((Double.doubleToRawLongBits(nearest) & 1) != 0) return nearest;
+                return cmp > 0 ? Math.nextUp(nearest) : Math.nextDown(nearest);
+            default:
+                // Ties away from zero only differs from nearest even on an exact tie
+                double other = cmp > 0 ? Math.nextUp(nearest) : Math.nextDown(nearest);
+                if (Double.isInfinite(nearest) || Double.isInfinite(other)) return nearest;
+                BigDecimal mid = new BigDecimal(nearest).add(new BigDecimal(other)).divide(BigDecimal.valueOf(2));
+                if (compare(op, a, b, c, mid) == 0) {
+                    return Math.abs(other) > Math.abs(nearest) ? other : nearest;
+                }
+                return nearest;
+        }
+    }
+
+    /**
+     * An exact zero sum is -0 when rounding towards -Infinity unless every term was +0
+     */
+    private static boolean exactZeroSum(Op op, double a, double b, double c) {
+        switch (op) {
+            case add:
+                return !(isPositiveZero(a) && isPositiveZero(b));
+            case sub:
+                return !(isPositiveZero(a) && isPositiveZero(-b));
+            case fma:
+                return !(isPositiveZero(a * b) && isPositiveZero(c));
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isPositiveZero(double d) {
+        return Double.doubleToRawLongBits(d) == 0;
+    }
+
+    private static int compare(Op op, double a, double b, double c, double t) {
+        if (Double.isInfinite(t)) return t > 0 ? -1 : 1;
+        return compare(op, a, b, c, new BigDecimal(t));
+    }
+
+    /**
+     * Compares the exact result of op with t
+     *
+     * @return the sign of (exact - t)
+     */
+    private static int compare(Op op, double a, double b, double c, BigDecimal t) {
+        BigDecimal A = new BigDecimal(a), B = new BigDecimal(b);
+        switch (op) {
+            case add:
+                return A.add(B).compareTo(t);
+            case sub:
+                return A.subtract(B).compareTo(t);
+            case mul:
+                return A.multiply(B).compareTo(t);
+            case div:
+                // a/b - t has the sign of (a - t*b) * sign(b)
+                return A.subtract(t.multiply(B)).signum() * B.signum();
+            case sqrt:
+                return A.compareTo(t.multiply(t));
+            default:
+                return A.multiply(B).add(new BigDecimal(c)).compareTo(t);
+        }
+    }
+
+    /**
+     * Greedily simplifies a failing input while it keeps failing
+     */
+    private static long[] shrink(Op op, RoundingMode mode, long[] in) {
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (long[] candidate : simplifications(op, in)) {
+                if (!check(op, mode, candidate)) {
+                    in = candidate;
+                    progress = true;
+                    break;
+                }
+            }
+        }
+        return in;
+    }
+
+    private static List<long[]> simplifications(Op op, long[] in) {
+        List<long[]> out = new ArrayList<>();
+        for (int i = 0; i < op.arity; i++) {
+            long sig = in[i] & SIG;
+            if (sig != 0) {
+                // Drop the lowest set bit, then try halving the number of significant bits
+                long[] fewer = in.clone();
+                fewer[i] = in[i] & ~Long.lowestOneBit(sig);
+                out.add(fewer);
+                int kept = 52 - Long.numberOfTrailingZeros(sig);
+                long[] half = in.clone();
+                half[i] = in[i] & ~((1L << (52 - kept / 2)) - 1);
+                out.add(half);
+            }
+            if ((in[i] & SIGN) != 0) {
+                long[] positive = in.clone();
+                positive[i] = in[i] & ~SIGN;
+                out.add(positive);
+            }
+        }
+        // Move every normal operand's exponent one step towards zero together, which keeps their relation intact
+        for (int step : new int[]{-1, 1}) {
+            long[] scaled = in.clone();
+            boolean changed = false;
+            for (int i = 0; i < op.arity; i++) {
+                int exp = exponent(in[i]);
+                if (exp == -1023 || exp == 1024) continue;
+                if ((step < 0 && exp > 0) || (step > 0 && exp < 0)) {
+                    scaled[i] = withExponent(in[i], exp + step);
+                    changed = true;
+                }
+            }
+            if (changed) out.add(scaled);
+        }
+        return out;
+    }
+
+    private static String describe(Op op, RoundingMode mode, long[] in) {
+        StringBuilder sb = new StringBuilder(op + " in mode " + mode + " failed for");
+        for (int i = 0; i < op.arity; i++) {
+            double d = Double.longBitsToDouble(in[i]);
+            sb.append(String.format(" 0x%016X (%s)", in[i], Double.toHexString(d)));
+        }
+        Environment env = new Environment(mode);
+        long actual = soft(op, in, env).bits;
+        sb.append(String.format(": got 0x%016X %s", actual, env.flags));
+        return sb.toString();
+    }
+}
@@ -1,11 +1,37 @@
 import jsoftfloat.Environment;
 import jsoftfloat.Flags;
+import jsoftfloat.PrecisionControl;
 import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.internal.LimbPool;
 import jsoftfloat.operations.Arithmetic;
 import jsoftfloat.operations.Conversions;
+import jsoftfloat.operations.Parsing;
+import jsoftfloat.operations.RiscV;
+import jsoftfloat.types.BFloat16;
+import jsoftfloat.types.BigFloat;
+import jsoftfloat.types.Decimal128;
+import jsoftfloat.types.Decimal64;
+import jsoftfloat.types.DoubleDouble;
+import jsoftfloat.types.E4M3;
+import jsoftfloat.types.E5M2;
+import jsoftfloat.types.Float128;
+import jsoftfloat.types.Float16;
 import jsoftfloat.types.Float32;
+import jsoftfloat.types.Float64;
+import jsoftfloat.types.Float80;
+import jsoftfloat.types.Floating;
+import jsoftfloat.types.Interval;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.function.Function;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestArithmetic {
@@ -182,4 +208,1139 @@ public class TestArithmetic {
     private Float32 sqrtHelper(int a, Environment e) {
         return Arithmetic.squareRoot(Float32.fromInteger(a), e);
     }
+
+    private static Float64 f64(double d) {
+        return new Float64(Double.doubleToRawLongBits(d));
+    }
+
+    @Test
+    public void TestRemainder() {
+        Environment e = new Environment();
+        int[] quotient = new int[1];
+        assertEquals(-1.0, Double.longBitsToDouble(Arithmetic.remainder(f64(5), f64(3), quotient, e).bits));
+        assertEquals(2, quotient[0]);
+        assertEquals(1.0, Double.longBitsToDouble(Arithmetic.remainder(f64(5), f64(-2), quotient, e).bits));
+        assertEquals(-2, quotient[0]);
+        assertEquals(-1.0, Double.longBitsToDouble(Arithmetic.remainder(f64(7), f64(2), e).bits)); // ties to even
+        assertEquals(Float64.NegativeZero.bits, Arithmetic.remainder(f64(-6), f64(3), e).bits);
+        assertEquals(Float32.fromInteger(1).bits, Arithmetic.remainder(Float32.fromInteger(1), Float32.Infinity, e).bits);
+        assertEquals(1, Arithmetic.remainder(new Float64(1), f64(1), e).bits);
+        assertTrue(e.flags.isEmpty());
+
+        assertTrue(Arithmetic.remainder(Float64.Infinity, f64(1), e).isNaN());
+        assertTrue(Arithmetic.remainder(f64(1), Float64.Zero, e).isNaN());
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+    }
+
+    @Test
+    public void TestFmod() {
+        Environment e = new Environment();
+        int[] quotient = new int[1];
+        assertEquals(2.0, Double.longBitsToDouble(Arithmetic.fmod(f64(5), f64(3), quotient, e).bits));
+        assertEquals(1, quotient[0]);
+        assertEquals(-1.0, Double.longBitsToDouble(Arithmetic.fmod(f64(-7), f64(2), quotient, e).bits));
+        assertEquals(-3, quotient[0]);
+        // 2^1023 mod 3 needs the whole exponent range
+        assertEquals(2.0, Double.longBitsToDouble(Arithmetic.fmod(f64(0x1p1023), f64(3), e).bits));
+        assertTrue(e.flags.isEmpty());
+    }
+
+    @Test
+    public void RemainderMatchesJava() {
+        // Java's % is fmod and Math.IEEEremainder is remainder, both exact
+        Random r = new Random(32);
+        int[] quotient = new int[1];
+        for (int i = 0; i < 20000; i++) {
+            double x = Double.longBitsToDouble(r.nextLong()), y = Double.longBitsToDouble(r.nextLong());
+            if (i % 3 == 0) y = Math.scalb(1 + r.nextDouble(), r.nextInt(40) - 20);
+            if (i % 5 == 0) x = Math.scalb(y, r.nextInt(100)) * (1 + r.nextInt(9));
+            if (Double.isNaN(x) || Double.isNaN(y)) continue;
+            Environment e = new Environment();
+            Float64 remainder = Arithmetic.remainder(f64(x), f64(y), quotient, e);
+            assertEquals(bits(Math.IEEEremainder(x, y)), bits(remainder), "remainder(" + x + ", " + y + ")");
+            if (Double.isFinite(x) && y != 0 && Double.isFinite(y)) {
+                assertEquals(lowQuotient(x, y, remainder), quotient[0], "quotient of " + x + ", " + y);
+            }
+            assertEquals(bits(x % y), bits(Arithmetic.fmod(f64(x), f64(y), e)), "fmod(" + x + ", " + y + ")");
+            assertEquals(bits(remainder), bits(generic(f64(x), f64(y), e)));
+
+            float fx = (float) x, fy = (float) y;
+            Float32 a = new Float32(Float.floatToRawIntBits(fx)), b = new Float32(Float.floatToRawIntBits(fy));
+            assertEquals(bits(fx % fy), bits(Arithmetic.fmod(a, b, e)), "fmod(" + fx + ", " + fy + ")");
+            assertEquals(bits(Math.IEEEremainder(fx, fy)), bits(Arithmetic.remainder(a, b, e)), "remainder(" + fx + ", " + fy + ")");
+            assertTrue(e.flags.isEmpty() || e.flags.equals(EnumSet.of(Flags.invalid)));
+        }
+
+        // Both paths give the same NaN bits, the canonical NaN for a signalling operand and the operand for a quiet one
+        Float32 signalling32 = new Float32(0xFF800123), quiet32 = new Float32(0x7FC00456), one32 = Float32.fromInteger(1);
+        Float64 signalling64 = new Float64(0xFFF00000_00000123L), quiet64 = new Float64(0x7FF80000_00000456L);
+        for (boolean first : new boolean[]{true, false}) {
+            Environment e1 = new Environment(), e2 = new Environment();
+            Float32 x = first ? signalling32 : one32, y = first ? one32 : signalling32;
+            assertEquals(Float32.NaN.bits, Arithmetic.remainder(x, y, e1).bits);
+            assertEquals(Float32.NaN.bits, generic(x, y, e2).bits);
+            Float64 u = first ? signalling64 : f64(1), v = first ? f64(1) : signalling64;
+            assertEquals(Float64.NaN.bits, Arithmetic.remainder(u, v, e1).bits);
+            assertEquals(Float64.NaN.bits, generic(u, v, e2).bits);
+            assertEquals(EnumSet.of(Flags.invalid), e1.flags);
+            assertEquals(e1.flags, e2.flags);
+        }
+        Environment e1 = new Environment(), e2 = new Environment();
+        assertEquals(quiet32.bits, Arithmetic.remainder(quiet32, one32, e1).bits);
+        assertEquals(quiet32.bits, generic(quiet32, one32, e2).bits);
+        assertEquals(quiet64.bits, Arithmetic.remainder(f64(1), quiet64, e1).bits);
+        assertEquals(quiet64.bits, generic(f64(1), quiet64, e2).bits);
+        assertTrue(e1.flags.isEmpty() && e2.flags.isEmpty());
+    }
+
+    // The value as a double with every NaN mapped to the same bits, as Java does not specify which NaN it produces
+    private static long bits(double d) {
+        return Double.doubleToLongBits(d);
+    }
+
+    private static long bits(Float64 f) {
+        return bits(Double.longBitsToDouble(f.bits));
+    }
+
+    private static long bits(Float32 f) {
+        return bits(Float.intBitsToFloat(f.bits));
+    }
+
+    // Always takes the path through ExactFloat
+    private static <T extends Floating<T>> T generic(T a, T b, Environment env) {
+        return Arithmetic.remainder(a, b, env);
+    }
+
+    // The low 31 bits of (x - remainder) / y, which is an integer
+    private static int lowQuotient(double x, double y, Float64 remainder) {
+        BigDecimal n = new BigDecimal(x).subtract(new BigDecimal(Double.longBitsToDouble(remainder.bits))).divide(new BigDecimal(y));
+        int low = n.toBigIntegerExact().abs().intValue() & 0x7FFFFFFF;
+        return n.signum() < 0 ? -low : low;
+    }
+
+    @Test
+    public void MixedFormats() {
+        // 1 + 2^-24 is halfway between two Float32 values, and the tiny addend only survives with one rounding
+        Environment e = new Environment();
+        Float64 half = f64(1 + 0x1p-24), tiny = f64(0x1p-80);
+        assertEquals(0x3F800001, Arithmetic.add(half, tiny, Float32.Zero, e).bits);
+        assertEquals(0x3F800000, Arithmetic.subtraction(half, tiny, Float32.Zero, e).bits);
+        assertEquals(0x3F800001, Arithmetic.fusedMultiplyAdd(half, f64(1), tiny, Float32.Zero, e).bits);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+
+        e = new Environment();
+        assertEquals(0x3FB504F3, Arithmetic.squareRoot(f64(2), Float32.Zero, e).bits);
+        assertEquals(0x3EAAAAAB, Arithmetic.division(f64(1), f64(3), Float32.Zero, e).bits);
+        assertEquals(0x7F800000, Arithmetic.multiplication(f64(1e30), f64(1e30), Float32.Zero, e).bits);
+        assertEquals(EnumSet.of(Flags.inexact, Flags.overflow), e.flags);
+
+        // Widening is exact
+        e = new Environment();
+        assertEquals(Double.doubleToRawLongBits((double) 0.1f * 0.3f), Arithmetic.multiplication(new Float32(Float.floatToRawIntBits(0.1f)),
+                new Float32(Float.floatToRawIntBits(0.3f)), Float64.Zero, e).bits);
+        assertEquals(Float64.NegativeZero.bits, Arithmetic.add(Float32.NegativeZero, Float32.NegativeZero, Float64.Zero, e).bits);
+        assertEquals(Float64.Infinity.bits, Arithmetic.division(Float32.fromInteger(1), Float32.Zero, Float64.Zero, e).bits);
+        assertEquals(EnumSet.of(Flags.divByZero), e.flags);
+
+        e = new Environment();
+        assertTrue(Arithmetic.squareRoot(f64(-1), Float32.Zero, e).isNaN());
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+
+        // With the same format on both sides it is the ordinary operation
+        Random r = new Random(37);
+        for (int i = 0; i < 500; i++) {
+            Float64 a = new Float64(r.nextLong()), b = new Float64(r.nextLong());
+            if (a.isNaN() || b.isNaN()) continue;
+            for (RoundingMode mode : RoundingMode.values()) {
+                Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                assertEquals(Arithmetic.add(a, b, e2).bits, Arithmetic.add(a, b, Float64.Zero, e1).bits);
+                assertEquals(Arithmetic.multiplication(a, b, e2).bits, Arithmetic.multiplication(a, b, Float64.Zero, e1).bits);
+                assertEquals(Arithmetic.division(a, b, e2).bits, Arithmetic.division(a, b, Float64.Zero, e1).bits);
+                assertEquals(e2.flags, e1.flags);
+            }
+        }
+    }
+
+    // Always takes the path through ExactFloat
+    private static <T extends Floating<T>> T exact(int op, T a, T b, T c, Environment env) {
+        switch (op) {
+            case 0:
+                return Arithmetic.add(a, b, env);
+            case 1:
+                return Arithmetic.subtraction(a, b, env);
+            case 2:
+                return Arithmetic.multiplication(a, b, env);
+            case 3:
+                return Arithmetic.division(a, b, env);
+            case 4:
+                return Arithmetic.squareRoot(a, env);
+            default:
+                return Arithmetic.fusedMultiplyAdd(a, b, c, env);
+        }
+    }
+
+    private static Float32 fast(int op, Float32 a, Float32 b, Float32 c, Environment env) {
+        switch (op) {
+            case 0:
+                return Arithmetic.add(a, b, env);
+            case 1:
+                return Arithmetic.subtraction(a, b, env);
+            case 2:
+                return Arithmetic.multiplication(a, b, env);
+            case 3:
+                return Arithmetic.division(a, b, env);
+            case 4:
+                return Arithmetic.squareRoot(a, env);
+            default:
+                return Arithmetic.fusedMultiplyAdd(a, b, c, env);
+        }
+    }
+
+    private interface Operation<T> {
+        T apply(int op, T a, T b, T c, Environment env);
+    }
+
+    private static <T> void matches(T a, T b, T c, int ops, Operation<T> fast, Operation<T> reference,
+                                    Function<T, Object> bits) {
+        matches(a, b, c, ops, fast, reference, bits, PrecisionControl.bits64);
+    }
+
+    /**
+     * Checks that the fast path of a format gives the same value and flags as a reference for the first ops operations
+     * on a, b and c in every rounding mode and precision control. This is what keeps the shortcuts for subnormals,
+     * overflow and cancellation honest. The reference returns null for results it can't check, and bits has to tell
+     * any two different results apart.
+     */
+    private static <T> void matches(T a, T b, T c, int ops, Operation<T> fast, Operation<T> reference,
+                                    Function<T, Object> bits, PrecisionControl... precisions) {
+        for (int op = 0; op < ops; op++) {
+            for (RoundingMode mode : RoundingMode.values()) {
+                for (PrecisionControl precision : precisions) {
+                    Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                    e1.precision = e2.precision = precision;
+                    T expected = reference.apply(op, a, b, c, e2);
+                    if (expected == null) continue;
+                    T actual = fast.apply(op, a, b, c, e1);
+                    String message = "op " + op + " of " + bits.apply(a) + ", " + bits.apply(b) + ", " + bits.apply(c)
+                            + " in " + mode + " with " + precision;
+                    assertEquals(bits.apply(expected), bits.apply(actual), message);
+                    assertEquals(e2.flags, e1.flags, message);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void Float32MatchesExact() {
+        Random r = new Random(38);
+        for (int i = 0; i < 3000; i++) {
+            int x = r.nextInt(), y = i % 3 == 0 ? x ^ r.nextInt(16) ^ 0x80000000 : r.nextInt(), z = r.nextInt();
+            if (i % 5 == 0) x &= 0x80FFFFFF;
+            matches(new Float32(x), new Float32(y), new Float32(z), 6, TestArithmetic::fast, TestArithmetic::exact,
+                    f -> f.bits);
+        }
+        Environment e = new Environment(RoundingMode.odd);
+        assertEquals(0x3F800001, Arithmetic.add(Float32.fromInteger(1), new Float32(0x33000000), e).bits); // 1 + 2^-25
+        assertEquals(0x3EAAAAAB, Arithmetic.division(Float32.fromInteger(1), Float32.fromInteger(3), e).bits);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+    }
+
+    private static Float16 fast(int op, Float16 a, Float16 b, Float16 c, Environment env) {
+        switch (op) {
+            case 0:
+                return Arithmetic.add(a, b, env);
+            case 1:
+                return Arithmetic.subtraction(a, b, env);
+            case 2:
+                return Arithmetic.multiplication(a, b, env);
+            case 3:
+                return Arithmetic.division(a, b, env);
+            case 4:
+                return Arithmetic.squareRoot(a, env);
+            default:
+                return Arithmetic.fusedMultiplyAdd(a, b, c, env);
+        }
+    }
+
+    @Test
+    public void Float16MatchesExact() {
+        Random r = new Random(41);
+        for (int i = 0; i < 5000; i++) {
+            int x = r.nextInt(0x10000), y = i % 3 == 0 ? x ^ r.nextInt(16) ^ 0x8000 : r.nextInt(0x10000), z = r.nextInt(0x10000);
+            if (i % 5 == 0) x &= 0x83FF;
+            matches(new Float16(x), new Float16(y), new Float16(z), 6, TestArithmetic::fast, TestArithmetic::exact,
+                    f -> f.bits);
+        }
+        Environment e = new Environment();
+        Float16 one = new Float16(0x3C00);
+        assertEquals(0x3C01, Arithmetic.add(one, new Float16(0x1401), e).bits); // 1 + 2^-10 + 2^-20
+        assertEquals(0x3555, Arithmetic.division(one, new Float16(0x4200), e).bits);
+        assertEquals(0x7C00, Arithmetic.multiplication(new Float16(0x7BFF), new Float16(0x4000), e).bits);
+        assertEquals(EnumSet.of(Flags.inexact, Flags.overflow), e.flags);
+    }
+
+    @Test
+    public void BFloat16DotProduct() {
+        // Each step rounds once, like a fused multiply-add of the widened values
+        Random r = new Random(42);
+        short[] a = new short[300], b = new short[300];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = (short) (i % 7 == 0 ? r.nextInt() & 0x80FF : r.nextInt());
+            b[i] = (short) (i == 150 ? 0x7F80 : r.nextInt() & 0xBFFF);
+        }
+        for (RoundingMode mode : RoundingMode.values()) {
+            for (int length : new int[]{100, 300}) {
+                Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                Float32 expected = Float32.Zero;
+                for (int i = 0; i < length; i++) {
+                    Float32 x = Conversions.convertToFloat32(new BFloat16(a[i]), e2), y = Conversions.convertToFloat32(new BFloat16(b[i]), e2);
+                    expected = exact(5, x, y, expected, e2);
+                }
+                assertEquals(expected.bits, Arithmetic.dotProduct(a, 0, b, 0, length, Float32.Zero, e1).bits, "in " + mode);
+                assertEquals(e2.flags, e1.flags);
+            }
+        }
+        Environment e = new Environment();
+        short[] ones = {0x3F80, 0x3F80};
+        assertEquals(0x40000000, Arithmetic.dotProduct(ones, 0, ones, 0, 2, Float32.Zero, e).bits);
+        assertEquals(0x80000000, Arithmetic.dotProduct(ones, 0, ones, 0, 0, Float32.NegativeZero, e).bits);
+        assertTrue(e.flags.isEmpty());
+    }
+
+    @Test
+    public void EightBitTables() {
+        Environment e = new Environment();
+        E4M3 max = new E4M3(0x7E);
+        assertEquals(448, max.toExactFloat().toBigDecimal().intValueExact());
+        assertEquals(0x7E, Arithmetic.add(max, new E4M3(0x58), e).bits); // 448 + 16 is a tie, to even
+        assertEquals(0x7F, Arithmetic.add(max, new E4M3(0x60), e).bits); // 448 + 32 is 480, which is too large
+        assertEquals(EnumSet.of(Flags.inexact, Flags.overflow), e.flags);
+        assertEquals(0x7E, Arithmetic.add(max, new E4M3(0x60), new Environment(RoundingMode.zero)).bits);
+        assertEquals(0x7C, Arithmetic.multiplication(new E5M2(0x7B), new E5M2(0x44), e).bits); // 57344 * 4 overflows
+        e = new Environment();
+        assertEquals(0x40, Arithmetic.division(new E4M3(0x48), new E4M3(0x40), e).bits); // 4 / 2
+        assertEquals((byte) 0xB8, Arithmetic.subtraction(new E4M3(0x38), new E4M3(0x40), e).bits); // 1 - 2
+        assertTrue(e.flags.isEmpty());
+
+        // The tables and the bulk kernels agree with the generic implementation in every mode
+        Random r = new Random(43);
+        byte[] a = new byte[2000], b = new byte[2000], out = new byte[2000];
+        r.nextBytes(a);
+        r.nextBytes(b);
+        for (RoundingMode mode : RoundingMode.values()) {
+            for (int op = 0; op < 4; op++) {
+                Environment e1 = new Environment(mode), e2 = new Environment(mode), e3 = new Environment(mode, 0);
+                eightBit(op, a, b, out, new E4M3(0), e3);
+                for (int i = 0; i < a.length; i++) {
+                    E4M3 x = new E4M3(a[i]), y = new E4M3(b[i]);
+                    byte expected = exact(op, x, y, x, e2).bits;
+                    assertEquals(expected, fast(op, x, y, e1).bits, "op " + op + " of " + a[i] + ", " + b[i] + " in " + mode);
+                    assertEquals(expected, out[i]);
+                }
+                assertEquals(e2.flags, e1.flags);
+                assertEquals(e2.flags, e3.flags);
+                e1 = new Environment(mode);
+                e2 = new Environment(mode);
+                for (int i = 0; i < a.length; i++) {
+                    E5M2 x = new E5M2(a[i]), y = new E5M2(b[i]);
+                    assertEquals(exact(op, x, y, x, e2).bits, fast(op, x, y, e1).bits, "op " + op + " of " + a[i] + ", " + b[i] + " in " + mode);
+                }
+                assertEquals(e2.flags, e1.flags);
+            }
+        }
+    }
+
+    private static E4M3 fast(int op, E4M3 a, E4M3 b, Environment env) {
+        switch (op) {
+            case 0:
+                return Arithmetic.add(a, b, env);
+            case 1:
+                return Arithmetic.subtraction(a, b, env);
+            case 2:
+                return Arithmetic.multiplication(a, b, env);
+            default:
+                return Arithmetic.division(a, b, env);
+        }
+    }
+
+    private static E5M2 fast(int op, E5M2 a, E5M2 b, Environment env) {
+        switch (op) {
+            case 0:
+                return Arithmetic.add(a, b, env);
+            case 1:
+                return Arithmetic.subtraction(a, b, env);
+            case 2:
+                return Arithmetic.multiplication(a, b, env);
+            default:
+                return Arithmetic.division(a, b, env);
+        }
+    }
+
+    private static void eightBit(int op, byte[] a, byte[] b, byte[] out, E4M3 helper, Environment env) {
+        switch (op) {
+            case 0:
+                Arithmetic.add(a, 0, b, 0, out, 0, a.length, helper, env);
+                break;
+            case 1:
+                Arithmetic.subtraction(a, 0, b, 0, out, 0, a.length, helper, env);
+                break;
+            case 2:
+                Arithmetic.multiplication(a, 0, b, 0, out, 0, a.length, helper, env);
+                break;
+            default:
+                Arithmetic.division(a, 0, b, 0, out, 0, a.length, helper, env);
+        }
+    }
+
+    private static Float128 fast(int op, Float128 a, Float128 b, Environment env) {
+        switch (op) {
+            case 0:
+                return Arithmetic.add(a, b, env);
+            case 1:
+                return Arithmetic.subtraction(a, b, env);
+            case 2:
+                return Arithmetic.multiplication(a, b, env);
+            case 3:
+                return Arithmetic.division(a, b, env);
+            default:
+                return Arithmetic.squareRoot(a, env);
+        }
+    }
+
+    @Test
+    public void Float128MatchesExact() {
+        Random r = new Random(44);
+        for (int i = 0; i < 3000; i++) {
+            long xHi = r.nextLong(), xLo = r.nextLong(), yHi = r.nextLong(), yLo = r.nextLong();
+            if (i % 3 == 0) {
+                yHi = xHi ^ r.nextInt(4) ^ 0x80000000_00000000L;
+                yLo = xLo ^ r.nextInt(1000);
+            }
+            if (i % 5 == 0) xHi &= 0x8000FFFF_FFFFFFFFL;
+            if (i % 7 == 0) {
+                // Exponents close to each other and to 1 don't overflow or underflow
+                xHi = xHi & 0x8000FFFF_FFFFFFFFL | (long) (16383 + r.nextInt(200) - 100) << 48;
+                yHi = yHi & 0x8000FFFF_FFFFFFFFL | (long) (16383 + r.nextInt(200) - 100) << 48;
+            }
+            Float128 a = new Float128(xHi, xLo);
+            matches(a, new Float128(yHi, yLo), a, 5, (op, x, y, z, env) -> fast(op, x, y, env), TestArithmetic::exact,
+                    f -> Arrays.asList(f.hi, f.lo));
+        }
+        // Exact squares leave no remainder
+        for (int i = 0; i < 1000; i++) {
+            BigInteger root = BigInteger.valueOf(r.nextLong() >>> 8);
+            Environment e = new Environment();
+            Float128 square = Float128.fromExact(new ExactFloat(false, 2 * i - 1000, root.multiply(root)), e);
+            Float128 expected = Float128.fromExact(new ExactFloat(false, i - 500, root), e);
+            Float128 actual = Arithmetic.squareRoot(square, e);
+            assertEquals(expected.hi, actual.hi);
+            assertEquals(expected.lo, actual.lo);
+            assertTrue(e.flags.isEmpty());
+        }
+        Environment e = new Environment();
+        Float128 one = new Float128(0x3FFF0000_00000000L, 0), three = new Float128(0x40008000_00000000L, 0);
+        Float128 third = Arithmetic.division(one, three, e), root = Arithmetic.squareRoot(Arithmetic.add(one, one, e), e);
+        assertEquals(0x3FFD5555_55555555L, third.hi);
+        assertEquals(0x55555555_55555555L, third.lo);
+        assertEquals(0x3FFF6A09_E667F3BCL, root.hi);
+        assertEquals(0xC908B2FB_1366EA95L, root.lo);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+    }
+
+    @Test
+    public void Float80MatchesExact() {
+        // Except with 64 bits the reference rounds ExactFloat to the precision control itself
+        Operation<Float80> reference = (op, x, y, z, env) -> {
+            if (env.mode == RoundingMode.stochastic) return null;
+            if (env.precision == PrecisionControl.bits64) return exact(op, x, y, z, env);
+            ExactFloat result = exactFloat(op, x.toExactFloat(), y.toExactFloat());
+            return result == null ? null : Float80.round(result, env.precision.bits, env);
+        };
+        Random r = new Random(45);
+        for (int i = 0; i < 3000; i++) {
+            int xExponent = r.nextInt(0x8000) - 16383, yExponent = r.nextInt(0x8000) - 16383;
+            if (i % 3 == 0) {
+                // Exponents close to each other and to 1 don't overflow or underflow
+                xExponent = r.nextInt(200) - 100;
+                yExponent = xExponent - r.nextInt(3);
+            }
+            long x = r.nextLong() | Long.MIN_VALUE, y = i % 5 == 0 ? x ^ r.nextInt(4) : r.nextLong() | Long.MIN_VALUE;
+            if (i % 7 == 0) {
+                xExponent = -16383;
+                x &= Long.MAX_VALUE;
+            }
+            Float80 a = new Float80(r.nextBoolean(), xExponent, x), b = new Float80(r.nextBoolean(), yExponent, y);
+            if (a.isNaN() || b.isNaN() || a.isInfinite() || b.isInfinite()) continue;
+            matches(a, b, a, 5, (op, p, q, s, env) -> fast(op, p, q, env), reference,
+                    f -> Arrays.asList(f.signExponent, f.significand), PrecisionControl.values());
+        }
+        // Rounding to 53 bits gives the same results as binary64, away from its exponent limits
+        Environment e = new Environment();
+        e.precision = PrecisionControl.bits53;
+        Float80 one = Conversions.convertToFloat80(new Float64(0x3FF00000_00000000L), e);
+        Float80 three = Conversions.convertToFloat80(new Float64(0x40080000_00000000L), e);
+        Float80 third = Arithmetic.division(one, three, e);
+        assertEquals(Double.doubleToRawLongBits(1.0 / 3), Conversions.convertToFloat64(third, e).bits);
+        assertEquals(0xAAAAAAAA_AAAAA800L, third.significand);
+        e.precision = PrecisionControl.bits64;
+        assertEquals(0xAAAAAAAA_AAAAAAABL, Arithmetic.division(one, three, e).significand);
+        assertEquals(0xB504F333_F9DE6484L, Arithmetic.squareRoot(Arithmetic.add(one, one, e), e).significand);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+    }
+
+    private static Float80 fast(int op, Float80 a, Float80 b, Environment env) {
+        switch (op) {
+            case 0:
+                return Arithmetic.add(a, b, env);
+            case 1:
+                return Arithmetic.subtraction(a, b, env);
+            case 2:
+                return Arithmetic.multiplication(a, b, env);
+            case 3:
+                return Arithmetic.division(a, b, env);
+            default:
+                return Arithmetic.squareRoot(a, env);
+        }
+    }
+
+    // The exact result of op on two non-zero finite values, or null if it is zero or not a real number
+    private static ExactFloat exactFloat(int op, ExactFloat a, ExactFloat b) {
+        ExactFloat result;
+        switch (op) {
+            case 0:
+                result = a.add(b);
+                break;
+            case 1:
+                result = a.add(b.negate());
+                break;
+            case 2:
+                result = a.multiply(b);
+                break;
+            case 3:
+                result = a.divide(b, 140);
+                break;
+            default:
+                if (a.sign) return null;
+                result = a.squareRoot(140);
+        }
+        return result.isZero() ? null : result;
+    }
+
+    @Test
+    public void DoubleDoubleErrorBounds() {
+        // Each operation stays within its error bound and returns a normalized pair
+        Random r = new Random(46);
+        Environment e = new Environment();
+        double[] bounds = {3, 4, 15, 4};
+        for (int i = 0; i < 3000; i++) {
+            DoubleDouble x = randomPair(r), y = randomPair(r);
+            if (i % 3 == 0) {
+                // Close to -x, so that most of the sum cancels
+                DoubleDouble small = new DoubleDouble(Double.doubleToRawLongBits(Math.scalb(1 + r.nextDouble(), -80)), 0);
+                y = Arithmetic.add(x.negate(), Arithmetic.multiplication(x, small, e), e);
+            }
+            ExactFloat a = x.toExactFloat(), b = y.toExactFloat();
+            DoubleDouble[] actual = {Arithmetic.add(x, y, e), Arithmetic.multiplication(x, y, e),
+                    Arithmetic.division(x, y, e), Arithmetic.squareRoot(x.isSignMinus() ? x.negate() : x, e)};
+            ExactFloat[] expected = {a.add(b), a.multiply(b), a.divide(b, 200), a.abs().squareRoot(200)};
+            for (int op = 0; op < 4; op++) {
+                double hi = Double.longBitsToDouble(actual[op].hi), lo = Double.longBitsToDouble(actual[op].lo);
+                assertEquals(hi, hi + lo, "op " + op + " of " + x + ", " + y);
+                BigDecimal exact = expected[op].toBigDecimal(), error = actual[op].toExactFloat().toBigDecimal().subtract(exact);
+                assertTrue(error.abs().compareTo(exact.abs().multiply(new BigDecimal(bounds[op] * 0x1p-106))) <= 0,
+                        "op " + op + " of " + x + ", " + y);
+            }
+        }
+        assertTrue(e.flags.isEmpty());
+
+        // Square roots of operands whose binary64 root squared would underflow keep the same bound
+        for (int i = 0; i < 1000; i++) {
+            double hi = i == 0 ? Double.MIN_NORMAL * 3 : Math.scalb(1 + r.nextDouble(), -1074 + r.nextInt(140));
+            double lo = i == 0 ? Double.MIN_VALUE : hi < 0x1p-1000 ? 0 : Math.scalb(r.nextDouble() - 0.5, Math.getExponent(hi) - 52);
+            DoubleDouble x = new DoubleDouble(Double.doubleToRawLongBits(hi), Double.doubleToRawLongBits(lo));
+            DoubleDouble root = Arithmetic.squareRoot(x, e);
+            BigDecimal exact = x.toExactFloat().squareRoot(200).toBigDecimal(), error = root.toExactFloat().toBigDecimal().subtract(exact);
+            assertTrue(error.abs().compareTo(exact.multiply(new BigDecimal(4 * 0x1p-106))) <= 0, x.toString());
+        }
+        assertTrue(e.flags.isEmpty());
+
+        // The bulk kernels cancel what binary64 sums can't
+        long[] values = {Double.doubleToRawLongBits(1e16), Double.doubleToRawLongBits(1), Double.doubleToRawLongBits(-1e16)};
+        DoubleDouble total = Arithmetic.sum(values, 0, 3, DoubleDouble.Zero, e);
+        assertEquals(Double.doubleToRawLongBits(1), total.hi);
+        assertEquals(0, total.lo);
+        long[] a = new long[1000], b = new long[1000];
+        ExactFloat dot = new ExactFloat(BigInteger.ZERO);
+        for (int i = 0; i < a.length; i++) {
+            a[i] = Double.doubleToRawLongBits(r.nextDouble());
+            b[i] = Double.doubleToRawLongBits(r.nextDouble());
+            dot = dot.add(new Float64(a[i]).toExactFloat().multiply(new Float64(b[i]).toExactFloat()));
+        }
+        BigDecimal error = Arithmetic.dotProduct(a, 0, b, 0, a.length, DoubleDouble.Zero, e).toExactFloat().toBigDecimal()
+                .subtract(dot.toBigDecimal());
+        assertTrue(error.abs().compareTo(dot.toBigDecimal().multiply(new BigDecimal(0x1p-100))) < 0);
+        assertTrue(e.flags.isEmpty());
+
+        // Special values and overflow come from the binary64 operations on the leading parts
+        DoubleDouble max = new DoubleDouble(0x7FEFFFFF_FFFFFFFFL, 0);
+        assertTrue(Arithmetic.add(max, max, e).isInfinite());
+        assertTrue(Arithmetic.division(max, DoubleDouble.Zero, e).isInfinite());
+        assertTrue(Arithmetic.squareRoot(max.negate(), e).isNaN());
+        assertEquals(EnumSet.of(Flags.inexact, Flags.overflow, Flags.divByZero, Flags.invalid), e.flags);
+        long[] infinite = {0x7FF00000_00000000L, 0x3FF00000_00000000L};
+        assertTrue(Arithmetic.sum(infinite, 0, 2, DoubleDouble.Zero, e).isInfinite());
+        assertTrue(Arithmetic.dotProduct(infinite, 0, new long[]{0, 0}, 0, 2, DoubleDouble.Zero, e).isNaN());
+    }
+
+    // A normalized pair with an exponent from -100 to 100 and a random trailing part
+    private static DoubleDouble randomPair(Random r) {
+        double hi = (r.nextBoolean() ? 1 : -1) * Math.scalb(1 + r.nextDouble(), r.nextInt(200) - 100);
+        double lo = Math.scalb(r.nextDouble() - 0.5, Math.getExponent(hi) - 52);
+        double sum = hi + lo;
+        return new DoubleDouble(Double.doubleToRawLongBits(sum), Double.doubleToRawLongBits(lo - (sum - hi)));
+    }
+
+    @Test
+    public void BigFloatMatchesExact() {
+        // With the parameters of binary64 every mode rounds like the Float64 operations, stochastic included
+        Random r = new Random(47);
+        LimbPool pool = new LimbPool();
+        Operation<Float64> viaBigFloat = (op, a, b, c, env) -> {
+            BigFloat x = BigFloat.ofFormat(52, 11, pool).set(a, env), y = BigFloat.ofFormat(52, 11, pool).set(b, env);
+            if (op == 0) {
+                x.add(x, y, env);
+            } else if (op == 1) {
+                x.subtract(x, y, env);
+            } else if (op == 2) {
+                x.multiply(x, y, env);
+            } else if (op == 3) {
+                x.divide(x, y, env);
+            } else {
+                x.squareRoot(x, env);
+            }
+            return x.isNaN() ? Float64.NaN : x.toFloating(Float64.Zero, new Environment());
+        };
+        for (int i = 0; i < 4000; i++) {
+            Float64 a = new Float64(r.nextLong()), b = new Float64(i % 5 == 0 ? a.bits ^ r.nextInt(4) : r.nextLong());
+            if (i % 3 == 0) {
+                // Small exponents to get subnormal results
+                a = new Float64(a.bits & 0x83FFFFFF_FFFFFFFFL);
+            }
+            if (a.isSignalling() || b.isSignalling()) continue;
+            // BigFloat has no NaN payloads to compare
+            matches(a, b, a, 5, viaBigFloat, TestArithmetic::exact, f -> f.isNaN() ? "NaN" : (Object) f.bits);
+        }
+
+        // At high precision the quotient and root match ones from BigInteger, rounded to odd with a spare bit so that
+        // rounding them again is exact
+        for (int i = 0; i < 3000; i++) {
+            int precision = 1 + r.nextInt(400);
+            RoundingMode mode = RoundingMode.values()[r.nextInt(RoundingMode.values().length)];
+            if (mode == RoundingMode.stochastic) mode = RoundingMode.odd;
+            Environment e = new Environment(mode);
+            BigFloat a = new BigFloat(1 + r.nextInt(400), pool).set(randomExact(r), e);
+            BigFloat b = new BigFloat(1 + r.nextInt(400), pool).set(randomExact(r), e);
+            ExactFloat x = a.toExactFloat(), y = b.toExactFloat();
+            String message = a + ", " + b + " to " + precision + " bits in " + mode;
+
+            assertEquals(0, new BigFloat(precision, pool).add(a, b, e).toExactFloat()
+                    .compareTo(new BigFloat(precision, pool).set(x.add(y), e).toExactFloat()), message);
+            assertEquals(0, new BigFloat(precision, pool).multiply(a, b, e).toExactFloat()
+                    .compareTo(new BigFloat(precision, pool).set(x.multiply(y), e).toExactFloat()), message);
+
+            int shift = precision + y.significand.bitLength() + 2;
+            BigInteger[] quotient = x.significand.shiftLeft(shift).divideAndRemainder(y.significand);
+            ExactFloat exact = new ExactFloat(x.sign != y.sign, x.exponent - shift - y.exponent - 1,
+                    quotient[0].shiftLeft(1).or(BigInteger.valueOf(quotient[1].signum())));
+            assertEquals(0, new BigFloat(precision, pool).divide(a, b, e).toExactFloat()
+                    .compareTo(new BigFloat(precision, pool).set(exact, e).toExactFloat()), message);
+
+            a.set(x.abs(), e);
+            shift = 2 * precision + x.significand.bitLength() + 2;
+            shift += (x.exponent - shift) & 1;
+            BigInteger n = x.significand.shiftLeft(shift), root = n.sqrt();
+            exact = new ExactFloat(false, (x.exponent - shift) / 2 - 1,
+                    root.shiftLeft(1).or(root.multiply(root).equals(n) ? BigInteger.ZERO : BigInteger.ONE));
+            assertEquals(0, new BigFloat(precision, pool).squareRoot(a, e).toExactFloat()
+                    .compareTo(new BigFloat(precision, pool).set(exact, e).toExactFloat()), message);
+        }
+
+        // A limited exponent range overflows like the IEEE formats
+        Environment e = new Environment();
+        BigFloat third = new BigFloat(200, -10, 10, pool).set(new Float64(0x3FF00000_00000000L), e);
+        third.divide(third, new BigFloat(2, pool).set(new Float64(0x40080000_00000000L), e), e);
+        assertEquals("0.33333333333333333333333333333333333333333333333333333333333344", third.toString());
+        BigFloat big = new BigFloat(200, -10, 10, pool).set(new Float64(0x40900000_00000000L), e);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+        assertTrue(big.add(big, big, e).isInfinite());
+        assertEquals(EnumSet.of(Flags.inexact, Flags.overflow), e.flags);
+    }
+
+    // A value with up to 400 significand bits, some of them just above a power of two
+    private static ExactFloat randomExact(Random r) {
+        int bits = 1 + r.nextInt(400);
+        BigInteger significand = r.nextInt(4) == 0 ? BigInteger.ONE.shiftLeft(bits).add(BigInteger.valueOf(r.nextInt(4)))
+                : new BigInteger(bits, r).setBit(bits - 1);
+        return new ExactFloat(r.nextBoolean(), r.nextInt(400) - 200, significand);
+    }
+
+    @Test
+    public void DecimalsMatchBigDecimal() {
+        // BigDecimal keeps the same preferred exponents, so for values away from the ends of the exponent range the
+        // whole representation matches, not just the value
+        Random r = new Random(48);
+        RoundingMode[] modes = {RoundingMode.even, RoundingMode.away, RoundingMode.max, RoundingMode.min, RoundingMode.zero};
+        java.math.RoundingMode[] bigModes = {java.math.RoundingMode.HALF_EVEN, java.math.RoundingMode.HALF_UP,
+                java.math.RoundingMode.CEILING, java.math.RoundingMode.FLOOR, java.math.RoundingMode.DOWN};
+        for (int i = 0; i < 20000; i++) {
+            int m = r.nextInt(modes.length), range = i % 2 == 0 ? 5 : 40;
+            MathContext mc16 = new MathContext(16, bigModes[m]), mc34 = new MathContext(34, bigModes[m]);
+            Decimal64 a = new Decimal64(r.nextBoolean(), randomCoefficient(r, 16).longValue(), r.nextInt(2 * range + 1) - range);
+            Decimal64 b = new Decimal64(r.nextBoolean(), randomCoefficient(r, 16).longValue(), r.nextInt(2 * range + 1) - range);
+            Decimal128 c = Conversions.convertToDecimal128(a, new Environment()), d = Conversions.convertToDecimal128(b, new Environment());
+            BigDecimal x = toBigDecimal(a), y = toBigDecimal(b);
+            String message = a + ", " + b + " in " + modes[m];
+            Environment e = new Environment(modes[m]);
+
+            if (x.add(y).signum() != 0) {
+                assertEquals(x.add(y, mc16), toBigDecimal(Arithmetic.add(a, b, e)), message);
+                assertEquals(x.add(y, mc34), toBigDecimal(Arithmetic.add(c, d, e)), message);
+            }
+            assertEquals(x.multiply(y, mc16), toBigDecimal(Arithmetic.multiplication(a, b, e)), message);
+            assertEquals(x.multiply(y, mc34), toBigDecimal(Arithmetic.multiplication(c, d, e)), message);
+            if (y.signum() != 0) {
+                assertEquals(x.divide(y, mc16), toBigDecimal(Arithmetic.division(a, b, e)), message);
+                assertEquals(x.divide(y, mc34), toBigDecimal(Arithmetic.division(c, d, e)), message);
+            }
+            if (x.signum() > 0) {
+                // BigDecimal prefers a different exponent for inexact roots
+                assertEquals(0, x.sqrt(mc16).compareTo(toBigDecimal(Arithmetic.squareRoot(a, e))), message);
+                assertEquals(0, x.sqrt(mc34).compareTo(toBigDecimal(Arithmetic.squareRoot(c, e))), message);
+            }
+            BigDecimal quantized = x.setScale(-b.exponent(), bigModes[m]);
+            Decimal64 actual = Arithmetic.quantize(a, b, e);
+            if (quantized.precision() <= 16 || quantized.signum() == 0) {
+                assertEquals(quantized, toBigDecimal(actual), message);
+            } else {
+                assertTrue(actual.isNaN(), message);
+            }
+        }
+
+        // Exact results take the exponent closest to the ideal one
+        Environment e = new Environment();
+        assertEquals("3.00", Arithmetic.add(Parsing.parseDecimal64("1.00", e), Parsing.parseDecimal64("2", e), e).toString());
+        assertEquals("0.5", Arithmetic.division(Parsing.parseDecimal64("1", e), Parsing.parseDecimal64("2", e), e).toString());
+        assertEquals("1E+1", Arithmetic.division(Parsing.parseDecimal64("1E+3", e), Parsing.parseDecimal64("1E+2", e), e).toString());
+        assertEquals("0.0", Arithmetic.subtraction(Parsing.parseDecimal64("1.0", e), Parsing.parseDecimal64("1", e), e).toString());
+        assertEquals("-0.0", Arithmetic.subtraction(Parsing.parseDecimal64("1.0", e), Parsing.parseDecimal64("1", e), new Environment(RoundingMode.min)).toString());
+        assertEquals("1.0", Arithmetic.squareRoot(Parsing.parseDecimal64("1.00", e), e).toString());
+        assertTrue(e.flags.isEmpty());
+
+        // Subnormal results lose digits, and overflow depends on the mode like in the binary formats
+        assertEquals("1E-398", Arithmetic.multiplication(Parsing.parseDecimal64("1E-200", e), Parsing.parseDecimal64("1E-198", e), e).toString());
+        assertTrue(e.flags.isEmpty());
+        assertEquals("2E-398", Arithmetic.multiplication(Parsing.parseDecimal64("1.5E-200", e), Parsing.parseDecimal64("1E-198", e), e).toString());
+        assertEquals(EnumSet.of(Flags.inexact, Flags.underflow), e.flags);
+        e = new Environment(RoundingMode.zero);
+        assertEquals("9.999999999999999E+384", Arithmetic.multiplication(Parsing.parseDecimal64("1E+200", e), Parsing.parseDecimal64("1E+200", e), e).toString());
+        assertEquals(EnumSet.of(Flags.inexact, Flags.overflow), e.flags);
+        e = new Environment();
+        assertEquals("1.000000000000000000000000000000000E+6144", Arithmetic.multiplication(Parsing.parseDecimal128("1E+3000", e), Parsing.parseDecimal128("1E+3144", e), e).toString());
+        assertTrue(e.flags.isEmpty());
+        assertTrue(Arithmetic.division(Parsing.parseDecimal128("0", e), Parsing.parseDecimal128("0", e), e).isNaN());
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+
+        // Stochastic rounding picks one of the two neighbours
+        Decimal64 third = Parsing.parseDecimal64("0.3333333333333333", e);
+        for (int i = 0; i < 100; i++) {
+            Decimal64 q = Arithmetic.division(Parsing.parseDecimal64("1", e), Parsing.parseDecimal64("3", e), new Environment(RoundingMode.stochastic, i));
+            assertTrue(q.bits == third.bits || q.bits == third.bits + 1);
+        }
+    }
+
+    @Test
+    public void IntervalsMatchDirectedRounding() {
+        // Each bound is what the operation on the extreme bounds gives when rounded towards it, and the binary64 kernels
+        // agree with the generic operations, flags included
+        Random r = new Random(49);
+        for (int i = 0; i < 20000; i++) {
+            double[] a = randomInterval(r), b = randomInterval(r);
+            Interval<Float64> x = toInterval(a), y = toInterval(b);
+            long[] aLo = {x.lo.bits}, aHi = {x.hi.bits}, bLo = {y.lo.bits}, bHi = {y.hi.bits}, lo = new long[1], hi = new long[1];
+            Environment e1 = new Environment(), e2 = new Environment();
+            Interval<Float64> expected;
+            int op = i % 6;
+            if (op == 0) {
+                Arithmetic.add(aLo, aHi, 0, bLo, bHi, 0, lo, hi, 0, 1, e1);
+                expected = Arithmetic.add(x, y, e2);
+                assertEquals(directed(x.lo, y.lo, 0, RoundingMode.min), expected.lo.toString());
+                assertEquals(directed(x.hi, y.hi, 0, RoundingMode.max), expected.hi.toString());
+            } else if (op == 1) {
+                Arithmetic.subtraction(aLo, aHi, 0, bLo, bHi, 0, lo, hi, 0, 1, e1);
+                expected = Arithmetic.subtraction(x, y, e2);
+                assertEquals(directed(x.lo, y.hi.negate(), 0, RoundingMode.min), expected.lo.toString());
+                assertEquals(directed(x.hi, y.lo.negate(), 0, RoundingMode.max), expected.hi.toString());
+            } else if (op == 2) {
+                Arithmetic.multiplication(aLo, aHi, 0, bLo, bHi, 0, lo, hi, 0, 1, e1);
+                expected = Arithmetic.multiplication(x, y, e2);
+                assertCorners(x, y, 1, expected);
+            } else if (op == 3) {
+                Arithmetic.division(aLo, aHi, 0, bLo, bHi, 0, lo, hi, 0, 1, e1);
+                expected = Arithmetic.division(x, y, e2);
+                if (b[0] > 0 || b[1] < 0) assertCorners(x, y, 2, expected);
+            } else if (op == 5) {
+                Interval<Float64> z = toInterval(randomInterval(r));
+                Arithmetic.fusedMultiplyAdd(aLo, aHi, 0, bLo, bHi, 0, new long[]{z.lo.bits}, new long[]{z.hi.bits}, 0, lo, hi, 0, 1, e1);
+                expected = Arithmetic.fusedMultiplyAdd(x, y, z, e2);
+            } else {
+                Arithmetic.squareRoot(aLo, aHi, 0, lo, hi, 0, 1, e1);
+                expected = Arithmetic.squareRoot(x, e2);
+                if (a[1] >= 0) {
+                    Float64 lower = x.lo.isSignMinus() ? Float64.Zero : x.lo;
+                    assertEquals(Arithmetic.squareRoot(lower, new Environment(RoundingMode.min)).toString(), expected.lo.toString());
+                    assertEquals(Arithmetic.squareRoot(x.hi, new Environment(RoundingMode.max)).toString(), expected.hi.toString());
+                } else {
+                    assertTrue(expected.isNaI());
+                }
+            }
+            String message = op + " of " + x + ", " + y;
+            assertTrue(expected.isNaI() ? Double.isNaN(Double.longBitsToDouble(lo[0])) : Double.longBitsToDouble(expected.lo.bits) == Double.longBitsToDouble(lo[0]), message);
+            assertTrue(expected.isNaI() ? Double.isNaN(Double.longBitsToDouble(hi[0])) : Double.longBitsToDouble(expected.hi.bits) == Double.longBitsToDouble(hi[0]), message);
+            assertEquals(e2.flags, e1.flags, message);
+        }
+
+        // Bounds which are zeros of either sign, or which cancel, give the same signed zeros from the kernels as from the
+        // generic operations
+        double[] bounds = {Double.NEGATIVE_INFINITY, -1, -0.0, 0.0, 1, 3, Double.POSITIVE_INFINITY};
+        for (double al : bounds) for (double ah : bounds) for (double bl : bounds) for (double bh : bounds) {
+            if (!(al <= ah && bl <= bh)) continue;
+            Interval<Float64> x = toInterval(new double[]{al, ah}), y = toInterval(new double[]{bl, bh});
+            for (int op = 0; op < 6; op++) {
+                long[] aLo = {x.lo.bits}, aHi = {x.hi.bits}, bLo = {y.lo.bits}, bHi = {y.hi.bits}, lo = new long[1], hi = new long[1];
+                Environment e1 = new Environment(), e2 = new Environment();
+                Interval<Float64> expected;
+                if (op == 0) {
+                    Arithmetic.add(aLo, aHi, 0, bLo, bHi, 0, lo, hi, 0, 1, e1);
+                    expected = Arithmetic.add(x, y, e2);
+                } else if (op == 1) {
+                    Arithmetic.subtraction(aLo, aHi, 0, bLo, bHi, 0, lo, hi, 0, 1, e1);
+                    expected = Arithmetic.subtraction(x, y, e2);
+                } else if (op == 2) {
+                    Arithmetic.multiplication(aLo, aHi, 0, bLo, bHi, 0, lo, hi, 0, 1, e1);
+                    expected = Arithmetic.multiplication(x, y, e2);
+                } else if (op == 3) {
+                    Arithmetic.division(aLo, aHi, 0, bLo, bHi, 0, lo, hi, 0, 1, e1);
+                    expected = Arithmetic.division(x, y, e2);
+                } else if (op == 4) {
+                    Arithmetic.squareRoot(aLo, aHi, 0, lo, hi, 0, 1, e1);
+                    expected = Arithmetic.squareRoot(x, e2);
+                } else {
+                    Arithmetic.fusedMultiplyAdd(aLo, aHi, 0, aLo, aHi, 0, bLo, bHi, 0, lo, hi, 0, 1, e1);
+                    expected = Arithmetic.fusedMultiplyAdd(x, x, y, e2);
+                }
+                String message = op + " of " + x + ", " + y;
+                assertEquals(expected.lo.bits, lo[0], message);
+                assertEquals(expected.hi.bits, hi[0], message);
+                assertEquals(e2.flags, e1.flags, message);
+            }
+        }
+        long[] lo = new long[1], hi = new long[1];
+        Arithmetic.add(new long[]{0x80000000_00000000L}, new long[]{0}, 0, new long[]{0}, new long[]{0}, 0, lo, hi, 0, 1, new Environment());
+        assertEquals(0x80000000_00000000L, lo[0]);
+
+        // Thin intervals give the two neighbours of an inexact result, and fusedMultiplyAdd rounds once
+        Environment e = new Environment();
+        Interval<Float64> one = Interval.of(new Float64(0x3FF00000_00000000L)), three = Interval.of(new Float64(0x40080000_00000000L));
+        Interval<Float64> third = Arithmetic.division(one, three, e);
+        assertEquals(Math.nextUp(Double.longBitsToDouble(third.lo.bits)), Double.longBitsToDouble(third.hi.bits));
+        Interval<Float64> fma = Arithmetic.fusedMultiplyAdd(third, three, one.negate(), e);
+        assertEquals(-0x1p-54, Double.longBitsToDouble(fma.lo.bits));
+        assertEquals(0x1p-53, Double.longBitsToDouble(fma.hi.bits));
+        assertTrue(Arithmetic.division(one, new Interval<>(one.lo.negate(), one.lo), e).hi.isInfinite());
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+        assertTrue(Arithmetic.squareRoot(one.negate(), e).isNaI());
+        assertEquals(EnumSet.of(Flags.inexact, Flags.invalid), e.flags);
+    }
+
+    @Test
+    public void ThinIntervalsRoundOnce() {
+        // The upper bound of an inexact result of a thin interval is the next value up from the lower one, which has to
+        // be what rounding up gives, overflow included, in formats with and without infinities
+        Random r = new Random(49);
+        for (int i = 0; i < 5000; i++) {
+            thinMatchesDirected(new Float16(r.nextInt(0x10000)), new Float16(r.nextInt(0x10000)));
+            thinMatchesDirected(new E4M3(r.nextInt(0x100)), new E4M3(r.nextInt(0x100)));
+            thinMatchesDirected(new Float80((r.nextBoolean() ? 0x8000 : 0) | (1 + r.nextInt(0x7FFE)), r.nextLong() | Long.MIN_VALUE),
+                    new Float80((r.nextBoolean() ? 0x8000 : 0) | (1 + r.nextInt(0x7FFE)), r.nextLong() | Long.MIN_VALUE));
+            thinMatchesDirected(new Float128(r.nextLong(), r.nextLong()), new Float128(r.nextLong(), r.nextLong()));
+        }
+    }
+
+    // Makes thin intervals whose bounds are equal but different objects, so only their values can tell they are thin
+    private static <T extends Floating<T>> void thinMatchesDirected(T x, T y) {
+        if (x.isNaN() || y.isNaN()) return;
+        Interval<T> a = new Interval<>(x, x.negate().negate()), b = new Interval<>(y, y.negate().negate());
+        assertTrue(a.isThin() && b.isThin());
+        for (int op = 0; op < 4; op++) {
+            Environment e = new Environment(), down = new Environment(RoundingMode.min), up = new Environment(RoundingMode.max);
+            Interval<T> actual;
+            T lo, hi;
+            if (op == 0) {
+                actual = Arithmetic.add(a, b, e);
+                lo = Arithmetic.add(x, y, down);
+                hi = Arithmetic.add(x, y, up);
+            } else if (op == 1) {
+                actual = Arithmetic.multiplication(a, b, e);
+                lo = Arithmetic.multiplication(x, y, down);
+                hi = Arithmetic.multiplication(x, y, up);
+            } else if (op == 2) {
+                if (y.isZero()) continue;
+                actual = Arithmetic.division(a, b, e);
+                lo = Arithmetic.division(x, y, down);
+                hi = Arithmetic.division(x, y, up);
+            } else {
+                if (x.isSignMinus()) continue;
+                actual = Arithmetic.squareRoot(a, e);
+                lo = Arithmetic.squareRoot(x, down);
+                hi = Arithmetic.squareRoot(x, up);
+            }
+            if (lo.isNaN()) continue;
+            String message = op + " of " + key(x) + ", " + key(y);
+            assertEquals(key(lo), key(actual.lo), message);
+            assertEquals(key(hi), key(actual.hi), message);
+            down.flags.addAll(up.flags);
+            assertEquals(down.flags, e.flags, message);
+        }
+    }
+
+    // Tells values apart by sign and exact value, which is quicker than formatting them
+    private static String key(Floating<?> f) {
+        String sign = f.isSignMinus() ? "-" : "+";
+        if (f.isNaN() || f.isInfinite() || f.isZero()) return sign + (f.isNaN() ? "NaN" : f.isInfinite() ? "inf" : "0");
+        ExactFloat x = f.toExactFloat();
+        int zeros = x.significand.getLowestSetBit();
+        return sign + x.significand.shiftRight(zeros) + "p" + (x.exponent + zeros);
+    }
+
+    @Test
+    public void NextUp() {
+        // nextUp is rounding up a value a little above this one
+        Random r = new Random(49);
+        for (int i = 0; i < 0x10000; i++) {
+            assertNextUp(new Float16(i));
+            assertNextUp(new E4M3(i & 0xFF));
+            assertNextUp(new Float32(r.nextInt()));
+            assertNextUp(new Float64(r.nextLong()));
+            assertNextUp(new Float80(r.nextInt(0x10000), r.nextInt(4) == 0 ? r.nextLong() >>> 1 : r.nextLong() | Long.MIN_VALUE));
+            assertNextUp(new Float128(r.nextLong(), r.nextLong()));
+        }
+        for (double d : new double[]{-0.0, 0.0, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MIN_NORMAL, Double.NEGATIVE_INFINITY}) {
+            assertEquals(Double.doubleToRawLongBits(Math.nextUp(d)), new Float64(Double.doubleToRawLongBits(d)).nextUp().bits);
+        }
+        for (Float80 f : new Float80[]{Float80.NegativeInfinity, Float80.NegativeZero, new Float80(0x7FFE, -1), new Float80(0, Long.MAX_VALUE),
+                new Float80(0x8001, Long.MIN_VALUE), new Float80(0x8000, 1)}) {
+            assertNextUp(f);
+        }
+        for (Float128 f : new Float128[]{Float128.NegativeInfinity, Float128.NegativeZero, new Float128(0x7FFEFFFF_FFFFFFFFL, -1),
+                new Float128(0x80010000_00000000L, 0), new Float128(0x80000000_00000000L, 1)}) {
+            assertNextUp(f);
+        }
+        assertEquals(0x7F, new E4M3(0x7E).nextUp().bits);
+        assertEquals((byte) 0xFE, new E4M3(0xFF).nextUp().bits);
+        assertEquals(Float64.Infinity.bits, Float64.Infinity.nextUp().bits);
+    }
+
+    private static <T extends Floating<T>> void assertNextUp(T x) {
+        if (x.isNaN() || (x.isInfinite() && !x.isSignMinus())) return;
+        // Negative infinity steps up to the most negative number
+        ExactFloat value = x.isInfinite() ? new ExactFloat(true, 1 << 20, BigInteger.ONE) : x.isZero() ? null : x.toExactFloat();
+        if (value == null) {
+            value = new ExactFloat(false, -(1 << 20), BigInteger.ONE);
+        } else {
+            value = value.add(new ExactFloat(false, value.exponent + value.significand.bitLength() - 300, BigInteger.ONE));
+        }
+        assertEquals(key(x.fromExactFloat(value, new Environment(RoundingMode.max))), key(x.nextUp()), key(x));
+    }
+
+    private static double[] randomInterval(Random r) {
+        double a = Math.scalb(r.nextDouble() - 0.5, r.nextInt(2100) - 1074), b = r.nextInt(3) == 0 ? a : Math.scalb(r.nextDouble() - 0.5, r.nextInt(100) - 50);
+        if (r.nextInt(10) == 0) b = r.nextBoolean() ? 0 : Double.POSITIVE_INFINITY;
+        return new double[]{Math.min(a, b), Math.max(a, b)};
+    }
+
+    private static Interval<Float64> toInterval(double[] bounds) {
+        Float64 lo = new Float64(Double.doubleToRawLongBits(bounds[0]));
+        return bounds[0] == bounds[1] ? Interval.of(lo) : new Interval<>(lo, new Float64(Double.doubleToRawLongBits(bounds[1])));
+    }
+
+    private static String directed(Float64 x, Float64 y, int op, RoundingMode mode) {
+        Environment e = new Environment(mode);
+        if (op == 0) return Arithmetic.add(x, y, e).toString();
+        if (x.isZero() || y.isZero()) return x.isSignMinus() == y.isSignMinus() ? "0.0" : "-0.0";
+        return (op == 1 ? Arithmetic.multiplication(x, y, e) : Arithmetic.division(x, y, e)).toString();
+    }
+
+    // The bounds are the smallest and largest of the products or quotients of the bounds, rounded towards them
+    private static void assertCorners(Interval<Float64> x, Interval<Float64> y, int op, Interval<Float64> actual) {
+        double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+        for (Float64 a : Arrays.asList(x.lo, x.hi)) {
+            for (Float64 b : Arrays.asList(y.lo, y.hi)) {
+                if (op == 2 && a.isInfinite() && b.isInfinite()) continue;
+                lo = Math.min(lo, Double.parseDouble(directed(a, b, op, RoundingMode.min)));
+                hi = Math.max(hi, Double.parseDouble(directed(a, b, op, RoundingMode.max)));
+            }
+        }
+        // Zeros of either sign are the same bound
+        assertTrue(lo == Double.longBitsToDouble(actual.lo.bits), x + ", " + y);
+        assertTrue(hi == Double.longBitsToDouble(actual.hi.bits), x + ", " + y);
+    }
+
+    private static BigInteger randomCoefficient(Random r, int precision) {
+        int digits = 1 + r.nextInt(precision);
+        return new BigInteger(4 * digits, r).mod(BigInteger.TEN.pow(digits));
+    }
+
+    private static BigDecimal toBigDecimal(Decimal64 f) {
+        BigDecimal value = BigDecimal.valueOf(f.coefficient(), -f.exponent());
+        return f.isSignMinus() ? value.negate() : value;
+    }
+
+    private static BigDecimal toBigDecimal(Decimal128 f) {
+        BigInteger coefficient = BigInteger.valueOf(f.coefficientHi()).shiftLeft(64).or(new BigInteger(Long.toUnsignedString(f.coefficientLo())));
+        BigDecimal value = new BigDecimal(coefficient, -f.exponent());
+        return f.isSignMinus() ? value.negate() : value;
+    }
+
+    @Test
+    public void RiscVInstructions() {
+        RiscV cpu = new RiscV();
+        long[] f = new long[32], x = new long[32];
+        long one = Double.doubleToRawLongBits(1);
+
+        // Binary32 values are NaN-boxed, and an operand which isn't reads as the canonical NaN
+        f[1] = RiscV.box(Float.floatToRawIntBits(1), RiscV.S);
+        f[2] = RiscV.box(Float.floatToRawIntBits(0x1p-30f), RiscV.S);
+        assertEquals(RiscV.NX, cpu.execute(fp(0x00, RiscV.S, 2, 1, 0, 3), f, x, 0));
+        assertEquals(0xFFFFFFFF_3F800000L, f[3]);
+        f[2] = Float.floatToRawIntBits(1);
+        assertEquals(0, cpu.execute(fp(0x00, RiscV.S, 2, 1, 0, 3), f, x, 0));
+        assertEquals(0xFFFFFFFF_7FC00000L, f[3]);
+
+        // The dynamic rounding mode comes from frm, and the flags are added to fcsr
+        f[1] = one;
+        f[2] = Double.doubleToRawLongBits(0x1p-60);
+        int up = 3 << 5;
+        assertEquals(up | RiscV.NX, cpu.execute(fp(0x00, RiscV.D, 2, 1, 7, 3), f, x, up));
+        assertEquals(one + 1, f[3]);
+        f[2] = 0;
+        assertEquals(RiscV.DZ, cpu.execute(fp(0x03, RiscV.D, 2, 1, 0, 3), f, x, 0));
+        assertEquals(0x7FF00000_00000000L, f[3]);
+        f[1] = RiscV.box(0xBC00, RiscV.H);
+        assertEquals(RiscV.NV, cpu.execute(fp(0x0B, RiscV.H, 0, 1, 0, 3), f, x, 0));
+        assertEquals(0xFFFFFFFF_FFFF7E00L, f[3]);
+
+        // Tininess is detected after rounding, so these products which round up to the smallest normal number don't
+        // underflow
+        f[1] = 0x3FEFFFFF_FFFFFFFEL;
+        f[2] = 0x00100000_00000001L;
+        assertEquals(RiscV.NX, cpu.execute(fp(0x02, RiscV.D, 2, 1, 0, 3), f, x, 0));
+        assertEquals(0x00100000_00000000L, f[3]);
+        f[1] = RiscV.box(0x3F7FFFFE, RiscV.S);
+        f[2] = RiscV.box(0x00800001, RiscV.S);
+        assertEquals(RiscV.NX, cpu.execute(fp(0x02, RiscV.S, 2, 1, 0, 3), f, x, 0));
+        assertEquals(RiscV.box(0x00800000, RiscV.S), f[3]);
+        f[1] = 0x00080000_00000001L;
+        f[2] = Double.doubleToRawLongBits(0.75);
+        assertEquals(RiscV.NX | RiscV.UF, cpu.execute(fp(0x02, RiscV.D, 2, 1, 0, 3), f, x, 0));
+
+        // fmadd, fmsub, fnmsub and fnmadd of 2 * 3 and 1, where infinity times zero is invalid even with a quiet NaN
+        f[1] = Double.doubleToRawLongBits(2);
+        f[2] = Double.doubleToRawLongBits(3);
+        f[3] = one;
+        double[] fused = {7, 5, -5, -7};
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, cpu.execute(3 << 27 | RiscV.D << 25 | 2 << 20 | 1 << 15 | 4 << 7 | (RiscV.MADD + 4 * i), f, x, 0));
+            assertEquals(Double.doubleToRawLongBits(fused[i]), f[4]);
+        }
+        f[1] = 0x7FF00000_00000000L;
+        f[2] = 0;
+        f[3] = 0x7FF80000_00000000L;
+        assertEquals(RiscV.NV, cpu.execute(3 << 27 | RiscV.D << 25 | 2 << 20 | 1 << 15 | 4 << 7 | RiscV.MADD, f, x, 0));
+
+        // Conversions to integers saturate and write x, conversions between formats canonicalize NaNs
+        f[1] = RiscV.box(0x7FC00000, RiscV.S);
+        assertEquals(RiscV.NV, cpu.execute(fp(0x18, RiscV.S, 0, 1, 0, 5), f, x, 0));
+        assertEquals(Integer.MAX_VALUE, x[5]);
+        f[1] = RiscV.box(Float.floatToRawIntBits(-0.5f), RiscV.S);
+        assertEquals(RiscV.NX, cpu.execute(fp(0x18, RiscV.S, 1, 1, 1, 5), f, x, 0));
+        assertEquals(0, x[5]);
+        f[1] = Double.doubleToRawLongBits(0x1p63);
+        assertEquals(RiscV.NV, cpu.execute(fp(0x18, RiscV.D, 2, 1, 0, 5), f, x, 0));
+        assertEquals(Long.MAX_VALUE, x[5]);
+        x[6] = -3;
+        assertEquals(0, cpu.execute(fp(0x1A, RiscV.H, 0, 6, 0, 3), f, x, 0));
+        assertEquals(RiscV.box(0xC200, RiscV.H), f[3]);
+        f[1] = RiscV.box(0x7F800001, RiscV.S);
+        assertEquals(RiscV.NV, cpu.execute(fp(0x08, RiscV.D, RiscV.S, 1, 0, 3), f, x, 0));
+        assertEquals(0x7FF80000_00000000L, f[3]);
+
+        // fclass, and fmin which ignores a NaN but signals for a signalling one
+        assertEquals(0, cpu.execute(fp(0x1C, RiscV.S, 0, 1, 1, 5), f, x, 0));
+        assertEquals(1 << 8, x[5]);
+        f[2] = RiscV.box(Float.floatToRawIntBits(-0f), RiscV.S);
+        assertEquals(0, cpu.execute(fp(0x1C, RiscV.S, 0, 2, 1, 5), f, x, 0));
+        assertEquals(1 << 3, x[5]);
+        f[3] = RiscV.box(0, RiscV.S);
+        assertEquals(RiscV.NV, cpu.execute(fp(0x05, RiscV.S, 2, 1, 0, 4), f, x, 0));
+        assertEquals(f[2], f[4]);
+        assertEquals(0, cpu.execute(fp(0x05, RiscV.S, 3, 2, 0, 4), f, x, 0));
+        assertEquals(f[2], f[4]);
+        assertEquals(0, cpu.execute(fp(0x05, RiscV.S, 3, 2, 1, 4), f, x, 0));
+        assertEquals(f[3], f[4]);
+
+        // feq is quiet and flt signals for quiet NaNs, x0 is never written
+        f[1] = RiscV.box(0x7FC00000, RiscV.S);
+        assertEquals(0, cpu.execute(fp(0x14, RiscV.S, 1, 1, 2, 0), f, x, 0));
+        assertEquals(RiscV.NV, cpu.execute(fp(0x14, RiscV.S, 1, 1, 1, 0), f, x, 0));
+        assertEquals(0, x[0]);
+        assertEquals(0, cpu.execute(fp(0x14, RiscV.S, 3, 2, 2, 5), f, x, 0));
+        assertEquals(1, x[5]);
+
+        // fsgnjn negates, fmv.x.w sign extends and fmv.w.x boxes
+        f[1] = one;
+        assertEquals(0, cpu.execute(fp(0x04, RiscV.D, 1, 1, 1, 3), f, x, 0));
+        assertEquals(Double.doubleToRawLongBits(-1), f[3]);
+        f[1] = RiscV.box(Float.floatToRawIntBits(-1), RiscV.S);
+        assertEquals(0, cpu.execute(fp(0x1C, RiscV.S, 0, 1, 0, 5), f, x, 0));
+        assertEquals(0xFFFFFFFF_BF800000L, x[5]);
+        x[5] = 0x12345678_3F800000L;
+        assertEquals(0, cpu.execute(fp(0x1E, RiscV.S, 0, 5, 0, 3), f, x, 0));
+        assertEquals(0xFFFFFFFF_3F800000L, f[3]);
+
+        // Reserved rounding modes and binary128 are illegal
+        assertThrows(IllegalArgumentException.class, () -> cpu.execute(fp(0x00, RiscV.D, 2, 1, 5, 3), f, x, 0));
+        assertThrows(IllegalArgumentException.class, () -> cpu.execute(fp(0x00, RiscV.D, 2, 1, 7, 3), f, x, 6 << 5));
+        assertThrows(IllegalArgumentException.class, () -> cpu.execute(fp(0x00, 3, 2, 1, 0, 3), f, x, 0));
+
+        // Rounding to nearest matches double and float arithmetic
+        Random r = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            double a = r.nextGaussian() * Math.pow(2, r.nextInt(200) - 100), b = r.nextGaussian();
+            f[1] = Double.doubleToRawLongBits(a);
+            f[2] = Double.doubleToRawLongBits(b);
+            double[] expected = {a + b, a - b, a * b, a / b};
+            for (int op = 0; op < 4; op++) {
+                cpu.execute(fp(op, RiscV.D, 2, 1, 0, 3), f, x, 0);
+                assertEquals(Double.doubleToRawLongBits(expected[op]), f[3]);
+            }
+            f[1] = RiscV.box(Float.floatToRawIntBits((float) a), RiscV.S);
+            f[2] = RiscV.box(Float.floatToRawIntBits((float) b), RiscV.S);
+            cpu.execute(fp(0x03, RiscV.S, 2, 1, 0, 3), f, x, 0);
+            assertEquals(RiscV.box(Float.floatToRawIntBits((float) a / (float) b), RiscV.S), f[3]);
+        }
+    }
+
+    private static int fp(int funct5, int fmt, int rs2, int rs1, int rm, int rd) {
+        return (funct5 << 2 | fmt) << 25 | rs2 << 20 | rs1 << 15 | rm << 12 | rd << 7 | RiscV.OP_FP;
+    }
 }
@@ -1,14 +1,32 @@
 import jsoftfloat.Environment;
 import jsoftfloat.Flags;
 import jsoftfloat.RoundingMode;
+import jsoftfloat.internal.BinaryFormat;
 import jsoftfloat.internal.ExactFloat;
+import jsoftfloat.operations.Arithmetic;
+import jsoftfloat.operations.Comparisons;
 import jsoftfloat.operations.Conversions;
+import jsoftfloat.operations.Parsing;
+import jsoftfloat.types.BFloat16;
+import jsoftfloat.types.Decimal128;
+import jsoftfloat.types.Decimal64;
+import jsoftfloat.types.DoubleDouble;
+import jsoftfloat.types.E4M3;
+import jsoftfloat.types.E5M2;
+import jsoftfloat.types.Float128;
+import jsoftfloat.types.Float16;
 import jsoftfloat.types.Float32;
 import jsoftfloat.types.Float64;
+import jsoftfloat.types.Float80;
+import jsoftfloat.types.Floating;
 import org.junit.jupiter.api.Test;
 import sun.java2d.SunGraphics2D;
 
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,7 +39,9 @@ public class TestConversions {
         assertEquals(0xbf800000, Float32.fromInteger(-1).bits);
         assertEquals(0x44000000, Float32.fromInteger(512).bits);
         assertEquals(0x4e5693a4, Float32.fromInteger(900000000).bits);
-        // TODO: boundary size test
+        assertEquals(0xCF000000, Float32.fromInteger(Integer.MIN_VALUE).bits);
+        assertEquals(0x4F000000, Float32.fromInteger(Integer.MAX_VALUE).bits); // Rounds up to 2^31
+        assertEquals(0xC3E00000_00000000L, Float64.fromInteger(Long.MIN_VALUE).bits);
     }
 
     @Test
@@ -227,4 +247,643 @@ public class TestConversions {
         assertEquals(Float32.Zero.bits, Conversions.roundToIntegral(oneFourth, new Environment(RoundingMode.even)).bits);
         assertEquals(Float32.Zero.bits, Conversions.roundToIntegral(oneFourth, new Environment(RoundingMode.away)).bits);
     }
+
+    private static Float64 f64(double d) {
+        return new Float64(Double.doubleToRawLongBits(d));
+    }
+
+    @Test
+    void RoundToOdd() {
+        Environment e = new Environment(RoundingMode.odd);
+        ExactFloat oneAndABit = new ExactFloat(false, -60, BigInteger.ONE.shiftLeft(60).add(BigInteger.ONE));
+        assertEquals(0x3FF00000_00000001L, Float64.fromExact(oneAndABit, e).bits);
+        assertEquals(0x3F800001, Float32.fromExact(oneAndABit, e).bits);
+        assertEquals(0xBF800001, Float32.fromExact(oneAndABit.negate(), e).bits);
+        // An odd result stays put and an overflow stops at the largest finite number
+        assertEquals(0x3F800001, Float32.fromExact(new ExactFloat(false, -60, BigInteger.ONE.shiftLeft(60).add(BigInteger.ONE.shiftLeft(37))), e).bits);
+        assertEquals(0x7F7FFFFF, Float32.fromExact(new ExactFloat(false, 200, BigInteger.ONE), e).bits);
+        assertEquals(1, Float32.fromExact(new ExactFloat(false, -160, BigInteger.ONE), e).bits);
+        assertEquals(EnumSet.of(Flags.inexact, Flags.overflow, Flags.underflow), e.flags);
+
+        e = new Environment(RoundingMode.odd);
+        assertEquals(3.0, Double.longBitsToDouble(Conversions.roundToIntegral(f64(2.5), e).bits));
+        assertEquals(3.0, Double.longBitsToDouble(Conversions.roundToIntegral(f64(3.5), e).bits));
+        assertEquals(-1.0, Double.longBitsToDouble(Conversions.roundToIntegral(f64(-0.25), e).bits));
+        assertEquals(4.0, Double.longBitsToDouble(Conversions.roundToIntegral(f64(4), e).bits));
+        assertEquals(5, Conversions.convertToInt(f64(4.75), e));
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+
+        // Rounding to odd first and then to a narrower format is the same as rounding once
+        Random r = new Random(38);
+        for (int i = 0; i < 2000; i++) {
+            long n = r.nextLong() >> r.nextInt(40);
+            for (RoundingMode mode : RoundingMode.values()) {
+                Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                Float64 odd = Conversions.convertFromLong(n, new Environment(RoundingMode.odd), Float64.Zero);
+                assertEquals(Conversions.convertFromLong(n, e2, Float32.Zero).bits, Conversions.convertToFloat32(odd, e1).bits, n + " in " + mode);
+            }
+        }
+    }
+
+    @Test
+    void RoundingFunctions() {
+        Environment e = new Environment();
+        assertEquals(-3.0, Double.longBitsToDouble(Conversions.floor(f64(-2.5), e).bits));
+        assertEquals(-2.0, Double.longBitsToDouble(Conversions.ceil(f64(-2.5), e).bits));
+        assertEquals(-2.0, Double.longBitsToDouble(Conversions.trunc(f64(-2.5), e).bits));
+        assertEquals(Float64.NegativeZero.bits, Conversions.ceil(f64(-0.5), e).bits);
+        assertEquals(0x3F800000, Conversions.roundToIntegral(new Float32(0x3F3FFFFF), RoundingMode.away, e).bits);
+        assertEquals(0x4B000000, Conversions.ceil(new Float32(0x4AFFFFFF), e).bits); // 2^23 - 1/2 carries into the exponent
+        assertTrue(e.flags.isEmpty());
+
+        assertEquals(2.0, Double.longBitsToDouble(Conversions.rint(f64(2.5), e).bits));
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+        e = new Environment(RoundingMode.away);
+        assertEquals(3.0, Double.longBitsToDouble(Conversions.roundToIntegralExact(f64(2.5), e).bits));
+        assertEquals(1e300, Double.longBitsToDouble(Conversions.roundToIntegralExact(f64(1e300), new Environment()).bits));
+
+        e = new Environment();
+        assertEquals(0x7FC00001, Conversions.floor(new Float32(0x7F800001), e).bits);
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+
+        long[] bits = {Double.doubleToRawLongBits(0.5), Double.doubleToRawLongBits(-1.5), Double.doubleToRawLongBits(7)};
+        Conversions.roundToIntegral(bits, 0, bits, 0, 3, RoundingMode.even, false, e);
+        assertArrayEquals(new long[]{0, Double.doubleToRawLongBits(-2.0), Double.doubleToRawLongBits(7)}, bits);
+    }
+
+    // Always takes the path through ExactFloat
+    private static <T extends Floating<T>> T generic(T f, RoundingMode mode, boolean exact, Environment env) {
+        return exact ? Conversions.roundToIntegralExact(f, env) : Conversions.roundToIntegral(f, mode, env);
+    }
+
+    @Test
+    void RoundToIntegralMatches() {
+        Random r = new Random(33);
+        for (int i = 0; i < 5000; i++) {
+            double x = i % 2 == 0 ? Double.longBitsToDouble(r.nextLong()) : Math.scalb(r.nextDouble() - 0.5, r.nextInt(60));
+            if (Double.isNaN(x)) continue;
+            Float64 a = f64(x);
+            assertEquals(Math.floor(x), Double.longBitsToDouble(Conversions.floor(a, new Environment()).bits));
+            assertEquals(Math.ceil(x), Double.longBitsToDouble(Conversions.ceil(a, new Environment()).bits));
+            assertEquals(Math.rint(x), Double.longBitsToDouble(Conversions.rint(a, new Environment()).bits));
+            Float32 b = new Float32(Float.floatToRawIntBits((float) x));
+            for (RoundingMode mode : RoundingMode.values()) {
+                for (boolean exact : new boolean[]{false, true}) {
+                    Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                    Float64 fast = exact ? Conversions.roundToIntegralExact(a, e1) : Conversions.roundToIntegral(a, mode, e1);
+                    assertEquals(generic(a, mode, exact, e2).bits, fast.bits, x + " in " + mode);
+                    assertEquals(e2.flags, e1.flags);
+
+                    e1 = new Environment(mode);
+                    e2 = new Environment(mode);
+                    Float32 fast32 = exact ? Conversions.roundToIntegralExact(b, e1) : Conversions.roundToIntegral(b, mode, e1);
+                    assertEquals(generic(b, mode, exact, e2).bits, fast32.bits, (float) x + " in " + mode);
+                    assertEquals(e2.flags, e1.flags);
+                }
+            }
+        }
+    }
+
+    @Test
+    void SaturatingConversions() {
+        // NaNs and values out of range saturate like RISC-V fcvt and only signal invalid
+        Environment e = new Environment();
+        assertEquals(Integer.MAX_VALUE, Conversions.convertToInt(Float32.NaN, e));
+        assertEquals(Long.MIN_VALUE, Conversions.convertToLong(Float64.NegativeInfinity, e, false));
+        assertEquals(Integer.MAX_VALUE, Conversions.convertToInt(f64(0x1p31), e));
+        assertEquals(Integer.MIN_VALUE, Conversions.convertToInt(f64(-0x1p31 - 1), e));
+        assertEquals(0, Conversions.convertToUnsignedInt(f64(-1), e, false));
+        assertEquals(-1L, Conversions.convertToUnsignedLong(f64(0x1p64), e, false));
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+
+        e = new Environment();
+        assertEquals(Integer.MIN_VALUE, Conversions.convertToInt(f64(-0x1p31 - 0.5), new Environment(RoundingMode.zero)));
+        assertEquals(Integer.MIN_VALUE, Conversions.convertToInt(new Float32(0xCF000000), e)); // -2^31
+        assertEquals(0xFFFFFFFF, Conversions.convertToUnsignedInt(f64(0x1p32 - 1), e, false));
+        assertEquals(Long.MIN_VALUE, Conversions.convertToUnsignedLong(new Float32(0x5F000000), e, false)); // 2^63
+        assertTrue(e.flags.isEmpty());
+
+        // Rounds to zero, which is in range even for unsigned integers
+        assertEquals(0, Conversions.convertToUnsignedInt(f64(-0.25), e, false));
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+        e = new Environment();
+        assertEquals(-2, Conversions.convertToInt(f64(-1.5), e, true));
+        assertTrue(e.flags.isEmpty());
+
+        long[] src = {Double.doubleToRawLongBits(2.5), Double.doubleToRawLongBits(-3.5), Double.doubleToRawLongBits(1e300)};
+        int[] dst = new int[3];
+        Conversions.convertToInt(src, 0, dst, 0, 3, false, false, e);
+        assertArrayEquals(new int[]{2, -4, Integer.MAX_VALUE}, dst);
+        assertEquals(EnumSet.of(Flags.invalid, Flags.inexact), e.flags);
+    }
+
+    // Always takes the path through ExactFloat and BigInteger
+    private static <T extends Floating<T>> long generic(T f, int type, boolean quiet, Environment env) {
+        switch (type) {
+            case 0:
+                return Conversions.convertToInt(f, env, quiet);
+            case 1:
+                return Conversions.convertToUnsignedInt(f, env, quiet);
+            case 2:
+                return Conversions.convertToLong(f, env, quiet);
+            default:
+                return Conversions.convertToUnsignedLong(f, env, quiet);
+        }
+    }
+
+    private static long fast(Float64 f, int type, boolean quiet, Environment env) {
+        switch (type) {
+            case 0:
+                return Conversions.convertToInt(f, env, quiet);
+            case 1:
+                return Conversions.convertToUnsignedInt(f, env, quiet);
+            case 2:
+                return Conversions.convertToLong(f, env, quiet);
+            default:
+                return Conversions.convertToUnsignedLong(f, env, quiet);
+        }
+    }
+
+    private static long fast(Float32 f, int type, boolean quiet, Environment env) {
+        switch (type) {
+            case 0:
+                return Conversions.convertToInt(f, env, quiet);
+            case 1:
+                return Conversions.convertToUnsignedInt(f, env, quiet);
+            case 2:
+                return Conversions.convertToLong(f, env, quiet);
+            default:
+                return Conversions.convertToUnsignedLong(f, env, quiet);
+        }
+    }
+
+    @Test
+    void IntegerConversionsMatch() {
+        Random r = new Random(34);
+        for (int i = 0; i < 3000; i++) {
+            double x;
+            switch (i % 3) {
+                case 0:
+                    x = Double.longBitsToDouble(r.nextLong());
+                    break;
+                case 1:
+                    x = Math.scalb(r.nextDouble() - 0.5, r.nextInt(70));
+                    break;
+                default:
+                    x = (r.nextInt(9) - 4) * 0x1p31 + (r.nextInt(9) - 4) * 0.25 + (r.nextBoolean() ? 0x1p63 : 0);
+            }
+            Float64 a = f64(x);
+            Float32 b = new Float32(Float.floatToRawIntBits((float) x));
+            for (RoundingMode mode : RoundingMode.values()) {
+                for (int type = 0; type < 4; type++) {
+                    for (boolean quiet : new boolean[]{false, true}) {
+                        Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                        assertEquals(generic(a, type, quiet, e2), fast(a, type, quiet, e1), x + " to type " + type + " in " + mode);
+                        assertEquals(e2.flags, e1.flags);
+                        e1 = new Environment(mode);
+                        e2 = new Environment(mode);
+                        assertEquals(generic(b, type, quiet, e2), fast(b, type, quiet, e1), (float) x + " to type " + type + " in " + mode);
+                        assertEquals(e2.flags, e1.flags);
+                    }
+                }
+            }
+        }
+    }
+
+    // Always takes the path through ExactFloat and BigInteger
+    private static <T extends Floating<T>> T generic(BigInteger i, Environment env, T helper) {
+        return Conversions.convertFromInt(i, env, helper);
+    }
+
+    @Test
+    void IntegerToFloat() {
+        Random r = new Random(35);
+        for (int n = 0; n < 3000; n++) {
+            long l = r.nextLong() >> r.nextInt(64);
+            int i = (int) l;
+            assertEquals(Float.floatToRawIntBits((float) i), Conversions.convertFromInt(i, new Environment(), Float32.Zero).bits);
+            assertEquals(Double.doubleToRawLongBits(i), Conversions.convertFromInt(i, new Environment(), Float64.Zero).bits);
+            assertEquals(Float.floatToRawIntBits((float) l), Conversions.convertFromLong(l, new Environment(), Float32.Zero).bits);
+            assertEquals(Double.doubleToRawLongBits((double) l), Conversions.convertFromLong(l, new Environment(), Float64.Zero).bits);
+
+            BigInteger unsignedInt = BigInteger.valueOf(i & 0xFFFFFFFFL);
+            BigInteger unsignedLong = new BigInteger(Long.toUnsignedString(l));
+            for (RoundingMode mode : RoundingMode.values()) {
+                Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                assertEquals(generic(BigInteger.valueOf(l), e2, Float32.Zero).bits, Conversions.convertFromLong(l, e1, Float32.Zero).bits);
+                assertEquals(generic(unsignedLong, e2, Float32.Zero).bits, Conversions.convertFromUnsignedLong(l, e1, Float32.Zero).bits);
+                assertEquals(generic(unsignedInt, e2, Float32.Zero).bits, Conversions.convertFromUnsignedInt(i, e1, Float32.Zero).bits);
+                assertEquals(generic(unsignedLong, e2, Float64.Zero).bits, Conversions.convertFromUnsignedLong(l, e1, Float64.Zero).bits);
+                assertEquals(generic(unsignedInt, e2, Float64.Zero).bits, Conversions.convertFromUnsignedInt(i, e1, Float64.Zero).bits);
+                assertEquals(e2.flags, e1.flags);
+            }
+        }
+
+        Environment e = new Environment();
+        Conversions.convertFromInt(16777217, e, Float32.Zero);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+
+        int[] ints = {0, -1, Integer.MIN_VALUE, 0xFFFFFFFF, 123456789};
+        long[] doubles = new long[5];
+        Conversions.convertFromInt(ints, 0, doubles, 0, 5, false);
+        assertArrayEquals(new long[]{0, Double.doubleToRawLongBits(-1), Double.doubleToRawLongBits(Integer.MIN_VALUE),
+                Double.doubleToRawLongBits(-1), Double.doubleToRawLongBits(123456789)}, doubles);
+        Conversions.convertFromInt(ints, 0, doubles, 0, 5, true);
+        assertEquals(Double.doubleToRawLongBits(0x1p32 - 1), doubles[3]);
+        int[] floats = new int[5];
+        Conversions.convertFromInt(ints, 0, floats, 0, 5, false, e);
+        assertEquals(Float.floatToRawIntBits(123456789f), floats[4]);
+    }
+
+    // Always takes the path through ExactFloat
+    private static <T extends Floating<T>, U extends Floating<U>> U generic(T f, U helper, Environment env) {
+        return Conversions.convert(f, helper, env);
+    }
+
+    @Test
+    void FormatConversions() {
+        Random r = new Random(36);
+        for (int n = 0; n < 5000; n++) {
+            int i = r.nextInt();
+            long l = n % 2 == 0 ? r.nextLong() : Double.doubleToRawLongBits(Math.scalb(r.nextDouble(), r.nextInt(330) - 165));
+            float f = Float.intBitsToFloat(i);
+            double d = Double.longBitsToDouble(l);
+            if (!Float.isNaN(f)) {
+                assertEquals(Double.doubleToRawLongBits(f), Conversions.convertToFloat64(new Float32(i), new Environment()).bits);
+            }
+            if (!Double.isNaN(d)) {
+                assertEquals(Float.floatToRawIntBits((float) d), Conversions.convertToFloat32(new Float64(l), new Environment()).bits);
+                for (RoundingMode mode : RoundingMode.values()) {
+                    Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                    assertEquals(generic(new Float64(l), Float32.Zero, e2).bits, Conversions.convertToFloat32(new Float64(l), e1).bits, d + " in " + mode);
+                    assertEquals(e2.flags, e1.flags);
+                }
+            }
+        }
+
+        // NaNs keep their payload, but signalling NaNs are quieted
+        Environment e = new Environment();
+        assertEquals(0xFFF80000_20000000L, Conversions.convertToFloat64(new Float32(0xFFC00001), e).bits);
+        assertEquals(0x7FC00001, Conversions.convertToFloat32(new Float64(0x7FF80000_20000000L), e).bits);
+        assertTrue(e.flags.isEmpty());
+        assertEquals(0x7FF80000_20000000L, Conversions.convertToFloat64(new Float32(0x7F800001), e).bits);
+        assertEquals(0x7FC00000, Conversions.convertToFloat32(new Float64(0x7FF00000_00000001L), e).bits);
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+
+        e = new Environment(RoundingMode.zero);
+        assertEquals(0x7F7FFFFF, Conversions.convertToFloat32(f64(1e300), e).bits);
+        assertEquals(EnumSet.of(Flags.overflow, Flags.inexact), e.flags);
+        e = new Environment();
+        assertEquals(0x80000001, Conversions.convertToFloat32(f64(-0x1p-149 * 0.75), e).bits);
+        assertEquals(EnumSet.of(Flags.underflow, Flags.inexact), e.flags);
+
+        int[] floats = {0x00000001, 0x3F800000, 0xFF800000};
+        long[] doubles = new long[3];
+        Conversions.convertToFloat64(floats, 0, doubles, 0, 3, e);
+        assertArrayEquals(new long[]{Double.doubleToRawLongBits(0x1p-149), Double.doubleToRawLongBits(1), Float64.NegativeInfinity.bits}, doubles);
+        Conversions.convertToFloat32(doubles, 0, floats, 0, 3, e);
+        assertArrayEquals(new int[]{0x00000001, 0x3F800000, 0xFF800000}, floats);
+    }
+
+    // How many of n stochastic roundings of the same value went up
+    private static int roundedUp(int n, Environment env, Function<Environment, Long> round, long down) {
+        int up = 0;
+        for (int i = 0; i < n; i++) {
+            if (round.apply(env) != down) up++;
+        }
+        return up;
+    }
+
+    @Test
+    void StochasticRounding() {
+        // 1 + 2^-25 is a quarter of the way from 1 to the next Float32, 2.25 a quarter of the way from 2 to 3
+        Environment e = new Environment(RoundingMode.stochastic, 39);
+        Float64 quarter = f64(1 + 0x1p-25);
+        int up = roundedUp(10000, e, env -> (long) Conversions.convertToFloat32(quarter, env).bits, 0x3F800000);
+        assertTrue(2300 < up && up < 2700, up + " of 10000");
+        ExactFloat exact = new ExactFloat(false, -25, BigInteger.ONE.shiftLeft(25).add(BigInteger.ONE));
+        up = roundedUp(10000, e, env -> (long) Float32.fromExact(exact, env).bits, 0x3F800000);
+        assertTrue(2300 < up && up < 2700, up + " of 10000");
+        up = roundedUp(10000, e, env -> Conversions.roundToIntegral(f64(-2.25), env).bits, f64(-2).bits);
+        assertTrue(2300 < up && up < 2700, up + " of 10000");
+        // 1/3 is two thirds of the way from 0x3EAAAAAA to 0x3EAAAAAB
+        Float32 one = Float32.fromInteger(1), three = Float32.fromInteger(3);
+        up = roundedUp(3000, e, env -> (long) Arithmetic.division(one, three, env).bits, 0x3EAAAAAA);
+        assertTrue(1850 < up && up < 2150, up + " of 3000");
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+
+        // Exact values stay put and overflow goes to infinity
+        e = new Environment(RoundingMode.stochastic, 39);
+        assertEquals(0x3FC00000, Conversions.convertToFloat32(f64(1.5), e).bits);
+        assertTrue(e.flags.isEmpty());
+        assertEquals(0x7F800000, Conversions.convertToFloat32(f64(1e300), e).bits);
+        assertEquals(EnumSet.of(Flags.overflow, Flags.inexact), e.flags);
+
+        // The results only depend on the seed and how the environment was split
+        long[] src = new long[1000];
+        Random r = new Random(39);
+        for (int i = 0; i < src.length; i++) src[i] = Double.doubleToRawLongBits(r.nextGaussian());
+        int[][] results = new int[4][src.length];
+        for (int run = 0; run < 2; run++) {
+            Environment parent = new Environment(RoundingMode.stochastic, 7);
+            Environment first = parent.split(), second = parent.split();
+            Conversions.convertToFloat32(src, 0, results[2 * run], 0, src.length, first);
+            Conversions.convertToFloat32(src, 0, results[2 * run + 1], 0, src.length, second);
+        }
+        assertArrayEquals(results[0], results[2]);
+        assertArrayEquals(results[1], results[3]);
+        assertFalse(Arrays.equals(results[0], results[1]));
+    }
+
+    @Test
+    void BinaryFormatEngine() {
+        // Rounding up past the largest finite number carries into the exponent, which has to signal overflow
+        Environment e = new Environment();
+        ExactFloat almostTwoToThe128 = new ExactFloat(false, 102, BigInteger.valueOf((1 << 26) - 1));
+        assertEquals(0x7F800000, Float32.fromExact(almostTwoToThe128, e).bits);
+        assertEquals(EnumSet.of(Flags.overflow, Flags.inexact), e.flags);
+        e = new Environment(RoundingMode.zero);
+        assertEquals(0x7F7FFFFF, Float32.fromExact(almostTwoToThe128, e).bits);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+
+        // Formats that have no class of their own
+        e = new Environment();
+        assertEquals(0x7BFF, BinaryFormat.BINARY16.fromExactFloat(new ExactFloat(BigInteger.valueOf(65504)), e));
+        assertEquals(0x0001, BinaryFormat.BINARY16.fromExactFloat(new ExactFloat(false, -24, BigInteger.ONE), e));
+        assertEquals(0x3F80, BinaryFormat.BFLOAT16.fromExactFloat(new ExactFloat(BigInteger.ONE), e));
+        assertTrue(e.flags.isEmpty());
+        assertEquals(0x7C00, BinaryFormat.BINARY16.fromExactFloat(new ExactFloat(BigInteger.valueOf(65520)), e));
+        assertEquals(EnumSet.of(Flags.overflow, Flags.inexact), e.flags);
+        BinaryFormat tiny = new BinaryFormat(4, 3);
+        assertEquals(0x77, tiny.fromExactFloat(new ExactFloat(BigInteger.valueOf(240)), new Environment()));
+        assertEquals(-9, tiny.toExactFloat(0x01).exponent);
+        assertTrue(tiny.isNaN(0x79) && tiny.isSignalling(0x79) && tiny.isInfinite(0xF8) && tiny.isSubnormal(0x87));
+        assertThrows(IllegalArgumentException.class, () -> new BinaryFormat(11, 53));
+
+        // Wide significands, subnormals and huge exponents against Java's own narrowing
+        Random r = new Random(40);
+        for (int i = 0; i < 2000; i++) {
+            double d = Double.longBitsToDouble(r.nextLong());
+            if (Double.isNaN(d) || Double.isInfinite(d) || d == 0) continue;
+            ExactFloat exact = f64(d).toExactFloat();
+            assertEquals(Float.floatToRawIntBits((float) d), (int) BinaryFormat.BINARY32.fromExactFloat(exact, new Environment()), d + "");
+            assertEquals(0, exact.compareTo(BinaryFormat.BINARY64.toExactFloat(Double.doubleToRawLongBits(d))));
+        }
+        ExactFloat wide = new ExactFloat(false, -200, BigInteger.ONE.shiftLeft(200).add(BigInteger.ONE));
+        assertEquals(0x3FF00000_00000001L, Float64.fromExact(wide, new Environment(RoundingMode.max)).bits);
+        assertEquals(0, Float64.fromExact(new ExactFloat(false, Integer.MIN_VALUE / 2, BigInteger.ONE), new Environment()).bits);
+    }
+
+    @Test
+    void Float16Conversions() {
+        Environment e = new Environment();
+        // 1 + 2^-11 is a tie, and 1 + 2^-11 + 2^-24 is just above it
+        assertEquals(0x3C00, Conversions.convertToFloat16(new Float32(0x3F801000), e).bits);
+        assertEquals(0x3C01, Conversions.convertToFloat16(new Float32(0x3F801001), e).bits);
+        assertEquals(0x0001, Conversions.convertToFloat16(new Float64(0x3E70000000000000L), e).bits); // 2^-24
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+        assertEquals(0x7C00, Conversions.convertToFloat16(Float32.fromInteger(65520), e).bits);
+        assertEquals(0x7BFF, Conversions.convertToFloat16(Float32.fromInteger(65520), new Environment(RoundingMode.zero)).bits);
+        e = new Environment();
+        assertEquals(0x7E01, Conversions.convertToFloat16(new Float32(0x7F802000), e).bits & 0xFFFF);
+        assertEquals(0x7FC02000, Conversions.convertToFloat32(new Float16(0x7C01), e).bits);
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+        assertEquals(0x33800000, Conversions.convertToFloat32(new Float16(0x0001), e).bits);
+        assertEquals(0xC01C0000_00000000L, Conversions.convertToFloat64(new Float16(0xC700), e).bits);
+
+        assertEquals(0x4000, Conversions.rint(new Float16(0x4100), e).bits); // 2.5 to 2
+        assertEquals((short) 0xC200, Conversions.floor(new Float16(0xC100), e).bits); // -2.5 to -3
+        assertEquals((short) 0x8000, Conversions.ceil(new Float16(0xB800), e).bits); // -0.5 to -0
+        assertEquals(0x6400, Conversions.roundToIntegral(new Float16(0x63FF), RoundingMode.away, e).bits); // 1023.5
+        assertEquals(0x3C00, Conversions.roundToIntegral(new Float16(0x0001), RoundingMode.odd, e).bits);
+        assertEquals(EnumSet.of(Flags.invalid, Flags.inexact), e.flags);
+
+        assertEquals("0.1", Parsing.parseFloat16("0.1", e).toString());
+        assertEquals("65500.0", Float16.fromExact(new ExactFloat(BigInteger.valueOf(65504)), e).toString());
+        assertEquals("6.0E-8", new Float16(0x0001).toString());
+        assertEquals("-sNaN(0x1)", new Float16(0xFC01).toString());
+        assertEquals(0x3E00, Parsing.parseHexFloat16("0x1.8p0", e).bits);
+    }
+
+    @Test
+    void BFloat16Conversions() {
+        Environment e = new Environment();
+        assertEquals(0x3F80, Conversions.convertToBFloat16(new Float32(0x3F808000), e).bits); // A tie to even
+        assertEquals(0x3F81, Conversions.convertToBFloat16(new Float32(0x3F808001), e).bits);
+        assertEquals(0x7F80, Conversions.convertToBFloat16(new Float32(0x7F7F8000), e).bits);
+        assertEquals(0x7F7F, Conversions.convertToBFloat16(new Float32(0x7F7F8000), new Environment(RoundingMode.zero)).bits);
+        assertEquals(EnumSet.of(Flags.inexact, Flags.overflow), e.flags);
+        e = new Environment();
+        assertEquals(0x7FC01234, Conversions.convertToFloat32(new BFloat16(0x7F81), e).bits & 0xFFC0FFFF | 0x1234);
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+        assertEquals("1.0", new BFloat16(0x3F80).toString());
+        assertEquals("3.39E38", Parsing.parseBFloat16("3.3895e38", e).toString());
+
+        // The bulk kernels agree with converting each element, including the flags for the whole array
+        Random r = new Random(42);
+        int[] src = new int[4096];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = i % 4 == 0 ? r.nextInt() & 0x807FFFFF : i % 4 == 1 ? r.nextInt() | 0x7F7F0000 : r.nextInt();
+        }
+        for (RoundingMode mode : RoundingMode.values()) {
+            if (mode == RoundingMode.stochastic) continue;
+            Environment e1 = new Environment(mode), e2 = new Environment(mode);
+            short[] narrowed = new short[src.length];
+            Conversions.convertToBFloat16(src, 0, narrowed, 0, src.length, e1);
+            for (int i = 0; i < src.length; i++) {
+                assertEquals(Conversions.convertToBFloat16(new Float32(src[i]), e2).bits, narrowed[i], src[i] + " in " + mode);
+            }
+            assertEquals(e2.flags, e1.flags);
+            Environment e3 = new Environment(), e4 = new Environment();
+            int[] widened = new int[src.length];
+            Conversions.convertToFloat32(narrowed, 0, widened, 0, src.length, e3);
+            for (int i = 0; i < src.length; i++) {
+                assertEquals(Conversions.convertToFloat32(new BFloat16(narrowed[i]), e4).bits, widened[i]);
+            }
+            assertEquals(e4.flags, e3.flags);
+        }
+    }
+
+    @Test
+    void EightBitConversions() {
+        Environment e = new Environment();
+        assertEquals(0x5F00, Conversions.convertToFloat16(new E4M3(0x7E), e).bits); // 448
+        assertEquals(0x1800, Conversions.convertToFloat16(new E4M3(0x01), e).bits); // 2^-9
+        assertEquals((short) 0xFE00, Conversions.convertToFloat16(new E4M3(0xFF), e).bits);
+        assertEquals(0x7B00, Conversions.convertToFloat16(new E5M2(0x7B), e).bits);
+        assertEquals(0x3B000000, Conversions.convertToFloat32(new E4M3(0x01), e).bits);
+        assertTrue(e.flags.isEmpty());
+        assertEquals(0x7FC00000, Conversions.convertToFloat32(new E5M2(0x7D), e).bits);
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+
+        // Narrowing goes through the generic conversion, which knows E4M3 has no infinity
+        e = new Environment();
+        assertEquals(0x7F, Conversions.convert(Float32.fromInteger(500), new E4M3(0), e).bits);
+        assertEquals(0x7E, Conversions.convert(Float32.fromInteger(460), new E4M3(0), e).bits);
+        assertEquals(EnumSet.of(Flags.inexact, Flags.overflow), e.flags);
+
+        byte[] src = new byte[256];
+        for (int i = 0; i < src.length; i++) src[i] = (byte) i;
+        short[] halves = new short[256];
+        int[] singles = new int[256];
+        Conversions.convertToFloat16(src, 0, halves, 0, 256, new E4M3(0), new Environment());
+        Conversions.convertToFloat32(src, 0, singles, 0, 256, new E4M3(0), new Environment());
+        for (int i = 0; i < 256; i++) {
+            E4M3 f = new E4M3(i);
+            assertEquals(Conversions.convertToFloat16(f, e).bits, halves[i]);
+            assertEquals(Conversions.convertToFloat32(f, e).bits, singles[i]);
+            if (f.isFinite() && !f.isZero()) {
+                assertEquals(0, f.toExactFloat().compareTo(new Float16(halves[i]).toExactFloat()), "" + i);
+            }
+        }
+        e = new Environment();
+        Conversions.convertToFloat32(src, 0, singles, 0, 256, new E5M2(0), e);
+        assertEquals(0x47600000, singles[0x7B]);
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+
+        assertEquals("450.0", new E4M3(0x7E).toString()); // The shortest that rounds back, the spacing is 32
+        assertEquals("0.002", new E4M3(0x01).toString());
+        assertEquals("NaN", new E4M3(0x7F).toString());
+        assertEquals("60000.0", new E5M2(0x7B).toString());
+        assertEquals("-Infinity", new E5M2(0xFC).toString());
+    }
+
+    @Test
+    void Float128Conversions() {
+        Environment e = new Environment();
+        Float128 tenth = Conversions.convert(new Float64(0x3FB99999_9999999AL), Float128.Zero, e);
+        assertEquals(0x3FFB9999_99999999L, tenth.hi);
+        assertEquals(0xA0000000_00000000L, tenth.lo);
+        assertEquals("0.1000000000000000055511151231257827", tenth.toString());
+        assertEquals(0x3FB99999_9999999AL, Conversions.convert(tenth, Float64.Zero, e).bits);
+        assertTrue(e.flags.isEmpty());
+
+        // 2^16384 - 2^16270 is the midpoint above the largest finite number
+        ExactFloat max = new ExactFloat(false, 16270, BigInteger.ONE.shiftLeft(114).subtract(BigInteger.ONE));
+        assertTrue(Float128.fromExact(max, new Environment()).isInfinite());
+        Float128 largest = Float128.fromExact(max, new Environment(RoundingMode.zero));
+        assertEquals(0x7FFEFFFF_FFFFFFFFL, largest.hi);
+        assertEquals(-1, largest.lo);
+        assertEquals("1.189731495357231765085759326628007E4932", largest.toString());
+        assertEquals(1, Float128.fromExact(new ExactFloat(false, -16494, BigInteger.ONE), e).lo);
+        assertEquals("sNaN(0x1)", new Float128(0x7FFF0000_00000000L, 1).toString());
+        assertEquals("-NaN", Float128.NaN.negate().toString());
+
+        // Stochastic rounding of a value with more bits than fit in the two words picks one of the neighbours
+        ExactFloat third = new ExactFloat(false, -300, BigInteger.ONE.shiftLeft(298).divide(BigInteger.valueOf(3)));
+        Float128 down = Float128.fromExact(third, new Environment(RoundingMode.zero));
+        for (int seed = 0; seed < 20; seed++) {
+            Float128 rounded = Float128.fromExact(third, new Environment(RoundingMode.stochastic, seed));
+            assertEquals(down.hi, rounded.hi);
+            assertTrue(rounded.lo == down.lo || rounded.lo == down.lo + 1);
+        }
+    }
+
+    @Test
+    void Float80Conversions() {
+        Environment e = new Environment();
+        Float80 tenth = Conversions.convertToFloat80(new Float64(0x3FB99999_9999999AL), e);
+        assertEquals(0x3FFB, tenth.signExponent);
+        assertEquals(0xCCCCCCCC_CCCCD000L, tenth.significand);
+        assertEquals("0.10000000000000000555", tenth.toString());
+        assertEquals(0x3FB99999_9999999AL, Conversions.convertToFloat64(tenth, e).bits);
+        assertEquals(0x3DCCCCCD, Conversions.convertToFloat32(tenth, e).bits);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+
+        // Binary64 subnormals are normal numbers in the wider exponent range
+        Float80 smallest = Conversions.convertToFloat80(new Float64(1), e);
+        assertEquals(-1074, smallest.exponent());
+        assertEquals(0x80000000_00000000L, smallest.significand);
+        assertEquals(1, Conversions.convertToFloat64(smallest, e).bits);
+
+        // 2^16384 - 2^16319 is the midpoint above the largest finite number
+        ExactFloat max = new ExactFloat(false, 16319, BigInteger.ONE.shiftLeft(65).subtract(BigInteger.ONE));
+        assertTrue(Float80.fromExact(max, new Environment()).isInfinite());
+        Float80 largest = Float80.fromExact(max, new Environment(RoundingMode.zero));
+        assertEquals(0x7FFE, largest.signExponent);
+        assertEquals(-1, largest.significand);
+        assertEquals("1.189731495357231765E4932", largest.toString());
+
+        // Unnormals, pseudo-NaNs and pseudo-infinities are invalid operands, pseudo-denormals are still read
+        Float80 unnormal = new Float80(0x4000, 0x40000000_00000000L);
+        assertTrue(unnormal.isSignalling());
+        assertTrue(new Float80(0x7FFF, 0).isSignalling());
+        assertTrue(new Float80(0x7FFF, 0x40000000_00000000L).isSignalling());
+        Environment invalid = new Environment();
+        assertEquals(0x7FF80000_00000000L, Conversions.convertToFloat64(unnormal, invalid).bits);
+        assertEquals(EnumSet.of(Flags.invalid), invalid.flags);
+        Float80 pseudoDenormal = new Float80(0, 0x80000000_00000000L);
+        assertFalse(pseudoDenormal.isCanonical());
+        assertTrue(Comparisons.compareQuietEqual(pseudoDenormal, new Float80(1, 0x80000000_00000000L), e));
+        assertEquals("sNaN(0x1)", new Float80(0x7FFF, 0x80000000_00000001L).toString());
+        assertEquals("-NaN", Float80.NaN.negate().toString());
+    }
+
+    @Test
+    void DoubleDoubleToFloat64() {
+        // Rounding the exact sum of the two parts agrees with rounding it with ExactFloat in every mode
+        Random r = new Random(46);
+        for (int i = 0; i < 2000; i++) {
+            double hi = Math.scalb(r.nextDouble() - 0.5, r.nextInt(100) - 50);
+            double lo = i % 4 == 0 ? Math.ulp(hi) / 2 : Math.scalb(r.nextDouble() - 0.5, Math.getExponent(hi) - 52);
+            if (i % 8 == 0) lo = -lo;
+            double sum = hi + lo;
+            lo -= sum - hi;
+            if (lo == 0) continue;
+            DoubleDouble f = new DoubleDouble(Double.doubleToRawLongBits(sum), Double.doubleToRawLongBits(lo));
+            for (RoundingMode mode : RoundingMode.values()) {
+                Environment e1 = new Environment(mode, i), e2 = new Environment(mode, i);
+                Float64 expected = Float64.fromExact(f.toExactFloat(), e2);
+                if (mode == RoundingMode.stochastic) {
+                    long actual = Conversions.convertToFloat64(f, e1).bits;
+                    assertTrue(actual == f.hi || actual == f.hi + 1 || actual == f.hi - 1);
+                } else {
+                    assertEquals(expected.bits, Conversions.convertToFloat64(f, e1).bits, f + " in " + mode);
+                }
+                assertEquals(e2.flags, e1.flags);
+            }
+        }
+        // 1 + 2^-53 is a tie
+        DoubleDouble tie = new DoubleDouble(0x3FF00000_00000000L, 0x3CA00000_00000000L);
+        assertEquals(0x3FF00000_00000000L, Conversions.convertToFloat64(tie, new Environment()).bits);
+        assertEquals(0x3FF00000_00000001L, Conversions.convertToFloat64(tie, new Environment(RoundingMode.away)).bits);
+        assertEquals("1.0000000000000001110223024625157", tie.toString());
+        Environment e = new Environment();
+        assertTrue(Conversions.convertToDoubleDouble(new Float64(0x7FF00000_00000001L), e).isNaN());
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+    }
+
+    @Test
+    void DecimalStrings() {
+        // Literals keep their exponent, and the string of a decimal reads back to the same encoding
+        Environment e = new Environment();
+        assertEquals(0x31800000_00000096L, Parsing.parseDecimal64("1.50", e).bits);
+        assertEquals("1.50", Parsing.parseDecimal64("1.50", e).toString());
+        assertEquals("-0.000", Parsing.parseDecimal64("-0.000", e).toString());
+        assertEquals("1.23E+5", Parsing.parseDecimal64("123e3", e).toString());
+        assertEquals("0.000001", Parsing.parseDecimal64("1E-6", e).toString());
+        assertEquals("1E-7", Parsing.parseDecimal64("0.0000001", e).toString());
+        assertEquals("9.999999999999999E+384", new Decimal64(false, 9999999999999999L, 369).toString());
+        assertEquals(0x6C7386F2_6FC0FFFFL, new Decimal64(false, 9999999999999999L, 0).bits);
+        assertEquals("-Infinity", Parsing.parseDecimal64("-inf", e).toString());
+        assertEquals("sNaN(0x1f)", Parsing.parseDecimal64("sNaN(0x1f)", e).toString());
+        assertEquals("1234567890123456789012345678901234", Parsing.parseDecimal128("1234567890123456789012345678901234", e).toString());
+        assertTrue(e.flags.isEmpty());
+        assertEquals("1.234567890123457E+19", Parsing.parseDecimal64("12345678901234567890", e).toString());
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+
+        Random r = new Random(48);
+        for (int i = 0; i < 2000; i++) {
+            Decimal64 f = new Decimal64(r.nextBoolean(), Math.floorMod(r.nextLong(), 10_000_000_000_000_000L), r.nextInt(768) - 398);
+            Environment e2 = new Environment();
+            assertEquals(f.bits, Parsing.parseDecimal64(f.toString(), e2).bits, f.toString());
+            Decimal128 wide = Conversions.convertToDecimal128(f, e2);
+            assertEquals(f.toString(), wide.toString());
+            Decimal128 parsed = Parsing.parseDecimal128(wide.toString(), e2);
+            assertEquals(wide.hi, parsed.hi);
+            assertEquals(wide.lo, parsed.lo);
+            assertEquals(f.bits, Conversions.convertToDecimal64(wide, e2).bits);
+            assertTrue(e2.flags.isEmpty());
+        }
+    }
 }
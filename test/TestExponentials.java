@@ -0,0 +1,159 @@
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.operations.Exponentials;
+import jsoftfloat.types.Float32;
+import jsoftfloat.types.Float64;
+import jsoftfloat.types.Floating;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestExponentials {
+    private static Float64 f64(double d) {
+        return new Float64(Double.doubleToRawLongBits(d));
+    }
+
+    @Test
+    public void KnownValues() {
+        Environment e = new Environment();
+        assertEquals(0x4005BF0A_8B145769L, Exponentials.exp(f64(1), e).bits);
+        assertEquals(0x3FE62E42_FEFA39EFL, Exponentials.log(f64(2), e).bits);
+        assertEquals(0x3FD34413_509F79FFL, Exponentials.log10(f64(2), e).bits);
+        assertEquals(0x402DF854, Exponentials.exp(Float32.fromInteger(1), e).bits);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+
+        assertEquals(0x4005BF0A_8B14576AL, Exponentials.exp(f64(1), new Environment(RoundingMode.max)).bits);
+        assertEquals(0x4005BF0A_8B145769L, Exponentials.exp(f64(1), new Environment(RoundingMode.zero)).bits);
+        assertEquals(0x3FE62E42_FEFA39F0L, Exponentials.log(f64(2), new Environment(RoundingMode.max)).bits);
+    }
+
+    @Test
+    public void ExactResults() {
+        Environment e = new Environment();
+        assertEquals(3.0, Double.longBitsToDouble(Exponentials.log2(f64(8), e).bits));
+        assertEquals(-1074.0, Double.longBitsToDouble(Exponentials.log2(new Float64(1), e).bits));
+        assertEquals(22.0, Double.longBitsToDouble(Exponentials.log10(f64(1e22), e).bits));
+        assertEquals(0.125, Double.longBitsToDouble(Exponentials.exp2(f64(-3), e).bits));
+        assertEquals(0, Exponentials.log(f64(1), new Environment(RoundingMode.min)).bits);
+        assertEquals(0x3F800000, Exponentials.exp(Float32.NegativeZero, e).bits);
+        assertEquals(0x80000000, Exponentials.expm1(Float32.NegativeZero, e).bits);
+        assertTrue(e.flags.isEmpty());
+    }
+
+    @Test
+    public void Specials() {
+        Environment e = new Environment();
+        assertEquals(Float64.Zero.bits, Exponentials.exp(Float64.NegativeInfinity, e).bits);
+        assertEquals(0xBFF00000_00000000L, Exponentials.expm1(Float64.NegativeInfinity, e).bits);
+        assertEquals(Float32.Infinity.bits, Exponentials.log(Float32.Infinity, e).bits);
+        assertTrue(e.flags.isEmpty());
+
+        assertEquals(Float64.NegativeInfinity.bits, Exponentials.log(Float64.NegativeZero, e).bits);
+        assertEquals(Float32.NegativeInfinity.bits, Exponentials.log1p(Float32.fromInteger(-1), e).bits);
+        assertEquals(EnumSet.of(Flags.divByZero), e.flags);
+
+        e = new Environment();
+        assertTrue(Exponentials.log(f64(-1), e).isNaN());
+        assertTrue(Exponentials.log1p(f64(-2), e).isNaN());
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+
+        e = new Environment();
+        assertEquals(0x7FC00001, Exponentials.exp(new Float32(0x7F800001), e).bits);
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+        e = new Environment();
+        assertEquals(0x7FC00001, Exponentials.exp(new Float32(0x7FC00001), e).bits);
+        assertTrue(e.flags.isEmpty());
+    }
+
+    @Test
+    public void OverflowAndUnderflow() {
+        Environment e = new Environment();
+        assertEquals(Float64.Infinity.bits, Exponentials.exp(f64(710), e).bits);
+        assertEquals(EnumSet.of(Flags.overflow, Flags.inexact), e.flags);
+        e = new Environment(RoundingMode.zero);
+        assertEquals(0x7FEFFFFF_FFFFFFFFL, Exponentials.exp2(f64(1e300), e).bits);
+
+        e = new Environment();
+        assertEquals(0, Exponentials.exp(f64(-800), e).bits);
+        assertEquals(EnumSet.of(Flags.underflow, Flags.inexact), e.flags);
+        assertEquals(1, Exponentials.exp(f64(-800), new Environment(RoundingMode.max)).bits);
+        assertEquals(0x00000001, Exponentials.exp2(new Float32(0xC3150000), new Environment()).bits); // 2^-149
+
+        e = new Environment();
+        assertEquals(0xBFF00000_00000000L, Exponentials.expm1(f64(-100), e).bits);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+        assertEquals(0xBFEFFFFF_FFFFFFFFL, Exponentials.expm1(f64(-100), new Environment(RoundingMode.zero)).bits);
+    }
+
+    @Test
+    public void TinyArguments() {
+        // e^x - 1 and log(1 + x) are just above and below x
+        Float64 tiny = f64(0x1p-80);
+        assertEquals(tiny.bits, Exponentials.expm1(tiny, new Environment(RoundingMode.min)).bits);
+        assertEquals(tiny.bits + 1, Exponentials.expm1(tiny, new Environment(RoundingMode.max)).bits);
+        assertEquals(tiny.bits - 1, Exponentials.log1p(tiny, new Environment(RoundingMode.min)).bits);
+        assertEquals(tiny.bits, Exponentials.log1p(tiny, new Environment(RoundingMode.max)).bits);
+        assertEquals(0x3FEFFFFF_FFFFFFFFL, Exponentials.exp(tiny.negate(), new Environment(RoundingMode.zero)).bits);
+        assertEquals(0x3FF00000_00000001L, Exponentials.exp(tiny, new Environment(RoundingMode.max)).bits);
+    }
+
+    private static <T extends Floating<T>> T accurate(int function, T a, Environment env) {
+        switch (function) {
+            case 0:
+                return Exponentials.exp(a, env);
+            case 1:
+                return Exponentials.exp2(a, env);
+            case 2:
+                return Exponentials.expm1(a, env);
+            case 3:
+                return Exponentials.log(a, env);
+            case 4:
+                return Exponentials.log2(a, env);
+            case 5:
+                return Exponentials.log10(a, env);
+            default:
+                return Exponentials.log1p(a, env);
+        }
+    }
+
+    private static Float64 fast(int function, Float64 a, Environment env) {
+        switch (function) {
+            case 0:
+                return Exponentials.exp(a, env);
+            case 1:
+                return Exponentials.exp2(a, env);
+            case 2:
+                return Exponentials.expm1(a, env);
+            case 3:
+                return Exponentials.log(a, env);
+            case 4:
+                return Exponentials.log2(a, env);
+            case 5:
+                return Exponentials.log10(a, env);
+            default:
+                return Exponentials.log1p(a, env);
+        }
+    }
+
+    @Test
+    public void MatchesAccuratePath() {
+        // The table driven path for Float64 has to agree with the generic multi-precision path
+        Random r = new Random(30);
+        for (int i = 0; i < 300; i++) {
+            double x = (i % 2 == 0) ? (r.nextDouble() - 0.5) * 1400 : Math.scalb(1 + r.nextDouble(), r.nextInt(120) - 60);
+            for (int function = 0; function < 7; function++) {
+                Float64 a = f64(function >= 3 && function < 6 ? Math.abs(x) : x);
+                for (RoundingMode mode : RoundingMode.values()) {
+                    Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                    long expected = accurate(function, a, e2).bits;
+                    assertEquals(expected, fast(function, a, e1).bits, "function " + function + " of " + x + " in " + mode);
+                    assertEquals(e2.flags, e1.flags);
+                }
+            }
+        }
+    }
+}
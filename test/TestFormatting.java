@@ -0,0 +1,103 @@
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.operations.Formatting;
+import jsoftfloat.types.Float32;
+import jsoftfloat.types.Float64;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFormatting {
+    @Test
+    public void ShortestFloat32() {
+        assertEquals("0.0", Float32.Zero.toString());
+        assertEquals("-0.0", Float32.NegativeZero.toString());
+        assertEquals("1.0", Float32.fromInteger(1).toString());
+        assertEquals("-512.0", Float32.fromInteger(-512).toString());
+        assertEquals("0.1", new Float32(0x3DCCCCCD).toString());
+        assertEquals("1.4E-45", new Float32(1).toString());
+        assertEquals("3.4028235E38", new Float32(0x7F7FFFFF).toString());
+        assertEquals("1.0E7", new Float32(0x4B189680).toString());
+        assertEquals("0.001", new Float32(0x3A83126F).toString());
+        assertEquals("Infinity", Float32.Infinity.toString());
+        assertEquals("-Infinity", Float32.NegativeInfinity.toString());
+    }
+
+    @Test
+    public void ShortestFloat64() {
+        assertEquals("0.1", new Float64(0x3FB99999_9999999AL).toString());
+        assertEquals("4.9E-324", new Float64(1).toString());
+        assertEquals("1.7976931348623157E308", new Float64(0x7FEFFFFF_FFFFFFFFL).toString());
+        assertEquals("1.0E23", new Float64(0x44B52D02_C7E14AF6L).toString());
+        assertEquals("123.456", new Float64(Double.doubleToRawLongBits(123.456)).toString());
+        assertEquals("9.007199254740992E15", new Float64(0x43400000_00000000L).toString());
+    }
+
+    @Test
+    public void NaNPayloads() {
+        assertEquals("NaN", Float32.NaN.toString());
+        assertEquals("NaN", Float64.NaN.toString());
+        assertEquals("NaN(0x3)", new Float32(0x7FC00003).toString());
+        assertEquals("-sNaN(0x1)", new Float32(0xFF800001).toString());
+        assertEquals("sNaN(0x1234)", new Float64(0x7FF00000_00001234L).toString());
+    }
+
+    @Test
+    public void RoundTrips() {
+        for (int i = 0; i < 100000; i++) {
+            long bits = ThreadLocalRandom.current().nextLong();
+            double d = Double.longBitsToDouble(bits);
+            if (Double.isNaN(d)) continue;
+            assertEquals(bits, Double.doubleToRawLongBits(Double.parseDouble(new Float64(bits).toString())));
+            float f = Float.intBitsToFloat((int) bits);
+            if (Float.isNaN(f)) continue;
+            assertEquals((int) bits, Float.floatToRawIntBits(Float.parseFloat(new Float32((int) bits).toString())));
+        }
+    }
+
+    @Test
+    public void Hexadecimal() {
+        assertEquals("0x1.8p3", Formatting.toHexString(new Float64(0x40280000_00000000L)));
+        assertEquals("-0x0.0p0", Formatting.toHexString(Float32.NegativeZero));
+        assertEquals("0x0.000002p-126", Formatting.toHexString(new Float32(1)));
+        assertEquals("NaN(0x3)", Formatting.toHexString(new Float32(0x7FC00003)));
+        for (int i = 0; i < 100000; i++) {
+            long bits = ThreadLocalRandom.current().nextLong();
+            double d = Double.longBitsToDouble(bits);
+            if (Double.isNaN(d)) continue;
+            assertEquals(Double.toHexString(d), Formatting.toHexString(new Float64(bits)));
+            float f = Float.intBitsToFloat((int) bits);
+            if (Float.isNaN(f)) continue;
+            assertEquals(Float.toHexString(f), Formatting.toHexString(new Float32((int) bits)));
+        }
+    }
+
+    @Test
+    public void FixedPrecision() {
+        Float64 twoThirds = new Float64(Double.doubleToRawLongBits(-2.0 / 3));
+        assertEquals("-6.6667E-1", Formatting.toString(twoThirds, 5, new Environment(RoundingMode.even)));
+        assertEquals("-6.6667E-1", Formatting.toString(twoThirds, 5, new Environment(RoundingMode.min)));
+        assertEquals("-6.6666E-1", Formatting.toString(twoThirds, 5, new Environment(RoundingMode.max)));
+        assertEquals("-6.6666E-1", Formatting.toString(twoThirds, 5, new Environment(RoundingMode.zero)));
+
+        // 0.125 is a tie at 2 digits
+        Float32 eighth = new Float32(0x3E000000);
+        assertEquals("1.2E-1", Formatting.toString(eighth, 2, new Environment(RoundingMode.even)));
+        assertEquals("1.3E-1", Formatting.toString(eighth, 2, new Environment(RoundingMode.away)));
+        assertEquals("1.3E-1", Formatting.toString(eighth, 2, new Environment(RoundingMode.odd)));
+        assertEquals("-6.6667E-1", Formatting.toString(twoThirds, 5, new Environment(RoundingMode.odd)));
+        assertEquals("-6.67E-1", Formatting.toString(twoThirds, 3, new Environment(RoundingMode.odd)));
+
+        Environment e = new Environment();
+        assertEquals("1.00E1", Formatting.toString(new Float64(Double.doubleToRawLongBits(9.9999)), 3, e));
+        assertTrue(e.flags.contains(Flags.inexact));
+
+        e = new Environment();
+        assertEquals("1.500E0", Formatting.toString(new Float32(0x3FC00000), 4, e));
+        assertEquals("-0.00E0", Formatting.toString(Float32.NegativeZero, 3, e));
+        assertTrue(e.flags.isEmpty());
+    }
+}
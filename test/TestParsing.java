@@ -0,0 +1,191 @@
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.operations.ByteChars;
+import jsoftfloat.operations.DecimalReader;
+import jsoftfloat.operations.Parsing;
+import jsoftfloat.types.Float32;
+import jsoftfloat.types.Float64;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestParsing {
+    private static long parse64(String s, RoundingMode mode) {
+        return Parsing.parseFloat64(s, new Environment(mode)).bits;
+    }
+
+    @Test
+    public void ExactValues() {
+        Environment e = new Environment();
+        assertEquals(0x3FF00000_00000000L, Parsing.parseFloat64("1", e).bits);
+        assertEquals(0xC0600000_00000000L, Parsing.parseFloat64("-128.000", e).bits);
+        assertEquals(0x3EC00000, Parsing.parseFloat32("0.375", e).bits);
+        assertEquals(0x80000000, Parsing.parseFloat32("-0e10", e).bits);
+        assertEquals(0x44B52D02_C7E14AF6L, Parsing.parseFloat64("1e23", e).bits);
+        e.flags.clear();
+        assertEquals(0x4B189680, Parsing.parseFloat32("1.0E7", e).bits);
+        assertEquals(1, Parsing.parseFloat64("4.9406564584124654E-324", new Environment()).bits);
+        assertTrue(e.flags.isEmpty());
+    }
+
+    @Test
+    public void RoundingModes() {
+        // 0.1 lies between 0x3FB999999999999A (above) and 0x3FB9999999999999 (below)
+        assertEquals(0x3FB99999_9999999AL, parse64("0.1", RoundingMode.even));
+        assertEquals(0x3FB99999_9999999AL, parse64("0.1", RoundingMode.away));
+        assertEquals(0x3FB99999_9999999AL, parse64("0.1", RoundingMode.max));
+        assertEquals(0x3FB99999_99999999L, parse64("0.1", RoundingMode.min));
+        assertEquals(0x3FB99999_99999999L, parse64("0.1", RoundingMode.zero));
+        assertEquals(0xBFB99999_9999999AL, parse64("-0.1", RoundingMode.min));
+        assertEquals(0xBFB99999_99999999L, parse64("-0.1", RoundingMode.max));
+
+        // 2^53 + 1 is a tie
+        assertEquals(0x43400000_00000000L, parse64("9007199254740993", RoundingMode.even));
+        assertEquals(0x43400000_00000001L, parse64("9007199254740993", RoundingMode.away));
+        // Just above the tie, only visible past the 19th digit
+        assertEquals(0x43400000_00000001L, parse64("9007199254740993.00000000000000000001", RoundingMode.even));
+
+        Environment e = new Environment();
+        Parsing.parseFloat64("0.1", e);
+        assertTrue(e.flags.contains(Flags.inexact));
+    }
+
+    @Test
+    public void OverflowAndUnderflow() {
+        Environment e = new Environment();
+        assertEquals(Float64.Infinity.bits, Parsing.parseFloat64("1e309", e).bits);
+        assertTrue(e.flags.contains(Flags.overflow));
+        assertEquals(0x7FEFFFFF_FFFFFFFFL, parse64("1e309", RoundingMode.zero));
+        assertEquals(0x7F7FFFFF, Parsing.parseFloat32("1e100", new Environment(RoundingMode.min)).bits);
+
+        e = new Environment();
+        assertEquals(0, Parsing.parseFloat64("1e-400", e).bits);
+        assertTrue(e.flags.contains(Flags.underflow));
+        assertTrue(e.flags.contains(Flags.inexact));
+        assertEquals(1, parse64("1e-400", RoundingMode.max));
+        assertEquals(0x80000001, Parsing.parseFloat32("-1e-50", new Environment(RoundingMode.min)).bits);
+
+        // An exact subnormal does not underflow
+        e = new Environment();
+        assertEquals(1, Parsing.parseFloat32("1.40129846432481707092372958328991613128026194187651577175706828388979108268586060148663818836212158203125e-45", e).bits);
+        assertTrue(e.flags.isEmpty());
+    }
+
+    @Test
+    public void Specials() {
+        Environment e = new Environment();
+        assertEquals(Float64.Infinity.bits, Parsing.parseFloat64("Infinity", e).bits);
+        assertEquals(Float32.NegativeInfinity.bits, Parsing.parseFloat32("-inf", e).bits);
+        assertEquals(Float32.NaN.bits, Parsing.parseFloat32("NaN", e).bits);
+        assertEquals(0x7FC00003, Parsing.parseFloat32("NaN(0x3)", e).bits);
+        assertEquals(0xFF800001, Parsing.parseFloat32("-sNaN(0x1)", e).bits);
+        assertTrue(e.flags.isEmpty());
+
+        for (String bad : new String[]{"", "-", "1e", ".", "1.2.3", "0x", "0x1.8q3", "NaN(", "1 "}) {
+            assertThrows(NumberFormatException.class, () -> Parsing.parseFloat64(bad, new Environment()), bad);
+        }
+    }
+
+    @Test
+    public void MatchesJava() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        for (int i = 0; i < 100000; i++) {
+            double d = Double.longBitsToDouble(r.nextLong());
+            if (Double.isNaN(d)) continue;
+            String s = Double.toString(d);
+            assertEquals(Double.doubleToRawLongBits(d), Parsing.parseFloat64(s, new Environment()).bits, s);
+            // A random digit string in the middle of the range
+            String digits = r.nextLong(1, Long.MAX_VALUE) + "" + r.nextInt(1000000) + "e" + r.nextInt(-340, 300);
+            assertEquals(Double.doubleToRawLongBits(Double.parseDouble(digits)), Parsing.parseFloat64(digits, new Environment()).bits, digits);
+            assertEquals(Float.floatToRawIntBits(Float.parseFloat(digits)), Parsing.parseFloat32(digits, new Environment()).bits, digits);
+        }
+    }
+
+    @Test
+    public void Hexadecimal() {
+        Environment e = new Environment();
+        assertEquals(0x40280000_00000000L, Parsing.parseHexFloat64("0x1.8p3", e).bits);
+        assertEquals(0xC1400000, Parsing.parseHexFloat32("-0X1.8P+3", e).bits);
+        assertEquals(0x00000001, Parsing.parseHexFloat32("0x0.000002p-126", e).bits);
+        assertEquals(0x3F800000, Parsing.parseHexFloat32("0x.1p4", e).bits);
+        assertEquals(0x3F800000, Parsing.parseHexFloat32("0x100p-8", e).bits);
+        assertEquals(0x40280000_00000000L, Parsing.parseFloat64("0x1.8p3", e).bits);
+        assertTrue(e.flags.isEmpty());
+
+        // 0x1.000001p0 is halfway between two binary32 values
+        assertEquals(0x3F800000, Parsing.parseHexFloat32("0x1.000001p0", new Environment(RoundingMode.even)).bits);
+        assertEquals(0x3F800001, Parsing.parseHexFloat32("0x1.000001p0", new Environment(RoundingMode.away)).bits);
+        assertEquals(0x3F800001, Parsing.parseHexFloat32("0x1.00000100000000000000001p0", new Environment(RoundingMode.even)).bits);
+        assertEquals(0xBF800001, Parsing.parseHexFloat32("-0x1.0000001p0", new Environment(RoundingMode.min)).bits);
+        e = new Environment();
+        Parsing.parseHexFloat32("0x1.0000001p0", e);
+        assertTrue(e.flags.contains(Flags.inexact));
+
+        e = new Environment();
+        assertEquals(Float64.Infinity.bits, Parsing.parseHexFloat64("0x1p1024", e).bits);
+        assertTrue(e.flags.contains(Flags.overflow));
+        e = new Environment();
+        assertEquals(0, Parsing.parseHexFloat64("0x1p-99999999999", e).bits);
+        assertTrue(e.flags.contains(Flags.underflow));
+
+        ByteChars bytes = new ByteChars("x=0x1.4p1;".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(0x40200000, Parsing.parseHexFloat32Bits(bytes, 2, 9, new Environment()));
+
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        for (int i = 0; i < 10000; i++) {
+            double d = Double.longBitsToDouble(r.nextLong());
+            if (Double.isNaN(d)) continue;
+            assertEquals(Double.doubleToRawLongBits(d), Parsing.parseHexFloat64(Double.toHexString(d), new Environment()).bits);
+            float f = (float) d;
+            assertEquals(Float.floatToRawIntBits(f), Parsing.parseHexFloat32(Double.toHexString(d), new Environment()).bits);
+        }
+        for (String bad : new String[]{"", "0x", "1.5p3", "0x1.8p", "0xg", "0x1.8p3f", "0x1..8"}) {
+            assertThrows(NumberFormatException.class, () -> Parsing.parseHexFloat64(bad, new Environment()), bad);
+        }
+    }
+
+    @Test
+    public void BulkReader() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        long[] expected = new long[50000];
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        for (int i = 0; i < expected.length; i++) {
+            double d = r.nextDouble(-1e6, 1e6);
+            expected[i] = Double.doubleToRawLongBits(d);
+            sb.append(d).append(i % 7 == 0 ? "\r\n" : ", ");
+        }
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.US_ASCII);
+
+        // Reading from a channel crosses many buffer boundaries
+        DecimalReader reader = new DecimalReader(Channels.newChannel(new ByteArrayInputStream(bytes)), new Environment());
+        long[] actual = new long[expected.length];
+        int n = 0, read;
+        while ((read = reader.readFloat64(actual, n, Math.min(1000, actual.length - n))) > 0) {
+            n += read;
+        }
+        assertEquals(expected.length, n);
+        assertArrayEquals(expected, actual);
+        assertEquals(-1, reader.readFloat64(actual, 0, 1));
+
+        reader = new DecimalReader(ByteBuffer.wrap(bytes), new Environment());
+        actual = new long[expected.length + 1];
+        assertEquals(expected.length, reader.readFloat64(actual, 0, actual.length));
+        assertEquals(expected[expected.length - 1], actual[expected.length - 1]);
+
+        // A token longer than the buffer
+        String longNumber = "1." + "0".repeat(100000) + "1";
+        reader = new DecimalReader(Channels.newChannel(new ByteArrayInputStream(("0.5;" + longNumber + ";2").getBytes(StandardCharsets.US_ASCII))), new Environment());
+        int[] floats = new int[4];
+        assertEquals(3, reader.readFloat32(floats, 0, 4));
+        assertEquals(0x3F000000, floats[0]);
+        assertEquals(0x3F800000, floats[1]);
+        assertEquals(0x40000000, floats[2]);
+    }
+}
@@ -0,0 +1,160 @@
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.operations.Trigonometry;
+import jsoftfloat.types.Float32;
+import jsoftfloat.types.Float64;
+import jsoftfloat.types.Floating;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTrigonometry {
+    private static Float64 f64(double d) {
+        return new Float64(Double.doubleToRawLongBits(d));
+    }
+
+    @Test
+    public void KnownValues() {
+        Environment e = new Environment();
+        assertEquals(0x3FEAED54_8F090CEEL, Trigonometry.sin(f64(1), e).bits);
+        assertEquals(0x3FE14A28_0FB5068CL, Trigonometry.cos(f64(1), e).bits);
+        assertEquals(0x3FF8EB24_5CBEE3A6L, Trigonometry.tan(f64(1), e).bits);
+        assertEquals(0x3FE921FB_54442D18L, Trigonometry.atan(f64(1), e).bits);
+        assertEquals(0x3FEBB67A_E8584CAAL, Trigonometry.sinPi(f64(1.0 / 3), e).bits);
+        assertEquals(0x4002D97C_7F3321D2L, Trigonometry.atan2(f64(1), f64(-1), e).bits);
+        assertEquals(0x3F576AA4, Trigonometry.sin(Float32.fromInteger(1), e).bits);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+
+        assertEquals(0x3FEAED54_8F090CEFL, Trigonometry.sin(f64(1), new Environment(RoundingMode.max)).bits);
+        assertEquals(0x3FE14A28_0FB5068BL, Trigonometry.cos(f64(1), new Environment(RoundingMode.zero)).bits);
+        assertEquals(0x3FE921FB_54442D19L, Trigonometry.atan(f64(1), new Environment(RoundingMode.max)).bits);
+    }
+
+    @Test
+    public void HugeArguments() {
+        // These need many bits of 2/pi to reduce; the second is the closest double to a multiple of pi/2
+        Environment e = new Environment();
+        assertEquals(0xBFEB453A_B76BF397L, Trigonometry.sin(f64(1e22), e).bits);
+        assertEquals(0xBFEFFFE6_2ECFAB75L, Trigonometry.cos(f64(Double.MAX_VALUE), e).bits);
+        Float64 hard = f64(Math.scalb(6381956970095103.0, 797));
+        assertEquals(0x3FF00000_00000000L, Trigonometry.sin(hard, e).bits);
+        assertEquals(0x3FEFFFFF_FFFFFFFFL, Trigonometry.sin(hard, new Environment(RoundingMode.zero)).bits);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+    }
+
+    @Test
+    public void ExactResults() {
+        Environment e = new Environment();
+        assertEquals(0x3FF00000_00000000L, Trigonometry.sinPi(f64(0.5), e).bits);
+        assertEquals(0xBFF00000_00000000L, Trigonometry.cosPi(f64(3), e).bits);
+        assertEquals(Float64.Zero.bits, Trigonometry.sinPi(f64(2), e).bits);
+        assertEquals(Float64.NegativeZero.bits, Trigonometry.sinPi(f64(-2), e).bits);
+        assertEquals(0x3FF00000_00000000L, Trigonometry.cosPi(f64(1e300), e).bits);
+        assertEquals(Float64.Zero.bits, Trigonometry.cosPi(f64(-2.5), e).bits);
+        assertEquals(0x3F800000, Trigonometry.cos(Float32.NegativeZero, e).bits);
+        assertEquals(0x80000000, Trigonometry.tan(Float32.NegativeZero, e).bits);
+        assertEquals(Float64.NegativeZero.bits, Trigonometry.atan2(Float64.NegativeZero, f64(1), e).bits);
+        assertTrue(e.flags.isEmpty());
+    }
+
+    @Test
+    public void Specials() {
+        Environment e = new Environment();
+        assertTrue(Trigonometry.sin(Float64.Infinity, e).isNaN());
+        assertTrue(Trigonometry.cosPi(Float32.NegativeInfinity, e).isNaN());
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+
+        e = new Environment();
+        assertEquals(0x3FF921FB_54442D18L, Trigonometry.atan(Float64.Infinity, e).bits);
+        assertEquals(0x400921FB_54442D18L, Trigonometry.atan2(f64(0), f64(-0.0), e).bits);
+        assertEquals(0xC002D97C_7F3321D2L, Trigonometry.atan2(Float64.NegativeInfinity, Float64.NegativeInfinity, e).bits);
+        assertEquals(0x3FF921FB_54442D18L, Trigonometry.atan2(f64(1), f64(0), e).bits);
+        assertEquals(0x40490FDB, Trigonometry.atan2(Float32.Zero, Float32.fromInteger(-1), e).bits);
+        assertEquals(EnumSet.of(Flags.inexact), e.flags);
+
+        e = new Environment();
+        assertEquals(0x7FC00001, Trigonometry.sin(new Float32(0x7F800001), e).bits);
+        assertEquals(EnumSet.of(Flags.invalid), e.flags);
+        e = new Environment();
+        assertEquals(0x7FC00001, Trigonometry.atan2(new Float32(0x7FC00001), Float32.Zero, e).bits);
+        assertTrue(e.flags.isEmpty());
+    }
+
+    @Test
+    public void TinyArguments() {
+        // sin and atan are just below x, tan just above and cos just below 1
+        Float64 tiny = f64(0x1p-40);
+        assertEquals(tiny.bits - 1, Trigonometry.sin(tiny, new Environment(RoundingMode.zero)).bits);
+        assertEquals(tiny.bits, Trigonometry.sin(tiny, new Environment(RoundingMode.max)).bits);
+        assertEquals(tiny.bits - 1, Trigonometry.atan(tiny, new Environment(RoundingMode.min)).bits);
+        assertEquals(tiny.bits, Trigonometry.tan(tiny, new Environment(RoundingMode.min)).bits);
+        assertEquals(tiny.bits + 1, Trigonometry.tan(tiny, new Environment(RoundingMode.max)).bits);
+        assertEquals(0x3FEFFFFF_FFFFFFFFL, Trigonometry.cos(tiny, new Environment(RoundingMode.zero)).bits);
+        assertEquals(0x3FF00000_00000000L, Trigonometry.cos(tiny, new Environment()).bits);
+
+        Environment e = new Environment();
+        assertEquals(1, Trigonometry.sin(new Float64(1), e).bits);
+        assertEquals(EnumSet.of(Flags.underflow, Flags.inexact), e.flags);
+    }
+
+    private static <T extends Floating<T>> T accurate(int function, T a, T b, Environment env) {
+        switch (function) {
+            case 0:
+                return Trigonometry.sin(a, env);
+            case 1:
+                return Trigonometry.cos(a, env);
+            case 2:
+                return Trigonometry.tan(a, env);
+            case 3:
+                return Trigonometry.sinPi(a, env);
+            case 4:
+                return Trigonometry.cosPi(a, env);
+            case 5:
+                return Trigonometry.atan(a, env);
+            default:
+                return Trigonometry.atan2(a, b, env);
+        }
+    }
+
+    private static Float64 fast(int function, Float64 a, Float64 b, Environment env) {
+        switch (function) {
+            case 0:
+                return Trigonometry.sin(a, env);
+            case 1:
+                return Trigonometry.cos(a, env);
+            case 2:
+                return Trigonometry.tan(a, env);
+            case 3:
+                return Trigonometry.sinPi(a, env);
+            case 4:
+                return Trigonometry.cosPi(a, env);
+            case 5:
+                return Trigonometry.atan(a, env);
+            default:
+                return Trigonometry.atan2(a, b, env);
+        }
+    }
+
+    @Test
+    public void MatchesAccuratePath() {
+        // The table driven path for Float64 has to agree with the generic multi-precision path
+        Random r = new Random(31);
+        for (int i = 0; i < 200; i++) {
+            double x = (i % 2 == 0) ? (r.nextDouble() - 0.5) * 20 : Math.scalb(1 + r.nextDouble(), r.nextInt(200) - 60);
+            double y = Math.scalb(r.nextDouble() - 0.5, r.nextInt(40) - 20);
+            for (int function = 0; function < 7; function++) {
+                Float64 a = f64(x), b = f64(y);
+                for (RoundingMode mode : RoundingMode.values()) {
+                    Environment e1 = new Environment(mode), e2 = new Environment(mode);
+                    long expected = accurate(function, a, b, e2).bits;
+                    assertEquals(expected, fast(function, a, b, e1).bits, "function " + function + " of " + x + ", " + y + " in " + mode);
+                    assertEquals(e2.flags, e1.flags);
+                }
+            }
+        }
+    }
+}
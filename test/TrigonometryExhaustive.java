@@ -0,0 +1,213 @@
+import jsoftfloat.Environment;
+import jsoftfloat.Flags;
+import jsoftfloat.RoundingMode;
+import jsoftfloat.operations.Trigonometry;
+import jsoftfloat.types.Float32;
+import jsoftfloat.types.Floating;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exhaustive test of the binary32 trigonometric functions in every rounding mode.
+ * <p>
+ * The oracle is the double result of StrictMath, which is accurate to a few ulps of binary64. If the true value
+ * within that error rounds to the same binary32 number it must be the result. Otherwise the input is close to a
+ * rounding boundary and the generic multi-precision implementation is used as the oracle instead. Exact results and
+ * special values go to it directly.
+ * <p>
+ * Every -Djsoftfloat.exhaustive.stride th bit pattern is tested. The default of 4099 samples about a million of
+ * them; the full sweep with a stride of 1 is opt-in, as it takes a while even spread over all processors.
+ */
+public class TrigonometryExhaustive {
+    private static final long STRIDE = Long.getLong("jsoftfloat.exhaustive.stride", 4099);
+    private static final int SIN = 0, COS = 1, TAN = 2, SINPI = 3, COSPI = 4, ATAN = 5;
+
+    @Test
+    void ExhaustiveSin() {
+        exhaust(SIN);
+    }
+
+    @Test
+    void ExhaustiveCos() {
+        exhaust(COS);
+    }
+
+    @Test
+    void ExhaustiveTan() {
+        exhaust(TAN);
+    }
+
+    @Test
+    void ExhaustiveSinPi() {
+        exhaust(SINPI);
+    }
+
+    @Test
+    void ExhaustiveCosPi() {
+        exhaust(COSPI);
+    }
+
+    @Test
+    void ExhaustiveAtan() {
+        exhaust(ATAN);
+    }
+
+    private void exhaust(int function) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            int chunks = 4 * threads;
+            long size = (1L << 32) / chunks;
+            for (int c = 0; c < chunks; c++) {
+                long start = c * size, end = c == chunks - 1 ? 1L << 32 : start + size;
+                results.add(pool.submit(() -> run(function, start, end)));
+            }
+            for (Future<long[]> f : results) {
+                long[] failure = f.get();
+                if (failure != null) {
+                    Float32 a = new Float32((int) failure[0]);
+                    RoundingMode mode = RoundingMode.values()[(int) failure[1]];
+                    fail("function " + function + " of " + Float.intBitsToFloat(a.bits) + " (0x" +
+                            Integer.toHexString(a.bits) + ") in " + mode + ": expected 0x" + Integer.toHexString((int) failure[2]) +
+                            " but got 0x" + Integer.toHexString((int) failure[3]));
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Returns {input, mode, expected, actual} of the first failure or null
+    private static long[] run(int function, long start, long end) {
+        long first = (start + STRIDE - 1) / STRIDE * STRIDE;
+        for (long i = first; i < end; i += STRIDE) {
+            Float32 a = new Float32((int) i);
+            double x = Float.intBitsToFloat(a.bits);
+            double reference = Double.NaN, tolerance = 0;
+            if (a.isNaN() || a.isZero() || (a.isInfinite() && function != ATAN)) {
+                reference = Double.NaN;
+            } else if (function == SINPI || function == COSPI) {
+                double n = Math.rint(2 * x), r = x - n / 2;
+                if (r != 0) {
+                    int quadrant = Math.floorMod((long) n, 4) + (function == COSPI ? 1 : 0);
+                    double s = StrictMath.sin(Math.PI * r), c = StrictMath.cos(Math.PI * r);
+                    reference = (quadrant & 1) == 0 ? s : c;
+                    if ((quadrant & 3) >= 2) reference = -reference;
+                    tolerance = 4 * Math.ulp(reference);
+                }
+            } else if (Math.abs(x) < 0x1p-25) {
+                // The result is so close to x or 1 that any double between it and its neighbour rounds the same
+                if (function == COS) {
+                    reference = Math.nextDown(1.0);
+                } else {
+                    reference = function == TAN ? Math.nextUp(Math.abs(x)) : Math.nextDown(Math.abs(x));
+                    reference = Math.copySign(reference, x);
+                }
+            } else {
+                reference = function == SIN ? StrictMath.sin(x) : function == COS ? StrictMath.cos(x) :
+                        function == TAN ? StrictMath.tan(x) : StrictMath.atan(x);
+                tolerance = 2 * Math.ulp(reference);
+            }
+
+            for (RoundingMode mode : RoundingMode.values()) {
+                // There is no single expected result to check
+                if (mode == RoundingMode.stochastic) continue;
+                Environment env = new Environment(mode);
+                int actual = fast(function, a, env).bits;
+                int expected = expected(reference - tolerance, reference + tolerance, mode);
+                EnumSet<Flags> flags = EnumSet.of(Flags.inexact);
+                double magnitude = Math.abs(reference) - tolerance;
+                if (expected != -1 && magnitude < 0x1p-126) {
+                    if (Math.abs(reference) + tolerance >= 0x1p-126) {
+                        expected = -1;
+                    } else {
+                        flags.add(Flags.underflow);
+                    }
+                }
+                if (expected == -1) {
+                    // Too close to call, so ask the generic implementation
+                    Environment oracle = new Environment(mode);
+                    expected = accurate(function, a, oracle).bits;
+                    flags = oracle.flags;
+                    if (a.isNaN() && Float.isNaN(Float.intBitsToFloat(actual))) actual = expected;
+                }
+                if (actual != expected || !env.flags.equals(flags)) {
+                    return new long[]{i, mode.ordinal(), expected, actual};
+                }
+            }
+        }
+        return null;
+    }
+
+    // The rounded result if both ends of the interval round the same way, -1 otherwise
+    private static int expected(double low, double high, RoundingMode mode) {
+        if (Double.isNaN(low)) return -1;
+        int a = round(low, mode), b = round(high, mode);
+        return a == b ? a : -1;
+    }
+
+    private static int round(double v, RoundingMode mode) {
+        float f = (float) v;
+        if (f == v) return -1;
+        switch (mode) {
+            case even:
+            case away:
+                float other = f > v ? Math.nextDown(f) : Math.nextUp(f);
+                return ((double) f + other) / 2 == v ? -1 : Float.floatToRawIntBits(f);
+            case min:
+                return Float.floatToRawIntBits(f > v ? Math.nextDown(f) : f);
+            case max:
+                return Float.floatToRawIntBits(f < v ? Math.nextUp(f) : f);
+            case odd:
+                return (Float.floatToRawIntBits(f) & 1) != 0 ? Float.floatToRawIntBits(f) : Float.floatToRawIntBits(f > v ? Math.nextDown(f) : Math.nextUp(f));
+            case zero:
+            default:
+                return Float.floatToRawIntBits(Math.abs(f) > Math.abs(v) ? (v > 0 ? Math.nextDown(f) : Math.nextUp(f)) : f);
+        }
+    }
+
+    private static Float32 fast(int function, Float32 a, Environment env) {
+        switch (function) {
+            case SIN:
+                return Trigonometry.sin(a, env);
+            case COS:
+                return Trigonometry.cos(a, env);
+            case TAN:
+                return Trigonometry.tan(a, env);
+            case SINPI:
+                return Trigonometry.sinPi(a, env);
+            case COSPI:
+                return Trigonometry.cosPi(a, env);
+            default:
+                return Trigonometry.atan(a, env);
+        }
+    }
+
+    private static <T extends Floating<T>> T accurate(int function, T a, Environment env) {
+        switch (function) {
+            case SIN:
+                return Trigonometry.sin(a, env);
+            case COS:
+                return Trigonometry.cos(a, env);
+            case TAN:
+                return Trigonometry.tan(a, env);
+            case SINPI:
+                return Trigonometry.sinPi(a, env);
+            case COSPI:
+                return Trigonometry.cosPi(a, env);
+            default:
+                return Trigonometry.atan(a, env);
+        }
+    }
+}